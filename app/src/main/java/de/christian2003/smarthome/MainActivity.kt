@@ -1,6 +1,7 @@
 package de.christian2003.smarthome
 
 import android.content.Context
+import android.net.Uri
 import android.os.Bundle
 import androidx.activity.ComponentActivity
 import androidx.activity.compose.setContent
@@ -98,21 +99,17 @@ fun SmartHome(
                     onNavigateToSettings = {
                         navController.navigate("settings")
                     },
-                    onNavigateToRoom = { position ->
-                        navController.navigate("room/$position")
+                    onNavigateToRoom = { key ->
+                        navController.navigate("room/${Uri.encode(key)}")
                     },
                     onFinishActivity = onFinishActivity
                 )
             }
-            composable("room/{position}") { backStackEntry ->
-                val position: Int? = try {
-                    backStackEntry.arguments?.getString("position")!!.toInt()
-                } catch (e: Exception) {
-                    null
-                }
-                if (position != null) {
+            composable("room/{key}") { backStackEntry ->
+                val key: String? = backStackEntry.arguments?.getString("key")
+                if (key != null) {
                     val roomViewModel: RoomViewModel = viewModel()
-                    roomViewModel.init(SmartHomeRepository.getInstance(LocalContext.current), position)
+                    roomViewModel.init(SmartHomeRepository.getInstance(LocalContext.current), key)
 
                     RoomView(
                         viewModel = roomViewModel,
@@ -4,11 +4,13 @@ import androidx.car.app.CarContext
 import androidx.car.app.Screen
 import androidx.car.app.annotations.ExperimentalCarApi
 import androidx.car.app.model.Action
+import androidx.car.app.model.MessageTemplate
 import androidx.car.app.model.Pane
 import androidx.car.app.model.PaneTemplate
 import androidx.car.app.model.Template
 import androidx.lifecycle.lifecycleScope
 import de.christian2003.smarthome.data.model.SmartHomeRepository
+import de.christian2003.smarthome.data.model.extraction.ShRoomBatchCallback
 import de.christian2003.smarthome.data.model.extraction.ShWebpageContentCallback
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
@@ -16,7 +18,9 @@ import kotlinx.coroutines.withContext
 
 
 /**
- * Class implements the loading screen. This screen is displayed to the user while the data loads.
+ * Class implements the loading screen. This screen is displayed to the user while the data loads. If
+ * the last known data is available, the main screen is displayed immediately and refreshed once the data
+ * is revalidated. Otherwise, the main screen is displayed once the "gesamtstatus" is extracted.
  */
 @ExperimentalCarApi
 class LoadingScreen(carContext: CarContext): Screen(carContext) {
@@ -32,16 +36,36 @@ class LoadingScreen(carContext: CarContext): Screen(carContext) {
     private var callback = ShWebpageContentCallback { success, sslTrustResponse ->
         lifecycleScope.launch {
             withContext(Dispatchers.Main) {
-                if (success && repository != null) {
-                    screenManager.push(MainScreen(carContext, repository!!.rooms))
-                }
-                else {
-                    carContext.finishCarApp() //Close on error
+                onDataLoaded(success)
+            }
+        }
+    }
+
+    /**
+     * Attribute stores a callback that is invoked whenever rooms are published while the data still loads.
+     * The "gesamtstatus" is extracted before all other rooms, therefore the main screen is displayed as soon
+     * as the "gesamtstatus" is available and refreshed while the remaining rooms are extracted.
+     */
+    private var roomBatchCallback = ShRoomBatchCallback { _ ->
+        lifecycleScope.launch {
+            withContext(Dispatchers.Main) {
+                if (repository?.gesamtstatus != null || mainScreen != null) {
+                    showMainScreen()
                 }
             }
         }
     }
 
+    /**
+     * Attribute stores the main screen once it is displayed.
+     */
+    private var mainScreen: MainScreen? = null
+
+    /**
+     * Attribute indicates whether loading the data failed while no data is available.
+     */
+    private var loadingFailed: Boolean = false
+
 
     /**
      * Method creates the template for the loading screen.
@@ -49,6 +73,36 @@ class LoadingScreen(carContext: CarContext): Screen(carContext) {
      * @return  Template for the screen.
      */
     override fun onGetTemplate(): Template {
+        if (repository == null) {
+            repository = SmartHomeRepository.getInstance(carContext.baseContext, callback)
+            repository!!.roomBatchCallback = roomBatchCallback
+            if (repository!!.rooms.isNotEmpty()) {
+                //Display the last known data while it is revalidated:
+                lifecycleScope.launch {
+                    withContext(Dispatchers.Main) {
+                        showMainScreen()
+                    }
+                }
+            }
+        }
+
+        if (loadingFailed) {
+            return MessageTemplate.Builder(carContext.baseContext.getString(de.christian2003.smarthome.data.R.string.car_loading_failed))
+                .setHeaderAction(Action.APP_ICON)
+                .setTitle(carContext.baseContext.getString(de.christian2003.smarthome.data.R.string.app_name))
+                .addAction(
+                    Action.Builder()
+                        .setTitle(carContext.baseContext.getString(de.christian2003.smarthome.data.R.string.car_retry))
+                        .setOnClickListener {
+                            loadingFailed = false
+                            repository?.restartFetchingData()
+                            invalidate()
+                        }
+                        .build()
+                )
+                .build()
+        }
+
         val pane = Pane.Builder().setLoading(true).build() //Do NOT add row to pane that is set to "loading".
 
         val paneTemplate = PaneTemplate.Builder(pane)
@@ -56,9 +110,41 @@ class LoadingScreen(carContext: CarContext): Screen(carContext) {
             .setTitle(carContext.baseContext.getString(de.christian2003.smarthome.data.R.string.app_name))
             .build()
 
-        repository = SmartHomeRepository.getInstance(carContext.baseContext, callback)
-
         return paneTemplate
     }
 
+
+    /**
+     * Method is called once the data is loaded. The main screen is displayed if any data is available,
+     * even if the data could not be revalidated.
+     *
+     * @param success   Whether the data was loaded successfully.
+     */
+    private fun onDataLoaded(success: Boolean) {
+        if (repository == null) {
+            return
+        }
+        if (success || repository!!.rooms.isNotEmpty()) {
+            showMainScreen()
+        }
+        else {
+            loadingFailed = true
+            invalidate()
+        }
+    }
+
+
+    /**
+     * Method displays the main screen or refreshes it if it is already displayed.
+     */
+    private fun showMainScreen() {
+        if (mainScreen == null) {
+            mainScreen = MainScreen(carContext, repository!!)
+            screenManager.push(mainScreen!!)
+        }
+        else {
+            mainScreen!!.invalidate()
+        }
+    }
+
 }
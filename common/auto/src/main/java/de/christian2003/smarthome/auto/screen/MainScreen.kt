@@ -1,5 +1,6 @@
 package de.christian2003.smarthome.auto.screen
 
+import android.text.format.DateUtils
 import androidx.car.app.CarContext
 import androidx.car.app.Screen
 import androidx.car.app.annotations.ExperimentalCarApi
@@ -15,8 +16,13 @@ import androidx.car.app.model.TabTemplate.TabCallback
 import androidx.car.app.model.Template
 import androidx.core.graphics.drawable.IconCompat
 import de.christian2003.smarthome.auto.model.TabInfo
+import de.christian2003.smarthome.data.model.SmartHomeRepository
+import de.christian2003.smarthome.data.model.devices.ShLightState
+import de.christian2003.smarthome.data.model.devices.ShOpeningState
+import de.christian2003.smarthome.data.model.room.ShHomeIndex
 import de.christian2003.smarthome.data.model.room.ShInfoText
 import de.christian2003.smarthome.data.model.room.ShRoom
+import java.util.IdentityHashMap
 
 
 /**
@@ -26,9 +32,23 @@ import de.christian2003.smarthome.data.model.room.ShRoom
 @ExperimentalCarApi
 class MainScreen(
     carContext: CarContext,
-    private val rooms: List<ShRoom>
+    private val repository: SmartHomeRepository
 ): Screen(carContext), TabCallback {
 
+    /**
+     * Attribute stores the rooms to display. The rooms are read from the repository whenever the screen
+     * is invalidated, so that revalidated data is displayed.
+     */
+    private val rooms: List<ShRoom>
+        get() = repository.rooms
+
+    /**
+     * Attribute stores whether the first room displays the general stats. While the rooms are still
+     * extracted, the first room might be a regular room if the "gesamtstatus" has not been found yet.
+     */
+    private val hasGeneralStatus: Boolean
+        get() = rooms.isNotEmpty() && (rooms[0].isGesamtstatusElement || !repository.isLoading)
+
     /**
      * Attribute stores info for the home tab displaying the general stats.
      */
@@ -44,6 +64,13 @@ class MainScreen(
      */
     private var activeTabId: String = homeTab.tabId
 
+    /**
+     * Attribute stores the rows of the rooms displayed last. Rooms which did not change are reused by the
+     * repository between refreshes, therefore their rows are looked up by the identity of the rooms
+     * instead of being built again.
+     */
+    private var roomRows = IdentityHashMap<ShRoom, Row>()
+
 
     /**
      * Method creates the template for the screen.
@@ -111,12 +138,50 @@ class MainScreen(
     private fun getHomeTabTemplate(): Template {
         val builder = ItemList.Builder()
 
-        if (rooms.isNotEmpty()) {
-            rooms[0].infos.forEach { infoText ->
+        val staleSince = repository.staleSince
+        if (staleSince != null) {
+            val time = DateUtils.formatDateTime(carContext.baseContext, staleSince, DateUtils.FORMAT_SHOW_DATE or DateUtils.FORMAT_SHOW_TIME)
+            builder.addItem(Row.Builder()
+                .setTitle(carContext.baseContext.getString(de.christian2003.smarthome.data.R.string.car_stale).replace("{time}", time))
+                .build()
+            )
+        }
+
+        //The "gesamtstatus" is published before the remaining rooms are extracted:
+        val gesamtstatus = repository.gesamtstatus ?: if (hasGeneralStatus) { rooms[0] } else { null }
+        if (gesamtstatus != null) {
+            gesamtstatus.infos.forEach { infoText ->
                 builder.addItem(buildRow(infoText))
             }
         }
 
+        val energy = repository.energy
+        if (energy.isMeasured) {
+            builder.addItem(Row.Builder()
+                .setTitle(carContext.baseContext.getString(de.christian2003.smarthome.data.R.string.car_energy)
+                    .replace("{milliAmp}", energy.milliAmpText)
+                    .replace("{wh}", energy.whText))
+                .build()
+            )
+        }
+
+        //The counts are looked up in the indexes instead of walking through all rooms:
+        val homeIndex = repository.homeIndex
+        if (homeIndex.deviceCount > 0) {
+            builder.addItem(Row.Builder()
+                .setTitle(carContext.baseContext.getString(de.christian2003.smarthome.data.R.string.car_glance_openings)
+                    .replace("{open}", homeIndex.getOpeningCount(ShOpeningState.Open).toString())
+                    .replace("{tilted}", homeIndex.getOpeningCount(ShOpeningState.Tilted).toString()))
+                .build()
+            )
+            builder.addItem(Row.Builder()
+                .setTitle(carContext.baseContext.getString(de.christian2003.smarthome.data.R.string.car_glance_devices)
+                    .replace("{lights}", homeIndex.getLightCount(ShLightState.On).toString())
+                    .replace("{shutters}", homeIndex.getShuttersAtLeast(ShHomeIndex.HALF_CLOSED_PERCENTAGE).size.toString()))
+                .build()
+            )
+        }
+
         return ListTemplate.Builder()
             .setSingleList(builder.build())
             .setHeaderAction(Action.APP_ICON)
@@ -133,11 +198,17 @@ class MainScreen(
     private fun getRoomsTabTemplate(): Template {
         val builder = ItemList.Builder()
 
-        if (rooms.size >= 2) {
-            rooms.subList(1, rooms.size).forEach { room ->
-                builder.addItem(buildRow(room))
+        val rooms = this.rooms
+        val firstRoom = if (hasGeneralStatus) { 1 } else { 0 }
+        val rows = IdentityHashMap<ShRoom, Row>()
+        if (rooms.size > firstRoom) {
+            rooms.subList(firstRoom, rooms.size).forEach { room ->
+                val row = roomRows[room] ?: buildRow(room)
+                rows[room] = row
+                builder.addItem(row)
             }
         }
+        roomRows = rows
 
         return ListTemplate.Builder()
             .setSingleList(builder.build())
@@ -4,11 +4,31 @@ import android.content.Context
 import android.util.Log
 import androidx.compose.runtime.getValue
 import androidx.compose.runtime.mutableStateOf
+import androidx.compose.runtime.referentialEqualityPolicy
 import androidx.compose.runtime.setValue
+import de.christian2003.smarthome.data.R
 import de.christian2003.smarthome.data.model.cert.SslTrustResponse
 import de.christian2003.smarthome.data.model.extraction.ShWebpageContent
+import de.christian2003.smarthome.data.model.extraction.ShExtractionMode
+import de.christian2003.smarthome.data.model.extraction.ShLiveUpdateCallback
+import de.christian2003.smarthome.data.model.extraction.ShLoadingMode
+import de.christian2003.smarthome.data.model.extraction.ShReadinessDetector
+import de.christian2003.smarthome.data.model.extraction.ShRoomBatchCallback
+import de.christian2003.smarthome.data.model.extraction.ShWebViewPool
 import de.christian2003.smarthome.data.model.extraction.ShWebpageContentCallback
+import de.christian2003.smarthome.data.model.extraction.ShWebpageContentLoadedCallback
+import de.christian2003.smarthome.data.model.extraction.rules.ShExtractionRules
+import de.christian2003.smarthome.data.model.extraction.search.ShExtractionEngine
+import de.christian2003.smarthome.data.model.extraction.search.room.ShRoomFingerprints
+import de.christian2003.smarthome.data.model.extraction.search.room.ShRoomSearch
+import de.christian2003.smarthome.data.model.history.ShHistoryRecorder
+import de.christian2003.smarthome.data.model.room.ShEnergy
+import de.christian2003.smarthome.data.model.room.ShEnergyAggregator
+import de.christian2003.smarthome.data.model.room.ShHomeIndex
 import de.christian2003.smarthome.data.model.room.ShRoom
+import de.christian2003.smarthome.data.model.room.ShRoomsDiff
+import de.christian2003.smarthome.data.model.snapshot.ShSnapshot
+import de.christian2003.smarthome.data.model.snapshot.ShSnapshotStore
 import de.christian2003.smarthome.data.model.userinformation.UserInformation
 
 
@@ -37,14 +57,31 @@ class SmartHomeRepository(
     /**
      * Attribute stores the callback invoked once the smart home webpage is loaded.
      */
-    private val webpageContentCallback = ShWebpageContentCallback { success, sslTrustResponse ->
-        onWebpageContentLoaded(success, sslTrustResponse)
+    private val webpageContentCallback = ShWebpageContentLoadedCallback { webpageContent, success, sslTrustResponse ->
+        onWebpageContentLoaded(webpageContent, success, sslTrustResponse)
     }
 
     /**
-     * Attribute stores the webpage content through which all data is loaded.
+     * Attribute stores the callback invoked when the rooms change while the smart home webpage stays
+     * loaded.
      */
-    private var webpageContent = ShWebpageContent(preferences.getString("server_url", ""), context, webpageContentCallback)
+    private val liveUpdateCallback = ShLiveUpdateCallback { rooms ->
+        onRoomsUpdated(rooms)
+    }
+
+    /**
+     * Attribute stores the callback invoked when a batch of rooms has been extracted while the remaining
+     * rooms are still being extracted.
+     */
+    private val batchCallback = ShRoomBatchCallback { rooms ->
+        onRoomBatchExtracted(rooms)
+    }
+
+    /**
+     * Attribute stores a callback which is invoked whenever rooms are published before the webpage
+     * content has completely loaded, so that screens which do not observe the state can refresh.
+     */
+    var roomBatchCallback: ShRoomBatchCallback? = null
 
     /**
      * Attribute indicates whether the webpage content is loading.
@@ -52,9 +89,40 @@ class SmartHomeRepository(
     var isLoading: Boolean by mutableStateOf(true)
 
     /**
-     * Attribute stores the list of rooms.
+     * Attribute stores the list of rooms. The rooms are compared by reference, since comparing them by value
+     * would extract the tables of rooms which are extracted lazily.
      */
-    var rooms: List<ShRoom> by mutableStateOf(emptyList())
+    var rooms: List<ShRoom> by mutableStateOf(emptyList(), referentialEqualityPolicy())
+
+    /**
+     * Attribute stores the room which displays the "gesamtstatus" or null if no such room is known. While
+     * the webpage content loads, the room is extracted and published before all other rooms, so that the
+     * general stats can be displayed before the remaining rooms are extracted.
+     */
+    var gesamtstatus: ShRoom? by mutableStateOf(null, referentialEqualityPolicy())
+
+    /**
+     * Attribute stores the summed load and energy of the lights and outlets of all rooms.
+     */
+    var energy: ShEnergy by mutableStateOf(ShEnergy.NONE)
+
+    /**
+     * Attribute stores the summed load and energy of the lights and outlets by the rooms. Rooms which are
+     * not extracted yet are missing.
+     */
+    var roomEnergies: Map<ShRoom, ShEnergy> by mutableStateOf(emptyMap(), referentialEqualityPolicy())
+
+    /**
+     * Attribute stores the devices which were added, removed or changed by the last refresh. The first
+     * refresh is compared with the last known data.
+     */
+    var roomsDiff: ShRoomsDiff by mutableStateOf(ShRoomsDiff.EMPTY)
+
+    /**
+     * Attribute stores the indexes over the devices of all rooms, e.g. to find the open windows or the
+     * lights which are on.
+     */
+    var homeIndex: ShHomeIndex by mutableStateOf(ShHomeIndex.EMPTY)
 
     /**
      * Attribute stores the list of errors occurring when the webpage is loaded.
@@ -66,34 +134,312 @@ class SmartHomeRepository(
      */
     var sslTrustResponse: SslTrustResponse? by mutableStateOf(null)
 
+    /**
+     * Attribute stores the time (in milliseconds) it took the rooms to settle after the webpage was
+     * loaded in the web view. This is -1 if the last webpage was not loaded in a web view. Use this to
+     * tune the quiet window of the readiness detector.
+     */
+    var settleTime: Long = -1
+        private set
+
+    /**
+     * Attribute stores the rooms returned by the last loaded webpage content. If the webpage did not
+     * change, the webpage content returns the same list again.
+     */
+    private var loadedRooms: List<ShRoom>? = null
+
+    /**
+     * Attribute stores the time (in milliseconds since the epoch) since which the displayed data is
+     * stale, i.e. the time at which the displayed data was loaded from the server. This is null if the
+     * displayed data was loaded by the last successful load.
+     */
+    var staleSince: Long? by mutableStateOf(null)
 
     /**
-     * Method starts to reload the data.
+     * Attribute stores the time (in milliseconds since the epoch) at which the displayed data was loaded
+     * from the server.
+     */
+    private var loadedAt: Long = 0
+
+    /**
+     * Attribute indicates whether the rooms extracted so far are published as the list of rooms while the
+     * webpage content loads. This is false if other data is displayed already.
+     */
+    private var publishRoomBatches: Boolean = false
+
+    /**
+     * Attribute stores the store through which the last known data is persisted.
+     */
+    private val snapshotStore = ShSnapshotStore(context)
+
+    /**
+     * Attribute stores the fingerprints of the rooms of the last refresh, so that rooms which did not
+     * change are reused instead of being extracted again.
+     */
+    private val roomFingerprints = ShRoomFingerprints()
+
+    /**
+     * Attribute stores the aggregator which sums the energies of the rooms incrementally whenever the rooms
+     * change.
+     */
+    private val energyAggregator = ShEnergyAggregator()
+
+    /**
+     * Attribute stores the rooms with which the next refresh is compared.
+     */
+    private var diffedRooms: List<ShRoom> = emptyList()
+
+    /**
+     * Attribute stores the recorder which appends the metrics of the devices to the history whenever the
+     * rooms are refreshed.
+     */
+    val history = ShHistoryRecorder(context)
+
+
+    init {
+        installExtractionRules()
+
+        //Display the last known data immediately while the data is revalidated in the background:
+        val snapshot = snapshotStore.read()
+        if (snapshot != null) {
+            rooms = snapshot.rooms.toList()
+            gesamtstatus = findGesamtstatus(rooms)
+            updateEnergy(rooms)
+            diffedRooms = rooms
+            homeIndex = ShHomeIndex(rooms)
+            infos = snapshot.infos.toList()
+            loadedAt = snapshot.loadedAt
+            staleSince = snapshot.loadedAt
+        }
+    }
+
+
+    /**
+     * Attribute stores the webpage content through which all data is loaded. The content is replaced on
+     * the main thread while the completion of the previous content may still be handled on a thread of the
+     * load executor.
+     */
+    @Volatile
+    private var webpageContent = createWebpageContent()
+
+
+    /**
+     * Method compiles the extraction rules shipped with the app once, so that all following extractions
+     * use the pre-parsed rules. If the rules cannot be compiled, the built-in rules are used.
+     */
+    private fun installExtractionRules() {
+        try {
+            val csv = context.resources.openRawResource(R.raw.extraction_rules).use { inputStream ->
+                String(inputStream.readBytes())
+            }
+            ShExtractionRules.install(ShExtractionRules.compile(csv))
+        }
+        catch (e: Exception) {
+            Log.e("Smart Home Repo", "Cannot compile extraction rules: ${e.message}")
+        }
+    }
+
+
+    /**
+     * Method starts to reload the data. A load which is still in progress is cancelled. If the previous
+     * load is completing already, its completion is ignored.
      */
     fun restartFetchingData() {
-        if (!isLoading) {
+        synchronized(this) {
             isLoading = true
             this.sslTrustResponse = null
-            webpageContent = ShWebpageContent(preferences.getString("server_url", ""), context, webpageContentCallback)
+            webpageContent.close()
+            webpageContent = createWebpageContent()
         }
     }
 
 
     /**
-     * Method is called once the webpage content loads.
+     * Method creates a new webpage content which starts to load the data from the server.
+     *
+     * @return  Webpage content through which the data is loaded.
      */
-    private fun onWebpageContentLoaded(success: Boolean, sslTrustResponse: SslTrustResponse?) {
-        if (success) {
-            rooms = webpageContent.smartHomeData!!.toList()
-            infos = webpageContent.loadingInformation.toList().distinct()
-            Log.d("Smart Home Repo", "Successfully loaded data")
+    private fun createWebpageContent(): ShWebpageContent {
+        //Warm up a web view while the main thread is idle, e.g. while the SSL context is created:
+        ShWebViewPool.getInstance(context).prewarm()
+
+        val loadingMode = if (preferences.getBoolean("direct_loading", false)) { ShLoadingMode.Direct } else { ShLoadingMode.WebView }
+        val extractionMode = if (preferences.getBoolean("live_updates", false)) {
+            ShExtractionMode.Live
+        }
+        else if (preferences.getBoolean("room_projection", false)) {
+            ShExtractionMode.Projection
+        }
+        else if (preferences.getBoolean("streaming_extraction", false)) {
+            ShExtractionMode.Stream
         }
         else {
-            Log.e("Smart Home Repo", "Cannot load data")
+            ShExtractionMode.Html
+        }
+        val readinessDetector = ShReadinessDetector(
+            preferences.getLong("quiet_window", ShReadinessDetector.DEFAULT_QUIET_WINDOW),
+            preferences.getLong("loading_deadline", ShReadinessDetector.DEFAULT_DEADLINE),
+            extractionMode
+        )
+        val extractionEngine = if (preferences.getBoolean("tree_walk_extraction", false)) { ShExtractionEngine.TreeWalk } else { ShExtractionEngine.Selector }
+        //The rooms are never extracted lazily, since the snapshot, the diff, the home index and the history
+        //need the devices of all rooms on every refresh, which would extract every room right after loading:
+        val roomSearch = ShRoomSearch(extractionEngine, preferences.getBoolean("parallel_extraction", false), roomFingerprints)
+        return ShWebpageContent(preferences.getString("server_url", ""), context, webpageContentCallback, loadingMode, readinessDetector, liveUpdateCallback, roomSearch)
+    }
+
+
+    /**
+     * Method is called once the webpage content loads. The completion is ignored if the data was reloaded
+     * through another webpage content in the meantime.
+     *
+     * @param webpageContent    Webpage content which loaded.
+     * @param success           Whether the webpage was loaded successfully.
+     * @param sslTrustResponse  SSL trust response.
+     */
+    private fun onWebpageContentLoaded(webpageContent: ShWebpageContent, success: Boolean, sslTrustResponse: SslTrustResponse?) {
+        if (webpageContent !== this.webpageContent) {
+            Log.d("Smart Home Repo", "Ignored completion of a restarted load")
+            return
+        }
+        //Publish the rooms in batches while they are extracted, unless other data is displayed already.
+        //The "gesamtstatus" is always published as soon as it is extracted:
+        publishRoomBatches = rooms.isEmpty()
+        val loadedRooms = if (success) { webpageContent.getSmartHomeData(batchCallback)!! } else { null }
+        synchronized(this) {
+            //The load may have been restarted while the rooms were extracted:
+            if (webpageContent !== this.webpageContent) {
+                Log.d("Smart Home Repo", "Ignored completion of a restarted load")
+                return
+            }
+            settleTime = webpageContent.settleTime
+            Log.d("Smart Home Repo", "Settle time: $settleTime ms (timed out: ${webpageContent.isSettleTimedOut})")
+            if (loadedRooms != null) {
+                if (loadedRooms !== this.loadedRooms) {
+                    //Only publish a new list if the rooms changed, so that the UI is not recomposed:
+                    this.loadedRooms = loadedRooms
+                    rooms = loadedRooms.toList()
+                    gesamtstatus = findGesamtstatus(rooms)
+                    updateEnergy(rooms)
+                }
+                val loadedInfos = webpageContent.loadingInformation.toList().distinct()
+                if (loadedInfos != infos) {
+                    infos = loadedInfos
+                }
+                loadedAt = System.currentTimeMillis()
+                staleSince = null
+                Log.d("Smart Home Repo", "Successfully loaded data")
+            }
+            else {
+                Log.e("Smart Home Repo", "Cannot load data")
+                if (rooms.isNotEmpty()) {
+                    //Keep displaying the last known data:
+                    staleSince = loadedAt
+                }
+            }
+            this.sslTrustResponse = sslTrustResponse
+            isLoading = false
         }
-        this.sslTrustResponse = sslTrustResponse
-        isLoading = false
         callback?.onPageLoadComplete(success, sslTrustResponse)
+        if (success) {
+            //Write the snapshot once the data is displayed:
+            snapshotStore.write(ShSnapshot(rooms, infos, loadedAt))
+            updateDiff(rooms)
+            updateHomeIndex(rooms)
+            history.record(rooms)
+        }
+    }
+
+
+    /**
+     * Method is called when a batch of rooms has been extracted while the remaining rooms are still being
+     * extracted.
+     *
+     * @param rooms Rooms extracted so far.
+     */
+    private fun onRoomBatchExtracted(rooms: ArrayList<ShRoom>) {
+        val gesamtstatus = findGesamtstatus(rooms)
+        if (gesamtstatus != null) {
+            this.gesamtstatus = gesamtstatus
+        }
+        if (publishRoomBatches) {
+            this.rooms = rooms.toList()
+            updateEnergy(this.rooms)
+        }
+        Log.d("Smart Home Repo", "Extracted ${rooms.size} rooms so far")
+        roomBatchCallback?.onRoomBatchExtracted(rooms)
+    }
+
+
+    /**
+     * Method is called when the rooms change while the webpage stays loaded.
+     *
+     * @param rooms Updated rooms. Rooms which did not change are the same objects as before.
+     */
+    private fun onRoomsUpdated(rooms: List<ShRoom>) {
+        this.rooms = rooms.toList()
+        gesamtstatus = findGesamtstatus(rooms)
+        updateEnergy(rooms)
+        updateDiff(rooms)
+        updateHomeIndex(rooms)
+        history.record(rooms)
+        loadedAt = System.currentTimeMillis()
+        staleSince = null
+        Log.d("Smart Home Repo", "Rooms updated")
+    }
+
+
+    /**
+     * Method updates the energies with the rooms passed. Only the rooms which changed since the last
+     * update are summed.
+     *
+     * @param rooms Rooms which are displayed.
+     */
+    private fun updateEnergy(rooms: List<ShRoom>) {
+        if (energyAggregator.update(rooms)) {
+            energy = energyAggregator.total
+        }
+        roomEnergies = energyAggregator.roomEnergies
+    }
+
+
+    /**
+     * Method compares the rooms passed with the rooms of the last refresh. Rooms which did not change are
+     * the same objects as before and are not compared device by device.
+     *
+     * @param rooms Rooms of the current refresh.
+     */
+    private fun updateDiff(rooms: List<ShRoom>) {
+        val diff = ShRoomsDiff.compute(diffedRooms, rooms)
+        diffedRooms = rooms
+        if (!diff.isEmpty || !roomsDiff.isEmpty) {
+            roomsDiff = diff
+        }
+        Log.d("Smart Home Repo", "${diff.changes.size} devices changed")
+    }
+
+
+    /**
+     * Method builds the indexes over the devices of the rooms passed, unless they are built from the same
+     * rooms already.
+     *
+     * @param rooms Rooms of the current refresh.
+     */
+    private fun updateHomeIndex(rooms: List<ShRoom>) {
+        if (!homeIndex.isBuiltFrom(rooms)) {
+            homeIndex = ShHomeIndex(rooms)
+        }
+    }
+
+
+    /**
+     * Method finds the room which displays the "gesamtstatus". The room is always placed first.
+     *
+     * @param rooms Rooms in which to find the room.
+     * @return      Room which displays the "gesamtstatus" or null if no such room exists.
+     */
+    private fun findGesamtstatus(rooms: List<ShRoom>): ShRoom? {
+        return rooms.firstOrNull()?.takeIf { it.isGesamtstatusElement }
     }
 
 
@@ -2,12 +2,11 @@ package de.christian2003.smarthome.data.model.cert
 
 import android.content.Context
 import android.content.SharedPreferences
-import android.security.KeyChain
 import android.util.Log
 import java.security.MessageDigest
-import java.security.PrivateKey
 import java.security.cert.X509Certificate
 import javax.net.ssl.SSLContext
+import javax.net.ssl.X509TrustManager
 
 
 /**
@@ -47,29 +46,14 @@ class CertHandler(
     }
 
 
+    /**
+     * Method returns the client certificate that is selected from the Android key store. The certificate
+     * is resolved through the process-wide cache. This method must not be called from main thread!
+     *
+     * @return  Client certificate or null if no certificate is selected or it is unavailable.
+     */
     fun getClientCert(): ClientCert? {
-        val alias: String? = preferences.getString("cert_alias", null)
-        if (alias != null) {
-            try {
-                val key: PrivateKey? = KeyChain.getPrivateKey(context, alias)
-                val chain: Array<X509Certificate>? = KeyChain.getCertificateChain(context, alias)
-
-                Log.d("CertHandler", "getClientCert(): Key = $key")
-                Log.d("CertHandler", "getClientCert(): Chain = $chain")
-
-
-                if (key != null && chain != null) {
-                    return ClientCert(
-                        key = key,
-                        chain = chain
-                    )
-                }
-            }
-            catch (e: Exception) {
-                Log.e("CertHandler", "Exception occurred: ${e.message}")
-            }
-        }
-        return null
+        return ClientCertCache.getInstance(context).getClientCert()
     }
 
 
@@ -90,17 +74,23 @@ class CertHandler(
 
     /**
      * Method returns the SSL context to use for client authentication. This can return null if no
-     * certificate has been selected from the Android key store.
+     * certificate has been selected from the Android key store. This method must not be called from
+     * main thread!
      *
-     * @return  SSL context to use for client authentication.
+     * @param trustManager  Optional trust manager through which to validate server certificates. The
+     *                      default trust managers of the system are used if this is null.
+     * @return              SSL context to use for client authentication.
      */
-    fun getSSLContext(): SSLContext? {
+    @JvmOverloads
+    fun getSSLContext(trustManager: X509TrustManager? = null): SSLContext? {
         try {
-            val alias = preferences.getString("cert_alias", null) ?: return null
-            val keyManager = KeyChainKeyManager(context, alias)
+            val clientCertCache = ClientCertCache.getInstance(context)
+            val alias = clientCertCache.getAlias() ?: return null
+            val clientCert = clientCertCache.getClientCert() ?: return null
+            val keyManager = KeyChainKeyManager(alias, clientCert)
 
             val sslContext = SSLContext.getInstance("TLS")
-            sslContext.init(arrayOf(keyManager), null, null)
+            sslContext.init(arrayOf(keyManager), if (trustManager != null) { arrayOf(trustManager) } else { null }, null)
             return sslContext
         } catch (e: Exception) {
             Log.e("Certificates", "Cannot create SSLContext object: ${e.message}")
@@ -0,0 +1,219 @@
+package de.christian2003.smarthome.data.model.cert
+
+import android.content.Context
+import android.content.SharedPreferences
+import android.security.KeyChain
+import android.util.Log
+import java.security.PrivateKey
+import java.security.cert.X509Certificate
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+
+/**
+ * Class implements a process-wide cache for the client certificate that is selected from the Android
+ * key store. The key and the chain are resolved once on a single dedicated thread and reused for every
+ * web view request and every SSL context until the alias of the certificate changes.
+ */
+class ClientCertCache private constructor(
+
+    /**
+     * Attribute stores the application context through which to access the key chain.
+     */
+    private val context: Context
+
+) {
+
+    /**
+     * Attribute stores the preferences in which the certificate alias is stored.
+     */
+    private val preferences: SharedPreferences = context.getSharedPreferences("smart_home", Context.MODE_PRIVATE)
+
+    /**
+     * Attribute stores the cached client certificate together with the alias from which it was resolved.
+     */
+    @Volatile
+    private var entry: Entry? = null
+
+    /**
+     * Attribute stores the generation of the cache. The generation changes whenever the cache is
+     * invalidated, so that a certificate which is resolved concurrently is not cached afterwards.
+     */
+    @Volatile
+    private var generation: Int = 0
+
+    /**
+     * Attribute stores the listener which invalidates the cache when the alias changes. The preferences
+     * only keep a weak reference to the listener, therefore it is stored here.
+     */
+    private val preferenceListener = SharedPreferences.OnSharedPreferenceChangeListener { _, key ->
+        if (key == null || key == "cert_alias") {
+            invalidate()
+        }
+    }
+
+
+    init {
+        preferences.registerOnSharedPreferenceChangeListener(preferenceListener)
+    }
+
+
+    /**
+     * Method returns the alias of the selected certificate.
+     *
+     * @return  Alias of the selected certificate or null if no certificate is selected.
+     */
+    fun getAlias(): String? {
+        return preferences.getString("cert_alias", null)
+    }
+
+
+    /**
+     * Method returns the client certificate. If the certificate is not cached, it is resolved on the key
+     * chain thread and this method blocks until it is resolved. This method must not be called from main
+     * thread!
+     *
+     * @return  Client certificate or null if no certificate is selected or it is unavailable.
+     */
+    fun getClientCert(): ClientCert? {
+        val alias: String = getAlias() ?: return null
+        val cached: Entry? = entry
+        if (cached != null && cached.alias == alias) {
+            return cached.clientCert
+        }
+        if (Thread.currentThread() == keyChainThread) {
+            return resolve(alias)
+        }
+        return EXECUTOR.submit<ClientCert?> { resolve(alias) }.get()
+    }
+
+
+    /**
+     * Method passes the client certificate to the callback. If the certificate is not cached, it is
+     * resolved on the key chain thread, which invokes the callback afterwards. Otherwise, the callback is
+     * invoked immediately on the calling thread.
+     *
+     * @param callback  Callback to which to pass the certificate.
+     */
+    fun getClientCert(callback: ClientCertCallback) {
+        val alias: String? = getAlias()
+        val cached: Entry? = entry
+        if (alias == null) {
+            callback.onClientCert(null)
+        }
+        else if (cached != null && cached.alias == alias) {
+            callback.onClientCert(cached.clientCert)
+        }
+        else {
+            EXECUTOR.execute {
+                callback.onClientCert(resolve(alias))
+            }
+        }
+    }
+
+
+    /**
+     * Method invalidates the cache, so that the certificate is resolved again from the key chain the next
+     * time it is requested.
+     */
+    fun invalidate() {
+        generation++
+        entry = null
+        Log.d("ClientCertCache", "Cache invalidated")
+    }
+
+
+    /**
+     * Method resolves the key and the chain for the alias passed from the key chain and caches them. This
+     * method is only called from the key chain thread.
+     *
+     * @param alias Alias of the certificate to resolve.
+     * @return      Client certificate or null if the certificate is unavailable.
+     */
+    private fun resolve(alias: String): ClientCert? {
+        val cached: Entry? = entry
+        if (cached != null && cached.alias == alias) {
+            return cached.clientCert //Resolved by a request that was queued before.
+        }
+        val resolvedGeneration: Int = generation
+        try {
+            val key: PrivateKey? = KeyChain.getPrivateKey(context, alias)
+            val chain: Array<X509Certificate>? = KeyChain.getCertificateChain(context, alias)
+            if (key != null && chain != null) {
+                val clientCert = ClientCert(
+                    key = key,
+                    chain = chain
+                )
+                if (resolvedGeneration == generation) {
+                    entry = Entry(alias, clientCert)
+                }
+                Log.d("ClientCertCache", "Resolved client certificate")
+                return clientCert
+            }
+            Log.e("ClientCertCache", "Key or chain is unavailable")
+        }
+        catch (e: Exception) {
+            Log.e("ClientCertCache", "Exception occurred: ${e.message}")
+        }
+        return null
+    }
+
+
+    /**
+     * Class models an entry of the cache.
+     */
+    private class Entry(
+
+        /**
+         * Attribute stores the alias from which the certificate was resolved.
+         */
+        val alias: String,
+
+        /**
+         * Attribute stores the resolved certificate.
+         */
+        val clientCert: ClientCert
+
+    )
+
+
+    companion object {
+
+        /**
+         * Attribute stores the thread on which the key chain is accessed.
+         */
+        @Volatile
+        private var keyChainThread: Thread? = null
+
+        /**
+         * Attribute stores the executor that accesses the key chain. A single thread is used for the
+         * lifetime of the process.
+         */
+        private val EXECUTOR: ExecutorService = Executors.newSingleThreadExecutor { runnable ->
+            val thread = Thread(runnable, "KeyChainThread")
+            thread.isDaemon = true
+            keyChainThread = thread
+            thread
+        }
+
+        /**
+         * Attribute stores the singleton instance for the cache.
+         */
+        private var INSTANCE: ClientCertCache? = null
+
+
+        /**
+         * Method returns the singleton instance of the cache.
+         */
+        @JvmStatic
+        @Synchronized
+        fun getInstance(context: Context): ClientCertCache {
+            if (INSTANCE == null) {
+                INSTANCE = ClientCertCache(context.applicationContext)
+            }
+            return INSTANCE!!
+        }
+
+    }
+
+}
@@ -0,0 +1,16 @@
+package de.christian2003.smarthome.data.model.cert
+
+
+/**
+ * Interface for a callback that receives the client certificate once it is resolved.
+ */
+fun interface ClientCertCallback {
+
+    /**
+     * Method is called once the client certificate is resolved.
+     *
+     * @param clientCert    Client certificate or null if no certificate is available.
+     */
+    fun onClientCert(clientCert: ClientCert?)
+
+}
@@ -1,7 +1,5 @@
 package de.christian2003.smarthome.data.model.cert
 
-import android.content.Context
-import android.security.KeyChain
 import java.net.Socket
 import java.security.Principal
 import java.security.PrivateKey
@@ -11,19 +9,20 @@ import javax.net.ssl.X509KeyManager
 
 /**
  * Class implements a key manager for the key chain that is required for web requests with a custom
- * client certificate.
+ * client certificate. The key and the chain are resolved from the key chain in advance, so that a TLS
+ * handshake does not access the key chain.
  */
 class KeyChainKeyManager(
 
     /**
-     * Context for the key manager.
+     * Alias of the certificate to use.
      */
-    private val context: Context,
+    private val alias: String,
 
     /**
-     * Alias of the certificate to use.
+     * Certificate that was resolved from the key chain for the alias.
      */
-    private val alias: String
+    private val clientCert: ClientCert
 
 ): X509KeyManager {
 
@@ -36,11 +35,11 @@ class KeyChainKeyManager(
     }
 
     override fun getCertificateChain(alias: String?): Array<X509Certificate>? {
-        return KeyChain.getCertificateChain(context, alias!!)
+        return clientCert.chain
     }
 
     override fun getPrivateKey(alias: String?): PrivateKey? {
-        return KeyChain.getPrivateKey(context, alias!!)
+        return clientCert.key
     }
 
     override fun getServerAliases(keyType: String?, issuers: Array<Principal>?): Array<String>? {
@@ -0,0 +1,101 @@
+package de.christian2003.smarthome.data.model.cert
+
+import java.security.KeyStore
+import java.security.cert.CertificateException
+import java.security.cert.X509Certificate
+import javax.net.ssl.TrustManagerFactory
+import javax.net.ssl.X509TrustManager
+
+
+/**
+ * Class implements a trust manager for server certificates that are used when the webpage is loaded
+ * without a web view. Certificates that are not trusted by the system are validated through the
+ * certificate handler, i.e. they are only trusted if the user has trusted them before.
+ */
+class ServerTrustManager(
+
+    /**
+     * Attribute stores the certificate handler through which to validate certificates that are not
+     * trusted by the system.
+     */
+    private val certHandler: CertHandler
+
+): X509TrustManager {
+
+    /**
+     * Attribute stores the trust manager of the system.
+     */
+    private val systemTrustManager: X509TrustManager? = try {
+        val trustManagerFactory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm())
+        trustManagerFactory.init(null as KeyStore?)
+        trustManagerFactory.trustManagers.filterIsInstance<X509TrustManager>().firstOrNull()
+    } catch (e: Exception) {
+        null
+    }
+
+    /**
+     * Attribute stores the trust response for the last server certificate that was not trusted by the
+     * system. The response is stored per thread, since the trust manager is shared by all connections
+     * and the handshake of a connection runs on the thread that opens it.
+     */
+    private val threadSslTrustResponse: ThreadLocal<SslTrustResponse?> = ThreadLocal()
+
+    /**
+     * Attribute returns the trust response for the last server certificate on the current thread that
+     * was not trusted by the system. This is null if the system trusts the server certificate.
+     */
+    val sslTrustResponse: SslTrustResponse?
+        get() = threadSslTrustResponse.get()
+
+
+    override fun checkClientTrusted(chain: Array<out X509Certificate>?, authType: String?) {
+        if (systemTrustManager == null) {
+            throw CertificateException("No system trust manager available")
+        }
+        systemTrustManager.checkClientTrusted(chain, authType)
+    }
+
+    override fun checkServerTrusted(chain: Array<out X509Certificate>?, authType: String?) {
+        try {
+            if (systemTrustManager != null) {
+                systemTrustManager.checkServerTrusted(chain, authType)
+                return
+            }
+        }
+        catch (e: CertificateException) {
+            //Certificate is not trusted by the system, validate it through the cert handler.
+        }
+        if (chain.isNullOrEmpty()) {
+            throw CertificateException("No server certificate provided")
+        }
+        val response = certHandler.validateCert(chain[0])
+        threadSslTrustResponse.set(response)
+        if (response.status != SslTrustStatus.Trusted) {
+            throw CertificateException("Server certificate is not trusted")
+        }
+    }
+
+    override fun getAcceptedIssuers(): Array<X509Certificate> {
+        return systemTrustManager?.acceptedIssuers ?: emptyArray()
+    }
+
+
+    /**
+     * Method returns whether the server certificate was trusted by the user instead of the system.
+     *
+     * @return  Whether the server certificate was trusted by the user.
+     */
+    fun isTrustedByUser(): Boolean {
+        return sslTrustResponse?.status == SslTrustStatus.Trusted
+    }
+
+
+    /**
+     * Method clears the trust response of the current thread. This must be called before a new
+     * connection is opened on the thread.
+     */
+    fun clearSslTrustResponse() {
+        threadSslTrustResponse.remove()
+    }
+
+}
@@ -0,0 +1,233 @@
+package de.christian2003.smarthome.data.model.cert
+
+import android.content.Context
+import android.util.Log
+import java.security.cert.X509Certificate
+import java.util.concurrent.atomic.AtomicInteger
+import javax.net.ssl.HostnameVerifier
+import javax.net.ssl.HttpsURLConnection
+import javax.net.ssl.SSLContext
+import javax.net.ssl.SSLSession
+
+
+/**
+ * Class implements a long-lived SSL context for client authentication which is shared by all
+ * connections of the app. Sharing the SSL context allows the server to resume TLS sessions instead of
+ * negotiating them again, and sharing the socket factory and the hostname verifier allows connections
+ * to be kept alive across refreshes. The SSL context is recreated when the client certificate changes.
+ */
+class SharedSslContext private constructor(
+
+    /**
+     * Attribute stores the application context.
+     */
+    context: Context
+
+) {
+
+    /**
+     * Attribute stores the cache through which to access the client certificate.
+     */
+    private val clientCertCache: ClientCertCache = ClientCertCache.getInstance(context)
+
+    /**
+     * Attribute stores the certificate handler through which to validate certificates that are not
+     * trusted by the system.
+     */
+    private val certHandler: CertHandler = CertHandler(context)
+
+    /**
+     * Attribute stores the trust manager for server certificates that is used by the SSL context.
+     */
+    val trustManager: ServerTrustManager = ServerTrustManager(certHandler)
+
+    /**
+     * Attribute stores the session of the last handshake on the current thread. The session is null if an
+     * existing connection was reused without a handshake.
+     */
+    private val handshakeSession: ThreadLocal<SSLSession?> = ThreadLocal()
+
+    /**
+     * Attribute stores the hostname verifier to use for all connections. A hostname is accepted if the
+     * system accepts it or if the server certificate was trusted by the user. The certificate is
+     * validated through the session, since the trust manager is not invoked for resumed sessions.
+     */
+    val hostnameVerifier: HostnameVerifier = HostnameVerifier { hostname, session ->
+        handshakeSession.set(session)
+        HttpsURLConnection.getDefaultHostnameVerifier().verify(hostname, session) || trustManager.isTrustedByUser() || isTrustedByUser(session)
+    }
+
+    /**
+     * Attribute stores the SSL context. This is null until the SSL context is requested the first time.
+     */
+    private var sslContext: SSLContext? = null
+
+    /**
+     * Attribute stores the client certificate with which the SSL context was created.
+     */
+    private var clientCert: ClientCert? = null
+
+    /**
+     * Attribute stores the number of handshakes that negotiated a new session.
+     */
+    private val fullHandshakes: AtomicInteger = AtomicInteger()
+
+    /**
+     * Attribute stores the number of handshakes that resumed a cached session.
+     */
+    private val resumedHandshakes: AtomicInteger = AtomicInteger()
+
+    /**
+     * Attribute stores the number of requests that reused a kept-alive connection without a handshake.
+     */
+    private val reusedConnections: AtomicInteger = AtomicInteger()
+
+
+    /**
+     * Method returns the SSL context to use for client authentication. The SSL context is only created
+     * if no SSL context exists or the client certificate changed. This can return null if no certificate
+     * has been selected from the Android key store. This method must not be called from main thread!
+     *
+     * @return  SSL context to use for client authentication.
+     */
+    @Synchronized
+    fun getSSLContext(): SSLContext? {
+        val alias: String = clientCertCache.getAlias() ?: return null
+        val currentClientCert: ClientCert = clientCertCache.getClientCert() ?: return null
+        if (sslContext != null && currentClientCert === clientCert) {
+            return sslContext
+        }
+        try {
+            val newSslContext = SSLContext.getInstance("TLS")
+            newSslContext.init(arrayOf(KeyChainKeyManager(alias, currentClientCert)), arrayOf(trustManager), null)
+            newSslContext.clientSessionContext.sessionCacheSize = SESSION_CACHE_SIZE
+            newSslContext.clientSessionContext.sessionTimeout = SESSION_TIMEOUT
+            sslContext = newSslContext
+            clientCert = currentClientCert
+            Log.d("SharedSslContext", "Created SSL context")
+        }
+        catch (e: Exception) {
+            Log.e("SharedSslContext", "Cannot create SSLContext object: ${e.message}")
+            sslContext = null
+            clientCert = null
+        }
+        return sslContext
+    }
+
+
+    /**
+     * Method prepares the current thread for a new request. This must be called before the connection is
+     * opened, so that the handshake of the request can be recorded afterwards.
+     */
+    fun beginRequest() {
+        handshakeSession.remove()
+        trustManager.clearSslTrustResponse()
+    }
+
+
+    /**
+     * Method records how the connection of the request on the current thread was established. This must
+     * be called once the response is received.
+     *
+     * @param requestStart  Time (in milliseconds since epoch) at which the request was started.
+     * @param duration      Duration (in milliseconds) until the response was received.
+     */
+    fun endRequest(requestStart: Long, duration: Long) {
+        val session: SSLSession? = handshakeSession.get()
+        handshakeSession.remove()
+        val connectionType: String = if (session == null) {
+            reusedConnections.incrementAndGet()
+            "reused connection"
+        }
+        else if (session.creationTime < requestStart) {
+            resumedHandshakes.incrementAndGet()
+            "resumed session"
+        }
+        else {
+            fullHandshakes.incrementAndGet()
+            "full handshake"
+        }
+        Log.d("SharedSslContext", "Response after $duration ms ($connectionType). Full handshakes: ${fullHandshakes.get()}, resumed sessions: ${resumedHandshakes.get()}, reused connections: ${reusedConnections.get()}")
+    }
+
+
+    /**
+     * Method returns the number of handshakes that negotiated a new session.
+     *
+     * @return  Number of full handshakes.
+     */
+    fun getFullHandshakes(): Int {
+        return fullHandshakes.get()
+    }
+
+
+    /**
+     * Method returns the number of handshakes that resumed a cached session.
+     *
+     * @return  Number of resumed handshakes.
+     */
+    fun getResumedHandshakes(): Int {
+        return resumedHandshakes.get()
+    }
+
+
+    /**
+     * Method returns the number of requests that reused a kept-alive connection without a handshake.
+     *
+     * @return  Number of reused connections.
+     */
+    fun getReusedConnections(): Int {
+        return reusedConnections.get()
+    }
+
+
+    /**
+     * Method tests whether the server certificate of the session passed was trusted by the user.
+     *
+     * @param session   Session whose server certificate to test.
+     * @return          Whether the server certificate was trusted by the user.
+     */
+    private fun isTrustedByUser(session: SSLSession): Boolean {
+        return try {
+            val cert = session.peerCertificates.firstOrNull() as? X509Certificate ?: return false
+            certHandler.validateCert(cert).status == SslTrustStatus.Trusted
+        }
+        catch (e: Exception) {
+            false
+        }
+    }
+
+
+    companion object {
+
+        /**
+         * Maximum number of sessions in the client session cache.
+         */
+        private const val SESSION_CACHE_SIZE: Int = 16
+
+        /**
+         * Timeout (in seconds) after which a cached session is no longer resumed.
+         */
+        private const val SESSION_TIMEOUT: Int = 24 * 60 * 60
+
+        /**
+         * Attribute stores the singleton instance for the shared SSL context.
+         */
+        private var INSTANCE: SharedSslContext? = null
+
+
+        /**
+         * Method returns the singleton instance of the shared SSL context.
+         */
+        @JvmStatic
+        @Synchronized
+        fun getInstance(context: Context): SharedSslContext {
+            if (INSTANCE == null) {
+                INSTANCE = SharedSslContext(context.applicationContext)
+            }
+            return INSTANCE!!
+        }
+
+    }
+
+}
@@ -3,10 +3,15 @@ package de.christian2003.smarthome.data.model.devices;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
 
 
 /**
  * Class models a generic smart home device. All other smart home devices must extend this class.
+ * Every device has an id which stays the same across refreshes as long as the room, the type and the
+ * specifier (or name) of the device do not change. Devices are equal if they have the same id and the
+ * same values.
  */
 public abstract class ShGenericDevice implements Serializable {
 
@@ -29,6 +34,26 @@ public abstract class ShGenericDevice implements Serializable {
     @Nullable
     private final String imageUri;
 
+    /**
+     * Attribute stores the key of the room which contains the device or null if the device is not added to
+     * a room.
+     */
+    @Nullable
+    private String roomKey;
+
+    /**
+     * Attribute stores the number of devices of the room with the same type and specifier which precede the
+     * device.
+     */
+    private int occurrence;
+
+    /**
+     * Attribute stores the id of the device. This is null until the id is requested for the first time, so
+     * that extractions do not allocate ids which are never used.
+     */
+    @Nullable
+    private transient String id;
+
     /**
      * Constructor instantiates a new generic smart home device.
      *
@@ -73,4 +98,78 @@ public abstract class ShGenericDevice implements Serializable {
         return specifier;
     }
 
+    /**
+     * Method returns the id of the device, e.g. "Küche/Light/Deckenlicht". If several devices of a room
+     * have the same type and specifier, the ids of all but the first device are numbered, e.g.
+     * "Küche/Light/Deckenlicht#2". The ids of devices in rooms with the same name start with the numbered
+     * key of the room, e.g. "Küche#2/Light/Deckenlicht".
+     *
+     * @return  The id of the device.
+     */
+    @NonNull
+    public String getId() {
+        if (id == null) {
+            String type = getClass().getSimpleName();
+            if (type.startsWith("Sh")) {
+                type = type.substring(2);
+            }
+            String id = (roomKey != null ? roomKey + "/" : "") + type + "/" + getKey();
+            this.id = occurrence > 0 ? id + "#" + (occurrence + 1) : id;
+        }
+        return id;
+    }
+
+    /**
+     * Method returns the key by which the device is distinguished from other devices of the same type within
+     * its room, which is its specifier or its name if the device has no specifier.
+     *
+     * @return  The key of the device.
+     */
+    @NonNull
+    private String getKey() {
+        return specifier != null ? specifier : name;
+    }
+
+    /**
+     * Method assigns the ids to the devices of a room. This is called by the room once its devices are
+     * extracted. Rooms contain few devices, so that the preceding devices are compared instead of
+     * allocating a map.
+     *
+     * @param roomKey   Key of the room, which is its name unless several rooms have the same name.
+     * @param devices   Devices of the room, in the order in which they are displayed.
+     */
+    public static void assignIds(@NonNull String roomKey, @NonNull List<? extends ShGenericDevice> devices) {
+        for (int i = 0; i < devices.size(); i++) {
+            ShGenericDevice device = devices.get(i);
+            device.roomKey = roomKey;
+            device.occurrence = 0;
+            device.id = null;
+            for (int j = 0; j < i; j++) {
+                ShGenericDevice precedingDevice = devices.get(j);
+                if (precedingDevice.getClass() == device.getClass() && precedingDevice.getKey().equals(device.getKey())) {
+                    device.occurrence++;
+                }
+            }
+        }
+    }
+
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getClass(), roomKey, getKey(), occurrence);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (obj != null && obj.getClass() == getClass()) {
+            ShGenericDevice device = (ShGenericDevice)obj;
+            return device.occurrence == occurrence
+                    && Objects.equals(device.roomKey, roomKey)
+                    && device.name.equals(name)
+                    && Objects.equals(device.specifier, specifier)
+                    && Objects.equals(device.imageUri, imageUri);
+        }
+        return false;
+    }
+
 }
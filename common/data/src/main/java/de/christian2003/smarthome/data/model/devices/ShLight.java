@@ -3,6 +3,8 @@ package de.christian2003.smarthome.data.model.devices;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import java.util.Objects;
+
 
 /**
  * Class models a light for the smart home.
@@ -22,25 +24,47 @@ public class ShLight extends ShGenericDevice {
     private final String offButtonText;
 
     /**
-     * The milli amp of the light.
+     * The {@link ShLightState} of the light, which is determined by the image of the light.
+     */
+    @NonNull
+    private final ShLightState lightState;
+
+    /**
+     * The milli amp of the light or {@link ShMetrics#NO_VALUE} if they are missing or could not be parsed.
+     */
+    private final int milliAmp;
+
+    /**
+     * The text of the milli amp of the light if it could not be parsed, otherwise null.
      */
     @Nullable
-    private final String milliAmp;
+    private final String milliAmpText;
 
     /**
-     * The hours of the light.
+     * The hours of the light or {@link Double#NaN} if they are missing or could not be parsed.
+     */
+    private final double hours;
+
+    /**
+     * The text of the hours of the light if they could not be parsed, otherwise null.
      */
     @Nullable
-    private final String hours;
+    private final String hoursText;
 
     /**
-     * The wh of the light.
+     * The wh of the light or {@link ShMetrics#NO_VALUE} if they are missing or could not be parsed.
+     */
+    private final long wh;
+
+    /**
+     * The text of the wh of the light if they could not be parsed, otherwise null.
      */
     @Nullable
-    private final String wh;
+    private final String whText;
 
     /**
-     * Constructor instantiates a new light.
+     * Constructor instantiates a new light. The milli amp, hours and wh are parsed from the texts of the
+     * webpage.
      *
      * @param name          Name for the light.
      * @param specifier     The specifier of the device to distinguish different devices in a room that are the same type.
@@ -55,9 +79,13 @@ public class ShLight extends ShGenericDevice {
         super(name, specifier , imageUri);
         this.onButtonText = onButtonText;
         this.offButtonText = offButtonText;
-        this.milliAmp = milliAmp;
-        this.hours = hours;
-        this.wh = wh;
+        this.lightState = ShLightState.fromImageUri(imageUri);
+        this.milliAmp = ShMetrics.parseMilliAmp(milliAmp);
+        this.milliAmpText = ShMetrics.getUnparsedText(milliAmp, this.milliAmp != ShMetrics.NO_VALUE);
+        this.hours = ShMetrics.parseHours(hours);
+        this.hoursText = ShMetrics.getUnparsedText(hours, !Double.isNaN(this.hours));
+        this.wh = ShMetrics.parseWh(wh);
+        this.whText = ShMetrics.getUnparsedText(wh, this.wh != ShMetrics.NO_VALUE);
     }
 
     /**
@@ -81,28 +109,116 @@ public class ShLight extends ShGenericDevice {
     }
 
     /**
-     * Method returns the milli amp of the lighting.
+     * Method returns the {@link ShLightState} of the light.
+     *
+     * @return The {@link ShLightState} of the light.
+     */
+    @NonNull
+    public ShLightState getLightState() {
+        return lightState;
+    }
+
+    /**
+     * Method returns the milli amp of the lighting for display.
      *
      * @return The milli amp of the lighting.
      */
     @Nullable
     public String getMilliAmp() {
+        return milliAmp != ShMetrics.NO_VALUE ? "(" + ShMetrics.formatMilliAmp(milliAmp) + ")" : milliAmpText;
+    }
+
+    /**
+     * Method returns the milli amp of the lighting.
+     *
+     * @return  The milli amp or {@link ShMetrics#NO_VALUE} if they are missing or could not be parsed.
+     */
+    public int getMilliAmpValue() {
         return milliAmp;
     }
 
     /**
-     * Method returns the hours of the lighting.
+     * Method returns whether the milli amp of the lighting could be parsed.
+     *
+     * @return  The status of the milli amp.
+     */
+    @NonNull
+    public ShMetricStatus getMilliAmpStatus() {
+        return ShMetrics.getStatus(milliAmp != ShMetrics.NO_VALUE, milliAmpText);
+    }
+
+    /**
+     * Method returns the hours of the lighting for display.
      *
      * @return  The hours of the lighting.
      */
     @Nullable
-    public String getHours() {return hours;}
+    public String getHours() {
+        return !Double.isNaN(hours) ? ShMetrics.formatHours(hours) : hoursText;
+    }
 
     /**
-     * Method returns the wh of the lighting.
+     * Method returns the hours of the lighting.
+     *
+     * @return  The hours or {@link Double#NaN} if they are missing or could not be parsed.
+     */
+    public double getHoursValue() {
+        return hours;
+    }
+
+    /**
+     * Method returns whether the hours of the lighting could be parsed.
+     *
+     * @return  The status of the hours.
+     */
+    @NonNull
+    public ShMetricStatus getHoursStatus() {
+        return ShMetrics.getStatus(!Double.isNaN(hours), hoursText);
+    }
+
+    /**
+     * Method returns the wh of the lighting for display.
      *
      * @return  The wh of the lighting.
      */
     @Nullable
-    public String getWh() {return wh;}
+    public String getWh() {
+        return wh != ShMetrics.NO_VALUE ? ShMetrics.formatWh(wh) : whText;
+    }
+
+    /**
+     * Method returns the wh of the lighting.
+     *
+     * @return  The wh or {@link ShMetrics#NO_VALUE} if they are missing or could not be parsed.
+     */
+    public long getWhValue() {
+        return wh;
+    }
+
+    /**
+     * Method returns whether the wh of the lighting could be parsed.
+     *
+     * @return  The status of the wh.
+     */
+    @NonNull
+    public ShMetricStatus getWhStatus() {
+        return ShMetrics.getStatus(wh != ShMetrics.NO_VALUE, whText);
+    }
+
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (super.equals(obj)) {
+            ShLight light = (ShLight)obj;
+            return Objects.equals(light.onButtonText, onButtonText)
+                    && Objects.equals(light.offButtonText, offButtonText)
+                    && light.milliAmp == milliAmp
+                    && Objects.equals(light.milliAmpText, milliAmpText)
+                    && Double.compare(light.hours, hours) == 0
+                    && Objects.equals(light.hoursText, hoursText)
+                    && light.wh == wh
+                    && Objects.equals(light.whText, whText);
+        }
+        return false;
+    }
 }
@@ -0,0 +1,35 @@
+package de.christian2003.smarthome.data.model.devices;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * The different states of a light, as displayed by the image of the light on the webpage.
+ */
+public enum ShLightState {
+    On,
+    Off,
+    Unknown;
+
+
+    /**
+     * Method determines the state of a light from the URI of its image, e.g. "/img/licht_an.png".
+     *
+     * @param imageUri  URI of the image of the light or null.
+     * @return          The state of the light.
+     */
+    @NonNull
+    public static ShLightState fromImageUri(@Nullable String imageUri) {
+        if (imageUri == null) {
+            return Unknown;
+        }
+        String image = imageUri.substring(imageUri.lastIndexOf('/') + 1);
+        if (image.contains("aus")) {
+            return Off;
+        }
+        if (image.contains("_an")) {
+            return On;
+        }
+        return Unknown;
+    }
+}
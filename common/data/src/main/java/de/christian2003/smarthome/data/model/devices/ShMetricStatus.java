@@ -0,0 +1,22 @@
+package de.christian2003.smarthome.data.model.devices;
+
+
+/**
+ * The different results of parsing a numeric metric of a device, e.g. the milli amp of a light.
+ */
+public enum ShMetricStatus {
+    /**
+     * The metric was parsed, its value can be used for calculations.
+     */
+    Parsed,
+
+    /**
+     * The webpage does not state the metric.
+     */
+    Missing,
+
+    /**
+     * The webpage states the metric, but it could not be parsed. Only its text can be displayed.
+     */
+    Unparseable
+}
@@ -0,0 +1,348 @@
+package de.christian2003.smarthome.data.model.devices;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+
+/**
+ * Class parses the numeric metrics of the devices once, when the devices are extracted, and formats them
+ * for display. The webpage writes numbers in the German format, i.e. with a decimal comma and an optional
+ * dot as thousands separator. A dot is only read as decimal separator if it cannot be a thousands
+ * separator. Every metric is stored in a fixed unit, a number with a different unit is converted.
+ */
+public final class ShMetrics {
+
+    /**
+     * Value of an integer metric which is missing or could not be parsed.
+     */
+    public static final int NO_VALUE = -1;
+
+    /**
+     * Units of a current.
+     */
+    private static final String[] MILLI_AMP_UNITS = {"mA", "A"};
+
+    /**
+     * Factors by which a current is converted to milli ampere for each of the units.
+     */
+    private static final double[] MILLI_AMP_FACTORS = {1, 1000};
+
+    /**
+     * Units of a duration.
+     */
+    private static final String[] HOUR_UNITS = {"h", "Std", "min"};
+
+    /**
+     * Factors by which a duration is converted to hours for each of the units.
+     */
+    private static final double[] HOUR_FACTORS = {1, 1, 1.0 / 60};
+
+    /**
+     * Units of an energy.
+     */
+    private static final String[] WH_UNITS = {"Wh", "kWh", "MWh"};
+
+    /**
+     * Factors by which an energy is converted to watt hours for each of the units.
+     */
+    private static final double[] WH_FACTORS = {1, 1000, 1000000};
+
+    /**
+     * Units of a percentage.
+     */
+    private static final String[] PERCENTAGE_UNITS = {"%"};
+
+    /**
+     * Factors by which a percentage is converted to percent for each of the units.
+     */
+    private static final double[] PERCENTAGE_FACTORS = {1};
+
+    /**
+     * Units of the time since a change.
+     */
+    private static final String[] MINUTE_UNITS = {"min", "h", "Std", "s", "sek"};
+
+    /**
+     * Factors by which the time since a change is converted to minutes for each of the units.
+     */
+    private static final double[] MINUTE_FACTORS = {1, 60, 60, 1.0 / 60, 1.0 / 60};
+
+
+    /**
+     * Constructor is private, since the class only provides static methods.
+     */
+    private ShMetrics() {
+
+    }
+
+
+    /**
+     * Method parses a current, e.g. "(85 mA)".
+     *
+     * @param text  Text which contains the current or null.
+     * @return      The current in milli ampere or {@link #NO_VALUE} if it could not be parsed.
+     */
+    public static int parseMilliAmp(@Nullable String text) {
+        double value = parse(text, MILLI_AMP_UNITS, MILLI_AMP_FACTORS);
+        return Double.isNaN(value) ? NO_VALUE : (int)Math.round(value);
+    }
+
+    /**
+     * Method parses a duration, e.g. "12,5 h".
+     *
+     * @param text  Text which contains the duration or null.
+     * @return      The duration in hours or {@link Double#NaN} if it could not be parsed.
+     */
+    public static double parseHours(@Nullable String text) {
+        return parse(text, HOUR_UNITS, HOUR_FACTORS);
+    }
+
+    /**
+     * Method parses an energy, e.g. "1.204 Wh" or "311 kWh".
+     *
+     * @param text  Text which contains the energy or null.
+     * @return      The energy in watt hours or {@link #NO_VALUE} if it could not be parsed.
+     */
+    public static long parseWh(@Nullable String text) {
+        double value = parse(text, WH_UNITS, WH_FACTORS);
+        return Double.isNaN(value) ? NO_VALUE : Math.round(value);
+    }
+
+    /**
+     * Method parses a percentage, e.g. "36".
+     *
+     * @param text  Text which contains the percentage or null.
+     * @return      The percentage or {@link #NO_VALUE} if it could not be parsed.
+     */
+    public static int parsePercentage(@Nullable String text) {
+        double value = parse(text, PERCENTAGE_UNITS, PERCENTAGE_FACTORS);
+        return Double.isNaN(value) ? NO_VALUE : (int)Math.round(value);
+    }
+
+    /**
+     * Method parses the time since a change, e.g. "(vor 6 min)".
+     *
+     * @param text  Text which contains the time or null.
+     * @return      The time in minutes or {@link #NO_VALUE} if it could not be parsed.
+     */
+    public static int parseMinutesAgo(@Nullable String text) {
+        double value = parse(text, MINUTE_UNITS, MINUTE_FACTORS);
+        return Double.isNaN(value) ? NO_VALUE : (int)Math.round(value);
+    }
+
+    /**
+     * Method returns the text of a metric which could not be parsed, so that it can be displayed instead
+     * of the value.
+     *
+     * @param text      Text of the metric or null.
+     * @param parsed    Whether the metric was parsed.
+     * @return          The text if the metric could not be parsed, otherwise null.
+     */
+    @Nullable
+    public static String getUnparsedText(@Nullable String text, boolean parsed) {
+        return parsed || text == null || text.trim().isEmpty() ? null : text;
+    }
+
+    /**
+     * Method returns the status of a metric.
+     *
+     * @param parsed        Whether the metric was parsed.
+     * @param unparsedText  Text of the metric if it could not be parsed or null.
+     * @return              The status of the metric.
+     */
+    @NonNull
+    public static ShMetricStatus getStatus(boolean parsed, @Nullable String unparsedText) {
+        if (parsed) {
+            return ShMetricStatus.Parsed;
+        }
+        return unparsedText != null ? ShMetricStatus.Unparseable : ShMetricStatus.Missing;
+    }
+
+    /**
+     * Method formats a current for display.
+     *
+     * @param milliAmp  The current in milli ampere.
+     * @return          The formatted current, e.g. "85 mA".
+     */
+    @NonNull
+    public static String formatMilliAmp(int milliAmp) {
+        return milliAmp + " mA";
+    }
+
+    /**
+     * Method formats a duration for display.
+     *
+     * @param hours     The duration in hours.
+     * @return          The formatted duration, e.g. "12,5 h".
+     */
+    @NonNull
+    public static String formatHours(double hours) {
+        return formatDecimal(hours, 2) + " h";
+    }
+
+    /**
+     * Method formats an energy for display. Energies of at least one kilowatt hour are displayed in
+     * kilowatt hours with up to three decimal places, so that the text parses to the same energy.
+     *
+     * @param wh        The energy in watt hours.
+     * @return          The formatted energy, e.g. "850 Wh" or "1,204 kWh".
+     */
+    @NonNull
+    public static String formatWh(long wh) {
+        return wh < 1000 ? wh + " Wh" : formatDecimal(wh / 1000.0, 3) + " kWh";
+    }
+
+    /**
+     * Method formats the time since a change for display.
+     *
+     * @param minutesAgo    The time in minutes.
+     * @return              The formatted time, e.g. "(vor 6 min)".
+     */
+    @NonNull
+    public static String formatMinutesAgo(int minutesAgo) {
+        return "(vor " + minutesAgo + " min)";
+    }
+
+    /**
+     * Method formats a decimal number with a decimal comma.
+     *
+     * @param value     The number.
+     * @param scale     The maximum number of decimal places.
+     * @return          The formatted number.
+     */
+    @NonNull
+    private static String formatDecimal(double value, int scale) {
+        if (value == Math.rint(value) && Math.abs(value) < Long.MAX_VALUE) {
+            return Long.toString((long)value);
+        }
+        return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP).stripTrailingZeros().toPlainString().replace('.', ',');
+    }
+
+    /**
+     * Method parses the first number of the text passed and converts it by the unit which follows the
+     * number. A number without a unit is not converted, a number with an unknown unit cannot be parsed.
+     *
+     * @param text      Text which contains the number or null.
+     * @param units     Units which may follow the number.
+     * @param factors   Factors by which the number is multiplied for each of the units.
+     * @return          The converted number or {@link Double#NaN} if no number could be parsed.
+     */
+    private static double parse(@Nullable String text, @NonNull String[] units, @NonNull double[] factors) {
+        if (text == null) {
+            return Double.NaN;
+        }
+        int start = 0;
+        while (start < text.length() && !isDigit(text.charAt(start))) {
+            start++;
+        }
+        if (start == text.length()) {
+            return Double.NaN;
+        }
+        int end = start;
+        boolean comma = false;
+        boolean dot = false;
+        while (end < text.length() && (isDigit(text.charAt(end)) || isSeparator(text.charAt(end)))) {
+            comma |= text.charAt(end) == ',';
+            dot |= text.charAt(end) == '.';
+            end++;
+        }
+        while (isSeparator(text.charAt(end - 1))) {
+            end--;
+        }
+
+        // A comma is always the decimal separator, a dot only if it cannot separate thousands.
+        char decimalSeparator = comma ? ',' : (dot && !hasThousandsDots(text, start, end) ? '.' : 0);
+        long mantissa = 0;
+        int decimals = 0;
+        boolean fraction = false;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (isDigit(c)) {
+                if (mantissa > (Long.MAX_VALUE - 9) / 10) {
+                    return Double.NaN;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (fraction) {
+                    decimals++;
+                }
+            }
+            else if (c == decimalSeparator) {
+                if (fraction) {
+                    return Double.NaN;
+                }
+                fraction = true;
+            }
+        }
+        double value = mantissa / Math.pow(10, decimals);
+
+        // Find the unit after the number.
+        int unitStart = end;
+        while (unitStart < text.length() && Character.isWhitespace(text.charAt(unitStart))) {
+            unitStart++;
+        }
+        int unitEnd = unitStart;
+        while (unitEnd < text.length() && (Character.isLetter(text.charAt(unitEnd)) || text.charAt(unitEnd) == '%')) {
+            unitEnd++;
+        }
+        if (unitEnd == unitStart) {
+            return value;
+        }
+        for (int i = 0; i < units.length; i++) {
+            if (units[i].length() == unitEnd - unitStart && text.startsWith(units[i], unitStart)) {
+                return value * factors[i];
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Method checks whether the dots of a number separate thousands, i.e. whether at most three digits
+     * precede the first dot and every dot is followed by exactly three digits.
+     *
+     * @param text      Text which contains the number.
+     * @param start     Index of the first character of the number.
+     * @param end       Index after the last character of the number.
+     * @return          Whether the dots separate thousands.
+     */
+    private static boolean hasThousandsDots(@NonNull String text, int start, int end) {
+        int digits = 0;
+        boolean afterDot = false;
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == '.') {
+                if (afterDot ? digits != 3 : digits > 3) {
+                    return false;
+                }
+                afterDot = true;
+                digits = 0;
+            }
+            else {
+                digits++;
+            }
+        }
+        return digits == 3;
+    }
+
+    /**
+     * Method checks whether a character is a decimal digit.
+     *
+     * @param c     The character.
+     * @return      Whether the character is a digit between 0 and 9.
+     */
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Method checks whether a character separates the digits of a number.
+     *
+     * @param c     The character.
+     * @return      Whether the character is a dot or a comma.
+     */
+    private static boolean isSeparator(char c) {
+        return c == '.' || c == ',';
+    }
+
+}
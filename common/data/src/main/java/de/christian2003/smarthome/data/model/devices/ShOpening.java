@@ -15,6 +15,12 @@ public class ShOpening extends ShGenericDevice {
     @NonNull
     private final ShOpeningType openingType;
 
+    /**
+     * The {@link ShOpeningState} of the opening, which is determined by the image of the opening.
+     */
+    @NonNull
+    private final ShOpeningState openingState;
+
     /**
      * Constructor instantiates a new door / window.
      *
@@ -26,6 +32,7 @@ public class ShOpening extends ShGenericDevice {
     public ShOpening(@NonNull String name, @NonNull ShOpeningType openingType, @Nullable String specifier, @Nullable String imageUri) {
         super(name, specifier, imageUri);
         this.openingType = openingType;
+        this.openingState = ShOpeningState.fromImageUri(imageUri);
     }
 
     /**
@@ -37,4 +44,25 @@ public class ShOpening extends ShGenericDevice {
     public ShOpeningType getOpeningType() {
         return openingType;
     }
-}
\ No newline at end of file
+
+    /**
+     * Method returns the {@link ShOpeningState} of the opening.
+     *
+     * @return The {@link ShOpeningState} of the opening.
+     */
+    @NonNull
+    public ShOpeningState getOpeningState() {
+        return openingState;
+    }
+
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (super.equals(obj)) {
+            ShOpening opening = (ShOpening)obj;
+            return opening.openingType == openingType
+                    && opening.openingState == openingState;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,39 @@
+package de.christian2003.smarthome.data.model.devices;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * The different states of an opening, as displayed by the image of the opening on the webpage.
+ */
+public enum ShOpeningState {
+    Closed,
+    Tilted,
+    Open,
+    Unknown;
+
+
+    /**
+     * Method determines the state of an opening from the URI of its image, e.g. "/img/fenster_kipp.png".
+     *
+     * @param imageUri  URI of the image of the opening or null.
+     * @return          The state of the opening.
+     */
+    @NonNull
+    public static ShOpeningState fromImageUri(@Nullable String imageUri) {
+        if (imageUri == null) {
+            return Unknown;
+        }
+        String image = imageUri.substring(imageUri.lastIndexOf('/') + 1);
+        if (image.contains("kipp")) {
+            return Tilted;
+        }
+        if (image.contains("auf")) {
+            return Open;
+        }
+        if (image.contains("zu")) {
+            return Closed;
+        }
+        return Unknown;
+    }
+}
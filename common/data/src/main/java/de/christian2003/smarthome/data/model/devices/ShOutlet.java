@@ -1,7 +1,10 @@
 package de.christian2003.smarthome.data.model.devices;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import java.util.Objects;
+
 
 /**
  * Class models an outlet for the smart home.
@@ -21,26 +24,45 @@ public class ShOutlet extends ShGenericDevice {
     private final String offButtonText;
 
     /**
-     * Attribute stores the amperage (in "mA") for the outlet.
+     * Attribute stores the amperage (in "mA") for the outlet or {@link ShMetrics#NO_VALUE} if it is
+     * missing or could not be parsed.
+     */
+    private final int amperage;
+
+    /**
+     * Attribute stores the text of the amperage if it could not be parsed, otherwise null.
      */
     @Nullable
-    private String amperage;
+    private final String amperageText;
+
+    /**
+     * Attribute stores the time (in "h") the outlet is on or {@link Double#NaN} if it is missing or could
+     * not be parsed.
+     */
+    private final double time;
 
     /**
-     * Attribute stores the time the outlet is on?
+     * Attribute stores the text of the time if it could not be parsed, otherwise null.
      */
     @Nullable
-    private String time;
+    private final String timeText;
+
+    /**
+     * Attribute stores the power consumption (in "Wh") for the outlet or {@link ShMetrics#NO_VALUE} if it
+     * is missing or could not be parsed.
+     */
+    private final long powerConsumption;
 
     /**
-     * Attribute stores the power consumption (in "Wh") for the outlet.
+     * Attribute stores the text of the power consumption if it could not be parsed, otherwise null.
      */
     @Nullable
-    private String powerConsumption;
+    private final String powerConsumptionText;
 
 
     /**
-     * Constructor instantiates a new outlet.
+     * Constructor instantiates a new outlet. The amperage, time and power consumption are parsed from the
+     * texts of the webpage.
      *
      * @param name              Name for the outlet.
      * @param imageUri          URI for the image for the outlet.
@@ -54,9 +76,12 @@ public class ShOutlet extends ShGenericDevice {
         super(name,null, imageUri);
         this.onButtonText = onButtonText;
         this.offButtonText = offButtonText;
-        this.amperage = amperage;
-        this.time = time;
-        this.powerConsumption = powerConsumption;
+        this.amperage = ShMetrics.parseMilliAmp(amperage);
+        this.amperageText = ShMetrics.getUnparsedText(amperage, this.amperage != ShMetrics.NO_VALUE);
+        this.time = ShMetrics.parseHours(time);
+        this.timeText = ShMetrics.getUnparsedText(time, !Double.isNaN(this.time));
+        this.powerConsumption = ShMetrics.parseWh(powerConsumption);
+        this.powerConsumptionText = ShMetrics.getUnparsedText(powerConsumption, this.powerConsumption != ShMetrics.NO_VALUE);
     }
 
 
@@ -81,33 +106,106 @@ public class ShOutlet extends ShGenericDevice {
     }
 
     /**
-     * Method returns the amperage for the outlet.
+     * Method returns the amperage for the outlet for display.
      *
      * @return  Amperage for the outlet.
      */
     @Nullable
     public String getAmperage() {
+        return amperage != ShMetrics.NO_VALUE ? ShMetrics.formatMilliAmp(amperage) : amperageText;
+    }
+
+    /**
+     * Method returns the amperage for the outlet.
+     *
+     * @return  Amperage (in "mA") or {@link ShMetrics#NO_VALUE} if it is missing or could not be parsed.
+     */
+    public int getAmperageValue() {
         return amperage;
     }
 
     /**
-     * Method returns the time that the outlet is turned on.
+     * Method returns whether the amperage for the outlet could be parsed.
+     *
+     * @return  The status of the amperage.
+     */
+    @NonNull
+    public ShMetricStatus getAmperageStatus() {
+        return ShMetrics.getStatus(amperage != ShMetrics.NO_VALUE, amperageText);
+    }
+
+    /**
+     * Method returns the time that the outlet is turned on for display.
      *
      * @return  Time that the outlet is turned on.
      */
     @Nullable
     public String getTime() {
+        return !Double.isNaN(time) ? ShMetrics.formatHours(time) : timeText;
+    }
+
+    /**
+     * Method returns the time that the outlet is turned on.
+     *
+     * @return  Time (in "h") or {@link Double#NaN} if it is missing or could not be parsed.
+     */
+    public double getTimeValue() {
         return time;
     }
 
     /**
-     * Method returns the power consumption for the outlet.
+     * Method returns whether the time that the outlet is turned on could be parsed.
+     *
+     * @return  The status of the time.
+     */
+    @NonNull
+    public ShMetricStatus getTimeStatus() {
+        return ShMetrics.getStatus(!Double.isNaN(time), timeText);
+    }
+
+    /**
+     * Method returns the power consumption for the outlet for display.
      *
      * @return  Power consumption for the outlet.
      */
     @Nullable
     public String getPowerConsumption() {
+        return powerConsumption != ShMetrics.NO_VALUE ? ShMetrics.formatWh(powerConsumption) : powerConsumptionText;
+    }
+
+    /**
+     * Method returns the power consumption for the outlet.
+     *
+     * @return  Power consumption (in "Wh") or {@link ShMetrics#NO_VALUE} if it is missing or could not be parsed.
+     */
+    public long getPowerConsumptionValue() {
         return powerConsumption;
     }
 
+    /**
+     * Method returns whether the power consumption for the outlet could be parsed.
+     *
+     * @return  The status of the power consumption.
+     */
+    @NonNull
+    public ShMetricStatus getPowerConsumptionStatus() {
+        return ShMetrics.getStatus(powerConsumption != ShMetrics.NO_VALUE, powerConsumptionText);
+    }
+
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (super.equals(obj)) {
+            ShOutlet outlet = (ShOutlet)obj;
+            return Objects.equals(outlet.onButtonText, onButtonText)
+                    && Objects.equals(outlet.offButtonText, offButtonText)
+                    && outlet.amperage == amperage
+                    && Objects.equals(outlet.amperageText, amperageText)
+                    && Double.compare(outlet.time, time) == 0
+                    && Objects.equals(outlet.timeText, timeText)
+                    && outlet.powerConsumption == powerConsumption
+                    && Objects.equals(outlet.powerConsumptionText, powerConsumptionText);
+        }
+        return false;
+    }
 }
@@ -3,6 +3,8 @@ package de.christian2003.smarthome.data.model.devices;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import java.util.Objects;
+
 
 /**
  * Class models a shutter for the smart home device.
@@ -17,22 +19,33 @@ public class ShShutter extends ShGenericDevice {
     private final String setButtonText;
 
     /**
-     * Attribute stores the percentage to which the shutter is closed. This is {@code null} if no
-     * percentage is provided.
+     * Attribute stores the percentage to which the shutter is closed. This is
+     * {@link ShMetrics#NO_VALUE} if no percentage is provided or it could not be parsed.
+     */
+    private final int percentage;
+
+    /**
+     * Attribute stores the text of the percentage if it could not be parsed, otherwise null.
      */
     @Nullable
-    private final String percentage;
+    private final String percentageText;
+
+    /**
+     * Attribute stores the number of minutes since the shutter was closed. This is
+     * {@link ShMetrics#NO_VALUE} if no time is provided or it could not be parsed.
+     */
+    private final int minutesAgo;
 
     /**
-     * Attribute stores the time at which the shutter was closed? This is {@code null} if no time
-     * is provided.
+     * Attribute stores the text of the time if it could not be parsed, otherwise null.
      */
     @Nullable
-    private final String time;
+    private final String timeText;
 
 
     /**
-     * Constructor instantiates a new shutter for the smart home.
+     * Constructor instantiates a new shutter for the smart home. The percentage and the time are parsed
+     * from the texts of the webpage.
      *
      * @param name          Name for the shutter.
      * @param specifier     Specifies the device.
@@ -44,8 +57,10 @@ public class ShShutter extends ShGenericDevice {
     public ShShutter(@NonNull String name, @Nullable String specifier, @Nullable String setButtonText, @Nullable String percentage, @Nullable String time) {
         super(name, specifier ,null);
         this.setButtonText = setButtonText;
-        this.percentage = percentage;
-        this.time = time;
+        this.percentage = ShMetrics.parsePercentage(percentage);
+        this.percentageText = ShMetrics.getUnparsedText(percentage, this.percentage != ShMetrics.NO_VALUE);
+        this.minutesAgo = ShMetrics.parseMinutesAgo(time);
+        this.timeText = ShMetrics.getUnparsedText(time, this.minutesAgo != ShMetrics.NO_VALUE);
     }
 
     /**
@@ -67,18 +82,69 @@ public class ShShutter extends ShGenericDevice {
      */
     @Nullable
     public String getPercentage() {
+        return percentage != ShMetrics.NO_VALUE ? String.valueOf(percentage) : percentageText;
+    }
+
+    /**
+     * Method returns the percentage to which the shutter is closed.
+     *
+     * @return  Percentage or {@link ShMetrics#NO_VALUE} if no percentage is provided or it could not be parsed.
+     */
+    public int getPercentageValue() {
         return percentage;
     }
 
     /**
-     * Method returns the time at which the shutter was closed. This returns {@code null} if no time
-     * is provided.
+     * Method returns whether the percentage to which the shutter is closed could be parsed.
+     *
+     * @return  The status of the percentage.
+     */
+    @NonNull
+    public ShMetricStatus getPercentageStatus() {
+        return ShMetrics.getStatus(percentage != ShMetrics.NO_VALUE, percentageText);
+    }
+
+    /**
+     * Method returns the time at which the shutter was closed for display. This returns {@code null} if
+     * no time is provided.
      *
      * @return  Time at which the shutter was closed
      */
     @Nullable
     public String getTime() {
-        return time;
+        return minutesAgo != ShMetrics.NO_VALUE ? ShMetrics.formatMinutesAgo(minutesAgo) : timeText;
+    }
+
+    /**
+     * Method returns the number of minutes since the shutter was closed.
+     *
+     * @return  Minutes or {@link ShMetrics#NO_VALUE} if no time is provided or it could not be parsed.
+     */
+    public int getMinutesAgo() {
+        return minutesAgo;
     }
 
+    /**
+     * Method returns whether the time at which the shutter was closed could be parsed.
+     *
+     * @return  The status of the time.
+     */
+    @NonNull
+    public ShMetricStatus getTimeStatus() {
+        return ShMetrics.getStatus(minutesAgo != ShMetrics.NO_VALUE, timeText);
+    }
+
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (super.equals(obj)) {
+            ShShutter shutter = (ShShutter)obj;
+            return Objects.equals(shutter.setButtonText, setButtonText)
+                    && shutter.percentage == percentage
+                    && Objects.equals(shutter.percentageText, percentageText)
+                    && shutter.minutesAgo == minutesAgo
+                    && Objects.equals(shutter.timeText, timeText);
+        }
+        return false;
+    }
 }
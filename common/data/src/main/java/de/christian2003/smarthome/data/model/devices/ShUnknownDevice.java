@@ -3,6 +3,8 @@ package de.christian2003.smarthome.data.model.devices;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import java.util.Objects;
+
 /**
  * Class models an unknown device.
  */
@@ -20,25 +22,41 @@ public class ShUnknownDevice extends ShGenericDevice{
     private final String offButtonText;
 
     /**
-     * The milli amp of the unknown device.
+     * The milli amp of the unknown device or {@link ShMetrics#NO_VALUE} if they are missing or could not be parsed.
+     */
+    private final int milliAmp;
+
+    /**
+     * The text of the milli amp of the unknown device if it could not be parsed, otherwise null.
      */
     @Nullable
-    private final String milliAmp;
+    private final String milliAmpText;
+
+    /**
+     * The hours of the unknown device or {@link Double#NaN} if they are missing or could not be parsed.
+     */
+    private final double hours;
 
     /**
-     * The hours of the unknown device.
+     * The text of the hours of the unknown device if they could not be parsed, otherwise null.
      */
     @Nullable
-    private final String hours;
+    private final String hoursText;
 
     /**
-     * The wh of the unknown device.
+     * The wh of the unknown device or {@link ShMetrics#NO_VALUE} if they are missing or could not be parsed.
+     */
+    private final long wh;
+
+    /**
+     * The text of the wh of the unknown device if they could not be parsed, otherwise null.
      */
     @Nullable
-    private final String wh;
+    private final String whText;
 
     /**
-     * Constructor instantiates a new unknown device.
+     * Constructor instantiates a new unknown device. The milli amp, hours and wh are parsed from the texts
+     * of the webpage.
      *
      * @param name          Name for the unknown device.
      * @param imageUri      URI for the image for the unknown device.
@@ -52,9 +70,12 @@ public class ShUnknownDevice extends ShGenericDevice{
         super(name, null, imageUri);
         this.onButtonText = onButtonText;
         this.offButtonText = offButtonText;
-        this.milliAmp = milliAmp;
-        this.hours = hours;
-        this.wh = wh;
+        this.milliAmp = ShMetrics.parseMilliAmp(milliAmp);
+        this.milliAmpText = ShMetrics.getUnparsedText(milliAmp, this.milliAmp != ShMetrics.NO_VALUE);
+        this.hours = ShMetrics.parseHours(hours);
+        this.hoursText = ShMetrics.getUnparsedText(hours, !Double.isNaN(this.hours));
+        this.wh = ShMetrics.parseWh(wh);
+        this.whText = ShMetrics.getUnparsedText(wh, this.wh != ShMetrics.NO_VALUE);
     }
 
     /**
@@ -78,32 +99,106 @@ public class ShUnknownDevice extends ShGenericDevice{
     }
 
     /**
-     * Method returns the milli amp of the unknown device.
+     * Method returns the milli amp of the unknown device for display.
      *
      * @return The milli amp of the unknown device.
      */
     @Nullable
     public String getMilliAmp() {
+        return milliAmp != ShMetrics.NO_VALUE ? "(" + ShMetrics.formatMilliAmp(milliAmp) + ")" : milliAmpText;
+    }
+
+    /**
+     * Method returns the milli amp of the unknown device.
+     *
+     * @return  The milli amp or {@link ShMetrics#NO_VALUE} if they are missing or could not be parsed.
+     */
+    public int getMilliAmpValue() {
         return milliAmp;
     }
 
     /**
-     * Method returns the hours of the unknown device.
+     * Method returns whether the milli amp of the unknown device could be parsed.
+     *
+     * @return  The status of the milli amp.
+     */
+    @NonNull
+    public ShMetricStatus getMilliAmpStatus() {
+        return ShMetrics.getStatus(milliAmp != ShMetrics.NO_VALUE, milliAmpText);
+    }
+
+    /**
+     * Method returns the hours of the unknown device for display.
      *
      * @return  The hours of the unknown device.
      */
     @Nullable
     public String getHours() {
+        return !Double.isNaN(hours) ? ShMetrics.formatHours(hours) : hoursText;
+    }
+
+    /**
+     * Method returns the hours of the unknown device.
+     *
+     * @return  The hours or {@link Double#NaN} if they are missing or could not be parsed.
+     */
+    public double getHoursValue() {
         return hours;
     }
 
     /**
-     * Method returns the wh of the unknown device.
+     * Method returns whether the hours of the unknown device could be parsed.
+     *
+     * @return  The status of the hours.
+     */
+    @NonNull
+    public ShMetricStatus getHoursStatus() {
+        return ShMetrics.getStatus(!Double.isNaN(hours), hoursText);
+    }
+
+    /**
+     * Method returns the wh of the unknown device for display.
      *
      * @return  The wh of the unknown device.
      */
     @Nullable
     public String getWh() {
+        return wh != ShMetrics.NO_VALUE ? ShMetrics.formatWh(wh) : whText;
+    }
+
+    /**
+     * Method returns the wh of the unknown device.
+     *
+     * @return  The wh or {@link ShMetrics#NO_VALUE} if they are missing or could not be parsed.
+     */
+    public long getWhValue() {
         return wh;
     }
+
+    /**
+     * Method returns whether the wh of the unknown device could be parsed.
+     *
+     * @return  The status of the wh.
+     */
+    @NonNull
+    public ShMetricStatus getWhStatus() {
+        return ShMetrics.getStatus(wh != ShMetrics.NO_VALUE, whText);
+    }
+
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (super.equals(obj)) {
+            ShUnknownDevice device = (ShUnknownDevice)obj;
+            return Objects.equals(device.onButtonText, onButtonText)
+                    && Objects.equals(device.offButtonText, offButtonText)
+                    && device.milliAmp == milliAmp
+                    && Objects.equals(device.milliAmpText, milliAmpText)
+                    && Double.compare(device.hours, hours) == 0
+                    && Objects.equals(device.hoursText, hoursText)
+                    && device.wh == wh
+                    && Objects.equals(device.whText, whText);
+        }
+        return false;
+    }
 }
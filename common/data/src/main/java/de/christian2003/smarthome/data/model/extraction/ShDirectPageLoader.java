@@ -0,0 +1,423 @@
+package de.christian2003.smarthome.data.model.extraction;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Locale;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLContext;
+
+import de.christian2003.smarthome.data.model.cert.SharedSslContext;
+import de.christian2003.smarthome.data.model.cert.SslTrustResponse;
+import de.christian2003.smarthome.data.model.cert.SslTrustStatus;
+import de.christian2003.smarthome.data.model.extraction.stream.ShStreamingExtractor;
+import de.christian2003.smarthome.data.model.room.ShRoom;
+
+
+/**
+ * Class loads the smart home webpage directly through HTTPS without rendering it in a web view. This
+ * only works if the rooms of the smart home are rendered by the server.
+ */
+public class ShDirectPageLoader {
+
+    /**
+     * Timeout (in milliseconds) for establishing the connection to the server.
+     */
+    private static final int CONNECT_TIMEOUT = 5000;
+
+    /**
+     * Timeout (in milliseconds) for reading the webpage from the server.
+     */
+    private static final int READ_TIMEOUT = 10000;
+
+    /**
+     * The context used to access the client certificate.
+     */
+    @NonNull
+    private final Context context;
+
+    /**
+     * States if the rooms are extracted while streaming the html instead of parsing it into a document.
+     */
+    private final boolean streaming;
+
+    /**
+     * The SSL trust response for the server certificate. This is null if the server certificate is
+     * trusted by the system.
+     */
+    @Nullable
+    private SslTrustResponse sslTrustResponse;
+
+    /**
+     * The cached rooms if the webpage did not change since it was loaded the last time. This is null
+     * if the webpage changed.
+     */
+    @Nullable
+    private ArrayList<ShRoom> unchangedRooms;
+
+    /**
+     * The rooms which were extracted while streaming the html of the webpage. This is null if the html was
+     * not streamed or if it deviates from the shape which can be streamed.
+     */
+    @Nullable
+    private ArrayList<ShRoom> streamedRooms;
+
+    /**
+     * Hash of the html of the loaded webpage.
+     */
+    private long contentHash;
+
+    /**
+     * ETag of the loaded webpage or null if the server did not send one.
+     */
+    @Nullable
+    private String eTag;
+
+    /**
+     * Last-Modified header of the loaded webpage or null if the server did not send one.
+     */
+    @Nullable
+    private String lastModified;
+
+
+    /**
+     * Constructor instantiates a new direct page loader.
+     *
+     * @param context   The context used to access the client certificate.
+     */
+    public ShDirectPageLoader(@NonNull Context context) {
+        this(context, false);
+    }
+
+    /**
+     * Constructor instantiates a new direct page loader.
+     *
+     * @param context   The context used to access the client certificate.
+     * @param streaming Whether the rooms are extracted while streaming the html instead of parsing it.
+     */
+    public ShDirectPageLoader(@NonNull Context context, boolean streaming) {
+        this.context = context;
+        this.streaming = streaming;
+    }
+
+
+    /**
+     * Loads the webpage with the url passed and parses it into a document. The webpage is requested
+     * conditionally if its validators are cached, and it is not parsed if it did not change since it was
+     * loaded the last time. In both cases, the cached rooms are returned by {@link #getUnchangedRooms()}.
+     * If the loader streams the html, the rooms are returned by {@link #getStreamedRooms()} instead of a
+     * document, unless the html deviates from the shape which can be streamed.
+     * This method must not be called from main thread!
+     *
+     * @param url   The url of the webpage that should be loaded.
+     * @return      The document of the webpage or null if the webpage did not change, was streamed, could
+     *              not be loaded or does not contain any rooms. In the latter cases the webpage must be
+     *              loaded in a web view.
+     */
+    @Nullable
+    public Document loadDocument(@NonNull String url) {
+        // The SSL context is shared across refreshes, so that sessions are resumed and connections are reused.
+        SharedSslContext sharedSslContext = SharedSslContext.getInstance(context);
+        SSLContext sslContext = sharedSslContext.getSSLContext();
+        if (sslContext == null) {
+            Log.d("DirectLoading", "No SSL context available");
+            return null;
+        }
+        sharedSslContext.beginRequest();
+
+        try {
+            URLConnection urlConnection = new URL(url).openConnection();
+            if (!(urlConnection instanceof HttpsURLConnection)) {
+                Log.d("DirectLoading", "Url does not use HTTPS");
+                return null;
+            }
+            HttpsURLConnection connection = (HttpsURLConnection) urlConnection;
+            connection.setSSLSocketFactory(sslContext.getSocketFactory());
+            connection.setHostnameVerifier(sharedSslContext.getHostnameVerifier());
+            connection.setConnectTimeout(CONNECT_TIMEOUT);
+            connection.setReadTimeout(READ_TIMEOUT);
+
+            ShPageCache pageCache = ShPageCache.getInstance();
+            ArrayList<ShRoom> validatedRooms = pageCache.getValidatedRooms(url);
+            if (validatedRooms != null) {
+                // Request the webpage conditionally, so that the server does not send an unchanged webpage.
+                String cachedETag = pageCache.getETag(url);
+                String cachedLastModified = pageCache.getLastModified(url);
+                if (cachedETag != null) {
+                    connection.setRequestProperty("If-None-Match", cachedETag);
+                }
+                if (cachedLastModified != null) {
+                    connection.setRequestProperty("If-Modified-Since", cachedLastModified);
+                }
+            }
+
+            long requestStart = System.currentTimeMillis();
+            int statusCode = connection.getResponseCode();
+            sharedSslContext.endRequest(requestStart, System.currentTimeMillis() - requestStart);
+            if (statusCode == HttpURLConnection.HTTP_NOT_MODIFIED && validatedRooms != null) {
+                Log.d("DirectLoading", "Webpage not modified");
+                unchangedRooms = validatedRooms;
+                contentHash = pageCache.getContentHash();
+                // A 304 response may update the validators, otherwise the cached validators stay valid.
+                eTag = connection.getHeaderField("ETag");
+                if (eTag == null) {
+                    eTag = pageCache.getETag(url);
+                }
+                lastModified = connection.getHeaderField("Last-Modified");
+                if (lastModified == null) {
+                    lastModified = pageCache.getLastModified(url);
+                }
+                releaseConnection(connection);
+                return null;
+            }
+            if (statusCode != HttpURLConnection.HTTP_OK) {
+                Log.d("DirectLoading", "Unexpected status code: " + statusCode);
+                releaseConnection(connection);
+                return null;
+            }
+            eTag = connection.getHeaderField("ETag");
+            lastModified = connection.getHeaderField("Last-Modified");
+
+            byte[] content;
+            try (InputStream inputStream = connection.getInputStream()) {
+                content = readContent(inputStream);
+            }
+            contentHash = ShPageCache.hash(content);
+            unchangedRooms = pageCache.getRooms(contentHash);
+            if (unchangedRooms != null) {
+                Log.d("DirectLoading", "Webpage unchanged");
+                return null;
+            }
+            if (streaming) {
+                String html = decodeContent(content, getCharset(connection.getContentType()));
+                if (html != null) {
+                    ShStreamingExtractor streamingExtractor = new ShStreamingExtractor(html);
+                    ArrayList<ShRoom> rooms = streamingExtractor.extract();
+                    if (rooms != null && rooms.isEmpty()) {
+                        Log.d("DirectLoading", "Document does not contain any rooms");
+                        return null;
+                    }
+                    else if (rooms != null) {
+                        streamedRooms = rooms;
+                        return null;
+                    }
+                    Log.d("DirectLoading", "Webpage cannot be streamed: " + streamingExtractor.getDeviation());
+                }
+            }
+            Document document = Jsoup.parse(new ByteArrayInputStream(content), getCharset(connection.getContentType()), url);
+
+            // The rooms are rendered through JavaScript if the document does not contain any rooms.
+            if (document.selectFirst("div.room") == null) {
+                Log.d("DirectLoading", "Document does not contain any rooms");
+                return null;
+            }
+            return document;
+        }
+        catch (IOException e) {
+            Log.d("DirectLoading", "Cannot load webpage: " + e.getMessage());
+            return null;
+        }
+        finally {
+            sslTrustResponse = sharedSslContext.getTrustManager().getSslTrustResponse();
+        }
+    }
+
+
+    /**
+     * Gets the SSL trust response for the server certificate. This is null if the server certificate is
+     * trusted by the system.
+     *
+     * @return  The SSL trust response.
+     */
+    @Nullable
+    public SslTrustResponse getSslTrustResponse() {
+        return sslTrustResponse;
+    }
+
+
+    /**
+     * Gets the cached rooms if the webpage did not change since it was loaded the last time.
+     *
+     * @return  The cached rooms or null if the webpage changed or was not loaded.
+     */
+    @Nullable
+    public ArrayList<ShRoom> getUnchangedRooms() {
+        return unchangedRooms;
+    }
+
+
+    /**
+     * Gets the rooms which were extracted while streaming the html of the webpage.
+     *
+     * @return  The streamed rooms or null if the webpage was not streamed.
+     */
+    @Nullable
+    public ArrayList<ShRoom> getStreamedRooms() {
+        return streamedRooms;
+    }
+
+
+    /**
+     * Gets the hash of the html of the loaded webpage.
+     *
+     * @return  Hash of the html.
+     */
+    public long getContentHash() {
+        return contentHash;
+    }
+
+
+    /**
+     * Gets the ETag of the loaded webpage.
+     *
+     * @return  The ETag or null if the server did not send one.
+     */
+    @Nullable
+    public String getETag() {
+        return eTag;
+    }
+
+
+    /**
+     * Gets the Last-Modified header of the loaded webpage.
+     *
+     * @return  The Last-Modified header or null if the server did not send one.
+     */
+    @Nullable
+    public String getLastModified() {
+        return lastModified;
+    }
+
+
+    /**
+     * Gets whether the server certificate was rejected because it is not trusted by the system or the
+     * user.
+     *
+     * @return  Whether the server certificate is untrusted.
+     */
+    public boolean isServerCertUntrusted() {
+        return sslTrustResponse != null && sslTrustResponse.getStatus() == SslTrustStatus.Untrusted;
+    }
+
+
+    /**
+     * Releases the connection passed after a response without a relevant body, so that the connection
+     * can be kept alive and reused for the next request.
+     *
+     * @param connection    Connection to release.
+     */
+    private static void releaseConnection(@NonNull HttpURLConnection connection) {
+        try {
+            InputStream inputStream = connection.getResponseCode() < HttpURLConnection.HTTP_BAD_REQUEST ? connection.getInputStream() : connection.getErrorStream();
+            if (inputStream != null) {
+                readContent(inputStream);
+                inputStream.close();
+            }
+        }
+        catch (IOException e) {
+            // The connection is not reused.
+        }
+    }
+
+
+    /**
+     * Reads the complete response body.
+     *
+     * @param inputStream   Stream of the response body.
+     * @return              The response body.
+     * @throws IOException  The response body could not be read.
+     */
+    @NonNull
+    private static byte[] readContent(@NonNull InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(64 * 1024);
+        byte[] buffer = new byte[8 * 1024];
+        int count;
+        while ((count = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, count);
+        }
+        return outputStream.toByteArray();
+    }
+
+
+    /**
+     * Extracts the charset from the content type of the response.
+     *
+     * @param contentType   The content type of the response.
+     * @return              The charset or null if Jsoup shall detect the charset.
+     */
+    @Nullable
+    private static String getCharset(@Nullable String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        for (String parameter : contentType.split(";")) {
+            String trimmedParameter = parameter.trim();
+            if (trimmedParameter.toLowerCase().startsWith("charset=")) {
+                return trimmedParameter.substring("charset=".length()).replace("\"", "");
+            }
+        }
+        return null;
+    }
+
+
+
+    /**
+     * Decodes the response body for streaming. The charset is determined like Jsoup determines it: a byte
+     * order mark takes precedence over the charset of the content type, and without both the charset of
+     * a meta element is used, which defaults to UTF-8.
+     *
+     * @param content       The response body.
+     * @param charsetName   The charset of the content type or null.
+     * @return              The html or null if the charset is not supported for streaming.
+     */
+    @Nullable
+    private static String decodeContent(@NonNull byte[] content, @Nullable String charsetName) {
+        if (content.length >= 3 && content[0] == (byte) 0xEF && content[1] == (byte) 0xBB && content[2] == (byte) 0xBF) {
+            return new String(content, 3, content.length - 3, StandardCharsets.UTF_8);
+        }
+        if (content.length >= 2 && ((content[0] == (byte) 0xFE && content[1] == (byte) 0xFF) || (content[0] == (byte) 0xFF && content[1] == (byte) 0xFE))) {
+            return null;
+        }
+        if (charsetName == null) {
+            // Only the head of the webpage is searched for the charset of a meta element.
+            String head = new String(content, 0, Math.min(content.length, 1024), StandardCharsets.ISO_8859_1).toLowerCase(Locale.ROOT);
+            int index = head.indexOf("charset=");
+            if (index == -1) {
+                return new String(content, StandardCharsets.UTF_8);
+            }
+            int start = index + "charset=".length();
+            while (start < head.length() && (head.charAt(start) == '"' || head.charAt(start) == '\'')) {
+                start++;
+            }
+            int end = start;
+            while (end < head.length() && (Character.isLetterOrDigit(head.charAt(end)) || head.charAt(end) == '-' || head.charAt(end) == '_')) {
+                end++;
+            }
+            charsetName = head.substring(start, end);
+        }
+        try {
+            return new String(content, Charset.forName(charsetName));
+        }
+        catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package de.christian2003.smarthome.data.model.extraction;
+
+/**
+ * The different ways in which the rooms are passed from the web view to the app.
+ */
+public enum ShExtractionMode {
+    /**
+     * The complete html of the webpage is passed to the app and parsed with Jsoup. This is the
+     * reference implementation.
+     */
+    Html,
+
+    /**
+     * Only the properties of the rooms which the extraction reads are projected into a compact JSON
+     * payload within the webpage. The app creates the rooms from the payload without parsing any html. If
+     * the rooms deviate from the shape which can be projected, the html is passed like with {@link #Html}.
+     */
+    Projection,
+
+    /**
+     * The complete html of the webpage is passed to the app like with {@link #Html}, but the rooms are
+     * extracted while the html is scanned once, without building a document. If the html deviates from
+     * the expected shape, it is parsed with Jsoup instead.
+     */
+    Stream,
+
+    /**
+     * The rooms are projected like with {@link #Projection}. Afterwards, the webpage stays loaded and
+     * pushes the rows that changed, so that the rooms are kept up to date without reloading the webpage.
+     */
+    Live
+}
@@ -0,0 +1,216 @@
+package de.christian2003.smarthome.data.model.extraction;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.christian2003.smarthome.data.model.extraction.projection.ShProjectedRoom;
+import de.christian2003.smarthome.data.model.extraction.projection.ShProjectedRow;
+import de.christian2003.smarthome.data.model.extraction.projection.ShRoomChange;
+import de.christian2003.smarthome.data.model.extraction.search.room.ShRoomSearch;
+import de.christian2003.smarthome.data.model.extraction.stream.ShShapeDeviationException;
+import de.christian2003.smarthome.data.model.room.ShRoom;
+
+
+/**
+ * Class keeps the rooms of the smart home webpage up to date while the webpage stays loaded. The projected
+ * rooms are patched with the changes pushed by the webpage and only the changed rooms are created again,
+ * all other rooms are reused. The sequence numbers of the pushed messages are tracked, so that a missed
+ * message is detected and a snapshot can be requested. A snapshot is only requested once until the next
+ * snapshot is applied, so that a webpage whose rooms cannot be projected is not asked for snapshots over
+ * and over. All methods are thread safe.
+ */
+public class ShLiveRooms {
+
+    /**
+     * The projected rooms of the webpage in document order.
+     */
+    @NonNull
+    private ArrayList<ShProjectedRoom> projectedRooms;
+
+    /**
+     * The rooms created from the projected rooms in document order.
+     */
+    @NonNull
+    private ArrayList<ShRoom> rooms;
+
+    /**
+     * Index of the room which displays the "gesamtstatus" or -1 if there is no such room.
+     */
+    private int gesamtstatusIndex;
+
+    /**
+     * Sequence number of the last message which was applied.
+     */
+    private long sequence;
+
+    /**
+     * States if changes are rejected until the next snapshot, since a message was missed.
+     */
+    private boolean awaitingSnapshot;
+
+    /**
+     * States if a snapshot was requested since the last snapshot was applied.
+     */
+    private boolean snapshotRequested;
+
+
+    /**
+     * Constructor instantiates new live rooms, which reject all changes until the first snapshot is
+     * passed to {@link #reset(List, long)}.
+     */
+    public ShLiveRooms() {
+        this.projectedRooms = new ArrayList<>();
+        this.rooms = new ArrayList<>();
+        this.gesamtstatusIndex = -1;
+        this.awaitingSnapshot = true;
+    }
+
+
+    /**
+     * Replaces all rooms with the snapshot passed. If a room of the snapshot deviates from the shape which
+     * can be projected, the current rooms are kept and all changes are rejected until the next snapshot.
+     *
+     * @param projectedRooms    The projected rooms of the webpage in document order.
+     * @param sequence          Sequence number of the snapshot.
+     * @return                  Whether the snapshot was applied.
+     */
+    public synchronized boolean reset(@NonNull List<ShProjectedRoom> projectedRooms, long sequence) {
+        ArrayList<ShProjectedRoom> snapshot = new ArrayList<>(projectedRooms);
+        if (!update(snapshot)) {
+            awaitingSnapshot = true;
+            return false;
+        }
+        this.sequence = sequence;
+        this.awaitingSnapshot = false;
+        this.snapshotRequested = false;
+        return true;
+    }
+
+
+    /**
+     * Applies the changes passed. The changes are rejected if a previous message was missed or if they
+     * do not fit to the current rooms. In this case a snapshot is required and all further changes are
+     * rejected until the snapshot is passed to {@link #reset(List, long)}.
+     *
+     * @param sequence  Sequence number of the message containing the changes.
+     * @param changes   The changes to apply.
+     * @return          Whether the changes were applied. If false, a snapshot must be requested through
+     *                  {@link #requireSnapshot()}.
+     */
+    public synchronized boolean applyChanges(long sequence, @NonNull List<ShRoomChange> changes) {
+        if (awaitingSnapshot || sequence != this.sequence + 1) {
+            awaitingSnapshot = true;
+            return false;
+        }
+
+        ArrayList<ShProjectedRoom> changedRooms = new ArrayList<>(projectedRooms);
+        for (ShRoomChange change : changes) {
+            if (!applyChange(changedRooms, change)) {
+                awaitingSnapshot = true;
+                return false;
+            }
+        }
+        if (!update(changedRooms)) {
+            awaitingSnapshot = true;
+            return false;
+        }
+        this.sequence = sequence;
+        return true;
+    }
+
+
+    /**
+     * Rejects all further changes until the next snapshot. This is used if a message could not be read or
+     * if changes were rejected.
+     *
+     * @return  Whether a snapshot must be requested, which is false if a snapshot was requested already.
+     */
+    public synchronized boolean requireSnapshot() {
+        awaitingSnapshot = true;
+        if (snapshotRequested) {
+            return false;
+        }
+        snapshotRequested = true;
+        return true;
+    }
+
+
+    /**
+     * Gets the rooms of the webpage. The room which displays the "gesamtstatus" is the first room, like
+     * with {@link ShRoomSearch#findAllRooms(org.jsoup.nodes.Document)}.
+     *
+     * @return  New list containing the rooms.
+     */
+    @NonNull
+    public synchronized ArrayList<ShRoom> getRooms() {
+        ArrayList<ShRoom> orderedRooms = new ArrayList<>(rooms);
+        if (gesamtstatusIndex != -1) {
+            orderedRooms.add(0, orderedRooms.remove(gesamtstatusIndex));
+        }
+        return orderedRooms;
+    }
+
+
+    /**
+     * Creates the rooms from the projected rooms passed and replaces the current rooms. The rooms which
+     * did not change are reused by their projected rooms.
+     *
+     * @param projectedRooms    The projected rooms in document order.
+     * @return                  Whether all rooms could be created.
+     */
+    private boolean update(@NonNull ArrayList<ShProjectedRoom> projectedRooms) {
+        int gesamtstatusIndex = -1;
+        for (int i = 0; i < projectedRooms.size() && gesamtstatusIndex == -1; i++) {
+            if (projectedRooms.get(i).isGesamtstatus()) {
+                gesamtstatusIndex = i;
+            }
+        }
+        ArrayList<ShRoom> rooms = new ArrayList<>(projectedRooms.size());
+        try {
+            for (int i = 0; i < projectedRooms.size(); i++) {
+                ShProjectedRoom projectedRoom = projectedRooms.get(i);
+                rooms.add(projectedRoom.createRoom(i == gesamtstatusIndex, ShRoom.countOccurrence(rooms, projectedRoom.getRoomName())));
+            }
+        }
+        catch (ShShapeDeviationException e) {
+            return false;
+        }
+        this.projectedRooms = projectedRooms;
+        this.rooms = rooms;
+        this.gesamtstatusIndex = gesamtstatusIndex;
+        return true;
+    }
+
+
+    /**
+     * Applies a single change to the projected rooms passed.
+     *
+     * @param projectedRooms    The projected rooms to which to apply the change.
+     * @param change            The change to apply.
+     * @return                  Whether the change fits to the projected rooms.
+     */
+    private static boolean applyChange(@NonNull ArrayList<ShProjectedRoom> projectedRooms, @NonNull ShRoomChange change) {
+        int roomIndex = change.getRoomIndex();
+        if (roomIndex < 0 || roomIndex >= projectedRooms.size()) {
+            return false;
+        }
+
+        ShProjectedRoom room = change.getRoom();
+        ShProjectedRow row = change.getRow();
+        if (room != null) {
+            projectedRooms.set(roomIndex, room);
+        }
+        else if (row != null) {
+            ShProjectedRoom projectedRoom = projectedRooms.get(roomIndex);
+            List<ShProjectedRow> rows = projectedRoom.getRows();
+            if (rows == null || change.getRowIndex() >= rows.size()) {
+                return false;
+            }
+            projectedRooms.set(roomIndex, projectedRoom.replaceRow(change.getRowIndex(), row));
+        }
+        return true;
+    }
+
+}
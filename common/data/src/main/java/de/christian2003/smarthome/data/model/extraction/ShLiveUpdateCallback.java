@@ -0,0 +1,19 @@
+package de.christian2003.smarthome.data.model.extraction;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+
+import de.christian2003.smarthome.data.model.room.ShRoom;
+
+/**
+ * Callback to signal that the rooms changed while the webpage is kept loaded.
+ */
+public interface ShLiveUpdateCallback {
+    /**
+     * Passes the updated rooms. Rooms which did not change are the same objects as before.
+     *
+     * @param rooms     The updated rooms.
+     */
+    void onRoomsUpdated(@NonNull ArrayList<ShRoom> rooms);
+}
@@ -0,0 +1,36 @@
+package de.christian2003.smarthome.data.model.extraction;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+
+import de.christian2003.smarthome.data.model.extraction.projection.ShProjectedRoom;
+import de.christian2003.smarthome.data.model.extraction.projection.ShRoomChange;
+
+/**
+ * Listener through which the {@link ShWebpageInterface} passes the messages that the webpage pushes while
+ * it is kept loaded.
+ */
+public interface ShLiveUpdateListener {
+    /**
+     * Gets called when the webpage passes a complete snapshot of its rooms.
+     *
+     * @param sequence  Sequence number of the snapshot. This is 0 for the snapshot passed once the
+     *                  webpage is loaded.
+     * @param rooms     The projected rooms of the webpage in document order.
+     */
+    void onLiveSnapshot(long sequence, @NonNull ArrayList<ShProjectedRoom> rooms);
+
+    /**
+     * Gets called when the webpage passes changes of its rooms.
+     *
+     * @param sequence  Sequence number of the changes.
+     * @param changes   The changes of the rooms.
+     */
+    void onLiveChanges(long sequence, @NonNull ArrayList<ShRoomChange> changes);
+
+    /**
+     * Gets called when a message of the webpage could not be read.
+     */
+    void onLiveUpdateUnreadable();
+}
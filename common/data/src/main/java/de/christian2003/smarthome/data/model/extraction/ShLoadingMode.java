@@ -0,0 +1,17 @@
+package de.christian2003.smarthome.data.model.extraction;
+
+/**
+ * The different ways in which the smart home webpage can be loaded.
+ */
+public enum ShLoadingMode {
+    /**
+     * The webpage is loaded and rendered in a web view.
+     */
+    WebView,
+
+    /**
+     * The webpage is fetched directly through HTTPS. If the fetched page does not contain any rooms,
+     * the webpage is loaded in a web view instead.
+     */
+    Direct
+}
@@ -0,0 +1,216 @@
+package de.christian2003.smarthome.data.model.extraction;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+
+import de.christian2003.smarthome.data.model.room.ShRoom;
+
+
+/**
+ * Class implements a process-scoped cache for the rooms extracted from the last loaded smart home
+ * webpage. The rooms are stored together with a hash of the content from which they were extracted, so
+ * that an unchanged webpage does not need to be parsed and searched again. Additionally, the validators
+ * (ETag and Last-Modified) of the last webpage loaded directly through HTTPS are stored, so that the
+ * webpage can be requested conditionally.
+ * All methods are thread safe.
+ */
+public class ShPageCache {
+
+    /**
+     * Offset basis of the 64 bit FNV-1a hash.
+     */
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    /**
+     * Prime of the 64 bit FNV-1a hash.
+     */
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Singleton instance of the cache.
+     */
+    @Nullable
+    private static ShPageCache INSTANCE;
+
+    /**
+     * Hash of the content from which the cached rooms were extracted.
+     */
+    private long contentHash;
+
+    /**
+     * The rooms extracted from the last loaded webpage. This is null if no rooms are cached.
+     */
+    @Nullable
+    private ArrayList<ShRoom> rooms;
+
+    /**
+     * Url of the webpage to which the validators belong.
+     */
+    @Nullable
+    private String validatedUrl;
+
+    /**
+     * ETag of the webpage which was loaded directly.
+     */
+    @Nullable
+    private String eTag;
+
+    /**
+     * Last-Modified header of the webpage which was loaded directly.
+     */
+    @Nullable
+    private String lastModified;
+
+
+    /**
+     * Constructor instantiates a new, empty cache.
+     */
+    private ShPageCache() {
+        this.rooms = null;
+    }
+
+
+    /**
+     * Method returns the singleton instance of the cache.
+     *
+     * @return  Singleton instance of the cache.
+     */
+    @NonNull
+    public static synchronized ShPageCache getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new ShPageCache();
+        }
+        return INSTANCE;
+    }
+
+
+    /**
+     * Method calculates the hash of the content passed. The hash is only used to detect whether the
+     * content changed, it is not suitable for any security purpose.
+     *
+     * @param content   The content to hash.
+     * @return          64 bit FNV-1a hash of the content.
+     */
+    public static long hash(@NonNull String content) {
+        return hash(FNV_OFFSET_BASIS, content);
+    }
+
+
+    /**
+     * Method continues the hash passed with the content passed, so that content which consists of several
+     * parts can be hashed without concatenating the parts.
+     *
+     * @param hash      The hash of the preceding parts of the content.
+     * @param content   The next part of the content.
+     * @return          64 bit FNV-1a hash of the preceding parts and the content.
+     */
+    public static long hash(long hash, @NonNull String content) {
+        for (int i = 0; i < content.length(); i++) {
+            hash ^= content.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+
+    /**
+     * Method calculates the hash of the bytes passed.
+     *
+     * @param content   The content to hash.
+     * @return          64 bit FNV-1a hash of the content.
+     */
+    public static long hash(@NonNull byte[] content) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : content) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+
+    /**
+     * Method returns the cached rooms if they were extracted from content with the hash passed.
+     *
+     * @param contentHash   Hash of the content of the loaded webpage.
+     * @return              The cached rooms or null if the content changed.
+     */
+    @Nullable
+    public synchronized ArrayList<ShRoom> getRooms(long contentHash) {
+        if (rooms != null && this.contentHash == contentHash) {
+            return rooms;
+        }
+        return null;
+    }
+
+
+    /**
+     * Method returns the cached rooms if the validators of the webpage with the url passed are cached,
+     * i.e. if the webpage can be requested conditionally.
+     *
+     * @param url   Url of the webpage.
+     * @return      The cached rooms or null if no validators for the url are cached.
+     */
+    @Nullable
+    public synchronized ArrayList<ShRoom> getValidatedRooms(@NonNull String url) {
+        if (url.equals(validatedUrl)) {
+            return rooms;
+        }
+        return null;
+    }
+
+
+    /**
+     * Method stores the rooms extracted from the content with the hash passed.
+     *
+     * @param contentHash   Hash of the content from which the rooms were extracted.
+     * @param rooms         The extracted rooms.
+     * @param url           Url of the webpage if it was loaded directly, otherwise null.
+     * @param eTag          ETag of the webpage if it was loaded directly, otherwise null.
+     * @param lastModified  Last-Modified header of the webpage if it was loaded directly, otherwise null.
+     */
+    public synchronized void put(long contentHash, @NonNull ArrayList<ShRoom> rooms, @Nullable String url, @Nullable String eTag, @Nullable String lastModified) {
+        this.contentHash = contentHash;
+        this.rooms = rooms;
+        this.validatedUrl = eTag != null || lastModified != null ? url : null;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+
+    /**
+     * Method returns the hash of the content from which the cached rooms were extracted.
+     *
+     * @return  Hash of the content.
+     */
+    public synchronized long getContentHash() {
+        return contentHash;
+    }
+
+
+    /**
+     * Method returns the ETag of the webpage with the url passed.
+     *
+     * @param url   Url of the webpage.
+     * @return      The ETag or null if none is cached.
+     */
+    @Nullable
+    public synchronized String getETag(@NonNull String url) {
+        return url.equals(validatedUrl) ? eTag : null;
+    }
+
+
+    /**
+     * Method returns the Last-Modified header of the webpage with the url passed.
+     *
+     * @param url   Url of the webpage.
+     * @return      The Last-Modified header or null if none is cached.
+     */
+    @Nullable
+    public synchronized String getLastModified(@NonNull String url) {
+        return url.equals(validatedUrl) ? lastModified : null;
+    }
+
+}
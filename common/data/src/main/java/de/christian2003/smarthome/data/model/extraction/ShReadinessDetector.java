@@ -0,0 +1,213 @@
+package de.christian2003.smarthome.data.model.extraction;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+
+import de.christian2003.smarthome.data.model.extraction.projection.ShLiveUpdates;
+import de.christian2003.smarthome.data.model.extraction.projection.ShRoomProjection;
+
+
+/**
+ * Class creates the script that is injected into the smart home webpage in order to detect when the
+ * rooms of the webpage are completely rendered. The script observes the rooms with a mutation observer
+ * and reports the webpage as loaded once the rooms have not changed for a quiet window, or once a hard
+ * deadline is reached.
+ */
+public class ShReadinessDetector {
+
+    /**
+     * Default time (in milliseconds) without any changes to the rooms after which the webpage is
+     * considered loaded.
+     */
+    public static final long DEFAULT_QUIET_WINDOW = 150;
+
+    /**
+     * Default time (in milliseconds) after which the webpage is considered loaded, even if the rooms
+     * are still changing.
+     */
+    public static final long DEFAULT_DEADLINE = 15000;
+
+    /**
+     * Time (in milliseconds) without any changes to the rooms after which the webpage is considered
+     * loaded.
+     */
+    private final long quietWindow;
+
+    /**
+     * Time (in milliseconds) after which the webpage is considered loaded, even if the rooms are still
+     * changing.
+     */
+    private final long deadline;
+
+    /**
+     * The way in which the rooms are passed to the app once the webpage is loaded.
+     */
+    @NonNull
+    private final ShExtractionMode extractionMode;
+
+
+    /**
+     * Constructor instantiates a new readiness detector.
+     *
+     * @param quietWindow   Time (in milliseconds) without any changes to the rooms after which the
+     *                      webpage is considered loaded.
+     * @param deadline      Time (in milliseconds) after which the webpage is considered loaded, even if
+     *                      the rooms are still changing.
+     * @param extractionMode    The way in which the rooms are passed to the app.
+     */
+    public ShReadinessDetector(long quietWindow, long deadline, @NonNull ShExtractionMode extractionMode) {
+        this.quietWindow = quietWindow;
+        this.deadline = deadline;
+        this.extractionMode = extractionMode;
+    }
+
+    /**
+     * Constructor instantiates a new readiness detector which passes the html of the webpage to the app.
+     *
+     * @param quietWindow   Time (in milliseconds) without any changes to the rooms after which the
+     *                      webpage is considered loaded.
+     * @param deadline      Time (in milliseconds) after which the webpage is considered loaded, even if
+     *                      the rooms are still changing.
+     */
+    public ShReadinessDetector(long quietWindow, long deadline) {
+        this(quietWindow, deadline, ShExtractionMode.Html);
+    }
+
+    /**
+     * Constructor instantiates a new readiness detector with the default quiet window and deadline.
+     */
+    public ShReadinessDetector() {
+        this(DEFAULT_QUIET_WINDOW, DEFAULT_DEADLINE);
+    }
+
+
+    /**
+     * Method returns the quiet window.
+     *
+     * @return  Time (in milliseconds) without any changes after which the webpage is considered loaded.
+     */
+    public long getQuietWindow() {
+        return quietWindow;
+    }
+
+    /**
+     * Method returns the deadline.
+     *
+     * @return  Time (in milliseconds) after which the webpage is considered loaded.
+     */
+    public long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Method returns the way in which the rooms are passed to the app.
+     *
+     * @return  Extraction mode.
+     */
+    @NonNull
+    public ShExtractionMode getExtractionMode() {
+        return extractionMode;
+    }
+
+
+    /**
+     * Method creates the script to inject into the webpage once the page has finished loading. The
+     * script reports the settle time through {@link ShWebpageInterface#reportSettleTime(long, boolean)},
+     * passes the html to {@link ShWebpageInterface#handleHtml(String)} (or the projected rooms to
+     * {@link ShWebpageInterface#handleRoomProjection(String)}, falling back to the html) and finally invokes
+     * {@link ShWebpageInterface#notifyPageLoadComplete(boolean)}.
+     *
+     * @return  Script to inject into the webpage.
+     */
+    @NonNull
+    public String createScript() {
+        return String.format(Locale.ROOT, "javascript:(function() {" +
+                "    if (window.shReadinessDetector) {" +
+                "        return;" +
+                "    }" +
+                "    window.shReadinessDetector = true;" +
+                "    var quietWindow = %d;" +
+                "    var deadline = %d;" +
+                "    var start = Date.now();" +
+                "    var lastChange = start;" +
+                "    var finished = false;" +
+                "    var quietTimer = null;" +
+                "    var observer = null;" +
+                "    function finish(timedOut) {" +
+                "        if (finished) {" +
+                "            return;" +
+                "        }" +
+                "        finished = true;" +
+                "        clearTimeout(quietTimer);" +
+                "        clearTimeout(deadlineTimer);" +
+                "        if (observer !== null) {" +
+                "            observer.disconnect();" +
+                "        }" +
+                "        window.Android.reportSettleTime(lastChange - start, timedOut);" +
+                "        %s;" +
+                "        window.Android.notifyPageLoadComplete(true);" +
+                "    }" +
+                "    function restartQuietWindow() {" +
+                "        if (document.querySelector('div.room') === null) {" +
+                "            return;" +
+                "        }" +
+                "        clearTimeout(quietTimer);" +
+                "        quietTimer = setTimeout(function() { finish(false); }, quietWindow);" +
+                "    }" +
+                "    function affectsRooms(mutation) {" +
+                "        var node = mutation.target.nodeType === 1 ? mutation.target : mutation.target.parentNode;" +
+                "        if (node !== null && node.closest('div.room') !== null) {" +
+                "            return true;" +
+                "        }" +
+                "        for (var i = 0; i < mutation.addedNodes.length; i++) {" +
+                "            var added = mutation.addedNodes[i];" +
+                "            if (added.nodeType === 1 && (added.matches('div.room') || added.querySelector('div.room') !== null)) {" +
+                "                return true;" +
+                "            }" +
+                "        }" +
+                "        return false;" +
+                "    }" +
+                "    var deadlineTimer = setTimeout(function() { finish(true); }, deadline);" +
+                "    function observe() {" +
+                "        observer = new MutationObserver(function(mutations) {" +
+                "            for (var i = 0; i < mutations.length; i++) {" +
+                "                if (affectsRooms(mutations[i])) {" +
+                "                    lastChange = Date.now();" +
+                "                    restartQuietWindow();" +
+                "                    return;" +
+                "                }" +
+                "            }" +
+                "        });" +
+                "        observer.observe(document.documentElement, { childList: true, subtree: true, characterData: true, attributes: true });" +
+                "        restartQuietWindow();" +
+                "    }" +
+                "    if (document.readyState === 'complete') {" +
+                "        observe();" +
+                "    } else {" +
+                "        window.addEventListener('load', observe);" +
+                "    }" +
+                "})();", quietWindow, deadline, createHandoverStatement());
+    }
+
+
+    /**
+     * Method creates the statement through which the script passes the webpage to the app. If the rooms
+     * are projected, the html is passed instead if the app cannot use the projection. The rooms are only
+     * kept up to date if they could be projected.
+     *
+     * @return  Statement passing the webpage to the app.
+     */
+    @NonNull
+    private String createHandoverStatement() {
+        String handoverHtml = "window.Android.handleHtml(document.documentElement.outerHTML)";
+        if (extractionMode == ShExtractionMode.Projection) {
+            return "if (!window.Android.handleRoomProjection(" + ShRoomProjection.createExpression() + ")) { " + handoverHtml + "; }";
+        }
+        else if (extractionMode == ShExtractionMode.Live) {
+            return "if (window.Android.handleRoomProjection(" + ShRoomProjection.createExpression() + ")) { " + ShLiveUpdates.createScript() + " } else { " + handoverHtml + "; }";
+        }
+        return handoverHtml;
+    }
+
+}
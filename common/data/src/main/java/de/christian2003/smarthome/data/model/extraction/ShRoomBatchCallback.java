@@ -0,0 +1,21 @@
+package de.christian2003.smarthome.data.model.extraction;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+
+import de.christian2003.smarthome.data.model.room.ShRoom;
+
+/**
+ * Callback to signal that a batch of rooms has been extracted while the remaining rooms are still being
+ * extracted.
+ */
+public interface ShRoomBatchCallback {
+    /**
+     * Passes all rooms which have been extracted so far in the order in which they will be returned once
+     * the extraction completes, i.e. the room which displays the "gesamtstatus" is first once it was found.
+     *
+     * @param rooms     The rooms extracted so far.
+     */
+    void onRoomBatchExtracted(@NonNull ArrayList<ShRoom> rooms);
+}
@@ -0,0 +1,240 @@
+package de.christian2003.smarthome.data.model.extraction;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.webkit.WebSettings;
+import android.webkit.WebView;
+import android.webkit.WebViewClient;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+
+
+/**
+ * Class implements a process-scoped pool for web views. Creating a web view is expensive, since the
+ * renderer of the web view needs to be started. Therefore, the pool keeps one idle web view which is
+ * reused across refreshes of the smart home webpage. Since the web views are reused, static resources
+ * of the webpage (scripts, stylesheets, images) are cached while the html document itself is always
+ * revalidated with the server.
+ * The idle web view is destroyed once the system reports that the memory is running low.
+ * All methods except {@link #prewarm()} and {@link #getInstance(Context)} must be called from the main
+ * thread.
+ */
+public class ShWebViewPool implements ComponentCallbacks2 {
+
+    /**
+     * Name of the JavaScript interface through which the webpage passes data to the app.
+     */
+    public static final String JAVASCRIPT_INTERFACE_NAME = "Android";
+
+    /**
+     * Headers with which to load the html document of the webpage, so that the document is always
+     * revalidated with the server while all other resources may be loaded from the cache.
+     */
+    private static final Map<String, String> DOCUMENT_HEADERS = Collections.singletonMap("Cache-Control", "no-cache");
+
+    /**
+     * Singleton instance of the pool.
+     */
+    @Nullable
+    private static ShWebViewPool INSTANCE;
+
+    /**
+     * Application context with which the web views are created.
+     */
+    @NonNull
+    private final Context context;
+
+    /**
+     * Handler for the main thread, on which all web views must be accessed.
+     */
+    @NonNull
+    private final Handler mainHandler;
+
+    /**
+     * The idle web view which can be used for the next load.
+     */
+    @Nullable
+    private WebView idleWebView;
+
+    /**
+     * Number of web views which are currently in use.
+     */
+    private int webViewsInUse;
+
+    /**
+     * States if the creation of an idle web view is already scheduled.
+     */
+    private volatile boolean prewarmScheduled;
+
+
+    /**
+     * Constructor instantiates a new web view pool.
+     *
+     * @param context   Application context with which the web views are created.
+     */
+    private ShWebViewPool(@NonNull Context context) {
+        this.context = context;
+        this.mainHandler = new Handler(Looper.getMainLooper());
+        context.registerComponentCallbacks(this);
+    }
+
+
+    /**
+     * Method returns the singleton instance of the pool.
+     *
+     * @param context   The current context.
+     * @return          Singleton instance of the pool.
+     */
+    @NonNull
+    public static synchronized ShWebViewPool getInstance(@NonNull Context context) {
+        if (INSTANCE == null) {
+            INSTANCE = new ShWebViewPool(context.getApplicationContext());
+        }
+        return INSTANCE;
+    }
+
+
+    /**
+     * Schedules the creation of an idle web view once the main thread has no other work to do. Nothing
+     * happens if an idle web view exists or if a web view is currently in use, since that web view is
+     * returned to the pool afterwards. This method can be called from any thread.
+     */
+    public void prewarm() {
+        if (prewarmScheduled) {
+            return;
+        }
+        prewarmScheduled = true;
+        Looper.getMainLooper().getQueue().addIdleHandler(() -> {
+            prewarmScheduled = false;
+            if (idleWebView == null && webViewsInUse == 0) {
+                idleWebView = createWebView();
+                Log.d("WebViewPool", "Created idle web view");
+            }
+            return false;
+        });
+    }
+
+
+    /**
+     * Method returns a web view to load the smart home webpage. The idle web view is returned if it
+     * exists, otherwise a new web view is created. The web view must be returned to the pool through
+     * {@link #release(WebView)} once it is no longer needed.
+     *
+     * @return  Web view to load the webpage.
+     */
+    @NonNull
+    public WebView acquire() {
+        WebView webView = idleWebView;
+        idleWebView = null;
+        if (webView == null) {
+            webView = createWebView();
+            Log.d("WebViewPool", "Created web view since no idle web view is available");
+        }
+        webViewsInUse++;
+        return webView;
+    }
+
+
+    /**
+     * Method loads the url passed in the web view. The html document is always revalidated with the
+     * server, all other resources may be loaded from the cache.
+     *
+     * @param webView   Web view in which to load the url.
+     * @param url       Url to load.
+     */
+    public void load(@NonNull WebView webView, @NonNull String url) {
+        webView.loadUrl(url, DOCUMENT_HEADERS);
+    }
+
+
+    /**
+     * Method returns the web view passed to the pool. The web view is kept as idle web view if there is
+     * none, otherwise it is destroyed.
+     *
+     * @param webView   Web view to return to the pool.
+     */
+    public void release(@NonNull WebView webView) {
+        webViewsInUse = Math.max(0, webViewsInUse - 1);
+        webView.stopLoading();
+        webView.removeJavascriptInterface(JAVASCRIPT_INTERFACE_NAME);
+        webView.setWebViewClient(new WebViewClient());
+        if (idleWebView == null) {
+            // Unload the webpage so that its scripts do not keep running in the background.
+            webView.loadUrl("about:blank");
+            idleWebView = webView;
+        }
+        else {
+            webView.destroy();
+        }
+    }
+
+
+    /**
+     * Method returns the web view passed to the pool from any thread.
+     *
+     * @param webView   Web view to return to the pool.
+     */
+    public void releaseAsync(@NonNull WebView webView) {
+        mainHandler.post(() -> release(webView));
+    }
+
+
+    /**
+     * Method destroys the idle web view.
+     */
+    public void evict() {
+        if (idleWebView != null) {
+            idleWebView.destroy();
+            idleWebView = null;
+            Log.d("WebViewPool", "Destroyed idle web view");
+        }
+    }
+
+
+    /**
+     * Method creates a new web view.
+     *
+     * @return  The created web view.
+     */
+    @NonNull
+    private WebView createWebView() {
+        WebView webView = new WebView(context);
+        webView.getSettings().setJavaScriptEnabled(true);
+        webView.getSettings().setCacheMode(WebSettings.LOAD_DEFAULT);
+        return webView;
+    }
+
+
+    /**
+     * Destroys the idle web view if the system is running low on memory. The idle web view is kept if
+     * the UI of the app is only hidden, so that returning to the app is fast.
+     *
+     * @param level The context of the trim, giving a hint of the amount of trimming the application may
+     *              like to perform.
+     */
+    @Override
+    public void onTrimMemory(int level) {
+        if (level == TRIM_MEMORY_RUNNING_LOW || level == TRIM_MEMORY_RUNNING_CRITICAL || level >= TRIM_MEMORY_BACKGROUND) {
+            mainHandler.post(this::evict);
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        mainHandler.post(this::evict);
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+        //Nothing to do.
+    }
+
+}
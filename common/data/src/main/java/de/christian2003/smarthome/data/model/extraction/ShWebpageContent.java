@@ -4,7 +4,6 @@ package de.christian2003.smarthome.data.model.extraction;
 import android.content.Context;
 import android.net.http.SslError;
 import android.os.Handler;
-import android.os.HandlerThread;
 import android.os.Looper;
 import android.util.Log;
 import android.webkit.ClientCertRequest;
@@ -12,7 +11,6 @@ import android.webkit.SslErrorHandler;
 import android.webkit.WebResourceError;
 import android.webkit.WebResourceRequest;
 import android.webkit.WebResourceResponse;
-import android.webkit.WebSettings;
 import android.webkit.WebView;
 import android.webkit.WebViewClient;
 import androidx.annotation.NonNull;
@@ -22,19 +20,28 @@ import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import org.jsoup.nodes.Document;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.net.ssl.SSLContext;
 
 import de.christian2003.smarthome.data.model.cert.CertHandler;
-import de.christian2003.smarthome.data.model.cert.ClientCert;
+import de.christian2003.smarthome.data.model.cert.ClientCertCache;
+import de.christian2003.smarthome.data.model.cert.SharedSslContext;
 import de.christian2003.smarthome.data.model.cert.SslTrustResponse;
 import de.christian2003.smarthome.data.model.cert.SslTrustStatus;
+import de.christian2003.smarthome.data.model.extraction.projection.ShLiveUpdates;
+import de.christian2003.smarthome.data.model.extraction.projection.ShProjectedRoom;
+import de.christian2003.smarthome.data.model.extraction.projection.ShRoomChange;
 import de.christian2003.smarthome.data.model.extraction.search.room.ShRoomSearch;
 import de.christian2003.smarthome.data.model.room.ShRoom;
 import de.christian2003.smarthome.data.model.userinformation.InformationTitle;
 import de.christian2003.smarthome.data.model.userinformation.InformationType;
 import de.christian2003.smarthome.data.model.userinformation.UserInformation;
+import de.christian2003.smarthome.data.model.userinformation.UserInformationCollector;
 
 
 /**
@@ -42,12 +49,73 @@ import de.christian2003.smarthome.data.model.userinformation.UserInformation;
  */
 public class ShWebpageContent {
 
+    /**
+     * Time (in milliseconds) which the webpage may take to load before the readiness detector starts to
+     * wait for the rooms. The deadline of a load is this time plus the deadline of the readiness detector.
+     */
+    public static final long PAGE_LOAD_TIMEOUT = 30000;
+
+    /**
+     * Executor on which all webpages are loaded. The number of threads is bounded, so that refreshes can
+     * never stack up threads.
+     */
+    private static final ExecutorService LOAD_EXECUTOR = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "WebpageLoader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     /**
      * The document which contains the code of the smart home webpage.
      */
     @Nullable
     private  Document document;
 
+    /**
+     * The rooms created from the room projection of the smart home webpage. This is only set if the rooms
+     * are extracted through {@link ShExtractionMode#Projection} or {@link ShExtractionMode#Live} and the
+     * rooms could be projected.
+     */
+    @Nullable
+    private ArrayList<ShRoom> projectedRooms;
+
+    /**
+     * The cached rooms if the webpage did not change since it was loaded the last time. In this case the
+     * webpage is neither parsed nor searched.
+     */
+    @Nullable
+    private ArrayList<ShRoom> unchangedRooms;
+
+    /**
+     * The rooms which were extracted while streaming the html of the webpage. This is only set if the
+     * rooms are extracted through {@link ShExtractionMode#Stream} and the html could be streamed.
+     */
+    @Nullable
+    private ArrayList<ShRoom> streamedRooms;
+
+    /**
+     * Hash of the content from which the rooms are extracted.
+     */
+    private long contentHash;
+
+    /**
+     * Url of the webpage if it was loaded directly, so that it can be requested conditionally next time.
+     */
+    @Nullable
+    private String validatedUrl;
+
+    /**
+     * ETag of the webpage if it was loaded directly.
+     */
+    @Nullable
+    private String eTag;
+
+    /**
+     * Last-Modified header of the webpage if it was loaded directly.
+     */
+    @Nullable
+    private String lastModified;
+
     /**
      * The rooms of the Smart Home.
      */
@@ -58,79 +126,258 @@ public class ShWebpageContent {
      * Contains errors that occur while loading the website.
      */
     @NonNull
-    private final ArrayList<UserInformation> loadingInformation;
+    private final UserInformationCollector loadingInformation;
+
+    /**
+     * SSL trust response for the server certificate.
+     */
+    @Nullable
+    private volatile SslTrustResponse sslTrustResponse;
+
+    /**
+     * Callback invoked once the webpage is loaded.
+     */
+    @NonNull
+    private final ShWebpageContentLoadedCallback callback;
+
+    /**
+     * The load of the webpage, through which the load can be cancelled.
+     */
+    @NonNull
+    private final Future<?> load;
 
-    private SslTrustResponse sslTrustResponse;
+    /**
+     * Interface through which the web view passes the webpage to the app.
+     */
+    @NonNull
+    private final ShWebpageInterface shWebpageInterface;
+
+    /**
+     * Pool from which the web view to load the webpage is taken.
+     */
+    @NonNull
+    private final ShWebViewPool webViewPool;
+
+    /**
+     * The web view in which the webpage is loaded. This is null if the webpage is not loaded in a web
+     * view or if the web view has been returned to the pool.
+     */
+    @Nullable
+    private volatile WebView webView;
+
+    /**
+     * The rooms which are kept up to date while the webpage stays loaded. This is only set if the rooms
+     * are extracted through {@link ShExtractionMode#Live}.
+     */
+    @Nullable
+    private volatile ShLiveRooms liveRooms;
+
+    /**
+     * Callback invoked when the rooms change while the webpage stays loaded. This is null if the webpage
+     * is not kept loaded.
+     */
+    @Nullable
+    private final ShLiveUpdateCallback liveUpdateCallback;
+
+    /**
+     * States if the callback for the loaded webpage was invoked, so that changes of the rooms are passed
+     * to the live update callback.
+     */
+    private volatile boolean pageLoadCompleted;
+
+    /**
+     * States if the webpage content was closed, so that all further messages of the webpage are ignored.
+     */
+    private volatile boolean closed;
+
+    /**
+     * States if the callback for the loaded webpage is invoked or must not be invoked anymore, because
+     * the webpage content was closed. The callback is invoked by the thread which claims this first.
+     */
+    private final AtomicBoolean completionClaimed = new AtomicBoolean();
+
+    /**
+     * Search with which the rooms are extracted.
+     */
+    @NonNull
+    private final ShRoomSearch roomSearch;
+
+    /**
+     * Handler for the main thread, on which the web view must be accessed.
+     */
+    @NonNull
+    private final Handler mainHandler;
 
     /**
      * Constructor instantiates a new webpage content.
      *
      * @param url           The url of the webpage that should be read.
+     * @param context       The current context.
+     * @param callback      Callback invoked once the webpage is loaded.
+     * @param loadingMode   The way in which the webpage is loaded.
+     * @param readinessDetector Detects when the rooms of the webpage are completely rendered.
+     */
+    public ShWebpageContent(String url, Context context, ShWebpageContentLoadedCallback callback, ShLoadingMode loadingMode, ShReadinessDetector readinessDetector) {
+        this(url, context, callback, loadingMode, readinessDetector, null);
+    }
+
+    /**
+     * Constructor instantiates a new webpage content. If the rooms are extracted through
+     * {@link ShExtractionMode#Live}, the webpage stays loaded after the callback was invoked and all
+     * changes of the rooms are passed to the live update callback until {@link #close()} is called.
+     *
+     * @param url           The url of the webpage that should be read.
+     * @param context       The current context.
+     * @param callback      Callback invoked once the webpage is loaded.
+     * @param loadingMode   The way in which the webpage is loaded.
+     * @param readinessDetector Detects when the rooms of the webpage are completely rendered.
+     * @param liveUpdateCallback    Callback invoked when the rooms change while the webpage stays loaded.
+     */
+    public ShWebpageContent(String url, Context context, ShWebpageContentLoadedCallback callback, ShLoadingMode loadingMode, ShReadinessDetector readinessDetector, @Nullable ShLiveUpdateCallback liveUpdateCallback) {
+        this(url, context, callback, loadingMode, readinessDetector, liveUpdateCallback, new ShRoomSearch());
+    }
+
+    /**
+     * Constructor instantiates a new webpage content. If the rooms are extracted through
+     * {@link ShExtractionMode#Live}, the webpage stays loaded after the callback was invoked and all
+     * changes of the rooms are passed to the live update callback until {@link #close()} is called.
+     *
+     * @param url           The url of the webpage that should be read.
+     * @param context       The current context.
+     * @param callback      Callback invoked once the webpage is loaded.
+     * @param loadingMode   The way in which the webpage is loaded.
+     * @param readinessDetector Detects when the rooms of the webpage are completely rendered.
+     * @param liveUpdateCallback    Callback invoked when the rooms change while the webpage stays loaded.
+     * @param roomSearch            Search with which the rooms are extracted.
      */
-    public ShWebpageContent(String url, Context context, ShWebpageContentCallback callback) {
+    public ShWebpageContent(String url, Context context, ShWebpageContentLoadedCallback callback, ShLoadingMode loadingMode, ShReadinessDetector readinessDetector, @Nullable ShLiveUpdateCallback liveUpdateCallback, @NonNull ShRoomSearch roomSearch) {
+        this.roomSearch = roomSearch;
         CountDownLatch latch = new CountDownLatch(1);
-        ShWebpageInterface shWebpageInterface = new ShWebpageInterface(latch);
-        loadingInformation = new ArrayList<>();
+        shWebpageInterface = new ShWebpageInterface(latch, readinessDetector.getExtractionMode() == ShExtractionMode.Stream);
+        webViewPool = ShWebViewPool.getInstance(context);
+        loadingInformation = new UserInformationCollector();
+        mainHandler = new Handler(Looper.getMainLooper());
+        this.callback = callback;
+        boolean live = readinessDetector.getExtractionMode() == ShExtractionMode.Live && liveUpdateCallback != null;
+        this.liveUpdateCallback = live ? liveUpdateCallback : null;
+        if (live) {
+            shWebpageInterface.setLiveUpdateListener(createLiveUpdateListener());
+        }
 
-        new Thread(()-> {
-            CertHandler certHandler = new CertHandler(context);
-            SSLContext sslContext = certHandler.getSSLContext(); //This method must not be called from main thread!
-            new Handler(Looper.getMainLooper()).post(() -> createWebView(url, context, shWebpageInterface, sslContext));
+        this.load = LOAD_EXECUTOR.submit(() -> load(url, context, loadingMode, readinessDetector, latch, live));
+    }
 
-            try {
-                latch.await();
+    /**
+     * Loads the webpage on a thread of the load executor and invokes the callback once the webpage is
+     * loaded, the load failed or the deadline is exceeded. Nothing is invoked if the load is cancelled
+     * through {@link #close()}.
+     *
+     * @param url           The url of the webpage that should be read.
+     * @param context       The current context.
+     * @param loadingMode   The way in which the webpage is loaded.
+     * @param readinessDetector Detects when the rooms of the webpage are completely rendered.
+     * @param latch         Latch which the JavaScript interface notifies once the webpage is loaded.
+     * @param live          Whether the webpage stays loaded after it was loaded.
+     */
+    private void load(String url, Context context, ShLoadingMode loadingMode, ShReadinessDetector readinessDetector, CountDownLatch latch, boolean live) {
+        if (loadingMode == ShLoadingMode.Direct && url != null) {
+            // Try to fetch the server rendered webpage without a web view first.
+            ShDirectPageLoader directPageLoader = new ShDirectPageLoader(context, readinessDetector.getExtractionMode() == ShExtractionMode.Stream);
+            Document directDocument = directPageLoader.loadDocument(url);
+            sslTrustResponse = directPageLoader.getSslTrustResponse();
+            if (closed) {
+                return;
             }
-            catch (InterruptedException interruptedException) {
-                String errorDescription = "There was an interruption while loading the website. \nError message:\n" + interruptedException.getMessage();
-                loadingInformation.add(new UserInformation(InformationType.ERROR, InformationTitle.LoadingInterruption, errorDescription));
+            if (directDocument != null || directPageLoader.getUnchangedRooms() != null || directPageLoader.getStreamedRooms() != null) {
+                document = directDocument;
+                unchangedRooms = directPageLoader.getUnchangedRooms();
+                streamedRooms = directPageLoader.getStreamedRooms();
+                contentHash = directPageLoader.getContentHash();
+                validatedUrl = url;
+                eTag = directPageLoader.getETag();
+                lastModified = directPageLoader.getLastModified();
+                complete(true);
+                return;
             }
+            else if (directPageLoader.isServerCertUntrusted()) {
+                // The web view would reject the server certificate as well.
+                loadingInformation.add(new UserInformation(InformationType.WARNING, InformationTitle.SslError, "The SSL certificate of the server is not trusted."));
+                complete(false);
+                return;
+            }
+            Log.d("DirectLoading", "Falling back to web view");
+            sslTrustResponse = null;
+        }
+
+        SSLContext sslContext = SharedSslContext.getInstance(context).getSSLContext(); //This method must not be called from main thread!
+        if (closed) {
+            return;
+        }
+        mainHandler.post(() -> createWebView(url, context, shWebpageInterface, sslContext, readinessDetector));
 
-            if (shWebpageInterface.isLoadingSuccessful()) {
-                document = shWebpageInterface.getDocument();
-                callback.onPageLoadComplete(true, sslTrustResponse);
+        long timeout = readinessDetector.getDeadline() + PAGE_LOAD_TIMEOUT;
+        try {
+            if (!latch.await(timeout, TimeUnit.MILLISECONDS)) {
+                String errorDescription = "The website did not finish loading within " + timeout / 1000 + " seconds.";
+                loadingInformation.add(new UserInformation(InformationType.ERROR, InformationTitle.LoadingInterruption, errorDescription));
+                shWebpageInterface.notifyPageLoadComplete(false);
             }
-            else {
-                callback.onPageLoadComplete(false, sslTrustResponse);
+        }
+        catch (InterruptedException interruptedException) {
+            // The load was cancelled through close(), which returns the web view to the pool.
+            Log.d("WebpageLoader", "Load cancelled");
+            return;
+        }
+
+        boolean keepLoaded = live && !closed && shWebpageInterface.isLoadingSuccessful() && liveRooms != null;
+        if (!keepLoaded) {
+            // Return the web view to the pool so that it can be reused for the next refresh.
+            shWebpageInterface.setLiveUpdateListener(null);
+            releaseWebView();
+        }
+
+        if (shWebpageInterface.isLoadingSuccessful()) {
+            document = shWebpageInterface.getDocument();
+            projectedRooms = shWebpageInterface.getProjectedRooms();
+            unchangedRooms = shWebpageInterface.getUnchangedRooms();
+            streamedRooms = shWebpageInterface.getStreamedRooms();
+            contentHash = shWebpageInterface.getContentHash();
+            if (document == null && projectedRooms == null && unchangedRooms == null && streamedRooms == null) {
+                loadingInformation.add(new UserInformation(InformationType.ERROR, InformationTitle.UnknownError, "The rooms passed by the website could not be read."));
+                complete(false);
+                return;
             }
-        }).start();
+            complete(true);
+            pageLoadCompleted = true;
+        }
+        else {
+            complete(false);
+        }
     }
 
     /**
-     * Creates a Web View, loads the webpage with the given url and gets the html code of the given webpage.
+     * Takes a Web View from the pool, loads the webpage with the given url and gets the html code of the given webpage.
      *
      * @param url   The url of the webpage that should be loaded.
      * @param context   The current context.
      * @param shWebpageInterface    Handling the parsing of the code of the loaded website to a document.
+     * @param readinessDetector     Detects when the rooms of the webpage are completely rendered.
      */
-    private void createWebView(String url, Context context, ShWebpageInterface shWebpageInterface, SSLContext sslContext)  {
-        WebView webView = new WebView(context);
-        webView.getSettings().setJavaScriptEnabled(true);
-
-        webView.clearCache(true);
-        webView.getSettings().setCacheMode(WebSettings.LOAD_NO_CACHE);
+    private void createWebView(String url, Context context, ShWebpageInterface shWebpageInterface, SSLContext sslContext, ShReadinessDetector readinessDetector)  {
+        if (closed) {
+            return;
+        }
+        WebView webView = webViewPool.acquire();
+        this.webView = webView;
 
         // Provide the data of the website that was loaded in the webView in the java code.
-        webView.addJavascriptInterface(shWebpageInterface, "Android");
+        webView.addJavascriptInterface(shWebpageInterface, ShWebViewPool.JAVASCRIPT_INTERFACE_NAME);
         webView.setWebViewClient(new WebViewClient() {
             @Override
             public void onPageFinished(WebView view, String url) {
                 super.onPageFinished(view, url);
-                // Get the HTML of the website and give it to the handleHtml method.
-                new Handler(Looper.getMainLooper()).postDelayed(() -> {
-                    view.loadUrl("javascript:(function() {" +
-                            "    if (document.readyState === 'complete') {" +
-                            "        console.log('Alle Ressourcen sind geladen.');" +
-                            "        window.Android.handleHtml(document.documentElement.outerHTML);" +
-                            "        Android.notifyPageLoadComplete(true);" +
-                            "    } else {" +
-                            "        window.addEventListener('load', function() {" +
-                            "            console.log('Alle Ressourcen sind geladen (mit onload Event).');" +
-                            "            window.Android.handleHtml(document.documentElement.outerHTML);" +
-                            "            Android.notifyPageLoadComplete(true);" +
-                            "        });" +
-                            "    }" +
-                            "})();");
-                }, 5000);
+                // Wait until the rooms stopped changing, then give the HTML of the website to the handleHtml method.
+                view.loadUrl(readinessDetector.createScript());
             }
 
 
@@ -141,6 +388,10 @@ public class ShWebpageContent {
                 int errorCode = error.getErrorCode();
                 String errorMessage = "A network error has occurred. Please check your internet connection and restart the app. Error code: " + errorCode;
                 loadingInformation.add(new UserInformation(InformationType.ERROR, InformationTitle.NetworkError, errorMessage));
+                if (request.isForMainFrame()) {
+                    // The readiness script will never run, fail instead of waiting for the deadline.
+                    shWebpageInterface.notifyPageLoadComplete(false);
+                }
             }
 
 
@@ -151,23 +402,21 @@ public class ShWebpageContent {
                 int statusCode = errorResponse.getStatusCode();
                 String errorMessage = "An HTTP error has occurred. Please fix it and restart the app. Status code: " + statusCode;
                 loadingInformation.add(new UserInformation(InformationType.ERROR, InformationTitle.HttpError, errorMessage));
+                if (request.isForMainFrame()) {
+                    // The error page does not contain any rooms, fail instead of waiting for the deadline.
+                    shWebpageInterface.notifyPageLoadComplete(false);
+                }
             }
 
 
             @Override
             public void onReceivedClientCertRequest(WebView view, ClientCertRequest request) {
                 Log.d("CertHandler", "onReceivedClientCertRequest");
-                AtomicReference<ClientCert> clientCert = new AtomicReference<>();
-
-                HandlerThread handlerThread = new HandlerThread("KeyChainThread");
-                handlerThread.start();
-                Handler handler = new Handler(handlerThread.getLooper());
-                handler.post(() -> {
-                    CertHandler certHandler = new CertHandler(context);
-                    clientCert.set(certHandler.getClientCert());
-                    if (clientCert.get() != null) {
+                // The certificate is resolved once on the key chain thread and reused afterwards.
+                ClientCertCache.getInstance(context).getClientCert(clientCert -> {
+                    if (clientCert != null) {
                         Log.d("CertHandler", "clientCert != null");
-                        request.proceed(clientCert.get().getKey(), clientCert.get().getChain());
+                        request.proceed(clientCert.getKey(), clientCert.getChain());
                     }
                     else {
                         Log.d("CertHandler", "clientCert == null");
@@ -202,13 +451,134 @@ public class ShWebpageContent {
 
         try {
             //HttpsURLConnection.setDefaultSSLSocketFactory(sslContext.getSocketFactory());
-            webView.loadUrl(url);
+            webViewPool.load(webView, url);
         }
         catch (Exception e) {
             loadingInformation.add(new UserInformation(InformationType.ERROR, InformationTitle.UnknownError, "An unknown error occurred while loading the website with the certificate. \nError message:\n" + e.getMessage()));
         }
     }
 
+    /**
+     * Creates the listener which keeps the live rooms up to date with the messages pushed by the webpage.
+     * The listener is invoked on the thread of the JavaScript interface.
+     *
+     * @return  The listener.
+     */
+    @NonNull
+    private ShLiveUpdateListener createLiveUpdateListener() {
+        return new ShLiveUpdateListener() {
+            @Override
+            public void onLiveSnapshot(long sequence, @NonNull ArrayList<ShProjectedRoom> rooms) {
+                if (closed) {
+                    return;
+                }
+                ShLiveRooms liveRooms = ShWebpageContent.this.liveRooms;
+                if (liveRooms == null) {
+                    liveRooms = new ShLiveRooms();
+                    if (liveRooms.reset(rooms, sequence)) {
+                        ShWebpageContent.this.liveRooms = liveRooms;
+                    }
+                    return;
+                }
+                if (liveRooms.reset(rooms, sequence)) {
+                    notifyRoomsUpdated(liveRooms);
+                }
+                else {
+                    Log.d("LiveUpdates", "Snapshot " + sequence + " cannot be projected");
+                }
+            }
+
+            @Override
+            public void onLiveChanges(long sequence, @NonNull ArrayList<ShRoomChange> changes) {
+                ShLiveRooms liveRooms = ShWebpageContent.this.liveRooms;
+                if (closed || liveRooms == null) {
+                    return;
+                }
+                if (liveRooms.applyChanges(sequence, changes)) {
+                    notifyRoomsUpdated(liveRooms);
+                }
+                else if (liveRooms.requireSnapshot()) {
+                    Log.d("LiveUpdates", "Changes " + sequence + " rejected, requesting snapshot");
+                    requestSnapshot();
+                }
+            }
+
+            @Override
+            public void onLiveUpdateUnreadable() {
+                ShLiveRooms liveRooms = ShWebpageContent.this.liveRooms;
+                if (closed || liveRooms == null) {
+                    return;
+                }
+                if (liveRooms.requireSnapshot()) {
+                    requestSnapshot();
+                }
+            }
+        };
+    }
+
+    /**
+     * Passes the rooms to the live update callback if the callback for the loaded webpage was invoked.
+     *
+     * @param liveRooms The live rooms from which to get the rooms.
+     */
+    private void notifyRoomsUpdated(@NonNull ShLiveRooms liveRooms) {
+        ShLiveUpdateCallback liveUpdateCallback = this.liveUpdateCallback;
+        if (pageLoadCompleted && liveUpdateCallback != null) {
+            ArrayList<ShRoom> rooms = liveRooms.getRooms();
+            this.rooms = rooms;
+            liveUpdateCallback.onRoomsUpdated(rooms);
+        }
+    }
+
+    /**
+     * Requests a complete snapshot of the rooms from the webpage which stays loaded.
+     */
+    private void requestSnapshot() {
+        mainHandler.post(() -> {
+            WebView webView = this.webView;
+            if (!closed && webView != null) {
+                webView.evaluateJavascript(ShLiveUpdates.SNAPSHOT_SCRIPT, null);
+            }
+        });
+    }
+
+    /**
+     * Invokes the callback unless the webpage content was closed. The callback is invoked without holding
+     * the lock of the webpage content, so that {@link #close()} never waits for the rooms to be extracted.
+     *
+     * @param success   Whether the webpage was loaded successfully.
+     */
+    private void complete(boolean success) {
+        if (completionClaimed.compareAndSet(false, true)) {
+            callback.onWebpageContentLoaded(this, success, sslTrustResponse);
+        }
+    }
+
+    /**
+     * Returns the web view to the pool, so that it can be reused for the next refresh.
+     */
+    private synchronized void releaseWebView() {
+        WebView usedWebView = webView;
+        if (usedWebView != null) {
+            webView = null;
+            webViewPool.releaseAsync(usedWebView);
+        }
+    }
+
+    /**
+     * Closes the webpage content. A load in progress is cancelled without invoking the callback. If the
+     * webpage stays loaded, no further changes of the rooms are passed to the live update callback. In
+     * both cases, the web view is returned to the pool. A callback which is already being invoked is not
+     * interrupted. This method can be called from any thread and does not block.
+     */
+    public void close() {
+        closed = true;
+        completionClaimed.set(true);
+        load.cancel(true);
+        shWebpageInterface.setLiveUpdateListener(null);
+        releaseWebView();
+    }
+
     /**
      * Gathers all the data of the Smart Home.
      *
@@ -216,9 +586,44 @@ public class ShWebpageContent {
      */
     @Nullable
     public ArrayList<ShRoom> getSmartHomeData() {
-        if (document != null) {
-            ShRoomSearch shRoomSearch = new ShRoomSearch();
-            ArrayList<ShRoom> rooms = shRoomSearch.findAllRooms(document);
+        return getSmartHomeData(null);
+    }
+
+    /**
+     * Gathers all the data of the Smart Home. If the rooms are extracted from the webpage, the rooms
+     * extracted so far are passed to the batch callback while the remaining rooms are still being
+     * extracted. Rooms which are already known, e.g. because the webpage did not change, are only returned.
+     *
+     * @param batchCallback Callback to which the rooms extracted so far are passed or null.
+     * @return              A list of all the rooms of the Smart Home and their properties.
+     */
+    @Nullable
+    public ArrayList<ShRoom> getSmartHomeData(@Nullable ShRoomBatchCallback batchCallback) {
+        ShLiveRooms liveRooms = this.liveRooms;
+        if (liveUpdateCallback != null && liveRooms != null) {
+            ArrayList<ShRoom> rooms = liveRooms.getRooms();
+            this.rooms = rooms;
+            return rooms;
+        }
+        else if (unchangedRooms != null) {
+            // Store the validators again, since they might have changed although the rooms did not.
+            ShPageCache.getInstance().put(contentHash, unchangedRooms, validatedUrl, eTag, lastModified);
+            this.rooms = unchangedRooms;
+            return unchangedRooms;
+        }
+        else if (streamedRooms != null) {
+            ShPageCache.getInstance().put(contentHash, streamedRooms, validatedUrl, eTag, lastModified);
+            this.rooms = streamedRooms;
+            return streamedRooms;
+        }
+        else if (projectedRooms != null) {
+            ShPageCache.getInstance().put(contentHash, projectedRooms, validatedUrl, eTag, lastModified);
+            this.rooms = projectedRooms;
+            return projectedRooms;
+        }
+        else if (document != null) {
+            ArrayList<ShRoom> rooms = roomSearch.findAllRooms(document, batchCallback);
+            ShPageCache.getInstance().put(contentHash, rooms, validatedUrl, eTag, lastModified);
             this.rooms = rooms;
             return rooms;
         }
@@ -227,6 +632,25 @@ public class ShWebpageContent {
         }
     }
 
+    /**
+     * Gets the time it took the rooms of the webpage to settle after the page finished loading in the
+     * web view.
+     *
+     * @return  Settle time in milliseconds or -1 if the webpage was not loaded in a web view.
+     */
+    public long getSettleTime() {
+        return shWebpageInterface.getSettleTime();
+    }
+
+    /**
+     * Gets whether the rooms were still changing when the deadline for loading the webpage was reached.
+     *
+     * @return  Whether the deadline was reached before the rooms settled.
+     */
+    public boolean isSettleTimedOut() {
+        return shWebpageInterface.isSettleTimedOut();
+    }
+
     /**
      * Gets the list of errors that occurred while loading the webpage.
      *
@@ -234,7 +658,7 @@ public class ShWebpageContent {
      */
     @NonNull
     public ArrayList<UserInformation> getLoadingInformation() {
-        return loadingInformation;
+        return loadingInformation.toList();
     }
 
 }
@@ -0,0 +1,22 @@
+package de.christian2003.smarthome.data.model.extraction;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import de.christian2003.smarthome.data.model.cert.SslTrustResponse;
+
+/**
+ * Callback to signal that the website of a webpage content has been loaded. Unlike
+ * {@link ShWebpageContentCallback}, the webpage content which completed is passed, so that the completion
+ * of a load which was replaced by a newer load can be told apart.
+ */
+public interface ShWebpageContentLoadedCallback {
+    /**
+     * Gives information if the website was loaded successfully.
+     *
+     * @param webpageContent    The webpage content which loaded the website.
+     * @param success           States if the website was loaded successfully.
+     * @param sslTrustResponse  SSL trust response.
+     */
+    void onWebpageContentLoaded(@NonNull ShWebpageContent webpageContent, boolean success, @Nullable SslTrustResponse sslTrustResponse);
+}
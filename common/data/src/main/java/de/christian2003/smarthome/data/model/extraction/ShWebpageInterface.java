@@ -1,5 +1,6 @@
 package de.christian2003.smarthome.data.model.extraction;
 
+import android.util.Log;
 import android.webkit.JavascriptInterface;
 
 import androidx.annotation.NonNull;
@@ -8,8 +9,17 @@ import androidx.annotation.Nullable;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 
+import java.util.ArrayList;
 import java.util.concurrent.CountDownLatch;
 
+import de.christian2003.smarthome.data.model.extraction.projection.ShProjectedRoom;
+import de.christian2003.smarthome.data.model.extraction.projection.ShRoomChange;
+import de.christian2003.smarthome.data.model.extraction.projection.ShRoomProjectionDecoder;
+import de.christian2003.smarthome.data.model.extraction.rules.ShExtractionRules;
+import de.christian2003.smarthome.data.model.extraction.stream.ShShapeDeviationException;
+import de.christian2003.smarthome.data.model.extraction.stream.ShStreamingExtractor;
+import de.christian2003.smarthome.data.model.room.ShRoom;
+
 /**
  * Handling the parsing of the code of the loaded website to a document.
  */
@@ -20,6 +30,37 @@ public class ShWebpageInterface {
     @Nullable
     private Document document;
 
+    /**
+     * The rooms created from the room projection of the loaded website. This is null if the website
+     * passed its html instead.
+     */
+    @Nullable
+    private ArrayList<ShRoom> projectedRooms;
+
+    /**
+     * The cached rooms if the content passed by the website did not change since the last load. This is
+     * null if the content changed.
+     */
+    @Nullable
+    private ArrayList<ShRoom> unchangedRooms;
+
+    /**
+     * The rooms which were extracted while streaming the html of the loaded website. This is null if the
+     * html is not streamed or if it deviates from the shape which can be streamed.
+     */
+    @Nullable
+    private ArrayList<ShRoom> streamedRooms;
+
+    /**
+     * States if the html is streamed instead of being parsed into a document.
+     */
+    private final boolean streaming;
+
+    /**
+     * Hash of the content passed by the website.
+     */
+    private long contentHash;
+
     /**
      * Latch to notify when the website is loaded or an error occurred.
      */
@@ -31,6 +72,24 @@ public class ShWebpageInterface {
      */
     private boolean loadingSuccessful;
 
+    /**
+     * Time (in milliseconds) it took the rooms of the webpage to settle after the page finished loading.
+     * This is -1 if no settle time was reported.
+     */
+    private volatile long settleTime = -1;
+
+    /**
+     * States if the rooms were still changing when the deadline for loading the webpage was reached.
+     */
+    private volatile boolean settleTimedOut;
+
+    /**
+     * Listener to which the messages pushed by the website are passed while it is kept loaded. This is
+     * null if the website is not kept loaded.
+     */
+    @Nullable
+    private volatile ShLiveUpdateListener liveUpdateListener;
+
 
     /**
      * Constructor for created an ShWebpageInterface which is used to get the data of the website.
@@ -38,7 +97,18 @@ public class ShWebpageInterface {
      * @param latch     Latch to notify when the website is loaded or an error occurred.
      */
     public ShWebpageInterface (@NonNull CountDownLatch latch) {
+        this(latch, false);
+    }
+
+    /**
+     * Constructor for created an ShWebpageInterface which is used to get the data of the website.
+     *
+     * @param latch     Latch to notify when the website is loaded or an error occurred.
+     * @param streaming Whether the rooms are extracted while streaming the html instead of parsing it.
+     */
+    public ShWebpageInterface (@NonNull CountDownLatch latch, boolean streaming) {
         this.latch = latch;
+        this.streaming = streaming;
     }
 
     /**
@@ -48,7 +118,134 @@ public class ShWebpageInterface {
      */
     @JavascriptInterface
     public void handleHtml(String html) {
+        long start = System.nanoTime();
+        if (isUnchanged(html)) {
+            Log.d("Extraction", "Html (" + html.length() + " chars) unchanged, checked in " + (System.nanoTime() - start) / 1000 + " µs");
+            return;
+        }
+        if (streaming) {
+            ShStreamingExtractor streamingExtractor = new ShStreamingExtractor(html);
+            this.streamedRooms = streamingExtractor.extract();
+            if (streamedRooms != null) {
+                Log.d("Extraction", "Streamed html (" + html.length() + " chars) in " + (System.nanoTime() - start) / 1000 + " µs");
+                return;
+            }
+            Log.d("Extraction", "Html cannot be streamed: " + streamingExtractor.getDeviation());
+        }
         createDocument(html);
+        Log.d("Extraction", "Parsed html (" + html.length() + " chars) in " + (System.nanoTime() - start) / 1000 + " µs");
+    }
+
+    /**
+     * Gets called when the website is loaded and the rooms are projected into a JSON payload. If the
+     * payload cannot be read or the rooms deviate from the shape which can be projected, the website
+     * passes its html to {@link #handleHtml(String)} instead.
+     *
+     * @param json  The JSON payload with the rooms of the website.
+     * @return      Whether the rooms were created from the payload.
+     */
+    @JavascriptInterface
+    public boolean handleRoomProjection(String json) {
+        long start = System.nanoTime();
+        this.projectedRooms = null;
+        if (!ShExtractionRules.getInstance().hasBuiltInSelectors()) {
+            // The projection locates the elements like the built-in selectors do.
+            Log.d("Extraction", "Rooms cannot be projected, since the extraction rules replace built-in selectors");
+            return false;
+        }
+        ShLiveUpdateListener liveUpdateListener = this.liveUpdateListener;
+        if (liveUpdateListener == null && isUnchanged(json)) {
+            // The projected rooms are only required if the rooms are kept up to date.
+            Log.d("Extraction", "Room projection (" + json.length() + " chars) unchanged, checked in " + (System.nanoTime() - start) / 1000 + " µs");
+            return true;
+        }
+        try {
+            ArrayList<ShProjectedRoom> rooms = ShRoomProjectionDecoder.decode(json);
+            this.projectedRooms = ShProjectedRoom.createRooms(rooms);
+            Log.d("Extraction", "Created rooms from room projection (" + json.length() + " chars) in " + (System.nanoTime() - start) / 1000 + " µs");
+            if (liveUpdateListener != null) {
+                liveUpdateListener.onLiveSnapshot(0, rooms);
+            }
+            return true;
+        }
+        catch (IllegalArgumentException e) {
+            Log.e("Extraction", "Cannot decode room projection: " + e.getMessage());
+        }
+        catch (ShShapeDeviationException e) {
+            Log.d("Extraction", "Rooms cannot be projected: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Gets called when the website, which is kept loaded, passes a complete snapshot of its rooms.
+     *
+     * @param sequence  Sequence number of the snapshot.
+     * @param json      The JSON payload with the rooms of the website.
+     */
+    @JavascriptInterface
+    public void handleLiveSnapshot(long sequence, String json) {
+        ShLiveUpdateListener liveUpdateListener = this.liveUpdateListener;
+        if (liveUpdateListener == null) {
+            return;
+        }
+        try {
+            liveUpdateListener.onLiveSnapshot(sequence, ShRoomProjectionDecoder.decode(json));
+        }
+        catch (IllegalArgumentException | ShShapeDeviationException e) {
+            Log.e("Extraction", "Cannot decode live snapshot: " + e.getMessage());
+            liveUpdateListener.onLiveUpdateUnreadable();
+        }
+    }
+
+    /**
+     * Gets called when the website, which is kept loaded, passes changes of its rooms.
+     *
+     * @param sequence  Sequence number of the changes.
+     * @param json      The JSON payload with the changes of the rooms.
+     */
+    @JavascriptInterface
+    public void handleLiveChanges(long sequence, String json) {
+        ShLiveUpdateListener liveUpdateListener = this.liveUpdateListener;
+        if (liveUpdateListener == null) {
+            return;
+        }
+        ArrayList<ShRoomChange> changes;
+        try {
+            changes = ShRoomProjectionDecoder.decodeChanges(json);
+        }
+        catch (IllegalArgumentException | ShShapeDeviationException e) {
+            Log.e("Extraction", "Cannot decode live changes: " + e.getMessage());
+            liveUpdateListener.onLiveUpdateUnreadable();
+            return;
+        }
+        liveUpdateListener.onLiveChanges(sequence, changes);
+    }
+
+    /**
+     * Gets called once the rooms of the website have settled, i.e. once they stopped changing.
+     *
+     * @param settleTime    Time (in milliseconds) after the page finished loading until the rooms
+     *                      changed for the last time.
+     * @param timedOut      States if the rooms were still changing when the deadline was reached.
+     */
+    @JavascriptInterface
+    public void reportSettleTime(long settleTime, boolean timedOut) {
+        this.settleTime = settleTime;
+        this.settleTimedOut = timedOut;
+    }
+
+    /**
+     * Hashes the content passed by the website and looks up the rooms which were extracted from the same
+     * content before.
+     *
+     * @param content   The content passed by the website.
+     * @return          Whether the content did not change since the last load.
+     */
+    private boolean isUnchanged(@NonNull String content) {
+        this.contentHash = ShPageCache.hash(content);
+        this.unchangedRooms = ShPageCache.getInstance().getRooms(contentHash);
+        return unchangedRooms != null;
     }
 
     /**
@@ -60,6 +257,15 @@ public class ShWebpageInterface {
         this.document = Jsoup.parse(html);
     }
 
+    /**
+     * Sets the listener to which the messages pushed by the website are passed while it is kept loaded.
+     *
+     * @param liveUpdateListener    The listener or null to ignore all further messages.
+     */
+    public void setLiveUpdateListener(@Nullable ShLiveUpdateListener liveUpdateListener) {
+        this.liveUpdateListener = liveUpdateListener;
+    }
+
     /**
      * Gets the document.
      *
@@ -70,6 +276,63 @@ public class ShWebpageInterface {
         return document;
     }
 
+    /**
+     * Gets the rooms created from the room projection.
+     *
+     * @return  The projected rooms or null if no room projection was passed or if it could not be used.
+     */
+    @Nullable
+    public ArrayList<ShRoom> getProjectedRooms() {
+        return projectedRooms;
+    }
+
+    /**
+     * Gets the cached rooms if the content passed by the website did not change since the last load.
+     *
+     * @return  The cached rooms or null if the content changed.
+     */
+    @Nullable
+    public ArrayList<ShRoom> getUnchangedRooms() {
+        return unchangedRooms;
+    }
+
+    /**
+     * Gets the rooms which were extracted while streaming the html.
+     *
+     * @return  The streamed rooms or null if the html was not streamed.
+     */
+    @Nullable
+    public ArrayList<ShRoom> getStreamedRooms() {
+        return streamedRooms;
+    }
+
+    /**
+     * Gets the hash of the content passed by the website.
+     *
+     * @return  Hash of the html or room projection.
+     */
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Gets the time it took the rooms of the webpage to settle after the page finished loading.
+     *
+     * @return  Settle time in milliseconds or -1 if no settle time was reported.
+     */
+    public long getSettleTime() {
+        return settleTime;
+    }
+
+    /**
+     * Gets whether the rooms were still changing when the deadline for loading the webpage was reached.
+     *
+     * @return  Whether the deadline was reached before the rooms settled.
+     */
+    public boolean isSettleTimedOut() {
+        return settleTimedOut;
+    }
+
     /**
      * Notification when the page and scripts are loaded.
      *
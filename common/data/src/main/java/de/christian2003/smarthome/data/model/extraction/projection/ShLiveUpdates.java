@@ -0,0 +1,175 @@
+package de.christian2003.smarthome.data.model.extraction.projection;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+
+
+/**
+ * Class creates the script which keeps pushing the changes of the rooms while the smart home webpage
+ * stays loaded. The script observes the rooms with a mutation observer and projects only the changed rows
+ * (or the complete room, if something outside of its rows or the name of the room changed) like
+ * {@link ShRoomProjection} does, and pushes them through {@code handleLiveChanges(sequence, json)}. If rooms
+ * are added or removed, or if a changed row deviates from the shape of the webpage, a complete snapshot of
+ * the rooms is pushed through {@code handleLiveSnapshot(sequence, json)} instead. Every message carries a
+ * sequence number, so that the app can detect missed messages and request a snapshot through
+ * {@link #SNAPSHOT_SCRIPT}.
+ */
+public class ShLiveUpdates {
+
+    /**
+     * Time (in milliseconds) during which changes of the webpage are collected before they are pushed.
+     */
+    public static final long BATCH_WINDOW = 100;
+
+    /**
+     * Script through which the app requests a complete snapshot of the rooms.
+     */
+    public static final String SNAPSHOT_SCRIPT = "window.shLiveUpdates && window.shLiveUpdates.snapshot();";
+
+    /**
+     * Attributes whose changes are observed, since the projection of the rooms reads them.
+     */
+    private static final String[] ATTRIBUTES = {"class", "id", "src", "type", "value"};
+
+
+    /**
+     * Method creates the script which installs the observer of the rooms. The script does nothing if the
+     * observer is already installed in the current webpage.
+     *
+     * @return  Script installing the observer.
+     */
+    @NonNull
+    public static String createScript() {
+        return String.format(Locale.ROOT, "(function() {" +
+                "    if (window.shLiveUpdates) {" +
+                "        return;" +
+                "    }" +
+                "    %s" +
+                "    var batchWindow = %d;" +
+                "    var version = %d;" +
+                "    var sequence = 0;" +
+                "    var roomCount = shRooms().length;" +
+                "    var pending = {};" +
+                "    var snapshotRequired = false;" +
+                "    var timer = null;" +
+                "    function isRoom(node) {" +
+                "        return node.nodeType === 1 && shTagName(node) === 'div' && shHasClass(node, 'room');" +
+                "    }" +
+                "    function containsRoom(nodes) {" +
+                "        for (var i = 0; i < nodes.length; i++) {" +
+                "            if (isRoom(nodes[i])) {" +
+                "                return true;" +
+                "            }" +
+                "            if (nodes[i].nodeType === 1) {" +
+                "                var divs = nodes[i].getElementsByTagName('div');" +
+                "                for (var j = 0; j < divs.length; j++) {" +
+                "                    if (isRoom(divs[j])) {" +
+                "                        return true;" +
+                "                    }" +
+                "                }" +
+                "            }" +
+                "        }" +
+                "        return false;" +
+                "    }" +
+                "    function record(mutation) {" +
+                "        if (mutation.type === 'childList' && (containsRoom(mutation.addedNodes) || containsRoom(mutation.removedNodes))) {" +
+                "            snapshotRequired = true;" +
+                "            return;" +
+                "        }" +
+                "        var element = mutation.target.nodeType === 1 ? mutation.target : mutation.target.parentElement;" +
+                "        var room = element;" +
+                "        while (room !== null && !isRoom(room)) {" +
+                "            room = room.parentElement;" +
+                "        }" +
+                "        if (room === null) {" +
+                "            return;" +
+                "        }" +
+                "        var roomIndex = shRooms().indexOf(room);" +
+                "        var rows = shContentRows(room);" +
+                "        var rowIndex = -1;" +
+                "        for (var current = element; rows !== null && current !== null && current !== room; current = current.parentElement) {" +
+                "            rowIndex = rows.indexOf(current);" +
+                "            if (rowIndex !== -1) {" +
+                "                break;" +
+                "            }" +
+                "        }" +
+                "        var roomName = shRoomName(room);" +
+                "        if (rowIndex !== -1 && roomName !== null && rows[rowIndex].contains(roomName)) {" +
+                "            rowIndex = -1;" +
+                "        }" +
+                "        var entry = pending[roomIndex];" +
+                "        if (entry === undefined) {" +
+                "            entry = { complete: false, rows: {} };" +
+                "            pending[roomIndex] = entry;" +
+                "        }" +
+                "        if (rowIndex === -1) {" +
+                "            entry.complete = true;" +
+                "        } else {" +
+                "            entry.rows[rowIndex] = true;" +
+                "        }" +
+                "    }" +
+                "    function snapshot() {" +
+                "        clearTimeout(timer);" +
+                "        timer = null;" +
+                "        pending = {};" +
+                "        snapshotRequired = false;" +
+                "        roomCount = shRooms().length;" +
+                "        sequence++;" +
+                "        window.Android.handleLiveSnapshot(sequence, shProjectRooms());" +
+                "    }" +
+                "    function createChanges(rooms) {" +
+                "        var changes = [];" +
+                "        var roomIndexes = Object.keys(pending).map(Number).sort(function(a, b) { return a - b; });" +
+                "        for (var i = 0; i < roomIndexes.length; i++) {" +
+                "            var roomIndex = roomIndexes[i];" +
+                "            var entry = pending[roomIndex];" +
+                "            var rows = shContentRows(rooms[roomIndex]);" +
+                "            var rowIndexes = Object.keys(entry.rows).map(Number).sort(function(a, b) { return a - b; });" +
+                "            for (var j = 0; j < rowIndexes.length && !entry.complete; j++) {" +
+                "                entry.complete = rows === null || rowIndexes[j] >= rows.length;" +
+                "            }" +
+                "            if (entry.complete) {" +
+                "                changes.push([roomIndex, -1, shProjectRoom(rooms[roomIndex])]);" +
+                "            } else {" +
+                "                for (var j = 0; j < rowIndexes.length; j++) {" +
+                "                    changes.push([roomIndex, rowIndexes[j], shProjectRow(rows[rowIndexes[j]])]);" +
+                "                }" +
+                "            }" +
+                "        }" +
+                "        return changes;" +
+                "    }" +
+                "    function flush() {" +
+                "        timer = null;" +
+                "        var rooms = shRooms();" +
+                "        if (snapshotRequired || rooms.length !== roomCount) {" +
+                "            snapshot();" +
+                "            return;" +
+                "        }" +
+                "        var changes;" +
+                "        try {" +
+                "            changes = createChanges(rooms);" +
+                "        } catch (e) {" +
+                "            snapshot();" +
+                "            return;" +
+                "        }" +
+                "        pending = {};" +
+                "        if (changes.length > 0) {" +
+                "            sequence++;" +
+                "            window.Android.handleLiveChanges(sequence, JSON.stringify({ v: version, changes: changes }));" +
+                "        }" +
+                "    }" +
+                "    var observer = new MutationObserver(function(mutations) {" +
+                "        for (var i = 0; i < mutations.length; i++) {" +
+                "            record(mutations[i]);" +
+                "        }" +
+                "        if (timer === null && (snapshotRequired || Object.keys(pending).length > 0)) {" +
+                "            timer = setTimeout(flush, batchWindow);" +
+                "        }" +
+                "    });" +
+                "    observer.observe(document.documentElement, { childList: true, subtree: true, characterData: true, attributes: true, attributeFilter: ['%s'] });" +
+                "    window.shLiveUpdates = { snapshot: snapshot };" +
+                "})();", ShRoomProjection.createFunctions(), BATCH_WINDOW, ShRoomProjection.VERSION, String.join("', '", ATTRIBUTES));
+    }
+
+}
@@ -0,0 +1,173 @@
+package de.christian2003.smarthome.data.model.extraction.projection;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.christian2003.smarthome.data.model.extraction.search.room.ShRoomSearch;
+import de.christian2003.smarthome.data.model.extraction.stream.ShShapeDeviationException;
+import de.christian2003.smarthome.data.model.extraction.stream.ShStreamedRoomSearch;
+import de.christian2003.smarthome.data.model.room.ShRoom;
+
+
+/**
+ * Class models a room which was projected within the smart home webpage by {@link ShRoomProjection}. The
+ * room is created from the projected rows like {@link ShRoomSearch} creates it from the room element. A
+ * projected room is not changed, therefore the room which was created last is reused.
+ */
+public class ShProjectedRoom {
+
+    /**
+     * Attribute stores the name of the room or null if the room has no name.
+     */
+    @Nullable
+    private final String name;
+
+    /**
+     * Attribute stores the rows of the content table of the room or null if the room has no content table.
+     */
+    @Nullable
+    private final ArrayList<ShProjectedRow> rows;
+
+    /**
+     * Attribute stores the room which was created last or null if no room was created yet.
+     */
+    @Nullable
+    private ShRoom room;
+
+    /**
+     * Attribute stores the number of rooms with the same name which precede the room which was created last.
+     */
+    private int occurrence;
+
+
+    /**
+     * Constructor instantiates a new projected room.
+     *
+     * @param name  The name of the room or null if the room has no name.
+     * @param rows  The rows of the content table of the room or null if the room has no content table.
+     */
+    public ShProjectedRoom(@Nullable String name, @Nullable ArrayList<ShProjectedRow> rows) {
+        this.name = name;
+        this.rows = rows;
+    }
+
+
+    /**
+     * Gets the name of the room.
+     *
+     * @return  The name of the room or null if the room has no name.
+     */
+    @Nullable
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the name of the room which is created, which is {@link ShRoomSearch#UNKNOWN_ROOM_NAME} if the
+     * room has no name.
+     *
+     * @return  The name of the created room.
+     */
+    @NonNull
+    public String getRoomName() {
+        return name != null ? name : ShRoomSearch.UNKNOWN_ROOM_NAME;
+    }
+
+    /**
+     * Gets the rows of the content table of the room.
+     *
+     * @return  The rows or null if the room has no content table.
+     */
+    @Nullable
+    public List<ShProjectedRow> getRows() {
+        return rows;
+    }
+
+    /**
+     * Method creates a copy of the room in which the row at the index passed is replaced.
+     *
+     * @param rowIndex  Index of the row among the rows of the content table.
+     * @param row       The row which replaces the row at the index.
+     * @return          The copy of the room.
+     * @throws IndexOutOfBoundsException    The room has no row at the index.
+     */
+    @NonNull
+    public ShProjectedRoom replaceRow(int rowIndex, @NonNull ShProjectedRow row) throws IndexOutOfBoundsException {
+        if (rows == null) {
+            throw new IndexOutOfBoundsException("Room without content table");
+        }
+        ArrayList<ShProjectedRow> replacedRows = new ArrayList<>(rows);
+        replacedRows.set(rowIndex, row);
+        return new ShProjectedRoom(name, replacedRows);
+    }
+
+    /**
+     * Method checks whether the room displays the "gesamtstatus".
+     *
+     * @return  Whether the room has a name which displays the "gesamtstatus".
+     */
+    public boolean isGesamtstatus() {
+        return name != null && ShRoomSearch.isGesamtstatus(name);
+    }
+
+    /**
+     * Method creates the room. If the room was created before for the same values of
+     * {@code gesamtstatusElement} and {@code occurrence}, that room is returned instead.
+     *
+     * @param gesamtstatusElement   States if the room displays the "gesamtstatus".
+     * @param occurrence            Number of rooms with the same name which precede the room.
+     * @return                      The room.
+     * @throws ShShapeDeviationException    A row cannot be searched without a document.
+     */
+    @NonNull
+    public synchronized ShRoom createRoom(boolean gesamtstatusElement, int occurrence) throws ShShapeDeviationException {
+        if (room == null || room.isGesamtstatusElement() != gesamtstatusElement || this.occurrence != occurrence) {
+            if (name == null) {
+                room = ShRoomSearch.createUnknownRoom(occurrence);
+            }
+            else if (rows == null) {
+                room = ShRoomSearch.createRoomWithoutContent(name, gesamtstatusElement, occurrence);
+            }
+            else {
+                ShStreamedRoomSearch roomSearch = new ShStreamedRoomSearch(name);
+                for (ShProjectedRow row : rows) {
+                    roomSearch.addRow(row.getClassNames(), row.getCells());
+                }
+                room = roomSearch.createRoom(gesamtstatusElement, occurrence);
+            }
+            this.occurrence = occurrence;
+        }
+        return room;
+    }
+
+    /**
+     * Method creates the rooms of the smart home from the projected rooms passed. The room which displays
+     * the "gesamtstatus" is placed first, like {@link ShRoomSearch#findAllRooms(org.jsoup.nodes.Document)}
+     * does.
+     *
+     * @param projectedRooms    The projected rooms in document order.
+     * @return                  The rooms.
+     * @throws ShShapeDeviationException    A row cannot be searched without a document.
+     */
+    @NonNull
+    public static ArrayList<ShRoom> createRooms(@NonNull List<ShProjectedRoom> projectedRooms) throws ShShapeDeviationException {
+        ArrayList<ShRoom> rooms = new ArrayList<>(projectedRooms.size());
+        boolean overallStatus = false;
+        for (ShProjectedRoom projectedRoom : projectedRooms) {
+            // The rooms created so far precede the room in document order.
+            int occurrence = ShRoom.countOccurrence(rooms, projectedRoom.getRoomName());
+            if (!overallStatus && projectedRoom.isGesamtstatus()) {
+                overallStatus = true;
+                rooms.add(0, projectedRoom.createRoom(true, occurrence));
+            }
+            else {
+                rooms.add(projectedRoom.createRoom(false, occurrence));
+            }
+        }
+        return rooms;
+    }
+
+}
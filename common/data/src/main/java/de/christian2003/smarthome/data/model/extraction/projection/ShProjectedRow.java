@@ -0,0 +1,62 @@
+package de.christian2003.smarthome.data.model.extraction.projection;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.christian2003.smarthome.data.model.extraction.stream.ShStreamedCell;
+
+
+/**
+ * Class models a row of the content table of a room, which was projected within the smart home webpage by
+ * {@link ShRoomProjection}.
+ */
+public class ShProjectedRow {
+
+    /**
+     * Attribute stores the value of the class attribute of the row.
+     */
+    @NonNull
+    private final String classNames;
+
+    /**
+     * Attribute stores the cells which are children of the row.
+     */
+    @NonNull
+    private final ArrayList<ShStreamedCell> cells;
+
+
+    /**
+     * Constructor instantiates a new projected row.
+     *
+     * @param classNames    The value of the class attribute of the row.
+     * @param cells         The cells which are children of the row.
+     */
+    public ShProjectedRow(@NonNull String classNames, @NonNull ArrayList<ShStreamedCell> cells) {
+        this.classNames = classNames;
+        this.cells = cells;
+    }
+
+
+    /**
+     * Gets the value of the class attribute of the row.
+     *
+     * @return  The class names of the row.
+     */
+    @NonNull
+    public String getClassNames() {
+        return classNames;
+    }
+
+    /**
+     * Gets the cells of the row.
+     *
+     * @return  The cells which are children of the row.
+     */
+    @NonNull
+    public List<ShStreamedCell> getCells() {
+        return cells;
+    }
+
+}
@@ -0,0 +1,108 @@
+package de.christian2003.smarthome.data.model.extraction.projection;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+
+/**
+ * Class models a change of a room of the smart home webpage, which is pushed by the webpage while it is
+ * kept loaded. Either a single row of the content table of the room or the complete room changed.
+ */
+public class ShRoomChange {
+
+    /**
+     * Row index of a change that replaces the complete room.
+     */
+    public static final int COMPLETE_ROOM = -1;
+
+    /**
+     * Index of the changed room among all rooms of the webpage.
+     */
+    private final int roomIndex;
+
+    /**
+     * Index of the changed row among the rows of the content table of the room, or
+     * {@link #COMPLETE_ROOM} if the complete room changed.
+     */
+    private final int rowIndex;
+
+    /**
+     * The changed row or null if the complete room changed.
+     */
+    @Nullable
+    private final ShProjectedRow row;
+
+    /**
+     * The changed room or null if a single row changed.
+     */
+    @Nullable
+    private final ShProjectedRoom room;
+
+
+    /**
+     * Constructor instantiates a new change of a single row.
+     *
+     * @param roomIndex Index of the changed room among all rooms of the webpage.
+     * @param rowIndex  Index of the changed row among the rows of the content table of the room.
+     * @param row       The changed row.
+     */
+    public ShRoomChange(int roomIndex, int rowIndex, @NonNull ShProjectedRow row) {
+        this.roomIndex = roomIndex;
+        this.rowIndex = rowIndex;
+        this.row = row;
+        this.room = null;
+    }
+
+    /**
+     * Constructor instantiates a new change of the complete room.
+     *
+     * @param roomIndex Index of the changed room among all rooms of the webpage.
+     * @param room      The changed room.
+     */
+    public ShRoomChange(int roomIndex, @NonNull ShProjectedRoom room) {
+        this.roomIndex = roomIndex;
+        this.rowIndex = COMPLETE_ROOM;
+        this.row = null;
+        this.room = room;
+    }
+
+
+    /**
+     * Gets the index of the changed room.
+     *
+     * @return  Index of the changed room among all rooms of the webpage.
+     */
+    public int getRoomIndex() {
+        return roomIndex;
+    }
+
+    /**
+     * Gets the index of the changed row.
+     *
+     * @return  Index of the changed row or {@link #COMPLETE_ROOM} if the complete room changed.
+     */
+    public int getRowIndex() {
+        return rowIndex;
+    }
+
+    /**
+     * Gets the changed row.
+     *
+     * @return  The changed row or null if the complete room changed.
+     */
+    @Nullable
+    public ShProjectedRow getRow() {
+        return row;
+    }
+
+    /**
+     * Gets the changed room.
+     *
+     * @return  The changed room or null if a single row changed.
+     */
+    @Nullable
+    public ShProjectedRoom getRoom() {
+        return room;
+    }
+
+}
@@ -0,0 +1,353 @@
+package de.christian2003.smarthome.data.model.extraction.projection;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+import java.util.TreeSet;
+
+import de.christian2003.smarthome.data.model.extraction.stream.ShStreamingExtractor;
+
+
+/**
+ * Class describes the projection of the rooms of the smart home webpage into a compact JSON payload.
+ * The projection is created within the webpage, so that only the properties of the rooms which the
+ * extraction reads (instead of the complete html of the webpage) need to be passed through the JavaScript
+ * interface. The script locates the rooms, their names, the rows of their content tables and the elements
+ * within the cells like the built-in selectors of
+ * {@link de.christian2003.smarthome.data.model.extraction.search.ShSelector} do, and collects the text of
+ * the elements like Jsoup does.
+ * <p>
+ * The payload has the format {@code {"v": 2, "rooms": [room, ...]}}. A room is projected into the array
+ * {@code [name, rows]}, where the name is null if the room has no name and the rows are null if the room
+ * has no content table. A row is projected into the array {@code [classNames, [cell, ...]]}. A cell is
+ * projected into an object with the properties of
+ * {@link de.christian2003.smarthome.data.model.extraction.stream.ShStreamedCell}, which are omitted if they
+ * are not set: {@code t} (text, omitted if equal to the own text), {@code o} (own text), {@code k}
+ * (contains a block), {@code i} (image source, present if the cell contains an image), {@code f} and
+ * {@code s} (input buttons), {@code b} and {@code c} (buttons as {@code [text, ownText]}), {@code m}
+ * (milliampere), {@code fm} (form as {@code [ownText]} or {@code [ownText, button]}) and {@code r} (rows of
+ * the inner table).
+ * <p>
+ * Cells whose elements cannot be represented by these properties, like block elements or nested tables
+ * outside of the second cell, deviate from the shape of the webpage. In that case the payload has the
+ * format {@code {"v": 2, "deviation": reason}} and the html must be passed instead.
+ */
+public class ShRoomProjection {
+
+    /**
+     * Version of the payload format.
+     */
+    public static final int VERSION = 2;
+
+
+    /**
+     * Method creates a JavaScript expression which evaluates to the JSON payload of the rooms of the
+     * webpage.
+     *
+     * @return  JavaScript expression creating the payload.
+     */
+    @NonNull
+    public static String createExpression() {
+        return String.format(Locale.ROOT, "(function() {" +
+                "    %s" +
+                "    return shProjectRooms();" +
+                "})()", createFunctions());
+    }
+
+
+    /**
+     * Method creates the JavaScript functions which project the rooms of the webpage. Besides helpers, the
+     * functions are {@code shRooms()}, returning the div containers with the class "room",
+     * {@code shRoomName(room)}, returning the span with the name of a room or null,
+     * {@code shContentRows(room)}, returning the rows of the content table of a room or null,
+     * {@code shProjectRoom(room)} and {@code shProjectRow(row)}, projecting a room or a row and throwing a
+     * {@code ShDeviation} if it deviates from the shape of the webpage, and {@code shProjectRooms()},
+     * returning the JSON payload of all rooms.
+     *
+     * @return  JavaScript declarations of the functions.
+     */
+    @NonNull
+    public static String createFunctions() {
+        return String.format(Locale.ROOT, "var shInlineElements = ['%s'];" +
+                "function ShDeviation(reason) {" +
+                "    this.reason = reason;" +
+                "}" +
+                "function shHasClass(element, className) {" +
+                "    var classNames = element.getAttribute('class');" +
+                "    if (classNames === null) {" +
+                "        return false;" +
+                "    }" +
+                "    var names = classNames.split(/[ \\t\\n\\f\\r]+/);" +
+                "    for (var i = 0; i < names.length; i++) {" +
+                "        if (names[i].toLowerCase() === className.toLowerCase()) {" +
+                "            return true;" +
+                "        }" +
+                "    }" +
+                "    return false;" +
+                "}" +
+                "function shTagName(element) {" +
+                "    return element.tagName.toLowerCase();" +
+                "}" +
+                "function shTrim(value) {" +
+                "    return value.replace(/^[\\u0000-\\u0020]+|[\\u0000-\\u0020]+$/g, '');" +
+                "}" +
+                "function shRooms() {" +
+                "    var rooms = [];" +
+                "    var divs = document.getElementsByTagName('div');" +
+                "    for (var i = 0; i < divs.length; i++) {" +
+                "        if (shHasClass(divs[i], 'room')) {" +
+                "            rooms.push(divs[i]);" +
+                "        }" +
+                "    }" +
+                "    return rooms;" +
+                "}" +
+                "function shRoomName(room) {" +
+                "    var spans = room.getElementsByTagName('span');" +
+                "    for (var i = 0; i < spans.length; i++) {" +
+                "        if (shHasClass(spans[i], 'roomName')) {" +
+                "            return spans[i];" +
+                "        }" +
+                "    }" +
+                "    return null;" +
+                "}" +
+                "function shContentRows(room) {" +
+                "    var table = room.getElementsByTagName('table')[0];" +
+                "    if (table === undefined) {" +
+                "        return null;" +
+                "    }" +
+                "    var rows = [];" +
+                "    for (var body = table.firstChild; body !== null; body = body.nextSibling) {" +
+                "        if (body.nodeType === 1 && shTagName(body) === 'tbody') {" +
+                "            for (var row = body.firstChild; row !== null; row = row.nextSibling) {" +
+                "                if (row.nodeType === 1 && shTagName(row) === 'tr') {" +
+                "                    rows.push(row);" +
+                "                }" +
+                "            }" +
+                "        }" +
+                "    }" +
+                "    return rows;" +
+                "}" +
+                "function shAppendText(holders, key, data) {" +
+                "    var text = data.replace(/[\\u200B\\u00AD]/g, '').replace(/[ \\t\\n\\f\\r\\u00A0]+/g, ' ');" +
+                "    for (var i = 0; i < holders.length; i++) {" +
+                "        var current = holders[i][key];" +
+                "        holders[i][key] = current.charAt(current.length - 1) === ' ' && text.charAt(0) === ' ' ? current + text.substring(1) : current + text;" +
+                "    }" +
+                "}" +
+                "function shWalk(parent, context) {" +
+                "    var isCell = context.kind === 'cell' || context.kind === 'innerCell';" +
+                "    var containsButton = false;" +
+                "    var containsInputButton = false;" +
+                "    for (var node = parent.firstChild; node !== null; node = node.nextSibling) {" +
+                "        if (node.nodeType === 3) {" +
+                "            shAppendText(context.texts, 'text', node.data);" +
+                "            if (context.own !== null) {" +
+                "                shAppendText([context.own], 'ownText', node.data);" +
+                "            }" +
+                "            continue;" +
+                "        }" +
+                "        if (node.nodeType !== 1) {" +
+                "            continue;" +
+                "        }" +
+                "        var tag = shTagName(node);" +
+                "        var cells = context.cells;" +
+                "        var i;" +
+                "        var child = { kind: 'inline', cells: cells, texts: context.texts, own: null, button: context.button, anchor: context.anchor };" +
+                "        if (isCell && tag === 'form') {" +
+                "            var form = { ownText: '', button: null };" +
+                "            for (i = 0; i < cells.length; i++) {" +
+                "                cells[i].containsBlock = true;" +
+                "                if (cells[i].form === null) {" +
+                "                    cells[i].form = form;" +
+                "                }" +
+                "            }" +
+                "            child.kind = 'form';" +
+                "            child.own = form;" +
+                "            child.form = form;" +
+                "            shWalk(node, child);" +
+                "        } else if (isCell && tag === 'table') {" +
+                "            if (context.kind !== 'cell' || context.cellIndex !== 1 || context.cell.innerRows !== null) {" +
+                "                throw new ShDeviation('Unexpected table in a cell');" +
+                "            }" +
+                "            for (i = 0; i < cells.length; i++) {" +
+                "                cells[i].containsBlock = true;" +
+                "            }" +
+                "            context.cell.innerRows = shProjectInnerTable(node, cells);" +
+                "        } else if (shInlineElements.indexOf(tag) === -1) {" +
+                "            throw new ShDeviation('Unexpected element ' + tag + ' in ' + shTagName(parent));" +
+                "        } else if (tag === 'br') {" +
+                "            for (i = 0; i < context.texts.length; i++) {" +
+                "                var text = context.texts[i].text;" +
+                "                if (text.length > 0 && text.charAt(text.length - 1) !== ' ') {" +
+                "                    context.texts[i].text += ' ';" +
+                "                }" +
+                "            }" +
+                "            if (context.own !== null && context.own.ownText.charAt(context.own.ownText.length - 1) !== ' ') {" +
+                "                context.own.ownText += ' ';" +
+                "            }" +
+                "        } else if (tag === 'img') {" +
+                "            var source = node.getAttribute('src');" +
+                "            for (i = 0; i < cells.length; i++) {" +
+                "                if (!cells[i].containsImage) {" +
+                "                    cells[i].containsImage = true;" +
+                "                    cells[i].imageSource = source !== null ? source : '';" +
+                "                }" +
+                "            }" +
+                "        } else if (tag === 'input') {" +
+                "            var type = node.getAttribute('type');" +
+                "            if (type !== null && shTrim(type).toLowerCase() === 'button') {" +
+                "                var value = node.getAttribute('value');" +
+                "                for (i = 0; i < cells.length; i++) {" +
+                "                    if (cells[i].firstInputButton === null) {" +
+                "                        cells[i].firstInputButton = value !== null ? value : '';" +
+                "                    } else if (containsInputButton && cells[i].secondInputButton === null) {" +
+                "                        cells[i].secondInputButton = value !== null ? value : '';" +
+                "                    }" +
+                "                }" +
+                "                containsInputButton = true;" +
+                "            }" +
+                "        } else if (tag === 'button') {" +
+                "            if (context.button) {" +
+                "                throw new ShDeviation('Nested button');" +
+                "            }" +
+                "            var button = { text: '', ownText: '' };" +
+                "            for (i = 0; i < cells.length; i++) {" +
+                "                if (cells[i].firstButton === null) {" +
+                "                    cells[i].firstButton = button;" +
+                "                } else if (containsButton && cells[i].secondButton === null) {" +
+                "                    cells[i].secondButton = button;" +
+                "                }" +
+                "            }" +
+                "            if (context.kind === 'form' && context.form.button === null) {" +
+                "                context.form.button = button;" +
+                "            }" +
+                "            containsButton = true;" +
+                "            child.kind = 'button';" +
+                "            child.texts = context.texts.concat([button]);" +
+                "            child.own = button;" +
+                "            child.button = true;" +
+                "            shWalk(node, child);" +
+                "        } else if (tag === 'a') {" +
+                "            if (context.anchor) {" +
+                "                throw new ShDeviation('Nested anchor');" +
+                "            }" +
+                "            child.anchor = true;" +
+                "            shWalk(node, child);" +
+                "        } else {" +
+                "            var id = tag === 'span' ? node.getAttribute('id') : null;" +
+                "            if (id !== null && id.toLowerCase().indexOf('ma') !== -1) {" +
+                "                for (i = 0; i < cells.length; i++) {" +
+                "                    if (cells[i].milliAmp === null) {" +
+                "                        if (child.own === null) {" +
+                "                            child.own = { ownText: '' };" +
+                "                        }" +
+                "                        cells[i].milliAmp = child.own;" +
+                "                    }" +
+                "                }" +
+                "            }" +
+                "            shWalk(node, child);" +
+                "        }" +
+                "    }" +
+                "}" +
+                "function shProjectCells(row, outerCells, inner) {" +
+                "    var cells = [];" +
+                "    for (var node = row.firstChild; node !== null; node = node.nextSibling) {" +
+                "        if (node.nodeType !== 1) {" +
+                "            continue;" +
+                "        }" +
+                "        if (shTagName(node) !== 'td') {" +
+                "            throw new ShDeviation('Unexpected element ' + shTagName(node) + ' in table row');" +
+                "        }" +
+                "        var cell = { text: '', ownText: '', containsBlock: false, containsImage: false, imageSource: '', firstInputButton: null, secondInputButton: null, firstButton: null, secondButton: null, milliAmp: null, form: null, innerRows: null };" +
+                "        var openCells = outerCells.concat([cell]);" +
+                "        shWalk(node, { kind: inner ? 'innerCell' : 'cell', cells: openCells, texts: openCells, own: cell, cell: cell, cellIndex: cells.length, button: false, anchor: false });" +
+                "        cells.push(cell);" +
+                "    }" +
+                "    return cells;" +
+                "}" +
+                "function shProjectInnerTable(table, outerCells) {" +
+                "    var rows = [];" +
+                "    for (var body = table.firstChild; body !== null; body = body.nextSibling) {" +
+                "        if (body.nodeType !== 1) {" +
+                "            continue;" +
+                "        }" +
+                "        if (shTagName(body) !== 'tbody') {" +
+                "            throw new ShDeviation('Unexpected element ' + shTagName(body) + ' in a nested table');" +
+                "        }" +
+                "        if (rows.length > 0) {" +
+                "            throw new ShDeviation('Second body in a nested table');" +
+                "        }" +
+                "        for (var row = body.firstChild; row !== null; row = row.nextSibling) {" +
+                "            if (row.nodeType !== 1) {" +
+                "                continue;" +
+                "            }" +
+                "            if (shTagName(row) !== 'tr') {" +
+                "                throw new ShDeviation('Unexpected element ' + shTagName(row) + ' in a nested table body');" +
+                "            }" +
+                "            rows.push(shProjectCells(row, outerCells, true));" +
+                "        }" +
+                "    }" +
+                "    return rows;" +
+                "}" +
+                "function shCellPayload(cell) {" +
+                "    var payload = {};" +
+                "    if (cell.ownText !== '') {" +
+                "        payload.o = cell.ownText;" +
+                "    }" +
+                "    if (cell.text !== cell.ownText) {" +
+                "        payload.t = cell.text;" +
+                "    }" +
+                "    if (cell.containsBlock) {" +
+                "        payload.k = true;" +
+                "    }" +
+                "    if (cell.containsImage) {" +
+                "        payload.i = cell.imageSource;" +
+                "    }" +
+                "    if (cell.firstInputButton !== null) {" +
+                "        payload.f = cell.firstInputButton;" +
+                "    }" +
+                "    if (cell.secondInputButton !== null) {" +
+                "        payload.s = cell.secondInputButton;" +
+                "    }" +
+                "    if (cell.firstButton !== null) {" +
+                "        payload.b = [cell.firstButton.text, cell.firstButton.ownText];" +
+                "    }" +
+                "    if (cell.secondButton !== null) {" +
+                "        payload.c = [cell.secondButton.text, cell.secondButton.ownText];" +
+                "    }" +
+                "    if (cell.milliAmp !== null) {" +
+                "        payload.m = cell.milliAmp.ownText;" +
+                "    }" +
+                "    if (cell.form !== null) {" +
+                "        payload.fm = cell.form.button !== null ? [cell.form.ownText, [cell.form.button.text, cell.form.button.ownText]] : [cell.form.ownText];" +
+                "    }" +
+                "    if (cell.innerRows !== null) {" +
+                "        payload.r = cell.innerRows.map(function(innerRow) { return innerRow.map(shCellPayload); });" +
+                "    }" +
+                "    return payload;" +
+                "}" +
+                "function shProjectRow(row) {" +
+                "    var classNames = row.getAttribute('class');" +
+                "    return [classNames !== null ? classNames : '', shProjectCells(row, [], false).map(shCellPayload)];" +
+                "}" +
+                "function shProjectRoom(room) {" +
+                "    var name = null;" +
+                "    var roomName = shRoomName(room);" +
+                "    if (roomName !== null) {" +
+                "        var holder = { text: '' };" +
+                "        shWalk(roomName, { kind: 'inline', cells: [], texts: [holder], own: null, button: false, anchor: false });" +
+                "        name = holder.text;" +
+                "    }" +
+                "    var rows = shContentRows(room);" +
+                "    return [name, rows !== null ? rows.map(shProjectRow) : null];" +
+                "}" +
+                "function shProjectRooms() {" +
+                "    try {" +
+                "        return JSON.stringify({ v: %d, rooms: shRooms().map(shProjectRoom) });" +
+                "    } catch (e) {" +
+                "        return JSON.stringify({ v: %d, deviation: e instanceof ShDeviation ? e.reason : 'Script error: ' + e });" +
+                "    }" +
+                "}", String.join("', '", new TreeSet<>(ShStreamingExtractor.INLINE_ELEMENTS)), VERSION, VERSION);
+    }
+
+}
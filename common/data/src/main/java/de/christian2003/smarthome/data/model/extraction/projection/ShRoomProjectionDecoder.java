@@ -0,0 +1,578 @@
+package de.christian2003.smarthome.data.model.extraction.projection;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+
+import de.christian2003.smarthome.data.model.extraction.stream.ShShapeDeviationException;
+import de.christian2003.smarthome.data.model.extraction.stream.ShStreamedCell;
+
+
+/**
+ * Class decodes the JSON payload created by {@link ShRoomProjection#createExpression()} into the projected
+ * rooms of the webpage. The cells are created directly from the payload, so that neither html nor elements
+ * need to be created, and the rooms are created from the cells by
+ * {@link de.christian2003.smarthome.data.model.extraction.stream.ShStreamedRoomSearch}.
+ */
+public class ShRoomProjectionDecoder {
+
+    /**
+     * The JSON payload to decode.
+     */
+    @NonNull
+    private final String json;
+
+    /**
+     * Position of the next character to read from the payload.
+     */
+    private int position;
+
+    /**
+     * The rooms read from the payload.
+     */
+    @Nullable
+    private ArrayList<ShProjectedRoom> rooms;
+
+    /**
+     * The changes read from the payload.
+     */
+    @Nullable
+    private ArrayList<ShRoomChange> changes;
+
+    /**
+     * Why the rooms deviate from the shape of the webpage, if the payload reports a deviation.
+     */
+    @Nullable
+    private String deviation;
+
+
+    /**
+     * Constructor instantiates a new decoder for the payload passed.
+     *
+     * @param json  The JSON payload to decode.
+     */
+    private ShRoomProjectionDecoder(@NonNull String json) {
+        this.json = json;
+        this.position = 0;
+    }
+
+
+    /**
+     * Decodes the payload passed into the projected rooms of the webpage.
+     *
+     * @param json  The JSON payload created within the webpage.
+     * @return      The projected rooms in document order.
+     * @throws IllegalArgumentException     The payload is malformed or has an unsupported version.
+     * @throws ShShapeDeviationException    The rooms deviate from the shape which can be projected.
+     */
+    @NonNull
+    public static ArrayList<ShProjectedRoom> decode(@NonNull String json) throws IllegalArgumentException, ShShapeDeviationException {
+        ShRoomProjectionDecoder decoder = new ShRoomProjectionDecoder(json);
+        decoder.readPayload("rooms");
+        return decoder.rooms;
+    }
+
+
+    /**
+     * Decodes the payload passed into the changes of the rooms which the webpage pushes while it is
+     * kept loaded. The payload has the format {@code {"v": 2, "changes": [[roomIndex, rowIndex, row], ...]}},
+     * where the row index is -1 and the row is replaced by the room if the complete room changed.
+     *
+     * @param json  The JSON payload created within the webpage.
+     * @return      The changes in the order in which they were pushed.
+     * @throws IllegalArgumentException     The payload is malformed or has an unsupported version.
+     * @throws ShShapeDeviationException    The rooms deviate from the shape which can be projected.
+     */
+    @NonNull
+    public static ArrayList<ShRoomChange> decodeChanges(@NonNull String json) throws IllegalArgumentException, ShShapeDeviationException {
+        ShRoomProjectionDecoder decoder = new ShRoomProjectionDecoder(json);
+        decoder.readPayload("changes");
+        return decoder.changes;
+    }
+
+
+    /**
+     * Reads the payload object.
+     *
+     * @param contentKey    Key of the content which the payload must contain.
+     * @throws ShShapeDeviationException    The payload reports a deviation instead of the content.
+     */
+    private void readPayload(@NonNull String contentKey) throws ShShapeDeviationException {
+        int version = -1;
+
+        expect('{');
+        if (!consume('}')) {
+            do {
+                String key = readString();
+                expect(':');
+                if (key.equals("v")) {
+                    version = readInteger();
+                }
+                else if (key.equals("rooms") && key.equals(contentKey)) {
+                    rooms = readRooms();
+                }
+                else if (key.equals("changes") && key.equals(contentKey)) {
+                    changes = readChanges();
+                }
+                else if (key.equals("deviation")) {
+                    deviation = readString();
+                }
+                else {
+                    throw createException("Unknown key \"" + key + "\"");
+                }
+            } while (consume(','));
+            expect('}');
+        }
+        skipWhitespace();
+        if (position != json.length()) {
+            throw createException("Unexpected content after the payload");
+        }
+
+        if (version != ShRoomProjection.VERSION) {
+            throw createException("Unsupported version " + version);
+        }
+        if (deviation != null) {
+            throw new ShShapeDeviationException(deviation);
+        }
+        if (rooms == null && changes == null) {
+            throw createException("No " + contentKey);
+        }
+    }
+
+
+    /**
+     * Reads the array of rooms.
+     *
+     * @return  The projected rooms.
+     */
+    @NonNull
+    private ArrayList<ShProjectedRoom> readRooms() {
+        ArrayList<ShProjectedRoom> rooms = new ArrayList<>();
+        expect('[');
+        if (!consume(']')) {
+            do {
+                rooms.add(readRoom());
+            } while (consume(','));
+            expect(']');
+        }
+        return rooms;
+    }
+
+
+    /**
+     * Reads the array of changes.
+     *
+     * @return  The changes.
+     */
+    @NonNull
+    private ArrayList<ShRoomChange> readChanges() {
+        ArrayList<ShRoomChange> changes = new ArrayList<>();
+        expect('[');
+        if (!consume(']')) {
+            do {
+                expect('[');
+                int roomIndex = readInteger();
+                expect(',');
+                if (consume('-')) {
+                    if (readInteger() != -ShRoomChange.COMPLETE_ROOM) {
+                        throw createException("Invalid row index");
+                    }
+                    expect(',');
+                    changes.add(new ShRoomChange(roomIndex, readRoom()));
+                }
+                else {
+                    int rowIndex = readInteger();
+                    expect(',');
+                    changes.add(new ShRoomChange(roomIndex, rowIndex, readRow()));
+                }
+                expect(']');
+            } while (consume(','));
+            expect(']');
+        }
+        return changes;
+    }
+
+
+    /**
+     * Reads a projected room. The name of the room is trimmed like {@link org.jsoup.nodes.Element#text()}
+     * trims it.
+     *
+     * @return  The room.
+     */
+    @NonNull
+    private ShProjectedRoom readRoom() {
+        expect('[');
+        String name = consumeNull() ? null : readString().trim();
+        expect(',');
+        ArrayList<ShProjectedRow> rows = null;
+        if (!consumeNull()) {
+            rows = new ArrayList<>();
+            expect('[');
+            if (!consume(']')) {
+                do {
+                    rows.add(readRow());
+                } while (consume(','));
+                expect(']');
+            }
+        }
+        expect(']');
+        return new ShProjectedRoom(name, rows);
+    }
+
+
+    /**
+     * Reads a projected row.
+     *
+     * @return  The row.
+     */
+    @NonNull
+    private ShProjectedRow readRow() {
+        expect('[');
+        String classNames = readString();
+        expect(',');
+        ArrayList<ShStreamedCell> cells = readCells();
+        expect(']');
+        return new ShProjectedRow(classNames, cells);
+    }
+
+
+    /**
+     * Reads an array of projected cells.
+     *
+     * @return  The cells.
+     */
+    @NonNull
+    private ArrayList<ShStreamedCell> readCells() {
+        ArrayList<ShStreamedCell> cells = new ArrayList<>();
+        expect('[');
+        if (!consume(']')) {
+            do {
+                cells.add(readCell());
+            } while (consume(','));
+            expect(']');
+        }
+        return cells;
+    }
+
+
+    /**
+     * Reads a projected cell. The text of the cell is omitted from the payload if it is equal to the own
+     * text of the cell.
+     *
+     * @return  The cell.
+     */
+    @NonNull
+    private ShStreamedCell readCell() {
+        ShStreamedCell cell = new ShStreamedCell();
+        String text = null;
+        expect('{');
+        if (!consume('}')) {
+            do {
+                String key = readString();
+                expect(':');
+                switch (key) {
+                    case "t":
+                        text = readString();
+                        break;
+
+                    case "o":
+                        cell.ownText.append(readString());
+                        break;
+
+                    case "k":
+                        cell.containsBlock = readBoolean();
+                        break;
+
+                    case "i":
+                        cell.containsImage = true;
+                        cell.imageSource = readString();
+                        break;
+
+                    case "f":
+                        cell.firstInputButton = readString();
+                        break;
+
+                    case "s":
+                        cell.secondInputButton = readString();
+                        break;
+
+                    case "b":
+                        cell.firstButton = readButton();
+                        break;
+
+                    case "c":
+                        cell.secondButton = readButton();
+                        break;
+
+                    case "m":
+                        cell.milliAmp = new StringBuilder(readString());
+                        break;
+
+                    case "fm":
+                        cell.form = readForm();
+                        break;
+
+                    case "r":
+                        cell.innerRows = new ArrayList<>();
+                        expect('[');
+                        if (!consume(']')) {
+                            do {
+                                cell.innerRows.add(readCells());
+                            } while (consume(','));
+                            expect(']');
+                        }
+                        break;
+
+                    default:
+                        throw createException("Unknown key \"" + key + "\"");
+                }
+            } while (consume(','));
+            expect('}');
+        }
+        cell.text.append(text != null ? text : cell.ownText);
+        return cell;
+    }
+
+
+    /**
+     * Reads a projected button, which has the format {@code [text, ownText]}.
+     *
+     * @return  The button.
+     */
+    @NonNull
+    private ShStreamedCell.Button readButton() {
+        ShStreamedCell.Button button = new ShStreamedCell.Button();
+        expect('[');
+        button.text.append(readString());
+        expect(',');
+        button.ownText.append(readString());
+        expect(']');
+        return button;
+    }
+
+
+    /**
+     * Reads a projected form, which has the format {@code [ownText]} or {@code [ownText, button]}.
+     *
+     * @return  The form.
+     */
+    @NonNull
+    private ShStreamedCell.Form readForm() {
+        ShStreamedCell.Form form = new ShStreamedCell.Form();
+        expect('[');
+        form.ownText.append(readString());
+        if (consume(',')) {
+            form.button = readButton();
+        }
+        expect(']');
+        return form;
+    }
+
+
+    /**
+     * Reads the literal true or false.
+     *
+     * @return  The boolean.
+     */
+    private boolean readBoolean() {
+        if (consumeLiteral("true")) {
+            return true;
+        }
+        if (consumeLiteral("false")) {
+            return false;
+        }
+        throw createException("Expected a boolean");
+    }
+
+
+    /**
+     * Skips whitespace and reads the literal null if it is next.
+     *
+     * @return  Whether null was read.
+     */
+    private boolean consumeNull() {
+        return consumeLiteral("null");
+    }
+
+
+    /**
+     * Skips whitespace and reads the literal passed if it is next.
+     *
+     * @param literal   Literal to read.
+     * @return          Whether the literal was read.
+     */
+    private boolean consumeLiteral(@NonNull String literal) {
+        skipWhitespace();
+        if (json.startsWith(literal, position)) {
+            position += literal.length();
+            return true;
+        }
+        return false;
+    }
+
+
+    /**
+     * Reads a string including all escape sequences.
+     *
+     * @return  The string.
+     */
+    @NonNull
+    private String readString() {
+        expect('"');
+        StringBuilder builder = null;
+        int start = position;
+        while (position < json.length()) {
+            char c = json.charAt(position);
+            if (c == '"') {
+                String string = builder != null ? builder.append(json, start, position).toString() : json.substring(start, position);
+                position++;
+                return string;
+            }
+            else if (c == '\\') {
+                if (builder == null) {
+                    builder = new StringBuilder();
+                }
+                builder.append(json, start, position);
+                builder.append(readEscapeSequence());
+                start = position;
+            }
+            else {
+                position++;
+            }
+        }
+        throw createException("Unterminated string");
+    }
+
+
+    /**
+     * Reads an escape sequence within a string.
+     *
+     * @return  The escaped character.
+     */
+    private char readEscapeSequence() {
+        if (position + 1 >= json.length()) {
+            throw createException("Unterminated escape sequence");
+        }
+        char c = json.charAt(position + 1);
+        position += 2;
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                if (position + 4 > json.length()) {
+                    throw createException("Unterminated unicode escape sequence");
+                }
+                try {
+                    char unicode = (char)Integer.parseInt(json.substring(position, position + 4), 16);
+                    position += 4;
+                    return unicode;
+                }
+                catch (NumberFormatException e) {
+                    throw createException("Invalid unicode escape sequence");
+                }
+            default:
+                throw createException("Invalid escape sequence");
+        }
+    }
+
+
+    /**
+     * Reads a non-negative integer.
+     *
+     * @return  The integer.
+     */
+    private int readInteger() {
+        skipWhitespace();
+        int start = position;
+        while (position < json.length() && Character.isDigit(json.charAt(position))) {
+            position++;
+        }
+        if (start == position) {
+            throw createException("Expected an integer");
+        }
+        try {
+            return Integer.parseInt(json.substring(start, position));
+        }
+        catch (NumberFormatException e) {
+            throw createException("Invalid integer");
+        }
+    }
+
+
+    /**
+     * Skips whitespace and reads the character passed.
+     *
+     * @param c Expected character.
+     */
+    private void expect(char c) {
+        if (!consume(c)) {
+            throw createException("Expected '" + c + "'");
+        }
+    }
+
+
+    /**
+     * Skips whitespace and reads the character passed if it is the next character.
+     *
+     * @param c Character to read.
+     * @return  Whether the character was read.
+     */
+    private boolean consume(char c) {
+        skipWhitespace();
+        if (peek() == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+
+    /**
+     * Returns the next character without reading it.
+     *
+     * @return  The next character or 0 if the end of the payload is reached.
+     */
+    private char peek() {
+        return position < json.length() ? json.charAt(position) : 0;
+    }
+
+
+    /**
+     * Skips all whitespace characters between two tokens.
+     */
+    private void skipWhitespace() {
+        while (position < json.length()) {
+            char c = json.charAt(position);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                return;
+            }
+            position++;
+        }
+    }
+
+
+    /**
+     * Creates an exception indicating that the payload is malformed.
+     *
+     * @param message   Description of the problem.
+     * @return          The exception.
+     */
+    @NonNull
+    private IllegalArgumentException createException(@Nullable String message) {
+        return new IllegalArgumentException("Malformed room projection at position " + position + ": " + message);
+    }
+
+}
@@ -0,0 +1,419 @@
+package de.christian2003.smarthome.data.model.extraction.rules;
+
+import androidx.annotation.NonNull;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import org.jsoup.select.Selector;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Set;
+
+import de.christian2003.smarthome.data.model.extraction.search.ShSelector;
+
+
+/**
+ * Class models the compiled extraction rules, which describe the contract of the smart home webpage: the
+ * CSS queries of the selectors, the class names of the rows and the keywords of the labels. The rules are
+ * compiled once into pre-parsed Jsoup evaluators and keyword matchers, so that nothing has to be parsed
+ * again while the rooms are extracted.
+ * The rules are read from a CSV file with one rule per line. Empty lines and lines starting with "#" are
+ * ignored. Every rule consists of its kind and two values:
+ * <ul>
+ *     <li>{@code selector,<selector>,<CSS query>} replaces the CSS query of a {@link ShSelector}.</li>
+ *     <li>{@code row,<class name>,<row type>} assigns rows with the class name the {@link ShRowType}.</li>
+ *     <li>{@code keyword,<keyword>,<label type>} assigns labels containing the keyword the {@link ShLabelType}.</li>
+ * </ul>
+ * Selectors which are not listed keep their built-in CSS query. If any row or keyword rules are listed,
+ * they replace all built-in row or keyword rules respectively. Rows and keywords are matched in the order
+ * of the rules. Keywords are matched ignoring the case and umlauts, i.e. "tür" matches "Tuer" as well.
+ */
+public class ShExtractionRules {
+
+    /**
+     * The rules through which the rooms are extracted. This is null until the rules are accessed or
+     * installed for the first time.
+     */
+    private static volatile ShExtractionRules instance;
+
+
+    /**
+     * The pre-parsed evaluators of the selectors.
+     */
+    @NonNull
+    private final EnumMap<ShSelector, Evaluator> evaluators;
+
+    /**
+     * States if all selectors use their built-in CSS query.
+     */
+    private final boolean builtInSelectors;
+
+    /**
+     * The class names of the row rules in the order of the rules.
+     */
+    @NonNull
+    private final String[] rowClassNames;
+
+    /**
+     * The row type of each row rule.
+     */
+    @NonNull
+    private final ShRowType[] rowTypes;
+
+    /**
+     * The matcher for the keywords through which the names of rooms are classified.
+     */
+    @NonNull
+    private final ShKeywordMatcher roomNameMatcher;
+
+    /**
+     * The matcher for the keywords through which the labels of cells are classified.
+     */
+    @NonNull
+    private final ShKeywordMatcher labelMatcher;
+
+
+    /**
+     * Constructor instantiates new compiled extraction rules.
+     *
+     * @param cssQueries    The CSS queries of the selectors.
+     * @param rowClassNames The class names of the row rules in the order of the rules.
+     * @param rowTypes      The row type of each row rule.
+     * @param keywords      The keywords of the keyword rules in the order of the rules.
+     * @param labelTypes    The label type of each keyword rule.
+     * @throws IllegalArgumentException A CSS query cannot be parsed.
+     */
+    private ShExtractionRules(@NonNull EnumMap<ShSelector, String> cssQueries, @NonNull ArrayList<String> rowClassNames, @NonNull ArrayList<ShRowType> rowTypes, @NonNull ArrayList<String> keywords, @NonNull ArrayList<ShLabelType> labelTypes) {
+        evaluators = new EnumMap<>(ShSelector.class);
+        boolean builtInSelectors = true;
+        for (ShSelector selector : ShSelector.values()) {
+            String cssQuery = cssQueries.get(selector);
+            try {
+                evaluators.put(selector, QueryParser.parse(cssQuery));
+            }
+            catch (Selector.SelectorParseException e) {
+                throw new IllegalArgumentException("The CSS query of the selector " + selector.name() + " cannot be parsed: " + e.getMessage(), e);
+            }
+            builtInSelectors &= cssQuery.equals(selector.getCssQuery());
+        }
+        this.builtInSelectors = builtInSelectors;
+        this.rowClassNames = rowClassNames.toArray(new String[0]);
+        this.rowTypes = rowTypes.toArray(new ShRowType[0]);
+
+        ArrayList<String> roomNameKeywords = new ArrayList<>();
+        ArrayList<ShLabelType> roomNameTypes = new ArrayList<>();
+        ArrayList<String> labelKeywords = new ArrayList<>();
+        ArrayList<ShLabelType> labelTypesOfKeywords = new ArrayList<>();
+        for (int i = 0; i < keywords.size(); i++) {
+            if (labelTypes.get(i) == ShLabelType.Gesamtstatus) {
+                roomNameKeywords.add(keywords.get(i));
+                roomNameTypes.add(labelTypes.get(i));
+            }
+            else {
+                labelKeywords.add(keywords.get(i));
+                labelTypesOfKeywords.add(labelTypes.get(i));
+            }
+        }
+        roomNameMatcher = new ShKeywordMatcher(roomNameKeywords, roomNameTypes);
+        labelMatcher = new ShKeywordMatcher(labelKeywords, labelTypesOfKeywords);
+    }
+
+
+    /**
+     * Method gets the rules through which the rooms are extracted. If no rules were installed, the
+     * built-in rules are used.
+     *
+     * @return  The rules.
+     */
+    @NonNull
+    public static ShExtractionRules getInstance() {
+        ShExtractionRules rules = instance;
+        if (rules == null) {
+            synchronized (ShExtractionRules.class) {
+                rules = instance;
+                if (rules == null) {
+                    rules = createBuiltIn();
+                    instance = rules;
+                }
+            }
+        }
+        return rules;
+    }
+
+
+    /**
+     * Method installs the rules through which all following extractions locate and classify the elements
+     * of the webpage.
+     *
+     * @param rules The rules to install.
+     */
+    public static void install(@NonNull ShExtractionRules rules) {
+        instance = rules;
+    }
+
+
+    /**
+     * Method creates the built-in rules, which consist of the CSS queries of the {@link ShSelector}s, the
+     * class names of the {@link ShRowType}s and the keywords of the {@link ShLabelType}s.
+     *
+     * @return  The built-in rules.
+     */
+    @NonNull
+    public static ShExtractionRules createBuiltIn() {
+        ArrayList<String> rowClassNames = new ArrayList<>();
+        ArrayList<ShRowType> rowTypes = new ArrayList<>();
+        addBuiltInRows(rowClassNames, rowTypes);
+        ArrayList<String> keywords = new ArrayList<>();
+        ArrayList<ShLabelType> labelTypes = new ArrayList<>();
+        addBuiltInKeywords(keywords, labelTypes);
+        return new ShExtractionRules(createBuiltInCssQueries(), rowClassNames, rowTypes, keywords, labelTypes);
+    }
+
+
+    /**
+     * Method compiles the rules of the CSV passed.
+     *
+     * @param csv   The content of the rule file.
+     * @return      The compiled rules.
+     * @throws IllegalArgumentException The rule file contains an invalid rule.
+     */
+    @NonNull
+    public static ShExtractionRules compile(@NonNull String csv) {
+        EnumMap<ShSelector, String> cssQueries = createBuiltInCssQueries();
+        ArrayList<String> rowClassNames = new ArrayList<>();
+        ArrayList<ShRowType> rowTypes = new ArrayList<>();
+        ArrayList<String> keywords = new ArrayList<>();
+        ArrayList<ShLabelType> labelTypes = new ArrayList<>();
+
+        String[] lines = csv.split("\n");
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            // The CSS query is the last value, since it may contain commas itself.
+            String[] values = line.split(",", 3);
+            if (values.length != 3 || values[1].trim().isEmpty() || values[2].trim().isEmpty()) {
+                throw new IllegalArgumentException("Line " + (i + 1) + ": A rule must consist of its kind and two values");
+            }
+            String first = values[1].trim();
+            String second = values[2].trim();
+            switch (values[0].trim()) {
+                case "selector":
+                    cssQueries.put(parseEnum(ShSelector.class, first, i), second);
+                    break;
+
+                case "row":
+                    ShRowType rowType = parseEnum(ShRowType.class, second, i);
+                    if (rowType == ShRowType.Unknown) {
+                        throw new IllegalArgumentException("Line " + (i + 1) + ": Rows cannot be assigned the type " + second);
+                    }
+                    rowClassNames.add(first);
+                    rowTypes.add(rowType);
+                    break;
+
+                case "keyword":
+                    ShLabelType labelType = parseEnum(ShLabelType.class, second, i);
+                    if (labelType == ShLabelType.Unknown) {
+                        throw new IllegalArgumentException("Line " + (i + 1) + ": Keywords cannot be assigned the type " + second);
+                    }
+                    keywords.add(first);
+                    labelTypes.add(labelType);
+                    break;
+
+                default:
+                    throw new IllegalArgumentException("Line " + (i + 1) + ": Unknown kind of rule " + values[0].trim());
+            }
+        }
+
+        if (rowClassNames.isEmpty()) {
+            addBuiltInRows(rowClassNames, rowTypes);
+        }
+        if (keywords.isEmpty()) {
+            addBuiltInKeywords(keywords, labelTypes);
+        }
+        return new ShExtractionRules(cssQueries, rowClassNames, rowTypes, keywords, labelTypes);
+    }
+
+
+    /**
+     * Method creates the built-in CSS queries of all selectors.
+     *
+     * @return  The CSS queries.
+     */
+    @NonNull
+    private static EnumMap<ShSelector, String> createBuiltInCssQueries() {
+        EnumMap<ShSelector, String> cssQueries = new EnumMap<>(ShSelector.class);
+        for (ShSelector selector : ShSelector.values()) {
+            cssQueries.put(selector, selector.getCssQuery());
+        }
+        return cssQueries;
+    }
+
+
+    /**
+     * Method adds the built-in row rules to the lists passed.
+     *
+     * @param rowClassNames The list to which the class names are added.
+     * @param rowTypes      The list to which the row types are added.
+     */
+    private static void addBuiltInRows(@NonNull ArrayList<String> rowClassNames, @NonNull ArrayList<ShRowType> rowTypes) {
+        for (ShRowType rowType : ShRowType.values()) {
+            if (rowType.getClassName() != null) {
+                rowClassNames.add(rowType.getClassName());
+                rowTypes.add(rowType);
+            }
+        }
+    }
+
+
+    /**
+     * Method adds the built-in keyword rules to the lists passed.
+     *
+     * @param keywords      The list to which the keywords are added.
+     * @param labelTypes    The list to which the label types are added.
+     */
+    private static void addBuiltInKeywords(@NonNull ArrayList<String> keywords, @NonNull ArrayList<ShLabelType> labelTypes) {
+        for (ShLabelType labelType : ShLabelType.values()) {
+            for (String keyword : labelType.getKeywords()) {
+                keywords.add(keyword);
+                labelTypes.add(labelType);
+            }
+        }
+    }
+
+
+    /**
+     * Method parses the name of an enum constant of a rule.
+     *
+     * @param enumClass The class of the enum.
+     * @param name      The name of the constant.
+     * @param line      The index of the line of the rule.
+     * @param <E>       The type of the enum.
+     * @return          The constant.
+     * @throws IllegalArgumentException The enum does not have a constant with the name passed.
+     */
+    @NonNull
+    private static <E extends Enum<E>> E parseEnum(@NonNull Class<E> enumClass, @NonNull String name, int line) {
+        try {
+            return Enum.valueOf(enumClass, name);
+        }
+        catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Line " + (line + 1) + ": Unknown " + enumClass.getSimpleName() + " " + name, e);
+        }
+    }
+
+
+    /**
+     * Gets the pre-parsed evaluator of the selector passed.
+     *
+     * @param selector  The selector.
+     * @return          The evaluator.
+     */
+    @NonNull
+    public Evaluator getEvaluator(@NonNull ShSelector selector) {
+        return evaluators.get(selector);
+    }
+
+
+    /**
+     * Gets whether all selectors use their built-in CSS query. Only in this case, the elements can be
+     * located by the engines which implement the built-in selectors without CSS queries, like the tree walk
+     * and the streaming extraction.
+     *
+     * @return  Whether all selectors use their built-in CSS query.
+     */
+    public boolean hasBuiltInSelectors() {
+        return builtInSelectors;
+    }
+
+
+    /**
+     * Gets the type of the row with the class names passed.
+     *
+     * @param classNames    The class names of the row.
+     * @return              The type of the first row rule whose class name the row has or
+     *                      {@link ShRowType#Unknown} if no row rule matches.
+     */
+    @NonNull
+    public ShRowType getRowType(@NonNull Set<String> classNames) {
+        for (int i = 0; i < rowClassNames.length; i++) {
+            if (classNames.contains(rowClassNames[i])) {
+                return rowTypes[i];
+            }
+        }
+        return ShRowType.Unknown;
+    }
+
+
+    /**
+     * Gets the type of the row passed. Unlike {@link #getRowType(Set)}, the class attribute of the row is
+     * scanned directly, so that no set of class names is created for every row. Like the class names, the
+     * class attribute is compared case-sensitively.
+     *
+     * @param row   The row.
+     * @return      The type of the first row rule whose class name the row has or
+     *              {@link ShRowType#Unknown} if no row rule matches.
+     */
+    @NonNull
+    public ShRowType getRowType(@NonNull Element row) {
+        String classAttribute = row.className();
+        for (int i = 0; i < rowClassNames.length; i++) {
+            if (hasClassName(classAttribute, rowClassNames[i])) {
+                return rowTypes[i];
+            }
+        }
+        return ShRowType.Unknown;
+    }
+
+
+    /**
+     * Checks whether the class attribute passed contains the class name passed as a whitespace separated
+     * token.
+     *
+     * @param classAttribute    The class attribute.
+     * @param className         The class name.
+     * @return                  Whether the class attribute contains the class name.
+     */
+    private static boolean hasClassName(@NonNull String classAttribute, @NonNull String className) {
+        int length = className.length();
+        int index = classAttribute.indexOf(className);
+        while (index != -1) {
+            boolean startsToken = index == 0 || Character.isWhitespace(classAttribute.charAt(index - 1));
+            boolean endsToken = index + length == classAttribute.length() || Character.isWhitespace(classAttribute.charAt(index + length));
+            if (startsToken && endsToken) {
+                return true;
+            }
+            index = classAttribute.indexOf(className, index + 1);
+        }
+        return false;
+    }
+
+
+    /**
+     * Checks if the room with the name passed displays the "gesamtstatus".
+     *
+     * @param roomName  The name of the room.
+     * @return          Whether the name contains a keyword of {@link ShLabelType#Gesamtstatus}.
+     */
+    public boolean isGesamtstatus(@NonNull String roomName) {
+        return roomNameMatcher.match(roomName) == ShLabelType.Gesamtstatus;
+    }
+
+
+    /**
+     * Classifies the label of a cell through the keywords in a single pass over the label. The label is
+     * matched ignoring the case and umlauts, and the result is cached for repeated labels.
+     *
+     * @param label The label.
+     * @return      The type of the first keyword in the order of the rules which the label contains or
+     *              {@link ShLabelType#Unknown} if the label does not contain any keyword.
+     */
+    @NonNull
+    public ShLabelType classifyLabel(@NonNull String label) {
+        return labelMatcher.match(label);
+    }
+
+}
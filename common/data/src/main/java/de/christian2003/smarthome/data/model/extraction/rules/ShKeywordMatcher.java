@@ -0,0 +1,319 @@
+package de.christian2003.smarthome.data.model.extraction.rules;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Class matches texts against a list of keywords in a single pass over the text. The keywords are compiled
+ * into an Aho-Corasick automaton, so that the number of keywords does not affect the time it takes to match
+ * a text. Texts and keywords are compared ignoring the case and umlauts, i.e. "ä", "ö", "ü" and "ß" match
+ * their transliterations "ae", "oe", "ue" and "ss", regardless of whether the umlauts are precomposed or
+ * composed of a vowel and a combining diaeresis. The results are cached, since the labels of the webpage
+ * repeat with every refresh.
+ */
+public class ShKeywordMatcher {
+
+    /**
+     * Maximum number of cached results. The cache is cleared once it is full, which only happens if the
+     * labels change constantly.
+     */
+    private static final int MAX_CACHED_RESULTS = 1024;
+
+    /**
+     * Combining diaeresis, which turns the preceding vowel into an umlaut.
+     */
+    private static final char COMBINING_DIAERESIS = '\u0308';
+
+    /**
+     * Number of characters that are mapped to a symbol of the automaton through a lookup table.
+     */
+    private static final int ASCII = 128;
+
+
+    /**
+     * The type of each keyword.
+     */
+    @NonNull
+    private final ShLabelType[] types;
+
+    /**
+     * The symbol of each ASCII character. Characters which do not occur in any keyword are symbol 0.
+     */
+    @NonNull
+    private final int[] asciiSymbols;
+
+    /**
+     * The non ASCII characters which occur in the keywords in ascending order.
+     */
+    @NonNull
+    private final char[] otherCharacters;
+
+    /**
+     * The symbol of each non ASCII character which occurs in the keywords.
+     */
+    @NonNull
+    private final int[] otherSymbols;
+
+    /**
+     * Number of symbols of the automaton.
+     */
+    private final int symbolCount;
+
+    /**
+     * The transitions of the automaton. The state following state s for symbol c is stored at index
+     * {@code s * symbolCount + c}.
+     */
+    @NonNull
+    private final int[] transitions;
+
+    /**
+     * The index of the first keyword in the order of the rules which ends in each state, including the
+     * keywords which end in the states reached through the failure links, or {@link Integer#MAX_VALUE} if
+     * no keyword ends in the state.
+     */
+    @NonNull
+    private final int[] firstKeywords;
+
+    /**
+     * The cached results per text.
+     */
+    @NonNull
+    private final ConcurrentHashMap<String, ShLabelType> cache;
+
+
+    /**
+     * Constructor instantiates a new keyword matcher.
+     *
+     * @param keywords  The keywords in the order of the rules.
+     * @param types     The type of each keyword.
+     */
+    public ShKeywordMatcher(@NonNull List<String> keywords, @NonNull List<ShLabelType> types) {
+        this.types = types.toArray(new ShLabelType[0]);
+        this.cache = new ConcurrentHashMap<>();
+
+        // Normalize the keywords and assign a symbol to every character which occurs in them:
+        String[] normalizedKeywords = new String[keywords.size()];
+        StringBuilder normalized = new StringBuilder();
+        asciiSymbols = new int[ASCII];
+        ArrayList<Character> others = new ArrayList<>();
+        int symbols = 1;
+        for (int i = 0; i < normalizedKeywords.length; i++) {
+            normalized.setLength(0);
+            String keyword = keywords.get(i);
+            for (int j = 0; j < keyword.length(); j++) {
+                normalize(keyword.charAt(j), normalized);
+            }
+            normalizedKeywords[i] = normalized.toString();
+            for (int j = 0; j < normalized.length(); j++) {
+                char c = normalized.charAt(j);
+                if (c < ASCII) {
+                    if (asciiSymbols[c] == 0) {
+                        asciiSymbols[c] = symbols++;
+                    }
+                }
+                else if (!others.contains(c)) {
+                    others.add(c);
+                }
+            }
+        }
+        otherCharacters = new char[others.size()];
+        for (int i = 0; i < otherCharacters.length; i++) {
+            otherCharacters[i] = others.get(i);
+        }
+        Arrays.sort(otherCharacters);
+        otherSymbols = new int[otherCharacters.length];
+        for (int i = 0; i < otherSymbols.length; i++) {
+            otherSymbols[i] = symbols++;
+        }
+        symbolCount = symbols;
+
+        // Build the trie of the keywords, in which state 0 is the root and -1 marks a missing transition:
+        int maxStates = 1;
+        for (String keyword : normalizedKeywords) {
+            maxStates += keyword.length();
+        }
+        int[] trie = new int[maxStates * symbolCount];
+        Arrays.fill(trie, -1);
+        int[] keywordEnds = new int[maxStates];
+        Arrays.fill(keywordEnds, Integer.MAX_VALUE);
+        int stateCount = 1;
+        for (int i = 0; i < normalizedKeywords.length; i++) {
+            int state = 0;
+            for (int j = 0; j < normalizedKeywords[i].length(); j++) {
+                int index = state * symbolCount + getSymbol(normalizedKeywords[i].charAt(j));
+                if (trie[index] == -1) {
+                    trie[index] = stateCount++;
+                }
+                state = trie[index];
+            }
+            keywordEnds[state] = Math.min(keywordEnds[state], i);
+        }
+
+        // Complete the trie to the automaton in breadth first order, so that the failure link of every
+        // state is complete before the state is completed:
+        transitions = new int[stateCount * symbolCount];
+        firstKeywords = Arrays.copyOf(keywordEnds, stateCount);
+        int[] failureLinks = new int[stateCount];
+        int[] queue = new int[stateCount];
+        int head = 0;
+        int tail = 0;
+        for (int c = 0; c < symbolCount; c++) {
+            int next = trie[c];
+            if (next == -1) {
+                transitions[c] = 0;
+            }
+            else {
+                transitions[c] = next;
+                failureLinks[next] = 0;
+                queue[tail++] = next;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            firstKeywords[state] = Math.min(firstKeywords[state], firstKeywords[failureLinks[state]]);
+            for (int c = 0; c < symbolCount; c++) {
+                int next = trie[state * symbolCount + c];
+                int failure = transitions[failureLinks[state] * symbolCount + c];
+                if (next == -1) {
+                    transitions[state * symbolCount + c] = failure;
+                }
+                else {
+                    transitions[state * symbolCount + c] = next;
+                    failureLinks[next] = failure;
+                    queue[tail++] = next;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Method matches the text passed against the keywords. The text matches a keyword if it contains the
+     * keyword, ignoring the case and umlauts.
+     *
+     * @param text  The text to match.
+     * @return      The type of the first keyword in the order of the rules which the text contains or
+     *              {@link ShLabelType#Unknown} if the text does not contain any keyword.
+     */
+    @NonNull
+    public ShLabelType match(@NonNull String text) {
+        ShLabelType type = cache.get(text);
+        if (type == null) {
+            type = scan(text);
+            if (cache.size() >= MAX_CACHED_RESULTS) {
+                cache.clear();
+            }
+            cache.put(text, type);
+        }
+        return type;
+    }
+
+
+    /**
+     * Method scans the text passed once with the automaton. Umlauts are scanned as their two character
+     * transliterations, and a keyword may end after either character.
+     *
+     * @param text  The text to scan.
+     * @return      The type of the first keyword in the order of the rules which the text contains.
+     */
+    @NonNull
+    private ShLabelType scan(@NonNull String text) {
+        int state = 0;
+        int firstKeyword = Integer.MAX_VALUE;
+        for (int i = 0; i < text.length() && firstKeyword != 0; i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            char transliteration = 0;
+            switch (c) {
+                case 'ä':
+                    c = 'a';
+                    transliteration = 'e';
+                    break;
+
+                case 'ö':
+                    c = 'o';
+                    transliteration = 'e';
+                    break;
+
+                case 'ü':
+                    c = 'u';
+                    transliteration = 'e';
+                    break;
+
+                case 'ß':
+                    c = 's';
+                    transliteration = 's';
+                    break;
+
+                case COMBINING_DIAERESIS:
+                    // The preceding vowel was already scanned.
+                    c = 'e';
+                    break;
+            }
+            state = transitions[state * symbolCount + getSymbol(c)];
+            firstKeyword = Math.min(firstKeyword, firstKeywords[state]);
+            if (transliteration != 0) {
+                state = transitions[state * symbolCount + getSymbol(transliteration)];
+                firstKeyword = Math.min(firstKeyword, firstKeywords[state]);
+            }
+        }
+        return firstKeyword == Integer.MAX_VALUE ? ShLabelType.Unknown : types[firstKeyword];
+    }
+
+
+    /**
+     * Method gets the symbol of the automaton for the normalized character passed.
+     *
+     * @param c The normalized character.
+     * @return  The symbol or 0 if the character does not occur in any keyword.
+     */
+    private int getSymbol(char c) {
+        if (c < ASCII) {
+            return asciiSymbols[c];
+        }
+        int index = Arrays.binarySearch(otherCharacters, c);
+        return index >= 0 ? otherSymbols[index] : 0;
+    }
+
+
+    /**
+     * Method appends the normalized form of the character passed, i.e. the character in lower case with
+     * umlauts replaced by their transliterations.
+     *
+     * @param c             The character to normalize.
+     * @param normalized    The builder to which the normalized character is appended.
+     */
+    private static void normalize(char c, @NonNull StringBuilder normalized) {
+        c = Character.toLowerCase(c);
+        switch (c) {
+            case 'ä':
+                normalized.append("ae");
+                break;
+
+            case 'ö':
+                normalized.append("oe");
+                break;
+
+            case 'ü':
+                normalized.append("ue");
+                break;
+
+            case 'ß':
+                normalized.append("ss");
+                break;
+
+            case COMBINING_DIAERESIS:
+                normalized.append('e');
+                break;
+
+            default:
+                normalized.append(c);
+                break;
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+package de.christian2003.smarthome.data.model.extraction.rules;
+
+import androidx.annotation.NonNull;
+
+import de.christian2003.smarthome.data.model.devices.ShOpeningType;
+
+
+/**
+ * The types which are recognized in the names of rooms and the labels of cells through keywords. The
+ * keywords are described by the keyword rules of the {@link ShExtractionRules}.
+ */
+public enum ShLabelType {
+
+    /**
+     * A room which displays the "gesamtstatus". This type is only recognized in the names of rooms.
+     */
+    Gesamtstatus("gesamtstatus"),
+
+    /**
+     * A window.
+     */
+    Window("fenster"),
+
+    /**
+     * A door. The transliteration "tuer" is matched as well, since umlauts are matched ignoring their
+     * transliteration.
+     */
+    Door("tür"),
+
+    /**
+     * A light.
+     */
+    Light("licht"),
+
+    /**
+     * A label which does not contain any keyword.
+     */
+    Unknown;
+
+
+    /**
+     * The built-in keywords of this type in lower case.
+     */
+    @NonNull
+    private final String[] keywords;
+
+
+    /**
+     * Constructor instantiates a new label type.
+     *
+     * @param keywords  The built-in keywords of this type in lower case.
+     */
+    ShLabelType(@NonNull String... keywords) {
+        this.keywords = keywords;
+    }
+
+
+    /**
+     * Gets the type of the opening which is labeled with this type.
+     *
+     * @return  The opening type or {@link ShOpeningType#Unkown} if this type does not label an opening.
+     */
+    @NonNull
+    public ShOpeningType getOpeningType() {
+        if (this == Window) {
+            return ShOpeningType.Window;
+        }
+        else if (this == Door) {
+            return ShOpeningType.Door;
+        }
+        else {
+            return ShOpeningType.Unkown;
+        }
+    }
+
+
+    /**
+     * Gets the built-in keywords of this type.
+     *
+     * @return  The keywords in lower case.
+     */
+    @NonNull
+    public String[] getKeywords() {
+        return keywords.clone();
+    }
+
+}
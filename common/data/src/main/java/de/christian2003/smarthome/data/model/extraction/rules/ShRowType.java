@@ -0,0 +1,65 @@
+package de.christian2003.smarthome.data.model.extraction.rules;
+
+import androidx.annotation.Nullable;
+
+
+/**
+ * The types of the rows of the content table of a room. The type of a row is determined through its class
+ * names, which are described by the row rules of the {@link ShExtractionRules}.
+ */
+public enum ShRowType {
+
+    /**
+     * A row which contains info texts of the room.
+     */
+    InfoText("infoText"),
+
+    /**
+     * A row which contains shutters.
+     */
+    Shutter("shutter"),
+
+    /**
+     * A row which contains openings.
+     */
+    Opening("opening"),
+
+    /**
+     * A row which contains status elements.
+     */
+    Status("status"),
+
+    /**
+     * A row which does not match any row rule.
+     */
+    Unknown(null);
+
+
+    /**
+     * The built-in class name of the rows of this type or null if the type is not assigned through a class.
+     */
+    @Nullable
+    private final String className;
+
+
+    /**
+     * Constructor instantiates a new row type.
+     *
+     * @param className The built-in class name of the rows of this type.
+     */
+    ShRowType(@Nullable String className) {
+        this.className = className;
+    }
+
+
+    /**
+     * Gets the built-in class name of the rows of this type.
+     *
+     * @return  The class name or null if the type is not assigned through a class.
+     */
+    @Nullable
+    public String getClassName() {
+        return className;
+    }
+
+}
@@ -0,0 +1,37 @@
+package de.christian2003.smarthome.data.model.extraction.search;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.jsoup.nodes.Element;
+
+import java.util.List;
+
+
+/**
+ * Interface through which the search classes locate elements of the smart home webpage. Like the
+ * {@code select} methods of Jsoup, the scope itself is included in the search.
+ */
+public interface ShElementQuery {
+
+    /**
+     * Finds the first element within the scope that matches the selector.
+     *
+     * @param scope     The element in which to search.
+     * @param selector  The selector to match.
+     * @return          The first matching element in document order or null if no element matches.
+     */
+    @Nullable
+    Element first(@NonNull Element scope, @NonNull ShSelector selector);
+
+    /**
+     * Finds all elements within the scope that match the selector.
+     *
+     * @param scope     The element in which to search.
+     * @param selector  The selector to match.
+     * @return          All matching elements in document order.
+     */
+    @NonNull
+    List<Element> all(@NonNull Element scope, @NonNull ShSelector selector);
+
+}
@@ -0,0 +1,17 @@
+package de.christian2003.smarthome.data.model.extraction.search;
+
+/**
+ * The different ways in which the search classes locate the elements of the smart home webpage. Both
+ * engines extract the same rooms.
+ */
+public enum ShExtractionEngine {
+    /**
+     * Every element is located through a CSS query, which walks the scope of the query again.
+     */
+    Selector,
+
+    /**
+     * Every room is walked exactly once to build an index through which all elements are located.
+     */
+    TreeWalk
+}
@@ -0,0 +1,135 @@
+package de.christian2003.smarthome.data.model.extraction.search;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+
+import de.christian2003.smarthome.data.model.devices.ShGenericDevice;
+import de.christian2003.smarthome.data.model.room.ShInfoText;
+import de.christian2003.smarthome.data.model.room.ShRoom;
+import de.christian2003.smarthome.data.model.userinformation.UserInformation;
+
+
+/**
+ * Class collects the info texts, devices and user information of a room while the rows of its content table
+ * are searched. A single sink is passed to the search methods of all rows of the room, which add everything
+ * they find directly to the lists of the room instead of returning wrappers for every cell.
+ */
+public class ShRoomSink {
+
+    /**
+     * Attribute stores the info texts of the room.
+     */
+    @NonNull
+    private final ArrayList<ShInfoText> infoTexts;
+
+    /**
+     * Attribute stores the devices of the room.
+     */
+    @NonNull
+    private final ArrayList<ShGenericDevice> devices;
+
+    /**
+     * Attribute stores the user information that occurred while searching the room.
+     */
+    @NonNull
+    private final ArrayList<UserInformation> userInformation;
+
+    /**
+     * Attribute stores the label of the on button that was found last.
+     */
+    @Nullable
+    private String onButton;
+
+    /**
+     * Attribute stores the label of the off button that was found last.
+     */
+    @Nullable
+    private String offButton;
+
+
+    /**
+     * Constructor instantiates a new empty sink for a room.
+     */
+    public ShRoomSink() {
+        infoTexts = new ArrayList<>();
+        devices = new ArrayList<>();
+        userInformation = new ArrayList<>();
+    }
+
+
+    /**
+     * Method adds an info text to the room.
+     *
+     * @param infoText  The info text to add.
+     */
+    public void addInfoText(@NonNull ShInfoText infoText) {
+        infoTexts.add(infoText);
+    }
+
+    /**
+     * Method adds a device to the room.
+     *
+     * @param device    The device to add.
+     */
+    public void addDevice(@NonNull ShGenericDevice device) {
+        devices.add(device);
+    }
+
+    /**
+     * Method adds a user information to the room.
+     *
+     * @param userInformation   The user information to add.
+     */
+    public void addUserInformation(@NonNull UserInformation userInformation) {
+        this.userInformation.add(userInformation);
+    }
+
+    /**
+     * Method stores the labels of the on and off button that were found for a device, until the device is
+     * created.
+     *
+     * @param onButton  The label of the on button or null.
+     * @param offButton The label of the off button or null.
+     */
+    public void setButtons(@Nullable String onButton, @Nullable String offButton) {
+        this.onButton = onButton;
+        this.offButton = offButton;
+    }
+
+    /**
+     * Gets the label of the on button that was found last.
+     *
+     * @return  The label of the on button or null.
+     */
+    @Nullable
+    public String getOnButton() {
+        return onButton;
+    }
+
+    /**
+     * Gets the label of the off button that was found last.
+     *
+     * @return  The label of the off button or null.
+     */
+    @Nullable
+    public String getOffButton() {
+        return offButton;
+    }
+
+    /**
+     * Method creates the room from everything that was added to the sink. The room takes over the lists of
+     * the sink, therefore nothing must be added to the sink afterwards.
+     *
+     * @param name                  The name of the room.
+     * @param gesamtstatusElement   States if the room displays the "gesamtstatus".
+     * @param occurrence            Number of rooms with the same name which precede the room.
+     * @return                      The room.
+     */
+    @NonNull
+    public ShRoom createRoom(@NonNull String name, boolean gesamtstatusElement, int occurrence) {
+        return new ShRoom(name, infoTexts, devices, userInformation, gesamtstatusElement, occurrence);
+    }
+
+}
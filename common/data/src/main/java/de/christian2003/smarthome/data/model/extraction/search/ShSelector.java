@@ -0,0 +1,152 @@
+package de.christian2003.smarthome.data.model.extraction.search;
+
+import androidx.annotation.NonNull;
+
+
+/**
+ * The selectors through which the search classes locate the elements of the smart home webpage. Each
+ * selector stores the built-in CSS query that describes it, so that it can be evaluated by Jsoup as well as
+ * by the single-pass tree walk. The CSS query which Jsoup evaluates can be replaced through the
+ * {@link de.christian2003.smarthome.data.model.extraction.rules.ShExtractionRules}.
+ */
+public enum ShSelector {
+
+    /**
+     * The div containers of the rooms.
+     */
+    Room("div.room"),
+
+    /**
+     * The span which contains the name of a room.
+     */
+    RoomName("div span.roomName"),
+
+    /**
+     * The rows of the content table of a room.
+     */
+    RoomRow("> tbody > tr"),
+
+    /**
+     * Any table.
+     */
+    Table("table"),
+
+    /**
+     * Any table row.
+     */
+    Row("tr"),
+
+    /**
+     * The data cells of a table row.
+     */
+    Cell("tr > td"),
+
+    /**
+     * The data cells of a table row that follow another data cell.
+     */
+    SecondCell("tr > td ~ td"),
+
+    /**
+     * Any data cell.
+     */
+    AnyCell("td"),
+
+    /**
+     * Any data cell that follows another data cell.
+     */
+    AnySecondCell("td ~ td"),
+
+    /**
+     * The first row of an inner table.
+     */
+    InnerRow("table > tbody >tr"),
+
+    /**
+     * The second row of an inner table.
+     */
+    SecondInnerRow("table > tbody > tr + tr"),
+
+    /**
+     * The third row of an inner table.
+     */
+    ThirdInnerRow("table > tbody > tr + tr + tr"),
+
+    /**
+     * The fourth row of an inner table.
+     */
+    FourthInnerRow("table > tbody > tr + tr + tr + tr"),
+
+    /**
+     * The form of a shutter.
+     */
+    Form("td > form"),
+
+    /**
+     * The button of a shutter form.
+     */
+    FormButton("form > button"),
+
+    /**
+     * The image of a device.
+     */
+    Image("td  img"),
+
+    /**
+     * An input of type button.
+     */
+    InputButton("td input[type=button]"),
+
+    /**
+     * An input of type button that follows another input of type button.
+     */
+    SecondInputButton("td input[type=button] ~ input[type=button]"),
+
+    /**
+     * A button.
+     */
+    Button("td button"),
+
+    /**
+     * A button that follows another button.
+     */
+    SecondButton("td button ~ button"),
+
+    /**
+     * The span which contains the milli amperes of a device.
+     */
+    MilliAmp("span[id*=mA]"),
+
+    /**
+     * Any span.
+     */
+    Span("span");
+
+
+    /**
+     * The built-in CSS query which describes the selector.
+     */
+    @NonNull
+    private final String cssQuery;
+
+
+    /**
+     * Constructor instantiates a new selector.
+     *
+     * @param cssQuery  The CSS query which describes the selector.
+     */
+    ShSelector(@NonNull String cssQuery) {
+        this.cssQuery = cssQuery;
+    }
+
+
+    /**
+     * Gets the built-in CSS query which describes the selector.
+     *
+     * @return  The CSS query.
+     */
+    @NonNull
+    public String getCssQuery() {
+        return cssQuery;
+    }
+
+}
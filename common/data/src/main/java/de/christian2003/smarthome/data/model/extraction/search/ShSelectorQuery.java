@@ -0,0 +1,46 @@
+package de.christian2003.smarthome.data.model.extraction.search;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.jsoup.nodes.Element;
+
+import java.util.List;
+
+import de.christian2003.smarthome.data.model.extraction.rules.ShExtractionRules;
+
+
+/**
+ * Class locates elements through the pre-parsed CSS queries of the selectors of the installed
+ * {@link ShExtractionRules}. Every call walks the scope again.
+ */
+public class ShSelectorQuery implements ShElementQuery {
+
+    /**
+     * The instance of the query. The query is stateless and can be shared.
+     */
+    public static final ShSelectorQuery INSTANCE = new ShSelectorQuery();
+
+
+    /**
+     * Constructor instantiates a new selector query.
+     */
+    private ShSelectorQuery() {
+
+    }
+
+
+    @Nullable
+    @Override
+    public Element first(@NonNull Element scope, @NonNull ShSelector selector) {
+        return scope.selectFirst(ShExtractionRules.getInstance().getEvaluator(selector));
+    }
+
+
+    @NonNull
+    @Override
+    public List<Element> all(@NonNull Element scope, @NonNull ShSelector selector) {
+        return scope.select(ShExtractionRules.getInstance().getEvaluator(selector));
+    }
+
+}
@@ -0,0 +1,455 @@
+package de.christian2003.smarthome.data.model.extraction.search;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+
+
+/**
+ * Class locates elements through an index that is built by walking the subtree of the root element
+ * exactly once. While walking, the selectors that each element matches are evaluated from the state of
+ * the walk, i.e. the open ancestors and the preceding siblings. Every element is numbered in document
+ * order and remembers the range of numbers within its subtree, so that the matches within a scope are
+ * found through a binary search instead of walking the scope again.
+ * Like Jsoup, the ancestors and siblings through which a selector matches must be within the scope.
+ * Therefore every match stores the number of the outermost element that can still be used as scope.
+ */
+public class ShTreeWalkQuery implements ShElementQuery, NodeVisitor {
+
+    /**
+     * All selectors.
+     */
+    private static final ShSelector[] SELECTORS = ShSelector.values();
+
+    /**
+     * The ranges of the indexed elements.
+     */
+    @NonNull
+    private final IdentityHashMap<Element, Range> ranges;
+
+    /**
+     * The matching elements per selector in document order.
+     */
+    @NonNull
+    private final ArrayList<ArrayList<Element>> matches;
+
+    /**
+     * The numbers of the matching elements per selector in document order.
+     */
+    @NonNull
+    private final int[][] matchNumbers;
+
+    /**
+     * The number of the outermost scope in which each match is found, per selector in document order.
+     */
+    @NonNull
+    private final int[][] matchBounds;
+
+    /**
+     * The number of the matching elements per selector.
+     */
+    @NonNull
+    private final int[] matchCounts;
+
+    /**
+     * The ranges of the elements that are currently open during the walk.
+     */
+    @NonNull
+    private final ArrayList<Range> openRanges;
+
+    /**
+     * Number of the next element in document order.
+     */
+    private int nextNumber;
+
+
+    /**
+     * Constructor instantiates a new query and indexes the subtree of the root element passed. Only
+     * elements within the subtree can be used as scope.
+     *
+     * @param root  The root element of the subtree to index, e.g. a document or a room.
+     */
+    public ShTreeWalkQuery(@NonNull Element root) {
+        this.ranges = new IdentityHashMap<>();
+        this.matches = new ArrayList<>(SELECTORS.length);
+        this.matchNumbers = new int[SELECTORS.length][];
+        this.matchBounds = new int[SELECTORS.length][];
+        this.matchCounts = new int[SELECTORS.length];
+        for (int i = 0; i < SELECTORS.length; i++) {
+            matches.add(new ArrayList<>());
+            matchNumbers[i] = new int[16];
+            matchBounds[i] = new int[16];
+        }
+        this.openRanges = new ArrayList<>();
+        NodeTraversor.traverse(this, root);
+    }
+
+
+    @Nullable
+    @Override
+    public Element first(@NonNull Element scope, @NonNull ShSelector selector) {
+        if (selector == ShSelector.RoomRow) {
+            List<Element> rows = findRoomRows(scope);
+            return rows.isEmpty() ? null : rows.get(0);
+        }
+        Range range = getRange(scope);
+        int index = selector.ordinal();
+        for (int position = lowerBound(index, range.start); position < matchCounts[index] && matchNumbers[index][position] <= range.end; position++) {
+            if (matchBounds[index][position] >= range.start) {
+                return matches.get(index).get(position);
+            }
+        }
+        return null;
+    }
+
+
+    @NonNull
+    @Override
+    public List<Element> all(@NonNull Element scope, @NonNull ShSelector selector) {
+        if (selector == ShSelector.RoomRow) {
+            return findRoomRows(scope);
+        }
+        Range range = getRange(scope);
+        int index = selector.ordinal();
+        int from = lowerBound(index, range.start);
+        int to = lowerBound(index, range.end + 1);
+        ArrayList<Element> scopeMatches = null;
+        for (int position = from; position < to; position++) {
+            if (matchBounds[index][position] < range.start) {
+                if (scopeMatches == null) {
+                    scopeMatches = new ArrayList<>(matches.get(index).subList(from, position));
+                }
+            }
+            else if (scopeMatches != null) {
+                scopeMatches.add(matches.get(index).get(position));
+            }
+        }
+        if (scopeMatches != null) {
+            return scopeMatches;
+        }
+        return Collections.unmodifiableList(matches.get(index).subList(from, to));
+    }
+
+
+    @Override
+    public void head(@NonNull Node node, int depth) {
+        if (!(node instanceof Element)) {
+            return;
+        }
+        Element element = (Element)node;
+        int number = nextNumber++;
+        Range parentRange = openRanges.isEmpty() ? new Range(-1, null, null) : openRanges.get(openRanges.size() - 1);
+        Range grandparentRange = openRanges.size() < 2 ? null : openRanges.get(openRanges.size() - 2);
+        evaluate(element, number, parentRange, grandparentRange != null ? grandparentRange.start : -1);
+        parentRange.addChild(element);
+
+        Range range = new Range(number, element, parentRange);
+        ranges.put(element, range);
+        openRanges.add(range);
+    }
+
+
+    @Override
+    public void tail(@NonNull Node node, int depth) {
+        if (!(node instanceof Element)) {
+            return;
+        }
+        Range range = openRanges.remove(openRanges.size() - 1);
+        range.end = nextNumber - 1;
+    }
+
+
+    /**
+     * Evaluates all selectors for the element passed and records the selectors that match.
+     *
+     * @param element           The element to evaluate.
+     * @param number            The number of the element.
+     * @param parentRange       The range of the parent, which stores the state of the preceding siblings.
+     * @param grandparentNumber The number of the grandparent or -1 if the grandparent is not indexed.
+     */
+    private void evaluate(@NonNull Element element, int number, @NonNull Range parentRange, int grandparentNumber) {
+        String tag = element.normalName();
+        Element parent = element.parent();
+        String parentTag = parent != null ? parent.normalName() : "";
+        switch (tag) {
+            case "div":
+                if (element.hasClass("room")) {
+                    record(ShSelector.Room, element, number, number);
+                }
+                break;
+
+            case "span":
+                record(ShSelector.Span, element, number, number);
+                if (parentRange.divNumber >= 0 && element.hasClass("roomName")) {
+                    record(ShSelector.RoomName, element, number, parentRange.divNumber);
+                }
+                if (element.hasAttr("id") && element.attr("id").toLowerCase(Locale.ENGLISH).contains("ma")) {
+                    record(ShSelector.MilliAmp, element, number, number);
+                }
+                break;
+
+            case "table":
+                record(ShSelector.Table, element, number, number);
+                break;
+
+            case "tr":
+                record(ShSelector.Row, element, number, number);
+                Element grandparent = parent != null ? parent.parent() : null;
+                if (parentTag.equals("tbody") && grandparent != null && grandparent.normalName().equals("table")) {
+                    record(ShSelector.InnerRow, element, number, grandparentNumber);
+                    if (parentRange.rowRun >= 1) {
+                        record(ShSelector.SecondInnerRow, element, number, grandparentNumber);
+                    }
+                    if (parentRange.rowRun >= 2) {
+                        record(ShSelector.ThirdInnerRow, element, number, grandparentNumber);
+                    }
+                    if (parentRange.rowRun >= 3) {
+                        record(ShSelector.FourthInnerRow, element, number, grandparentNumber);
+                    }
+                }
+                break;
+
+            case "td":
+                record(ShSelector.AnyCell, element, number, number);
+                if (parentRange.hasCell) {
+                    record(ShSelector.AnySecondCell, element, number, parentRange.start);
+                }
+                if (parentTag.equals("tr")) {
+                    record(ShSelector.Cell, element, number, parentRange.start);
+                    if (parentRange.hasCell) {
+                        record(ShSelector.SecondCell, element, number, parentRange.start);
+                    }
+                }
+                break;
+
+            case "form":
+                if (parentTag.equals("td")) {
+                    record(ShSelector.Form, element, number, parentRange.start);
+                }
+                break;
+
+            case "button":
+                if (parentTag.equals("form")) {
+                    record(ShSelector.FormButton, element, number, parentRange.start);
+                }
+                if (parentRange.cellNumber >= 0) {
+                    record(ShSelector.Button, element, number, parentRange.cellNumber);
+                    if (parentRange.hasButton) {
+                        record(ShSelector.SecondButton, element, number, parentRange.cellNumber);
+                    }
+                }
+                break;
+
+            case "input":
+                if (parentRange.cellNumber >= 0 && isInputButton(element)) {
+                    record(ShSelector.InputButton, element, number, parentRange.cellNumber);
+                    if (parentRange.hasInputButton) {
+                        record(ShSelector.SecondInputButton, element, number, parentRange.cellNumber);
+                    }
+                }
+                break;
+
+            case "img":
+                if (parentRange.cellNumber >= 0) {
+                    record(ShSelector.Image, element, number, parentRange.cellNumber);
+                }
+                break;
+        }
+    }
+
+
+    /**
+     * Records that the element passed matches the selector passed.
+     *
+     * @param selector  The selector which the element matches.
+     * @param element   The matching element.
+     * @param number    The number of the matching element.
+     * @param bound     The number of the outermost scope in which the element matches, i.e. the number of
+     *                  the outermost ancestor that is required for the match.
+     */
+    private void record(@NonNull ShSelector selector, @NonNull Element element, int number, int bound) {
+        int index = selector.ordinal();
+        int count = matchCounts[index];
+        if (count == matchNumbers[index].length) {
+            matchNumbers[index] = Arrays.copyOf(matchNumbers[index], count * 2);
+            matchBounds[index] = Arrays.copyOf(matchBounds[index], count * 2);
+        }
+        matchNumbers[index][count] = number;
+        matchBounds[index][count] = bound;
+        matchCounts[index] = count + 1;
+        matches.get(index).add(element);
+    }
+
+
+    /**
+     * Finds the rows of the content table passed, i.e. the rows of its direct table body.
+     *
+     * @param table The content table of a room.
+     * @return      The rows of the content table.
+     */
+    @NonNull
+    private List<Element> findRoomRows(@NonNull Element table) {
+        ArrayList<Element> rows = new ArrayList<>();
+        for (Element child : table.children()) {
+            if (child.normalName().equals("tbody")) {
+                for (Element row : child.children()) {
+                    if (row.normalName().equals("tr")) {
+                        rows.add(row);
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+
+    /**
+     * Gets the range of the scope passed.
+     *
+     * @param scope The scope.
+     * @return      The range of the scope.
+     * @throws IllegalArgumentException The scope is not within the indexed subtree.
+     */
+    @NonNull
+    private Range getRange(@NonNull Element scope) {
+        Range range = ranges.get(scope);
+        if (range == null) {
+            throw new IllegalArgumentException("The scope is not within the indexed subtree");
+        }
+        return range;
+    }
+
+
+    /**
+     * Finds the position of the first match of the selector passed whose number is not less than the
+     * number passed.
+     *
+     * @param index     The index of the selector.
+     * @param number    The number to search.
+     * @return          The position of the first match or the number of matches if all matches are less.
+     */
+    private int lowerBound(int index, int number) {
+        int[] numbers = matchNumbers[index];
+        int low = 0;
+        int high = matchCounts[index];
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (numbers[middle] < number) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+
+    /**
+     * Checks whether the element passed is an input of type button.
+     *
+     * @param element   The input element.
+     * @return          Whether the input is of type button.
+     */
+    private static boolean isInputButton(@NonNull Element element) {
+        return element.hasAttr("type") && element.attr("type").trim().equalsIgnoreCase("button");
+    }
+
+
+    /**
+     * Class stores the range of numbers of an element and its descendants, as well as the state of its
+     * children that were walked so far.
+     */
+    private static class Range {
+
+        /**
+         * Number of the element.
+         */
+        private final int start;
+
+        /**
+         * Number of the last descendant of the element.
+         */
+        private int end;
+
+        /**
+         * Whether a child that is a data cell was walked.
+         */
+        private boolean hasCell;
+
+        /**
+         * Whether a child that is a button was walked.
+         */
+        private boolean hasButton;
+
+        /**
+         * Whether a child that is an input of type button was walked.
+         */
+        private boolean hasInputButton;
+
+        /**
+         * Number of table rows that immediately precede the next child.
+         */
+        private int rowRun;
+
+        /**
+         * Number of the innermost data cell among the element and its ancestors or -1 if there is none.
+         */
+        private final int cellNumber;
+
+        /**
+         * Number of the innermost div among the element and its ancestors or -1 if there is none.
+         */
+        private final int divNumber;
+
+
+        /**
+         * Constructor instantiates a new range.
+         *
+         * @param start         Number of the element.
+         * @param element       The element or null for the parent of the root.
+         * @param parentRange   The range of the parent or null for the parent of the root.
+         */
+        private Range(int start, @Nullable Element element, @Nullable Range parentRange) {
+            this.start = start;
+            this.end = start;
+            String tag = element != null ? element.normalName() : "";
+            this.cellNumber = tag.equals("td") ? start : parentRange != null ? parentRange.cellNumber : -1;
+            this.divNumber = tag.equals("div") ? start : parentRange != null ? parentRange.divNumber : -1;
+        }
+
+
+        /**
+         * Updates the state of the children with the child passed.
+         *
+         * @param child The child that was walked.
+         */
+        private void addChild(@NonNull Element child) {
+            switch (child.normalName()) {
+                case "td":
+                    hasCell = true;
+                    break;
+                case "button":
+                    hasButton = true;
+                    break;
+                case "input":
+                    hasInputButton |= isInputButton(child);
+                    break;
+            }
+            rowRun = child.normalName().equals("tr") ? rowRun + 1 : 0;
+        }
+
+    }
+
+}
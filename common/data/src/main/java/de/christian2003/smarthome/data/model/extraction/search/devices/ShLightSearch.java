@@ -6,16 +6,13 @@ import androidx.annotation.Nullable;
 
 import org.jsoup.nodes.Element;
 
-import java.util.ArrayList;
-import java.util.Collections;
-
 import de.christian2003.smarthome.data.model.devices.ShLight;
+import de.christian2003.smarthome.data.model.extraction.search.ShElementQuery;
+import de.christian2003.smarthome.data.model.extraction.search.ShRoomSink;
+import de.christian2003.smarthome.data.model.extraction.search.ShSelector;
 import de.christian2003.smarthome.data.model.userinformation.InformationTitle;
 import de.christian2003.smarthome.data.model.userinformation.InformationType;
 import de.christian2003.smarthome.data.model.userinformation.UserInformation;
-import de.christian2003.smarthome.data.model.wrapper.OnOffButtonWrapper;
-import de.christian2003.smarthome.data.model.wrapper.RoomDeviceWrapper;
-import de.christian2003.smarthome.data.model.wrapper.StringUserInformationWrapper;
 
 /**
  * Class models a search for a light for the smart home.
@@ -30,40 +27,39 @@ public class ShLightSearch {
      * @param specifier     The specifier of the lighting.
      * @param hourDataCell  The data cell which contains the hours.
      * @param whDataCell    The data cell which contains the wh.
-     *
-     * @return  A {@link RoomDeviceWrapper} which contains the lighting and a list of the warnings that occurred while gathering the information.
+     * @param query         Query through which the elements are located.
+     * @param sink          Sink to which the lighting and the warnings that occurred while gathering the information are added.
      */
-    public static RoomDeviceWrapper findSingleLighting(@NonNull Element secondDataCell, @NonNull String lightingName, @NonNull String specifier, @Nullable Element hourDataCell, @Nullable Element whDataCell) {
-        ArrayList<UserInformation> userInformation = new ArrayList<>();
-
-        OnOffButtonWrapper lightingButtonsInformation = findLightingButtons(secondDataCell, specifier);
-        if (lightingButtonsInformation.getUserInformation() != null) {
-            userInformation.add(lightingButtonsInformation.getUserInformation());
-        }
-
-        StringUserInformationWrapper imageWrapper = findImage(secondDataCell);
-        if (imageWrapper.getUserInformation() != null) {
-            userInformation.add(imageWrapper.getUserInformation());
-        }
+    public static void findSingleLighting(@NonNull Element secondDataCell, @NonNull String lightingName, @NonNull String specifier, @Nullable Element hourDataCell, @Nullable Element whDataCell, @NonNull ShElementQuery query, @NonNull ShRoomSink sink) {
+        findLightingButtons(secondDataCell, specifier, query, sink, true);
+        String imageUri = findImage(secondDataCell, query, sink, true);
+        String milliAmp = findMilliAmp(secondDataCell, query, sink, true);
 
-        StringUserInformationWrapper milliAmp = findMilliAmp(secondDataCell);
-        if (milliAmp.getUserInformation() != null) {
-            userInformation.add(milliAmp.getUserInformation());
-        }
-
-        return new RoomDeviceWrapper(new ArrayList<>(Collections.singletonList(new ShLight(lightingName, specifier, imageWrapper.getProperty(), lightingButtonsInformation.getOnButton(), lightingButtonsInformation.getOffButton(), milliAmp.getProperty(), ShLightSearch.findHours(hourDataCell), ShLightSearch.findWh(whDataCell)))), userInformation);
+        sink.addDevice(new ShLight(lightingName, specifier, imageUri, sink.getOnButton(), sink.getOffButton(), milliAmp, ShLightSearch.findHours(hourDataCell, query), ShLightSearch.findWh(whDataCell, query)));
     }
 
-    @NonNull
-    public static StringUserInformationWrapper findMilliAmp(@NonNull Element secondDataCell) {
-        Element milliAmpNode = secondDataCell.selectFirst("span[id*=mA]");
+    /**
+     * Finds the milli ampere of the element.
+     *
+     * @param secondDataCell        The second data cell of the table row which contains the lighting.
+     * @param query         Query through which the elements are located.
+     * @param sink          Sink to which the information that no milli ampere could be found is added.
+     * @param reportWarnings    States if the information is added to the sink.
+     * @return      The milli ampere or null if they could not be found.
+     */
+    @Nullable
+    public static String findMilliAmp(@NonNull Element secondDataCell, @NonNull ShElementQuery query, @NonNull ShRoomSink sink, boolean reportWarnings) {
+        Element milliAmpNode = query.first(secondDataCell, ShSelector.MilliAmp);
 
         if (milliAmpNode != null) {
-            return new StringUserInformationWrapper( "(" + milliAmpNode.ownText() + ")", null);
+            return milliAmpNode.ownText();
         }
         else {
-            String warningDescription = "";
-            return new StringUserInformationWrapper(null, new UserInformation(InformationType.INFORMATION, InformationTitle.NoMilliAmpInformation, warningDescription));
+            if (reportWarnings) {
+                String warningDescription = "";
+                sink.addUserInformation(new UserInformation(InformationType.INFORMATION, InformationTitle.NoMilliAmpInformation, warningDescription));
+            }
+            return null;
         }
     }
 
@@ -71,86 +67,106 @@ public class ShLightSearch {
      * Find the image of the element.
      *
      * @param secondDataCell        The second data cell of the table row which contains the lighting.
-     * @return      An wrapper which contains the Uri of the image and the user information that occurred while getting the Uri.
+     * @param query         Query through which the elements are located.
+     * @param sink          Sink to which the warning that occurred while getting the Uri is added.
+     * @param reportWarnings    States if the warning is added to the sink.
+     * @return      The Uri of the image or null if it could not be found.
      */
-    @NonNull
-    public static StringUserInformationWrapper findImage(@NonNull Element secondDataCell) {
-        Element image = secondDataCell.selectFirst("td  img");
+    @Nullable
+    public static String findImage(@NonNull Element secondDataCell, @NonNull ShElementQuery query, @NonNull ShRoomSink sink, boolean reportWarnings) {
+        Element image = query.first(secondDataCell, ShSelector.Image);
 
         if (image != null) {
             String source = image.attr("src");
 
             // Check if a source could be found.
             if (!source.isEmpty()){
-                return new StringUserInformationWrapper(source, null);
+                return source;
 
             }
             // No image source found for opening but object can be created anyways.
             else {
-                String warningDescription = "An image node could be found but not source for the image. The opening could be created anyways. Please check the website and the documentation.";
-                return new StringUserInformationWrapper(null, new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
+                if (reportWarnings) {
+                    String warningDescription = "An image node could be found but not source for the image. The opening could be created anyways. Please check the website and the documentation.";
+                    sink.addUserInformation(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
+                }
+                return null;
             }
         }
         // No image found for opening but object can be created anyways.
         else {
-            String warningDescription = "No image could be found for the opening but it could be created anyways. Please check the website and the documentation.";
-            return new StringUserInformationWrapper(null, new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
+            if (reportWarnings) {
+                String warningDescription = "No image could be found for the opening but it could be created anyways. Please check the website and the documentation.";
+                sink.addUserInformation(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
+            }
+            return null;
         }
     }
 
     /**
-     * Extracts the buttons of the lighting element.
+     * Extracts the buttons of the lighting element. The labels of the buttons are stored in the sink until the
+     * lighting is created.
      *
      * @param secondDataCell    The second data cell of the table row which contains the opening.
      * @param specifier     The specifier of the lighting.
-     * @return      A String array with the content of the first button, the second button and a possible warning that occurred.
+     * @param query         Query through which the elements are located.
+     * @param sink          Sink in which the labels of the buttons are stored and to which a possible warning is added.
+     * @param reportWarnings    States if a possible warning is added to the sink.
      */
-    @NonNull
-    public static OnOffButtonWrapper findLightingButtons(@NonNull Element secondDataCell, @NonNull String specifier) {
-        Element firstButton = secondDataCell.selectFirst("td input[type=button]");
+    public static void findLightingButtons(@NonNull Element secondDataCell, @NonNull String specifier, @NonNull ShElementQuery query, @NonNull ShRoomSink sink, boolean reportWarnings) {
+        Element firstButton = query.first(secondDataCell, ShSelector.InputButton);
 
         // Check if the buttons of the lighting could be found.
         if (firstButton == null) {
-            firstButton = secondDataCell.selectFirst("td button");
+            firstButton = query.first(secondDataCell, ShSelector.Button);
 
             // No button could be found for the lighting.
             if (firstButton == null) {
-                String warningDescription = "No buttons could be found for the lighting \"" + specifier + "\". Please check the website and the documentation.";
-                return new OnOffButtonWrapper(null, null, new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
+                sink.setButtons(null, null);
+                if (reportWarnings) {
+                    String warningDescription = "No buttons could be found for the lighting \"" + specifier + "\". Please check the website and the documentation.";
+                    sink.addUserInformation(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
+                }
             }
             // Button as a button element.
             else {
                 String firstButtonText = firstButton.ownText();
-                Element secondButton = secondDataCell.selectFirst("td button ~ button");
+                Element secondButton = query.first(secondDataCell, ShSelector.SecondButton);
 
                 if (secondButton != null) {
 
                     String secondButtonText = secondButton.ownText();
 
-                    return new OnOffButtonWrapper(firstButtonText, secondButtonText, null);
+                    sink.setButtons(firstButtonText, secondButtonText);
                 }
                 // Only one button could be found for the lighting.
                 else {
-                    String warningDescription = "Only one button could be found for the lighting \"" + specifier + "\". Please check the website and the documentation.";
-                    return new OnOffButtonWrapper(firstButtonText, null, new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
+                    sink.setButtons(firstButtonText, null);
+                    if (reportWarnings) {
+                        String warningDescription = "Only one button could be found for the lighting \"" + specifier + "\". Please check the website and the documentation.";
+                        sink.addUserInformation(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
+                    }
                 }
             }
         }
         // Button as an input element from type button.
         else {
             String firstButtonText = firstButton.attr("value");
-            Element secondButton = secondDataCell.selectFirst("td input[type=button] ~ input[type=button]");
+            Element secondButton = query.first(secondDataCell, ShSelector.SecondInputButton);
 
             if (secondButton != null) {
 
                 String secondButtonText = secondButton.attr("value");
 
-                return new OnOffButtonWrapper(firstButtonText, secondButtonText, null);
+                sink.setButtons(firstButtonText, secondButtonText);
             }
             // Only one button could be found for the lighting.
             else {
-                String warningDescription = "Only one button could be found for the lighting \"" + specifier + "\". Please check the website and the documentation.";
-                return new OnOffButtonWrapper(firstButtonText, null, new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
+                sink.setButtons(firstButtonText, null);
+                if (reportWarnings) {
+                    String warningDescription = "Only one button could be found for the lighting \"" + specifier + "\". Please check the website and the documentation.";
+                    sink.addUserInformation(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
+                }
             }
         }
     }
@@ -158,12 +174,13 @@ public class ShLightSearch {
     /**
      * Finds the hours for an element in the hour data cell.
      * @param hourDataCell      The data cell which contains the hours.
+     * @param query         Query through which the elements are located.
      * @return  A string with the hours or null if no hours could be found.
      */
     @Nullable
-    public static String findHours(@Nullable Element hourDataCell) {
+    public static String findHours(@Nullable Element hourDataCell, @NonNull ShElementQuery query) {
         if (hourDataCell != null) {
-            Element hourElement =  hourDataCell.selectFirst("span");
+            Element hourElement =  query.first(hourDataCell, ShSelector.Span);
             return hourElement != null ? hourElement.ownText() : null;
         }
         else {
@@ -174,12 +191,13 @@ public class ShLightSearch {
     /**
      * Finds the wh for an element in the hour data cell.
      * @param whDataCell      The data cell which contains the wh.
+     * @param query         Query through which the elements are located.
      * @return  A string with the wh or null if no wh could be found.
      */
     @Nullable
-    public static String findWh(@Nullable Element whDataCell) {
+    public static String findWh(@Nullable Element whDataCell, @NonNull ShElementQuery query) {
         if (whDataCell != null) {
-            Element whElement =  whDataCell.selectFirst("span");
+            Element whElement =  query.first(whDataCell, ShSelector.Span);
             return whElement != null ? whElement.ownText() : null;
         }
         else {
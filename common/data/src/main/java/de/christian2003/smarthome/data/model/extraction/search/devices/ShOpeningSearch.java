@@ -6,18 +6,18 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.List;
 
-import de.christian2003.smarthome.data.model.devices.ShGenericDevice;
 import de.christian2003.smarthome.data.model.devices.ShOpening;
 import de.christian2003.smarthome.data.model.devices.ShOpeningType;
+import de.christian2003.smarthome.data.model.extraction.rules.ShExtractionRules;
+import de.christian2003.smarthome.data.model.extraction.search.ShElementQuery;
+import de.christian2003.smarthome.data.model.extraction.search.ShRoomSink;
+import de.christian2003.smarthome.data.model.extraction.search.ShSelector;
 import de.christian2003.smarthome.data.model.userinformation.InformationTitle;
 import de.christian2003.smarthome.data.model.userinformation.InformationType;
 import de.christian2003.smarthome.data.model.userinformation.UserInformation;
-import de.christian2003.smarthome.data.model.wrapper.RoomDeviceWrapper;
 
 /**
  * Class models a search for an opening in the house (i.e. a door or window).
@@ -28,39 +28,39 @@ public class ShOpeningSearch{
      *
      * @param tableRow      The table row which contains the cells with the openings.
      * @param roomName      The name of the room in which the opening is.
-     * @return      A RoomDeviceWrapper which contains a list of all openings that were found in the room and a list of all warning/ errors that occurred while finding them.
+     * @param query         Query through which the elements are located.
+     * @param sink          Sink to which all openings that were found in the room and the warnings that occurred while finding them are added.
      */
-    @NonNull
-    public static RoomDeviceWrapper createOpeningDevice (@NonNull Element tableRow, @NonNull String roomName) {
-        Element firstDataCell = tableRow.selectFirst("tr > td");
+    public static void createOpeningDevice (@NonNull Element tableRow, @NonNull String roomName, @NonNull ShElementQuery query, @NonNull ShRoomSink sink) {
+        Element firstDataCell = query.first(tableRow, ShSelector.Cell);
 
         // Find the data cell which contains the opening.
         if (firstDataCell != null) {
             ShOpeningType openingType = checkOpeningType(firstDataCell.ownText());
 
-            Element secondDataCell = tableRow.selectFirst("tr > td ~ td");
+            Element secondDataCell = query.first(tableRow, ShSelector.SecondCell);
             if (secondDataCell != null) {
 
                 // Check if the data cell contains another table. If so the room contains multiple openings that need to be extracted from the table.
                 // Otherwise the room contains only one opening which can be extracted directly from the data cell.
-                Element innerTable = secondDataCell.selectFirst("table");
+                Element innerTable = query.first(secondDataCell, ShSelector.Table);
                 if (innerTable != null) {
-                    return findMultipleOpenings(secondDataCell, firstDataCell.ownText() + " " + roomName, openingType);
+                    findMultipleOpenings(secondDataCell, firstDataCell.ownText() + " " + roomName, openingType, query, sink);
                 }
                 else {
-                    return findSingleOpening(secondDataCell, firstDataCell.ownText() + " " + roomName, openingType, null);
+                    findSingleOpening(secondDataCell, firstDataCell.ownText() + " " + roomName, openingType, null, query, sink);
                 }
             }
             else {
                 // No second data cell was found which should contain the opening(s).
                 String warningDescription = "No second data cells were found in the table which should contain a single opening or a table of multiple openings. No openings could be found. Please check the website and the documentation.";
-                return new RoomDeviceWrapper(new ArrayList<>(), new ArrayList<>(Collections.singletonList(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription))));
+                sink.addUserInformation(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
             }
         }
         else {
             // No table rows were found in the table.
             String warningDescription = "No table row was found in the table. The table should contain rows with the openings. No openings could be found. Please check the website and the documentation.";
-            return new RoomDeviceWrapper(new ArrayList<>(), new ArrayList<>(Collections.singletonList(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription))));
+            sink.addUserInformation(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
         }
     }
 
@@ -72,15 +72,7 @@ public class ShOpeningSearch{
      */
     @NonNull
     public static ShOpeningType checkOpeningType(@NonNull String firstDataCell) {
-        if (firstDataCell.toLowerCase().contains("fenster")) {
-            return ShOpeningType.Window;
-        }
-        else if (firstDataCell.toLowerCase().contains("tür") || firstDataCell.toLowerCase().contains("tuer")) {
-            return ShOpeningType.Door;
-        }
-        else {
-            return ShOpeningType.Unkown;
-        }
+        return ShExtractionRules.getInstance().classifyLabel(firstDataCell).getOpeningType();
     }
 
     /**
@@ -90,28 +82,30 @@ public class ShOpeningSearch{
      * @param openingName   The name of the opening.
      * @param openingType   The type of the opening.
      * @param specifier     The specifier of the opening.
-     * @return  A {@link RoomDeviceWrapper} which contains the opening and a list of the warnings that occurred while gathering the information.
+     * @param query         Query through which the elements are located.
+     * @param sink          Sink to which the opening and the warnings that occurred while finding them are added.
      */
-    @NonNull
-    public static RoomDeviceWrapper findSingleOpening(@NonNull Element secondDataCell, @NonNull String openingName, @NonNull ShOpeningType openingType, @Nullable String specifier) {
-        Element image = secondDataCell.selectFirst("td  img");
+    public static void findSingleOpening(@NonNull Element secondDataCell, @NonNull String openingName, @NonNull ShOpeningType openingType, @Nullable String specifier, @NonNull ShElementQuery query, @NonNull ShRoomSink sink) {
+        Element image = query.first(secondDataCell, ShSelector.Image);
         if (image != null) {
             String source = image.attr("src");
 
             // Check if a source could be found.
             if (!source.isEmpty()){
-                return new RoomDeviceWrapper(new ArrayList<>(Collections.singletonList(new ShOpening(openingName, openingType, specifier, source))), new ArrayList<>());
+                sink.addDevice(new ShOpening(openingName, openingType, specifier, source));
             }
             // No image source found for opening but object can be created anyways.
             else {
                 String warningDescription = "An image node could be found but not source for the image. The opening could be created anyways. Please check the website and the documentation.";
-                return new RoomDeviceWrapper(new ArrayList<>(Collections.singletonList(new ShOpening(openingName, openingType, specifier, null))), new ArrayList<>(Collections.singletonList(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription))));
+                sink.addDevice(new ShOpening(openingName, openingType, specifier, null));
+                sink.addUserInformation(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
             }
         }
         // No image found for opening but object can be created anyways.
         else {
             String warningDescription = "No image could be found for the opening but it could be created anyways. Please check the website and the documentation.";
-            return new RoomDeviceWrapper(new ArrayList<>(Collections.singletonList(new ShOpening(openingName, openingType, specifier, null))), new ArrayList<>(Collections.singletonList(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription))));
+            sink.addDevice(new ShOpening(openingName, openingType, specifier, null));
+            sink.addUserInformation(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
         }
     }
 
@@ -121,62 +115,54 @@ public class ShOpeningSearch{
      * @param innerTable    The inner table which is present when the room contains multiple openings.
      * @param openingName   The name of the openings in the rooms combined with the room name.
      * @param openingType   The {@link ShOpeningType} of the opening.
-     * @return      A RoomDeviceWrapper which contains a list of all openings that were found in the room and a list of all warning/ errors that occurred while finding them.
+     * @param query         Query through which the elements are located.
+     * @param sink          Sink to which all openings that were found in the room and the warnings that occurred while finding them are added.
      */
-    @NonNull
-    public static RoomDeviceWrapper findMultipleOpenings(@NonNull Element innerTable, @NonNull String openingName, @NonNull ShOpeningType openingType) {
+    public static void findMultipleOpenings(@NonNull Element innerTable, @NonNull String openingName, @NonNull ShOpeningType openingType, @NonNull ShElementQuery query, @NonNull ShRoomSink sink) {
         // Get the table row which contains the specifiers of each opening and the table row with the properties of the openings.
-        Element firstTableRow = innerTable.selectFirst("table > tbody >tr");
+        Element firstTableRow = query.first(innerTable, ShSelector.InnerRow);
 
         if (firstTableRow != null) {
-            Elements openingsSpecifier = firstTableRow.select("tr > td");
-            Element secondTableRow = innerTable.selectFirst("table > tbody > tr + tr");
+            List<Element> openingsSpecifier = query.all(firstTableRow, ShSelector.Cell);
+            Element secondTableRow = query.first(innerTable, ShSelector.SecondInnerRow);
 
             if (secondTableRow != null) {
-                Elements specifierValues = secondTableRow.select("tr > td");
+                List<Element> specifierValues = query.all(secondTableRow, ShSelector.Cell);
 
                 // Check if there is a opening specifier for every opening or if there are no specifiers.
                 if (specifierValues.size() == openingsSpecifier.size() || openingsSpecifier.isEmpty()) {
-                    RoomDeviceWrapper wrapper = new RoomDeviceWrapper(new ArrayList<>(), new ArrayList<>());
                     for (int i = 0; i < specifierValues.size(); i++) {
-                        RoomDeviceWrapper temporaryWrapper;
                         if (!specifierValues.isEmpty()){
-                            temporaryWrapper = findSingleOpening(specifierValues.get(i), openingName, openingType, openingsSpecifier.get(i).ownText());
+                            findSingleOpening(specifierValues.get(i), openingName, openingType, openingsSpecifier.get(i).ownText(), query, sink);
                         }
                         else {
                             String warningDescription = "No specifiers for the openings were found. If opening values were found the specifiers will be incrementally increased.";
-                            wrapper.addUserInformation(new ArrayList<>(Collections.singletonList(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription))));
-                            temporaryWrapper = findSingleOpening(specifierValues.get(i), openingName, openingType,"Automatic Specifier " + i++);
+                            sink.addUserInformation(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
+                            findSingleOpening(specifierValues.get(i), openingName, openingType,"Automatic Specifier " + i++, query, sink);
                         }
-                        wrapper.addDevices(temporaryWrapper.getDevices());
-                        wrapper.addUserInformation(temporaryWrapper.getUserInformation());
                     }
-                    return wrapper;
                 }
                 else {
                     // Different amount of opening values and opening specifier.
-                    RoomDeviceWrapper wrapper = new RoomDeviceWrapper(new ArrayList<>(), new ArrayList<>());
 
                     // There are more openings than specifier. For each opening to which a specifier could be found it will be added. The remaining openings will get an automatically generated specifier.
                     if (specifierValues.size() > openingsSpecifier.size()) {
                         for (int i = 0; i < openingsSpecifier.size(); i++) {
-                            wrapper.combineWrapper(findSingleOpening(specifierValues.get(i), openingName, openingType,openingsSpecifier.get(i).ownText()));
+                            findSingleOpening(specifierValues.get(i), openingName, openingType,openingsSpecifier.get(i).ownText(), query, sink);
                         }
                         for (int i = openingsSpecifier.size(); i < specifierValues.size(); i++) {
-                            wrapper.combineWrapper(findSingleOpening(specifierValues.get(i), openingName, openingType,"Automatic Specifier " + (i + 1 - openingsSpecifier.size())));
+                            findSingleOpening(specifierValues.get(i), openingName, openingType,"Automatic Specifier " + (i + 1 - openingsSpecifier.size()), query, sink);
                         }
                         String descriptionWarning = "There were more openings than specifiers. All openings that could be found were extracted. For the openings to which no specifiers could be found automatic specifiers were implemented. Please check the website and the documentation.";
-                        wrapper.addUserInformation(new ArrayList<>(Collections.singletonList(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, descriptionWarning))));
-                        return wrapper;
+                        sink.addUserInformation(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, descriptionWarning));
                     }
                     else {
                         // There are more specifier than openings. No reliable mapping of openings and there specifiers possible. Every openings gets and automatically generated specifier.
                         for (int i = 0; i < specifierValues.size(); i++) {
-                            wrapper.combineWrapper(findSingleOpening(specifierValues.get(i), openingName, openingType,"Automatic Specifier " + i++));
+                            findSingleOpening(specifierValues.get(i), openingName, openingType,"Automatic Specifier " + i++, query, sink);
                         }
                         String descriptionWarning = "There was a different amount of openings and specifiers for them. All openings that could be found were extracted but no specifiers could be found for them. Automatic specifiers were implemented. Please check the website and the documentation.";
-                        wrapper.addUserInformation(new ArrayList<>(Collections.singletonList(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, descriptionWarning))));
-                        return wrapper;
+                        sink.addUserInformation(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, descriptionWarning));
                     }
 
                 }
@@ -184,13 +170,13 @@ public class ShOpeningSearch{
             else {
                 // No second table row which contains the values of the openings.
                 String warningDescription = "The second table row which contains the openings could not be found. No openings could be found. Please check the website and the documentation.";
-                return new RoomDeviceWrapper(new ArrayList<>(), new ArrayList<>(Collections.singletonList(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription))));
+                sink.addUserInformation(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
             }
         }
         else{
             // No table Row found.
             String warningDescription = "No table was found in the inner table. The table should contain rows with the openings. No openings could be found. Please check the website and the documentation.";
-            return new RoomDeviceWrapper(new ArrayList<>(), new ArrayList<>(Collections.singletonList(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription))));
+            sink.addUserInformation(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
         }
     }
 }
@@ -0,0 +1,180 @@
+package de.christian2003.smarthome.data.model.extraction.search.room;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.jsoup.nodes.Attribute;
+import org.jsoup.nodes.DataNode;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.christian2003.smarthome.data.model.extraction.ShPageCache;
+import de.christian2003.smarthome.data.model.extraction.rules.ShExtractionRules;
+import de.christian2003.smarthome.data.model.room.ShRoom;
+
+
+/**
+ * Class stores the rooms of the last refresh by the fingerprints of their room elements, so that the rooms
+ * whose elements did not change are reused instead of being extracted again. The fingerprint of a room is
+ * a hash of its whole subtree, i.e. of the tags, attributes and texts of all elements within the room, and
+ * of the number of rooms with the same name which precede the room. Rooms with identical elements have the
+ * same name, therefore their fingerprints still differ and every room is reused at most once.
+ * Since the rooms are never changed after their extraction, a reused room is the same instance as in the
+ * previous refresh, which allows the UI to skip unchanged rooms by their identity.
+ * All methods are thread safe, so that the rooms can be extracted in parallel.
+ */
+public class ShRoomFingerprints {
+
+    /**
+     * The rooms of the last completed refresh by their fingerprints.
+     */
+    @NonNull
+    private volatile Map<Long, ShRoom> previousRooms;
+
+    /**
+     * The rooms of the refresh in progress by their fingerprints.
+     */
+    @NonNull
+    private volatile ConcurrentHashMap<Long, ShRoom> currentRooms;
+
+    /**
+     * The extraction rules with which the rooms of the last refresh were extracted.
+     */
+    @Nullable
+    private ShExtractionRules rules;
+
+
+    /**
+     * Constructor instantiates new fingerprints without any rooms.
+     */
+    public ShRoomFingerprints() {
+        previousRooms = Collections.emptyMap();
+        currentRooms = new ConcurrentHashMap<>();
+    }
+
+
+    /**
+     * Method calculates the fingerprint of the room element passed. The fingerprint only changes if the
+     * subtree of the room changes, the room stops or starts to display the "gesamtstatus" or the number of
+     * rooms with the same name which precede the room changes.
+     *
+     * @param room                  The div container with the class "room".
+     * @param gesamtstatusElement   States if the room displays the "gesamtstatus".
+     * @param occurrence            Number of rooms with the same name which precede the room.
+     * @return                      The fingerprint of the room.
+     */
+    public static long fingerprint(@NonNull Element room, boolean gesamtstatusElement, int occurrence) {
+        FingerprintVisitor visitor = new FingerprintVisitor(ShPageCache.hash(ShPageCache.hash(gesamtstatusElement ? "gesamtstatus" : "room"), "#" + occurrence));
+        NodeTraversor.traverse(visitor, room);
+        return visitor.hash;
+    }
+
+
+    /**
+     * Method starts a new refresh. If the extraction rules were replaced since the last refresh, the rooms
+     * of the last refresh are discarded, since the rules might extract them differently.
+     */
+    public synchronized void startRefresh() {
+        ShExtractionRules installedRules = ShExtractionRules.getInstance();
+        if (installedRules != rules) {
+            rules = installedRules;
+            previousRooms = Collections.emptyMap();
+        }
+        currentRooms = new ConcurrentHashMap<>();
+    }
+
+
+    /**
+     * Method gets the room of the last refresh with the fingerprint passed.
+     *
+     * @param fingerprint   The fingerprint of the room element.
+     * @return              The room or null if no room of the last refresh has the fingerprint.
+     */
+    @Nullable
+    public ShRoom getRoom(long fingerprint) {
+        return previousRooms.get(fingerprint);
+    }
+
+
+    /**
+     * Method stores the room of the refresh in progress with the fingerprint passed.
+     *
+     * @param fingerprint   The fingerprint of the room element.
+     * @param room          The room, which is either extracted or reused.
+     */
+    public void putRoom(long fingerprint, @NonNull ShRoom room) {
+        currentRooms.put(fingerprint, room);
+    }
+
+
+    /**
+     * Method finishes the refresh in progress. The rooms of the refresh replace the rooms of the last
+     * refresh, so that rooms which no longer exist are not kept.
+     */
+    public synchronized void finishRefresh() {
+        previousRooms = currentRooms;
+        currentRooms = new ConcurrentHashMap<>();
+    }
+
+
+    /**
+     * Class hashes the nodes of a subtree in document order. The end of every element is hashed as well,
+     * so that the hash reflects the nesting of the elements.
+     */
+    private static class FingerprintVisitor implements NodeVisitor {
+
+        /**
+         * The hash of the nodes visited so far.
+         */
+        private long hash;
+
+
+        /**
+         * Constructor instantiates a new visitor.
+         *
+         * @param hash  The hash with which to start.
+         */
+        private FingerprintVisitor(long hash) {
+            this.hash = hash;
+        }
+
+
+        @Override
+        public void head(@NonNull Node node, int depth) {
+            if (node instanceof Element) {
+                hash = ShPageCache.hash(hash, "<");
+                hash = ShPageCache.hash(hash, ((Element)node).normalName());
+                for (Attribute attribute : node.attributes()) {
+                    hash = ShPageCache.hash(hash, " ");
+                    hash = ShPageCache.hash(hash, attribute.getKey());
+                    hash = ShPageCache.hash(hash, "=");
+                    hash = ShPageCache.hash(hash, attribute.getValue());
+                }
+                hash = ShPageCache.hash(hash, ">");
+            }
+            else if (node instanceof TextNode) {
+                hash = ShPageCache.hash(hash, ((TextNode)node).getWholeText());
+            }
+            else if (node instanceof DataNode) {
+                hash = ShPageCache.hash(hash, ((DataNode)node).getWholeData());
+            }
+        }
+
+
+        @Override
+        public void tail(@NonNull Node node, int depth) {
+            if (node instanceof Element) {
+                hash = ShPageCache.hash(hash, "</>");
+            }
+        }
+
+    }
+
+}
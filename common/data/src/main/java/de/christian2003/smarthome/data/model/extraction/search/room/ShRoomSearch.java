@@ -5,27 +5,40 @@ import androidx.annotation.Nullable;
 
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.NodeFilter;
+import org.jsoup.select.NodeTraversor;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Set;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import de.christian2003.smarthome.data.model.devices.ShGenericDevice;
 import de.christian2003.smarthome.data.model.devices.ShLight;
 import de.christian2003.smarthome.data.model.devices.ShOpening;
 import de.christian2003.smarthome.data.model.devices.ShShutter;
+import de.christian2003.smarthome.data.model.extraction.ShRoomBatchCallback;
+import de.christian2003.smarthome.data.model.extraction.rules.ShExtractionRules;
+import de.christian2003.smarthome.data.model.extraction.rules.ShRowType;
+import de.christian2003.smarthome.data.model.extraction.search.ShElementQuery;
+import de.christian2003.smarthome.data.model.extraction.search.ShExtractionEngine;
+import de.christian2003.smarthome.data.model.extraction.search.ShRoomSink;
+import de.christian2003.smarthome.data.model.extraction.search.ShSelector;
+import de.christian2003.smarthome.data.model.extraction.search.ShSelectorQuery;
+import de.christian2003.smarthome.data.model.extraction.search.ShTreeWalkQuery;
 import de.christian2003.smarthome.data.model.extraction.search.devices.ShOpeningSearch;
 import de.christian2003.smarthome.data.model.extraction.search.devices.ShShutterSearch;
 import de.christian2003.smarthome.data.model.extraction.search.devices.ShUnknownDeviceSearch;
 import de.christian2003.smarthome.data.model.room.ShInfoText;
 import de.christian2003.smarthome.data.model.room.ShRoom;
+import de.christian2003.smarthome.data.model.room.ShRoomTable;
 import de.christian2003.smarthome.data.model.userinformation.InformationTitle;
 import de.christian2003.smarthome.data.model.userinformation.InformationType;
 import de.christian2003.smarthome.data.model.userinformation.UserInformation;
-import de.christian2003.smarthome.data.model.wrapper.RoomDeviceWrapper;
-import de.christian2003.smarthome.data.model.wrapper.RoomInfoTextWrapper;
 
 /**
  * Class models a search for a room for the smart home.
@@ -33,10 +46,98 @@ import de.christian2003.smarthome.data.model.wrapper.RoomInfoTextWrapper;
 public class ShRoomSearch implements Serializable {
 
     /**
-     * Constructor instantiates a new room search object.
+     * Number of rooms after which the rooms extracted so far are passed to the batch callback again. The
+     * first room is always passed on its own, so that the "gesamtstatus" can be displayed immediately.
+     */
+    public static final int BATCH_SIZE = 4;
+
+    /**
+     * Name of the rooms for which no title could be found.
+     */
+    public static final String UNKNOWN_ROOM_NAME = "Unknown Room";
+
+    /**
+     * The engine through which the elements of the rooms are located.
+     */
+    @NonNull
+    private final ShExtractionEngine engine;
+
+    /**
+     * States if the rooms are extracted in parallel on the common fork join pool.
+     */
+    private final boolean parallel;
+
+    /**
+     * Fingerprints through which the rooms of the last refresh are reused if their elements did not change
+     * or null if all rooms are extracted.
+     */
+    @Nullable
+    private final transient ShRoomFingerprints fingerprints;
+
+    /**
+     * States if only the names of the rooms are extracted, while the content tables of the rooms are
+     * extracted once the rooms are accessed.
+     */
+    private final boolean lazy;
+
+    /**
+     * Constructor instantiates a new room search object which locates the elements through CSS queries.
      */
     public ShRoomSearch() {
+        this(ShExtractionEngine.Selector);
+    }
 
+    /**
+     * Constructor instantiates a new room search object which extracts the rooms one after another.
+     *
+     * @param engine    The engine through which the elements of the rooms are located.
+     */
+    public ShRoomSearch(@NonNull ShExtractionEngine engine) {
+        this(engine, false);
+    }
+
+    /**
+     * Constructor instantiates a new room search object.
+     *
+     * @param engine    The engine through which the elements of the rooms are located.
+     * @param parallel  States if the rooms are extracted in parallel on the common fork join pool.
+     */
+    public ShRoomSearch(@NonNull ShExtractionEngine engine, boolean parallel) {
+        this(engine, parallel, null);
+    }
+
+    /**
+     * Constructor instantiates a new room search object which reuses the rooms of the last refresh whose
+     * elements did not change.
+     *
+     * @param engine        The engine through which the elements of the rooms are located.
+     * @param parallel      States if the rooms are extracted in parallel on the common fork join pool.
+     * @param fingerprints  Fingerprints of the rooms of the last refresh, which are updated with the rooms
+     *                      found by this search, or null if all rooms should be extracted.
+     */
+    public ShRoomSearch(@NonNull ShExtractionEngine engine, boolean parallel, @Nullable ShRoomFingerprints fingerprints) {
+        this(engine, parallel, fingerprints, false);
+    }
+
+    /**
+     * Constructor instantiates a new room search object which reuses the rooms of the last refresh whose
+     * elements did not change. If the rooms are extracted lazily, only the names of the rooms are located
+     * and every room keeps a handle to its content table, which is extracted once the room is accessed.
+     * Since this is not more expensive than locating the rooms, lazy rooms are never extracted in parallel.
+     * Lazy rooms only save work if the devices of the rooms are not accessed for every refresh, e.g. to
+     * write a snapshot or to record the history of the devices.
+     *
+     * @param engine        The engine through which the elements of the rooms are located.
+     * @param parallel      States if the rooms are extracted in parallel on the common fork join pool.
+     * @param fingerprints  Fingerprints of the rooms of the last refresh, which are updated with the rooms
+     *                      found by this search, or null if all rooms should be extracted.
+     * @param lazy          States if the content tables of the rooms are extracted once they are accessed.
+     */
+    public ShRoomSearch(@NonNull ShExtractionEngine engine, boolean parallel, @Nullable ShRoomFingerprints fingerprints, boolean lazy) {
+        this.engine = engine;
+        this.parallel = parallel;
+        this.fingerprints = fingerprints;
+        this.lazy = lazy;
     }
 
     /**
@@ -48,48 +149,388 @@ public class ShRoomSearch implements Serializable {
 
     @NonNull
     public ArrayList<ShRoom> findAllRooms(@NonNull Document document) {
-        boolean overallStatus = false;
-        ArrayList<ShRoom> shRoomList = new ArrayList<>();
+        return findAllRooms(document, null);
+    }
 
-        // Find all rooms of the smart home.
-        Elements rooms = document.select("div.room");
+    /**
+     * Finds all the rooms of the smart home and returns a list containing all of them. If a batch callback
+     * is passed, the room which displays the "gesamtstatus" is located and extracted first and passed to
+     * the batch callback on its own, before the remaining rooms are located. While the remaining rooms are
+     * extracted one after another, the rooms extracted so far are passed to the batch callback after every
+     * {@link #BATCH_SIZE} rooms. Rooms which are extracted in parallel are only returned once all of them
+     * are extracted.
+     *
+     * @param document          The document with the source code of the webpage.
+     * @param batchCallback     Callback to which the rooms extracted so far are passed or null.
+     * @return                  Returns a list with all the rooms of the smart home. If no rooms were found an empty list will be returned.
+     */
+    @NonNull
+    public ArrayList<ShRoom> findAllRooms(@NonNull Document document, @Nullable ShRoomBatchCallback batchCallback) {
+        startRefresh();
+        Element gesamtstatusRoom = batchCallback != null ? findGesamtstatusRoom(document) : null;
+        ShRoom gesamtstatus = gesamtstatusRoom != null ? extractGesamtstatus(gesamtstatusRoom, batchCallback) : null;
+
+        ArrayList<ShRoom> shRoomList;
+        if (isTreeWalk() && !lazy) {
+            // Walk the document once and locate the rooms and all of their elements through the index.
+            ShTreeWalkQuery query = new ShTreeWalkQuery(document);
+            shRoomList = findAllRooms(query.all(document, ShSelector.Room), query, batchCallback, gesamtstatusRoom, gesamtstatus);
+        }
+        else {
+            // Find all rooms of the smart home.
+            shRoomList = findAllRooms(ShSelectorQuery.INSTANCE.all(document, ShSelector.Room), ShSelectorQuery.INSTANCE, batchCallback, gesamtstatusRoom, gesamtstatus);
+        }
+        finishRefresh();
+        return shRoomList;
+    }
+
+    /**
+     * Creates the rooms of the smart home from the room elements passed.
+     *
+     * @param rooms             The div containers with the class "room" in document order.
+     * @param query             Query through which the elements of all rooms are located or null if a query should be created per room.
+     * @param batchCallback     Callback to which the rooms extracted so far are passed or null.
+     * @param gesamtstatusRoom  The div container of the room which displays the "gesamtstatus" if it was extracted already or null.
+     * @param gesamtstatus      The room which displays the "gesamtstatus" if it was extracted already or null.
+     * @return                  Returns a list with all the rooms of the smart home. If no rooms were found an empty list will be returned.
+     */
+    @NonNull
+    private ArrayList<ShRoom> findAllRooms(@NonNull List<Element> rooms, @Nullable ShElementQuery query, @Nullable ShRoomBatchCallback batchCallback, @Nullable Element gesamtstatusRoom, @Nullable ShRoom gesamtstatus) {
+        if (parallel && !lazy && rooms.size() > 1) {
+            return findAllRoomsInParallel(rooms, query, gesamtstatusRoom, gesamtstatus);
+        }
+        else {
+            return findAllRoomsSequentially(rooms, query, batchCallback, gesamtstatusRoom, gesamtstatus);
+        }
+    }
+
+    /**
+     * Starts a new refresh of the fingerprints, if the rooms of the last refresh are reused.
+     */
+    private void startRefresh() {
+        if (fingerprints != null) {
+            fingerprints.startRefresh();
+        }
+    }
+
+    /**
+     * Finishes the refresh of the fingerprints, if the rooms of the last refresh are reused.
+     */
+    private void finishRefresh() {
+        if (fingerprints != null) {
+            fingerprints.finishRefresh();
+        }
+    }
+
+    /**
+     * Creates the rooms of the smart home from the room elements passed one after another.
+     *
+     * @param rooms             The div containers with the class "room" in document order.
+     * @param query             Query through which the elements of all rooms are located or null if a query should be created per room.
+     * @param batchCallback     Callback to which the rooms extracted so far are passed or null.
+     * @param gesamtstatusRoom  The div container of the room which displays the "gesamtstatus" if it was extracted already or null.
+     * @param gesamtstatus      The room which displays the "gesamtstatus" if it was extracted already or null.
+     * @return                  Returns a list with all the rooms of the smart home.
+     */
+    @NonNull
+    private ArrayList<ShRoom> findAllRoomsSequentially(@NonNull List<Element> rooms, @Nullable ShElementQuery query, @Nullable ShRoomBatchCallback batchCallback, @Nullable Element gesamtstatusRoom, @Nullable ShRoom gesamtstatus) {
+        boolean overallStatus = gesamtstatus != null;
+        ArrayList<ShRoom> shRoomList = new ArrayList<>();
+        if (gesamtstatus != null) {
+            shRoomList.add(gesamtstatus);
+        }
 
         // Iterates through all rooms and get their properties and devices.
         for (Element room: rooms) {
-            Element roomNameEl = findRoomName(room);
+            if (room == gesamtstatusRoom) {
+                // The "gesamtstatus" was extracted and passed before the other rooms.
+                continue;
+            }
+            Element roomNameEl = query != null ? findRoomName(room, query) : findRoomName(room);
 
             // Check if a name was found for the room.
             if (roomNameEl != null) {
                 String roomName = roomNameEl.text();
 
+                // The rooms extracted so far precede the room in document order, which numbers the rooms
+                // with the same name like the list does, since only the first room with the name of the
+                // "gesamtstatus" is moved to the front.
+                int occurrence = ShRoom.countOccurrence(shRoomList, roomName);
+
                 // Check if it was the "room" that displays the "gesamtstatus".
                 // There can only be one "gesamtstatus" element.
-                if (!overallStatus && roomName.toLowerCase().contains("gesamtstatus")) {
+                if (!overallStatus && isGesamtstatus(roomName)) {
                     overallStatus = true;
-                    shRoomList.add(0, parseContentTable(room, roomName, true));
+                    shRoomList.add(0, extractRoom(room, roomName, true, occurrence, query));
                 }
                 else {
-                    shRoomList.add(parseContentTable(room, roomName, false));
+                    shRoomList.add(extractRoom(room, roomName, false, occurrence, query));
                 }
             }
             else {
-                // Div container with the class "room" was found but not title of the room could be found.
-                String warningDescription = "A div container with the class \"room\" was found but not title of the room could be found.";
-                shRoomList.add(new ShRoom("Unknown Room", null, null, new ArrayList<>(Collections.singletonList(new UserInformation(InformationType.WARNING, InformationTitle.UnknownRoom, warningDescription))), false));
+                shRoomList.add(createUnknownRoom(ShRoom.countOccurrence(shRoomList, UNKNOWN_ROOM_NAME)));
+            }
+
+            // Pass the rooms extracted so far unless they were passed already or the remaining rooms are returned immediately.
+            if (batchCallback != null && shRoomList.size() < rooms.size() && shRoomList.size() % BATCH_SIZE == 1 && !(gesamtstatus != null && shRoomList.size() == 1)) {
+                batchCallback.onRoomBatchExtracted(new ArrayList<>(shRoomList));
             }
         }
         return shRoomList;
     }
 
     /**
-     * Finds the node in the html code which contains the name of the room.
+     * Creates the rooms of the smart home from the room elements passed on the common fork join pool. The
+     * names of the rooms are located first, so that the room which displays the "gesamtstatus" is known
+     * before the rooms are extracted independently of each other. Afterwards the rooms are assembled in
+     * document order with the "gesamtstatus" first, which results in the same list as the sequential
+     * extraction. Every room is a separate subtree which is only read, therefore the rooms can be
+     * extracted concurrently.
+     *
+     * @param rooms             The div containers with the class "room" in document order.
+     * @param query             Query through which the elements of all rooms are located or null if a query should be created per room.
+     * @param gesamtstatusRoom  The div container of the room which displays the "gesamtstatus" if it was extracted already or null.
+     * @param gesamtstatus      The room which displays the "gesamtstatus" if it was extracted already or null.
+     * @return                  Returns a list with all the rooms of the smart home.
+     */
+    @NonNull
+    private ArrayList<ShRoom> findAllRoomsInParallel(@NonNull List<Element> rooms, @Nullable ShElementQuery query, @Nullable Element gesamtstatusRoom, @Nullable ShRoom gesamtstatus) {
+        String[] roomNames = new String[rooms.size()];
+        int gesamtstatusIndex = -1;
+        for (int i = 0; i < rooms.size(); i++) {
+            Element roomNameEl = query != null ? findRoomName(rooms.get(i), query) : findRoomName(rooms.get(i));
+            if (roomNameEl != null) {
+                roomNames[i] = roomNameEl.text();
+                if (gesamtstatusIndex == -1 && isGesamtstatus(roomNames[i])) {
+                    gesamtstatusIndex = i;
+                }
+            }
+        }
+
+        // Number the rooms with the same name in document order, which is the order of the list apart from
+        // the "gesamtstatus", which is the first room with its name.
+        int[] occurrences = new int[rooms.size()];
+        for (int i = 0; i < rooms.size(); i++) {
+            String roomName = roomNames[i] != null ? roomNames[i] : UNKNOWN_ROOM_NAME;
+            for (int j = 0; j < i; j++) {
+                if (roomName.equals(roomNames[j] != null ? roomNames[j] : UNKNOWN_ROOM_NAME)) {
+                    occurrences[i]++;
+                }
+            }
+        }
+
+        ShRoom[] shRooms = new ShRoom[rooms.size()];
+        if (gesamtstatusIndex != -1 && rooms.get(gesamtstatusIndex) == gesamtstatusRoom) {
+            shRooms[gesamtstatusIndex] = gesamtstatus;
+        }
+        ForkJoinPool.commonPool().invoke(new RoomExtraction(rooms, roomNames, occurrences, gesamtstatusIndex, query, shRooms, 0, rooms.size()));
+
+        ArrayList<ShRoom> shRoomList = new ArrayList<>(shRooms.length);
+        if (gesamtstatusIndex != -1) {
+            shRoomList.add(shRooms[gesamtstatusIndex]);
+        }
+        for (int i = 0; i < shRooms.length; i++) {
+            if (i != gesamtstatusIndex) {
+                shRoomList.add(shRooms[i]);
+            }
+        }
+        return shRoomList;
+    }
+
+    /**
+     * Finds the div container of the first room in document order which displays the "gesamtstatus". The
+     * elements are walked in document order and the walk stops at the room, so that the elements after
+     * it are never visited.
+     *
+     * @param scope             The element in which to search, usually the document.
+     * @return                  The div container with the class "room" or null if no room displays the "gesamtstatus".
+     */
+    @Nullable
+    public Element findGesamtstatusRoom(@NonNull Element scope) {
+        Evaluator roomEvaluator = ShExtractionRules.getInstance().getEvaluator(ShSelector.Room);
+        Element[] gesamtstatusRoom = new Element[1];
+        NodeTraversor.filter(new NodeFilter() {
+            @NonNull
+            @Override
+            public FilterResult head(@NonNull Node node, int depth) {
+                if (node instanceof Element && roomEvaluator.matches(scope, (Element)node) && isGesamtstatusRoom((Element)node)) {
+                    gesamtstatusRoom[0] = (Element)node;
+                    return FilterResult.STOP;
+                }
+                return FilterResult.CONTINUE;
+            }
+
+            @NonNull
+            @Override
+            public FilterResult tail(@NonNull Node node, int depth) {
+                return FilterResult.CONTINUE;
+            }
+        }, scope);
+        return gesamtstatusRoom[0];
+    }
+
+    /**
+     * Checks if the room element passed displays the "gesamtstatus".
+     *
+     * @param room          The div container with the class "room".
+     * @return              Whether the room has a name which displays the "gesamtstatus".
+     */
+    private boolean isGesamtstatusRoom(@NonNull Element room) {
+        Element roomNameEl = findRoomName(room);
+        return roomNameEl != null && isGesamtstatus(roomNameEl.text());
+    }
+
+    /**
+     * Extracts the room which displays the "gesamtstatus" and passes it to the batch callback on its own,
+     * before the remaining rooms are located.
+     *
+     * @param gesamtstatusRoom  The div container of the room which displays the "gesamtstatus".
+     * @param batchCallback     Callback to which the room is passed.
+     * @return                  The extracted or reused room.
+     */
+    @NonNull
+    private ShRoom extractGesamtstatus(@NonNull Element gesamtstatusRoom, @NonNull ShRoomBatchCallback batchCallback) {
+        Element roomNameEl = findRoomName(gesamtstatusRoom);
+        // The "gesamtstatus" is the first room with its name.
+        ShRoom gesamtstatus = extractRoom(gesamtstatusRoom, roomNameEl != null ? roomNameEl.text() : "", true, 0, null);
+        batchCallback.onRoomBatchExtracted(new ArrayList<>(Collections.singletonList(gesamtstatus)));
+        return gesamtstatus;
+    }
+
+    /**
+     * Extracts a room of the smart home. If the fingerprints contain a room of the last refresh whose
+     * elements are identical and which is preceded by as many rooms with the same name, that room is reused
+     * instead. Rooms with identical elements therefore never share a room.
+     *
+     * @param room                  The div container with the class "room".
+     * @param roomName              The name of the room.
+     * @param gesamtstatusElement   States if the room displays the "gesamtstatus".
+     * @param occurrence            Number of rooms with the same name which precede the room.
+     * @param query                 Query through which the elements of the room are located or null if a query should be created for the room.
+     * @return                      The extracted or reused room.
+     */
+    @NonNull
+    private ShRoom extractRoom(@NonNull Element room, @NonNull String roomName, boolean gesamtstatusElement, int occurrence, @Nullable ShElementQuery query) {
+        if (fingerprints == null) {
+            return createRoom(room, roomName, gesamtstatusElement, occurrence, query);
+        }
+        long fingerprint = ShRoomFingerprints.fingerprint(room, gesamtstatusElement, occurrence);
+        ShRoom shRoom = fingerprints.getRoom(fingerprint);
+        if (shRoom == null) {
+            shRoom = createRoom(room, roomName, gesamtstatusElement, occurrence, query);
+        }
+        fingerprints.putRoom(fingerprint, shRoom);
+        return shRoom;
+    }
+
+    /**
+     * Creates a room of the smart home. If the rooms are extracted lazily, the room only keeps a handle to
+     * its content table.
+     *
+     * @param room                  The div container with the class "room".
+     * @param roomName              The name of the room.
+     * @param gesamtstatusElement   States if the room displays the "gesamtstatus".
+     * @param occurrence            Number of rooms with the same name which precede the room.
+     * @param query                 Query through which the elements of the room are located or null if a query should be created for the room.
+     * @return                      The room.
+     */
+    @NonNull
+    private ShRoom createRoom(@NonNull Element room, @NonNull String roomName, boolean gesamtstatusElement, int occurrence, @Nullable ShElementQuery query) {
+        if (lazy) {
+            return new ShRoom(roomName, gesamtstatusElement, occurrence, new RoomTable(room, roomName, gesamtstatusElement, occurrence));
+        }
+        return parseContentTable(room, roomName, gesamtstatusElement, occurrence, query != null ? query : createQuery(room));
+    }
+
+    /**
+     * Creates a single room of the smart home.
+     *
+     * @param room                  The div container with the class "room".
+     * @param gesamtstatusElement   States if the room displays the "gesamtstatus".
+     * @return                      The room.
+     */
+    @NonNull
+    public ShRoom parseRoom(@NonNull Element room, boolean gesamtstatusElement) {
+        ShElementQuery query = createQuery(room);
+        Element roomNameEl = findRoomName(room, query);
+        if (roomNameEl != null) {
+            return parseContentTable(room, roomNameEl.text(), gesamtstatusElement, 0, query);
+        }
+        else {
+            return createUnknownRoom(0);
+        }
+    }
+
+    /**
+     * Checks if the room with the name passed displays the "gesamtstatus".
+     *
+     * @param roomName      The name of the room.
+     * @return              Whether the room displays the "gesamtstatus".
+     */
+    public static boolean isGesamtstatus(@NonNull String roomName) {
+        return ShExtractionRules.getInstance().isGesamtstatus(roomName);
+    }
+
+    /**
+     * Creates the room for a div container with the class "room" for which no title could be found.
+     *
+     * @param occurrence    Number of rooms with the name {@link #UNKNOWN_ROOM_NAME} which precede the room.
+     * @return              Room with a warning that the title could not be found.
+     */
+    @NonNull
+    public static ShRoom createUnknownRoom(int occurrence) {
+        // Div container with the class "room" was found but not title of the room could be found.
+        String warningDescription = "A div container with the class \"room\" was found but not title of the room could be found.";
+        return new ShRoom(UNKNOWN_ROOM_NAME, null, null, new ArrayList<>(Collections.singletonList(new UserInformation(InformationType.WARNING, InformationTitle.UnknownRoom, warningDescription))), false, occurrence);
+    }
+
+    /**
+     * Creates the query through which the elements of the room passed are located.
+     *
+     * @param room          The room element.
+     * @return              Query for the elements of the room.
+     */
+    @NonNull
+    private ShElementQuery createQuery(@NonNull Element room) {
+        if (isTreeWalk()) {
+            return new ShTreeWalkQuery(room);
+        }
+        return ShSelectorQuery.INSTANCE;
+    }
+
+    /**
+     * Checks whether the elements are located through the tree walk. The tree walk implements the built-in
+     * selectors, therefore the elements are located through CSS queries if the installed extraction rules
+     * replace any selector.
+     *
+     * @return              Whether the elements are located through the tree walk.
+     */
+    private boolean isTreeWalk() {
+        return engine == ShExtractionEngine.TreeWalk && ShExtractionRules.getInstance().hasBuiltInSelectors();
+    }
+
+    /**
+     * Finds the node in the html code which contains the name of the room. A single lookup does not
+     * benefit from an index, therefore the name is always located through a CSS query.
      *
      * @param room          The room element.
      * @return              Returns the elements which contains the name of the room.
      */
     @Nullable
     public Element findRoomName(@NonNull Element room) {
-        return room.select("div span.roomName").first();
+        return findRoomName(room, ShSelectorQuery.INSTANCE);
+    }
+
+    /**
+     * Finds the node in the html code which contains the name of the room.
+     *
+     * @param room          The room element.
+     * @param query         Query through which the elements of the room are located.
+     * @return              Returns the elements which contains the name of the room.
+     */
+    @Nullable
+    private Element findRoomName(@NonNull Element room, @NonNull ShElementQuery query) {
+        return query.first(room, ShSelector.RoomName);
     }
 
     /**
@@ -98,66 +539,69 @@ public class ShRoomSearch implements Serializable {
      * @param room          The element node which contains the name of the room.
      * @param roomName      The name of the room.
      * @param gesamtstatusElement   States if the room display the "gesamtstatus".
+     * @param occurrence    Number of rooms with the same name which precede the room.
+     * @param query         Query through which the elements of the room are located.
      *
      * @return              A list of all the info texts of the room and a list with all warnings/ errors that occurred while gathering the information.
      */
     @NonNull
-    public ShRoom parseContentTable(@NonNull Element room, @NonNull String roomName, boolean gesamtstatusElement) {
+    public ShRoom parseContentTable(@NonNull Element room, @NonNull String roomName, boolean gesamtstatusElement, int occurrence, @NonNull ShElementQuery query) {
 
         // Get the content table and its elements.
-        Element contentTable = room.selectFirst("table");
+        Element contentTable = query.first(room, ShSelector.Table);
         if (contentTable != null) {
-            Elements tableRows = contentTable.select("> tbody > tr");
+            List<Element> tableRows = query.all(contentTable, ShSelector.RoomRow);
 
             if (!tableRows.isEmpty()) {
-                ArrayList<ShInfoText> shInfoTexts = new ArrayList<>();
-                ArrayList<UserInformation> userInformation = new ArrayList<>();
-                ArrayList<ShGenericDevice> shGenericDevices = new ArrayList<>();
+                ShRoomSink sink = new ShRoomSink();
+                ShExtractionRules rules = ShExtractionRules.getInstance();
 
                 // Find the different info texts and devices of the room.
                 for (Element tableRow: tableRows) {
-                    Set<String> classNames = tableRow.classNames();
-                    if (classNames.contains("infoText")) {
-                        RoomInfoTextWrapper roomInformationWrapper = ShInfoTextSearch.createInfoText(tableRow);
-                        shInfoTexts.addAll(roomInformationWrapper.getInfoTexts());
-                        userInformation.addAll(roomInformationWrapper.getUserInformation());
+                    ShRowType rowType = rules.getRowType(tableRow);
+                    if (rowType == ShRowType.InfoText) {
+                        ShInfoTextSearch.createInfoText(tableRow, query, sink);
                     }
-                    else if (classNames.contains("shutter")) {
-                        RoomDeviceWrapper roomDeviceWrapper = ShShutterSearch.createShutterDevice(tableRow, roomName);
-                        shGenericDevices.addAll(roomDeviceWrapper.getDevices());
-                        userInformation.addAll(roomDeviceWrapper.getUserInformation());
+                    else if (rowType == ShRowType.Shutter) {
+                        ShShutterSearch.createShutterDevice(tableRow, roomName, query, sink);
                     }
-                    else if (classNames.contains("opening")) {
-                        RoomDeviceWrapper roomDeviceWrapper = ShOpeningSearch.createOpeningDevice(tableRow, roomName);
-                        shGenericDevices.addAll(roomDeviceWrapper.getDevices());
-                        userInformation.addAll(roomDeviceWrapper.getUserInformation());
+                    else if (rowType == ShRowType.Opening) {
+                        ShOpeningSearch.createOpeningDevice(tableRow, roomName, query, sink);
                     }
-                    else if (classNames.contains("status")) {
-                        RoomDeviceWrapper roomDeviceWrapper = ShStatusSearch.gatherStatusContent(tableRow, roomName);
-                        shGenericDevices.addAll(roomDeviceWrapper.getDevices());
-                        userInformation.addAll(roomDeviceWrapper.getUserInformation());
+                    else if (rowType == ShRowType.Status) {
+                        ShStatusSearch.gatherStatusContent(tableRow, roomName, query, sink);
                     }
                     else {
-                        RoomDeviceWrapper roomDeviceWrapper = ShUnknownDeviceSearch.findUnknownDevice(tableRow, roomName);
-                        shGenericDevices.addAll(roomDeviceWrapper.getDevices());
-                        userInformation.addAll(roomDeviceWrapper.getUserInformation());
+                        ShUnknownDeviceSearch.findUnknownDevice(tableRow, roomName, query, sink);
                     }
                 }
-                return new ShRoom(roomName, shInfoTexts, shGenericDevices, userInformation, gesamtstatusElement);
+                return sink.createRoom(roomName, gesamtstatusElement, occurrence);
             }
             // Content table was found but it doesn´t contain any rows with information.
             else {
-                String warningDescription = "A room was found but no table containing further information to the room could be found. Please check the code of the website and the documentation.";
-                return new ShRoom(roomName, null, null, new ArrayList<>(Collections.singletonList(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription))), gesamtstatusElement);
+                return createRoomWithoutContent(roomName, gesamtstatusElement, occurrence);
             }
         }
         // Room doesn´t contain a content table.
         else {
-            String warningDescription = "A room was found but no table containing further information to the room could be found. Please check the code of the website and the documentation.";
-            return new ShRoom(roomName, null, null, new ArrayList<>(Collections.singletonList(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription))), gesamtstatusElement);
+            return createRoomWithoutContent(roomName, gesamtstatusElement, occurrence);
         }
     }
 
+    /**
+     * Creates a room whose content table could not be found or does not contain any rows.
+     *
+     * @param roomName              The name of the room.
+     * @param gesamtstatusElement   States if the room display the "gesamtstatus".
+     * @param occurrence            Number of rooms with the same name which precede the room.
+     * @return                      Room with a warning that the content table could not be found.
+     */
+    @NonNull
+    public static ShRoom createRoomWithoutContent(@NonNull String roomName, boolean gesamtstatusElement, int occurrence) {
+        String warningDescription = "A room was found but no table containing further information to the room could be found. Please check the code of the website and the documentation.";
+        return new ShRoom(roomName, null, null, new ArrayList<>(Collections.singletonList(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription))), gesamtstatusElement, occurrence);
+    }
+
     /**
      * Method prints the properties of a ShRoom object.
      *
@@ -180,4 +624,157 @@ public class ShRoomSearch implements Serializable {
             }
         }
     }
+
+    /**
+     * Class models the handle to the unparsed content table of a room. The handle keeps the room element
+     * and therefore the document of the room until the content table is extracted.
+     */
+    private class RoomTable implements ShRoomTable {
+
+        /**
+         * The div container with the class "room".
+         */
+        @NonNull
+        private final Element room;
+
+        /**
+         * The name of the room.
+         */
+        @NonNull
+        private final String roomName;
+
+        /**
+         * States if the room displays the "gesamtstatus".
+         */
+        private final boolean gesamtstatusElement;
+
+        /**
+         * Number of rooms with the same name which precede the room.
+         */
+        private final int occurrence;
+
+
+        /**
+         * Constructor instantiates a new handle to the content table of a room.
+         *
+         * @param room                  The div container with the class "room".
+         * @param roomName              The name of the room.
+         * @param gesamtstatusElement   States if the room displays the "gesamtstatus".
+         * @param occurrence            Number of rooms with the same name which precede the room.
+         */
+        private RoomTable(@NonNull Element room, @NonNull String roomName, boolean gesamtstatusElement, int occurrence) {
+            this.room = room;
+            this.roomName = roomName;
+            this.gesamtstatusElement = gesamtstatusElement;
+            this.occurrence = occurrence;
+        }
+
+
+        @NonNull
+        @Override
+        public ShRoom parse() {
+            return parseContentTable(room, roomName, gesamtstatusElement, occurrence, createQuery(room));
+        }
+
+    }
+
+    /**
+     * Class models the extraction of a range of rooms, which is split in halves until a single room
+     * remains. Each room is stored at its index, so that the order of the rooms does not depend on the
+     * order in which the tasks complete.
+     */
+    private class RoomExtraction extends RecursiveAction {
+
+        /**
+         * The div containers with the class "room" in document order.
+         */
+        @NonNull
+        private final List<Element> rooms;
+
+        /**
+         * The names of the rooms in document order. A name is null if the room has no name.
+         */
+        @NonNull
+        private final String[] roomNames;
+
+        /**
+         * The number of rooms with the same name which precede each room.
+         */
+        @NonNull
+        private final int[] occurrences;
+
+        /**
+         * Index of the room which displays the "gesamtstatus" or -1 if there is no such room.
+         */
+        private final int gesamtstatusIndex;
+
+        /**
+         * Query through which the elements of all rooms are located or null if a query should be created per room.
+         */
+        @Nullable
+        private final ShElementQuery query;
+
+        /**
+         * Array in which the extracted rooms are stored in document order.
+         */
+        @NonNull
+        private final ShRoom[] shRooms;
+
+        /**
+         * Index of the first room to extract.
+         */
+        private final int from;
+
+        /**
+         * Index after the last room to extract.
+         */
+        private final int to;
+
+
+        /**
+         * Constructor instantiates a new extraction of a range of rooms.
+         *
+         * @param rooms             The div containers with the class "room" in document order.
+         * @param roomNames         The names of the rooms in document order.
+         * @param occurrences       The number of rooms with the same name which precede each room.
+         * @param gesamtstatusIndex Index of the room which displays the "gesamtstatus" or -1.
+         * @param query             Query through which the elements of all rooms are located or null.
+         * @param shRooms           Array in which the extracted rooms are stored.
+         * @param from              Index of the first room to extract.
+         * @param to                Index after the last room to extract.
+         */
+        private RoomExtraction(@NonNull List<Element> rooms, @NonNull String[] roomNames, @NonNull int[] occurrences, int gesamtstatusIndex, @Nullable ShElementQuery query, @NonNull ShRoom[] shRooms, int from, int to) {
+            this.rooms = rooms;
+            this.roomNames = roomNames;
+            this.occurrences = occurrences;
+            this.gesamtstatusIndex = gesamtstatusIndex;
+            this.query = query;
+            this.shRooms = shRooms;
+            this.from = from;
+            this.to = to;
+        }
+
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RoomExtraction(rooms, roomNames, occurrences, gesamtstatusIndex, query, shRooms, from, middle), new RoomExtraction(rooms, roomNames, occurrences, gesamtstatusIndex, query, shRooms, middle, to));
+                return;
+            }
+            Element room = rooms.get(from);
+            if (shRooms[from] != null) {
+                // The "gesamtstatus" was extracted before the other rooms.
+                return;
+            }
+            if (roomNames[from] != null) {
+                shRooms[from] = extractRoom(room, roomNames[from], from == gesamtstatusIndex, occurrences[from], query);
+            }
+            else {
+                shRooms[from] = createUnknownRoom(occurrences[from]);
+            }
+        }
+
+    }
+
 }
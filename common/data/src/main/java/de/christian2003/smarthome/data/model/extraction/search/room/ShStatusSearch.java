@@ -4,22 +4,24 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.List;
 
 import de.christian2003.smarthome.data.model.devices.ShLight;
 import de.christian2003.smarthome.data.model.devices.ShOpening;
 import de.christian2003.smarthome.data.model.devices.ShOpeningType;
 import de.christian2003.smarthome.data.model.devices.ShUnknownDevice;
+import de.christian2003.smarthome.data.model.extraction.rules.ShExtractionRules;
+import de.christian2003.smarthome.data.model.extraction.rules.ShLabelType;
+import de.christian2003.smarthome.data.model.extraction.search.ShElementQuery;
+import de.christian2003.smarthome.data.model.extraction.search.ShRoomSink;
+import de.christian2003.smarthome.data.model.extraction.search.ShSelector;
 import de.christian2003.smarthome.data.model.extraction.search.devices.ShLightSearch;
 import de.christian2003.smarthome.data.model.extraction.search.devices.ShOpeningSearch;
 import de.christian2003.smarthome.data.model.extraction.search.devices.ShUnknownDeviceSearch;
 import de.christian2003.smarthome.data.model.userinformation.InformationTitle;
 import de.christian2003.smarthome.data.model.userinformation.InformationType;
 import de.christian2003.smarthome.data.model.userinformation.UserInformation;
-import de.christian2003.smarthome.data.model.wrapper.RoomDeviceWrapper;
 
 /**
  * Models the search for elements that are part of an status row.
@@ -31,93 +33,84 @@ public class ShStatusSearch {
      *
      * @param innerTable    The inner table that contains the status elements.
      * @param roomName      The name of the room to which the status belongs.
-     * @return      A RoomDeviceWrapper which contains a list of all devices that were found in the room and a list of all warning/ errors that occurred while finding them.
+     * @param query         Query through which the elements are located.
+     * @param sink          Sink to which all devices that were found in the room and the warnings that occurred while finding them are added.
      */
-    @NonNull
-    public static RoomDeviceWrapper gatherStatusContent(@NonNull Element innerTable, @NonNull String roomName) {
+    public static void gatherStatusContent(@NonNull Element innerTable, @NonNull String roomName, @NonNull ShElementQuery query, @NonNull ShRoomSink sink) {
         // Get the table row which contains the specifiers of each status element and the table row with the properties of the elements.
-        Element firstTableRow = innerTable.selectFirst("table > tbody >tr");
+        Element firstTableRow = query.first(innerTable, ShSelector.InnerRow);
 
         if (firstTableRow != null) {
-            Elements statusElementNames = firstTableRow.select("tr > td");
-            Element secondTableRow = innerTable.selectFirst("table > tbody > tr + tr");
+            List<Element> statusElementNames = query.all(firstTableRow, ShSelector.Cell);
+            Element secondTableRow = query.first(innerTable, ShSelector.SecondInnerRow);
 
             if (secondTableRow != null) {
-                Elements statusElementsContent = secondTableRow.select("tr > td");
+                List<Element> statusElementsContent = query.all(secondTableRow, ShSelector.Cell);
 
                 // Only few status have 2 more rows for hours and wh
-                Element thirdTableRow = innerTable.selectFirst("table > tbody > tr + tr + tr");
-                Element fourthTableRow = innerTable.selectFirst("table > tbody > tr + tr + tr + tr");
-                Elements hours = null;
-                Elements wh = null;
+                Element thirdTableRow = query.first(innerTable, ShSelector.ThirdInnerRow);
+                Element fourthTableRow = query.first(innerTable, ShSelector.FourthInnerRow);
+                List<Element> hours = null;
+                List<Element> wh = null;
 
                 // Check if there are rows that might display hours and wh.
                 if (thirdTableRow != null) {
-                    hours = thirdTableRow.select("tr > td");
+                    hours = query.all(thirdTableRow, ShSelector.Cell);
                     if (fourthTableRow != null) {
-                        wh = fourthTableRow.select("tr > td");
+                        wh = query.all(fourthTableRow, ShSelector.Cell);
                     }
                 }
 
                 // Check if there is an element specifier for every status element or if there are no specifiers.
                 if (statusElementsContent.size() == statusElementNames.size()) {
-                    RoomDeviceWrapper wrapper = new RoomDeviceWrapper(new ArrayList<>(), new ArrayList<>());
 
                     for (int i = 0; i < statusElementNames.size(); i++) {
-                        RoomDeviceWrapper temporaryWrapper;
-                        temporaryWrapper = findSingleStatusElement(statusElementsContent.get(i), statusElementNames.get(i).ownText(), roomName, (hours != null && i < hours.size()) ? hours.get(i) : null, (wh != null && i < wh.size()) ? wh.get(i) : null);
-
-                        wrapper.addDevices(temporaryWrapper.getDevices());
-                        wrapper.addUserInformation(temporaryWrapper.getUserInformation());
+                        findSingleStatusElement(statusElementsContent.get(i), statusElementNames.get(i).ownText(), roomName, (hours != null && i < hours.size()) ? hours.get(i) : null, (wh != null && i < wh.size()) ? wh.get(i) : null, query, sink);
                     }
-                    return wrapper;
                 }
                 else {
                     // Different amount of status element values and element specifier.
-                    RoomDeviceWrapper wrapper = new RoomDeviceWrapper(new ArrayList<>(), new ArrayList<>());
 
                     // There are more status elements than specifier. For each element to which a specifier could be found it will be added. The remaining elements will get an automatically generated specifier.
                     if (statusElementsContent.size() > statusElementNames.size()) {
                         for (int i = 0; i < statusElementsContent.size(); i++) {
                             if (statusElementNames.size() >= i) {
-                                wrapper.combineWrapper(findSingleStatusElement(statusElementsContent.get(i), statusElementNames.get(i).ownText(), roomName, (hours != null && i < hours.size()) ? hours.get(i) : null, (wh != null && i < wh.size()) ? wh.get(i) : null));
+                                findSingleStatusElement(statusElementsContent.get(i), statusElementNames.get(i).ownText(), roomName, (hours != null && i < hours.size()) ? hours.get(i) : null, (wh != null && i < wh.size()) ? wh.get(i) : null, query, sink);
                             }
                             else {
-                                wrapper.combineWrapper(findSingleStatusElement(statusElementsContent.get(i), "Automatic specifier " + (i - statusElementNames.size())+ 1, roomName, (hours != null && i < hours.size()) ? hours.get(i) : null, (wh != null && i < wh.size()) ? wh.get(i) : null));
+                                findSingleStatusElement(statusElementsContent.get(i), "Automatic specifier " + (i - statusElementNames.size())+ 1, roomName, (hours != null && i < hours.size()) ? hours.get(i) : null, (wh != null && i < wh.size()) ? wh.get(i) : null, query, sink);
                             }
                         }
 
                         String descriptionWarning = "There were more status elements than specifiers. All elements that could be found were extracted. For the elements to which no specifiers could be found automatic specifiers were implemented. Please check the website and the documentation.";
-                        wrapper.addUserInformation(new ArrayList<>(Collections.singletonList(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, descriptionWarning))));
-                        return wrapper;
+                        sink.addUserInformation(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, descriptionWarning));
                     }
                     // There are more specifier than status elements contents. No reliable mapping of element contents and there specifiers possible.
                     // The first specifier will get the contents at the corresponding positions. The specifier with no corresponding content will be generated without the missing attributes.
                     else {
                         for (int i = 0; i < statusElementNames.size(); i++) {
                             if (statusElementsContent.size() >= i) {
-                                wrapper.combineWrapper(findSingleStatusElement(statusElementsContent.get(i), statusElementNames.get(i).ownText(), roomName, (hours != null && i < hours.size()) ? hours.get(i) : null, (wh != null && i < wh.size()) ? wh.get(i) : null));
+                                findSingleStatusElement(statusElementsContent.get(i), statusElementNames.get(i).ownText(), roomName, (hours != null && i < hours.size()) ? hours.get(i) : null, (wh != null && i < wh.size()) ? wh.get(i) : null, query, sink);
                             }
                             else {
-                                wrapper.combineWrapper(findSingleStatusElement(null, statusElementNames.get(i).ownText(), roomName, (hours != null && i < hours.size()) ? hours.get(i) : null, (wh != null && i < wh.size()) ? wh.get(i) : null));
+                                findSingleStatusElement(null, statusElementNames.get(i).ownText(), roomName, (hours != null && i < hours.size()) ? hours.get(i) : null, (wh != null && i < wh.size()) ? wh.get(i) : null, query, sink);
                             }
                         }
                         String descriptionWarning = "There was a different amount of status elements and specifier for them. All elements that could be found were extracted. If no content was found the element was extracted with its name and specifier. Please check the website and the documentation.";
-                        wrapper.addUserInformation(new ArrayList<>(Collections.singletonList(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, descriptionWarning))));
-                        return wrapper;
+                        sink.addUserInformation(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, descriptionWarning));
                     }
                 }
             }
             else {
                 // No second table row which contains the values of the openings.
                 String warningDescription = "The second table row which contains the openings could not be found. No openings could be found. Please check the website and the documentation.";
-                return new RoomDeviceWrapper(new ArrayList<>(), new ArrayList<>(Collections.singletonList(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription))));
+                sink.addUserInformation(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
             }
         }
         else{
             // No table Row found.
             String warningDescription = "No table was found in the inner table. The table should contain rows with the openings. No openings could be found. Please check the website and the documentation.";
-            return new RoomDeviceWrapper(new ArrayList<>(), new ArrayList<>(Collections.singletonList(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription))));
+            sink.addUserInformation(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
         }
     }
 
@@ -129,46 +122,50 @@ public class ShStatusSearch {
      * @param roomName      The name of the room to which the element belongs.
      * @param hourDataCell  The data cell which contains the hours.
      * @param whDataCell    The data cell which contains the wh.
-     * @return      A RoomDeviceWrapper which contains a list of all devices that were found in the room and a list of all warning/ errors that occurred while finding them.
+     * @param query         Query through which the elements are located.
+     * @param sink          Sink to which all devices that were found in the room and the warnings that occurred while finding them are added.
      */
-    @NonNull
-    public static RoomDeviceWrapper findSingleStatusElement(@Nullable Element statusElementContent, @NonNull String statusElementName, @NonNull String roomName, @Nullable Element hourDataCell, @Nullable Element whDataCell) {
-        String statusElementNameLowerCase = statusElementName.toLowerCase();
+    public static void findSingleStatusElement(@Nullable Element statusElementContent, @NonNull String statusElementName, @NonNull String roomName, @Nullable Element hourDataCell, @Nullable Element whDataCell, @NonNull ShElementQuery query, @NonNull ShRoomSink sink) {
+        ShLabelType labelType = ShExtractionRules.getInstance().classifyLabel(statusElementName);
 
-        if (statusElementNameLowerCase.contains("fenster")) {
+        if (labelType == ShLabelType.Window) {
             if (statusElementContent != null) {
-                return ShOpeningSearch.findSingleOpening(statusElementContent, "Fenster " + roomName, ShOpeningType.Window, statusElementName);
+                ShOpeningSearch.findSingleOpening(statusElementContent, "Fenster " + roomName, ShOpeningType.Window, statusElementName, query, sink);
             }
             else {
                 String warningDescription = "There was a different amount of status element contents and specifiers for them. All elements were extracted but for the element " + statusElementName + " no corresponding content could be found. Please check the website and the documentation.";
-                return new RoomDeviceWrapper(new ArrayList<>(Collections.singletonList(new ShOpening("Fenster " + roomName, ShOpeningType.Window, statusElementName, null))), new ArrayList<>(Collections.singletonList(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription))));
+                sink.addDevice(new ShOpening("Fenster " + roomName, ShOpeningType.Window, statusElementName, null));
+                sink.addUserInformation(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
             }
         }
-        else if (statusElementNameLowerCase.contains("tür") || statusElementNameLowerCase.contains("tuer")) {
+        else if (labelType == ShLabelType.Door) {
             if (statusElementContent != null) {
-                return ShOpeningSearch.findSingleOpening(statusElementContent, "Tür " + roomName, ShOpeningType.Window, statusElementName);
+                ShOpeningSearch.findSingleOpening(statusElementContent, "Tür " + roomName, ShOpeningType.Window, statusElementName, query, sink);
             }
             else {
                 String warningDescription = "There was a different amount of status element contents and specifiers for them. All elements were extracted but for the element " + statusElementName + " no corresponding content could be found. Please check the website and the documentation.";
-                return new RoomDeviceWrapper(new ArrayList<>(Collections.singletonList(new ShOpening("Tür " + roomName, ShOpeningType.Door, statusElementName, null))), new ArrayList<>(Collections.singletonList(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription))));
+                sink.addDevice(new ShOpening("Tür " + roomName, ShOpeningType.Door, statusElementName, null));
+                sink.addUserInformation(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
             }
         }
-        else if (statusElementNameLowerCase.contains("licht")) {
+        else if (labelType == ShLabelType.Light) {
             if (statusElementContent != null) {
-                return ShLightSearch.findSingleLighting(statusElementContent, "Licht " + roomName, statusElementName, hourDataCell, whDataCell);
+                ShLightSearch.findSingleLighting(statusElementContent, "Licht " + roomName, statusElementName, hourDataCell, whDataCell, query, sink);
             }
             else {
                 String warningDescription = "There was a different amount of status element contents and specifiers for them. All elements were extracted but for the element " + statusElementName + " no corresponding content could be found. Please check the website and the documentation.";
-                return new RoomDeviceWrapper(new ArrayList<>(Collections.singletonList(new ShLight("Licht " + roomName, statusElementName,null, null, null, null, ShLightSearch.findHours(hourDataCell), ShLightSearch.findWh(whDataCell)))), new ArrayList<>(Collections.singletonList(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription))));
+                sink.addDevice(new ShLight("Licht " + roomName, statusElementName,null, null, null, null, ShLightSearch.findHours(hourDataCell, query), ShLightSearch.findWh(whDataCell, query)));
+                sink.addUserInformation(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
             }
         }
         else {
             if (statusElementContent != null) {
-                return ShUnknownDeviceSearch.gatherUnknownDeviceProperties(statusElementContent, statusElementName + " " + roomName, hourDataCell, whDataCell);
+                ShUnknownDeviceSearch.gatherUnknownDeviceProperties(statusElementContent, statusElementName + " " + roomName, hourDataCell, whDataCell, query, sink);
             }
             else {
                 String warningDescription = "There was a different amount of status element contents and specifiers for them. All elements were extracted but for the element " + statusElementName + " no corresponding content could be found. Please check the website and the documentation.";
-                return new RoomDeviceWrapper(new ArrayList<>(Collections.singletonList(new ShUnknownDevice(statusElementName + " " + roomName, null,null, null, null, ShLightSearch.findHours(hourDataCell), ShLightSearch.findWh(whDataCell)))), new ArrayList<>(Collections.singletonList(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription))));
+                sink.addDevice(new ShUnknownDevice(statusElementName + " " + roomName, null,null, null, null, ShLightSearch.findHours(hourDataCell, query), ShLightSearch.findWh(whDataCell, query)));
+                sink.addUserInformation(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, warningDescription));
             }
         }
     }
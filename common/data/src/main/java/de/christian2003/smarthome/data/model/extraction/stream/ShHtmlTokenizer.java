@@ -0,0 +1,456 @@
+package de.christian2003.smarthome.data.model.extraction.stream;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.jsoup.parser.Parser;
+
+import java.util.Locale;
+
+
+/**
+ * Class splits html into start tags, end tags and text without building a document. The tokenizer follows
+ * the tokenization of Jsoup for the markup of the smart home webpage: tag and attribute names are lower
+ * case, duplicate attributes are dropped, character references are decoded, comments and doctypes are
+ * skipped and the content of scripts, styles, titles and text areas is skipped as raw text. Markup that
+ * Jsoup tokenizes in a way that this class does not replicate is reported as
+ * {@link Token#Unsupported}.
+ */
+public class ShHtmlTokenizer {
+
+    /**
+     * The types of tokens.
+     */
+    public enum Token {
+        /**
+         * A start tag with its attributes.
+         */
+        StartTag,
+
+        /**
+         * An end tag.
+         */
+        EndTag,
+
+        /**
+         * Text between tags with decoded character references.
+         */
+        Text,
+
+        /**
+         * Markup which is not tokenized like Jsoup would tokenize it. The reason is returned by
+         * {@link #getUnsupportedReason()}.
+         */
+        Unsupported,
+
+        /**
+         * The end of the html.
+         */
+        End
+    }
+
+
+    /**
+     * The html to tokenize.
+     */
+    @NonNull
+    private final String html;
+
+    /**
+     * Position of the next character to tokenize.
+     */
+    private int position;
+
+    /**
+     * Name of the raw text element whose content must be skipped before the next token, or null.
+     */
+    @Nullable
+    private String rawTextElement;
+
+    /**
+     * Name of the current tag.
+     */
+    @NonNull
+    private String tagName;
+
+    /**
+     * States if the current start tag is self closing.
+     */
+    private boolean selfClosing;
+
+    /**
+     * Names of the attributes of the current start tag.
+     */
+    @NonNull
+    private String[] attributeNames;
+
+    /**
+     * Values of the attributes of the current start tag.
+     */
+    @NonNull
+    private String[] attributeValues;
+
+    /**
+     * Number of attributes of the current start tag.
+     */
+    private int attributeCount;
+
+    /**
+     * The current text.
+     */
+    @NonNull
+    private String text;
+
+    /**
+     * The reason why the current markup is unsupported.
+     */
+    @Nullable
+    private String unsupportedReason;
+
+
+    /**
+     * Constructor instantiates a new tokenizer.
+     *
+     * @param html  The html to tokenize.
+     */
+    public ShHtmlTokenizer(@NonNull String html) {
+        this.html = html;
+        this.tagName = "";
+        this.text = "";
+        this.attributeNames = new String[8];
+        this.attributeValues = new String[8];
+    }
+
+
+    /**
+     * Method reads the next token.
+     *
+     * @return  The type of the token.
+     */
+    @NonNull
+    public Token next() {
+        if (rawTextElement != null) {
+            skipRawText(rawTextElement);
+            rawTextElement = null;
+        }
+        int length = html.length();
+        while (position < length) {
+            char c = html.charAt(position);
+            if (c != '<' || position + 1 >= length) {
+                return readText(position + 1);
+            }
+            char next = html.charAt(position + 1);
+            if (isAsciiLetter(next)) {
+                return readTag(false);
+            }
+            else if (next == '/') {
+                if (position + 2 < length && isAsciiLetter(html.charAt(position + 2))) {
+                    return readTag(true);
+                }
+                return unsupported("End tag without name");
+            }
+            else if (html.startsWith("<!--", position)) {
+                int end = html.indexOf("-->", position + 4);
+                if (end == -1 || end == position + 4 || html.startsWith("->", position + 4)) {
+                    return unsupported("Malformed comment");
+                }
+                position = end + 3;
+            }
+            else if (next == '!' || next == '?') {
+                // Doctypes and processing instructions are skipped like bogus comments.
+                int end = html.indexOf('>', position + 2);
+                if (end == -1 || html.startsWith("<![CDATA[", position)) {
+                    return unsupported("Malformed declaration");
+                }
+                position = end + 1;
+            }
+            else {
+                return readText(position + 1);
+            }
+        }
+        return Token.End;
+    }
+
+
+    /**
+     * Reads the text from the current position up to the next character which can start a tag.
+     *
+     * @param from  The position from which to search the end of the text.
+     * @return      The type of the token.
+     */
+    @NonNull
+    private Token readText(int from) {
+        int end = html.indexOf('<', from);
+        if (end == -1) {
+            end = html.length();
+        }
+        String rawText = html.substring(position, end);
+        if (rawText.indexOf('\0') != -1) {
+            return unsupported("Null character in text");
+        }
+        text = rawText.indexOf('&') != -1 ? Parser.unescapeEntities(rawText, false) : rawText;
+        position = end;
+        return Token.Text;
+    }
+
+
+    /**
+     * Reads the tag at the current position.
+     *
+     * @param endTag    States if the tag is an end tag.
+     * @return          The type of the token.
+     */
+    @NonNull
+    private Token readTag(boolean endTag) {
+        int length = html.length();
+        int index = position + (endTag ? 2 : 1);
+        int nameStart = index;
+        while (index < length && !isWhitespace(html.charAt(index)) && html.charAt(index) != '/' && html.charAt(index) != '>') {
+            char c = html.charAt(index);
+            if (c == '<' || c == '\0') {
+                return unsupported("Malformed tag name");
+            }
+            index++;
+        }
+        tagName = html.substring(nameStart, index).toLowerCase(Locale.ENGLISH);
+        selfClosing = false;
+        attributeCount = 0;
+
+        while (true) {
+            while (index < length && isWhitespace(html.charAt(index))) {
+                index++;
+            }
+            if (index >= length) {
+                return unsupported("Unterminated tag");
+            }
+            char c = html.charAt(index);
+            if (c == '>') {
+                index++;
+                break;
+            }
+            else if (c == '/') {
+                if (index + 1 < length && html.charAt(index + 1) == '>') {
+                    selfClosing = true;
+                    index += 2;
+                    break;
+                }
+                index++;
+                continue;
+            }
+            else if (c == '=' || c == '"' || c == '\'' || c == '<') {
+                return unsupported("Malformed attribute name");
+            }
+
+            int attributeNameStart = index;
+            while (index < length && !isWhitespace(html.charAt(index)) && "/>=\"'<".indexOf(html.charAt(index)) == -1) {
+                index++;
+            }
+            if (index < length && "\"'<".indexOf(html.charAt(index)) != -1) {
+                return unsupported("Malformed attribute name");
+            }
+            String attributeName = html.substring(attributeNameStart, index).toLowerCase(Locale.ENGLISH);
+            while (index < length && isWhitespace(html.charAt(index))) {
+                index++;
+            }
+
+            String value = "";
+            if (index < length && html.charAt(index) == '=') {
+                index++;
+                while (index < length && isWhitespace(html.charAt(index))) {
+                    index++;
+                }
+                if (index >= length) {
+                    return unsupported("Unterminated tag");
+                }
+                char quote = html.charAt(index);
+                int valueEnd;
+                if (quote == '"' || quote == '\'') {
+                    valueEnd = html.indexOf(quote, index + 1);
+                    if (valueEnd == -1) {
+                        return unsupported("Unterminated attribute value");
+                    }
+                    value = html.substring(index + 1, valueEnd);
+                    index = valueEnd + 1;
+                }
+                else {
+                    valueEnd = index;
+                    while (valueEnd < length && !isWhitespace(html.charAt(valueEnd)) && html.charAt(valueEnd) != '>') {
+                        valueEnd++;
+                    }
+                    value = html.substring(index, valueEnd);
+                    index = valueEnd;
+                }
+                if (value.indexOf('&') != -1) {
+                    value = Parser.unescapeEntities(value, true);
+                }
+            }
+            addAttribute(attributeName, value);
+        }
+        position = index;
+
+        if (endTag) {
+            return Token.EndTag;
+        }
+        switch (tagName) {
+            case "script":
+            case "style":
+            case "title":
+            case "textarea":
+                if (!selfClosing) {
+                    rawTextElement = tagName;
+                }
+                break;
+
+            case "iframe":
+            case "noembed":
+            case "noframes":
+            case "plaintext":
+            case "xmp":
+            case "image":
+                return unsupported("Unsupported element " + tagName);
+        }
+        return Token.StartTag;
+    }
+
+
+    /**
+     * Skips the content of the raw text element passed up to its end tag.
+     *
+     * @param name  The name of the raw text element.
+     */
+    private void skipRawText(@NonNull String name) {
+        int length = html.length();
+        int index = position;
+        while ((index = html.indexOf("</", index)) != -1) {
+            int nameEnd = index + 2 + name.length();
+            if (html.regionMatches(true, index + 2, name, 0, name.length()) && nameEnd < length && (isWhitespace(html.charAt(nameEnd)) || html.charAt(nameEnd) == '/' || html.charAt(nameEnd) == '>')) {
+                position = index;
+                return;
+            }
+            index += 2;
+        }
+        position = length;
+    }
+
+
+    /**
+     * Adds an attribute to the current start tag, unless the tag already has an attribute with the same
+     * name.
+     *
+     * @param name  The name of the attribute.
+     * @param value The value of the attribute.
+     */
+    private void addAttribute(@NonNull String name, @NonNull String value) {
+        if (name.isEmpty() || getAttribute(name) != null) {
+            return;
+        }
+        if (attributeCount == attributeNames.length) {
+            String[] names = new String[attributeCount * 2];
+            String[] values = new String[attributeCount * 2];
+            System.arraycopy(attributeNames, 0, names, 0, attributeCount);
+            System.arraycopy(attributeValues, 0, values, 0, attributeCount);
+            attributeNames = names;
+            attributeValues = values;
+        }
+        attributeNames[attributeCount] = name;
+        attributeValues[attributeCount] = value;
+        attributeCount++;
+    }
+
+
+    /**
+     * Marks the current markup as unsupported.
+     *
+     * @param reason    The reason why the markup is unsupported.
+     * @return          {@link Token#Unsupported}.
+     */
+    @NonNull
+    private Token unsupported(@NonNull String reason) {
+        unsupportedReason = reason + " at position " + position;
+        position = html.length();
+        return Token.Unsupported;
+    }
+
+
+    /**
+     * Gets the name of the current tag in lower case.
+     *
+     * @return  The name of the tag.
+     */
+    @NonNull
+    public String getTagName() {
+        return tagName;
+    }
+
+
+    /**
+     * Gets whether the current start tag is self closing.
+     *
+     * @return  Whether the start tag is self closing.
+     */
+    public boolean isSelfClosing() {
+        return selfClosing;
+    }
+
+
+    /**
+     * Gets the value of the attribute with the name passed of the current start tag.
+     *
+     * @param name  The lower case name of the attribute.
+     * @return      The value of the attribute or null if the tag has no such attribute.
+     */
+    @Nullable
+    public String getAttribute(@NonNull String name) {
+        for (int i = 0; i < attributeCount; i++) {
+            if (attributeNames[i].equals(name)) {
+                return attributeValues[i];
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Gets the current text with decoded character references.
+     *
+     * @return  The text.
+     */
+    @NonNull
+    public String getText() {
+        return text;
+    }
+
+
+    /**
+     * Gets the reason why the current markup is unsupported.
+     *
+     * @return  The reason or null if the markup is supported.
+     */
+    @Nullable
+    public String getUnsupportedReason() {
+        return unsupportedReason;
+    }
+
+
+    /**
+     * Checks whether the character passed is whitespace within html.
+     *
+     * @param c The character.
+     * @return  Whether the character is whitespace.
+     */
+    public static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\f' || c == '\r';
+    }
+
+
+    /**
+     * Checks whether the character passed is an ASCII letter, which starts a tag name.
+     *
+     * @param c The character.
+     * @return  Whether the character is an ASCII letter.
+     */
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+}
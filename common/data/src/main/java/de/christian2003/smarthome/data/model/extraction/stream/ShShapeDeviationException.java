@@ -0,0 +1,21 @@
+package de.christian2003.smarthome.data.model.extraction.stream;
+
+import androidx.annotation.NonNull;
+
+
+/**
+ * Exception is thrown if streamed html or projected rooms deviate from the shape of the smart home webpage
+ * which can be extracted without building a document.
+ */
+public class ShShapeDeviationException extends Exception {
+
+    /**
+     * Constructor instantiates a new exception.
+     *
+     * @param message   Description of the deviation.
+     */
+    public ShShapeDeviationException(@NonNull String message) {
+        super(message, null, false, false);
+    }
+
+}
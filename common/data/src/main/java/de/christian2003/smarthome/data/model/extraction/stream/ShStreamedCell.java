@@ -0,0 +1,132 @@
+package de.christian2003.smarthome.data.model.extraction.stream;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+
+
+/**
+ * Class models a table cell of a room which was streamed by {@link ShStreamingExtractor} or projected within
+ * the webpage by {@link de.christian2003.smarthome.data.model.extraction.projection.ShRoomProjection}.
+ * Instead of the nodes of the cell, only the properties which the extraction of the rooms reads from a cell
+ * are stored.
+ * Each property refers to the first matching element in document order within the cell, like the queries
+ * of {@link de.christian2003.smarthome.data.model.extraction.search.ShSelector} do.
+ */
+public class ShStreamedCell {
+
+    /**
+     * Class models a button element within a cell.
+     */
+    public static class Button {
+
+        /**
+         * Attribute stores the text of the button, like {@link org.jsoup.nodes.Element#text()}.
+         */
+        @NonNull
+        public final StringBuilder text = new StringBuilder();
+
+        /**
+         * Attribute stores the own text of the button, like {@link org.jsoup.nodes.Element#ownText()}.
+         */
+        @NonNull
+        public final StringBuilder ownText = new StringBuilder();
+
+    }
+
+
+    /**
+     * Class models a form element within a cell.
+     */
+    public static class Form {
+
+        /**
+         * Attribute stores the own text of the form, like {@link org.jsoup.nodes.Element#ownText()}.
+         */
+        @NonNull
+        public final StringBuilder ownText = new StringBuilder();
+
+        /**
+         * Attribute stores the first button which is a child of the form, or null.
+         */
+        @Nullable
+        public Button button;
+
+    }
+
+
+    /**
+     * Attribute stores the text of the cell, like {@link org.jsoup.nodes.Element#text()}.
+     */
+    @NonNull
+    public final StringBuilder text = new StringBuilder();
+
+    /**
+     * Attribute stores the own text of the cell, like {@link org.jsoup.nodes.Element#ownText()}.
+     */
+    @NonNull
+    public final StringBuilder ownText = new StringBuilder();
+
+    /**
+     * Attribute stores whether the cell contains a block element, in which case {@link #text} does not
+     * contain the whitespace which Jsoup inserts around block elements.
+     */
+    public boolean containsBlock;
+
+    /**
+     * Attribute stores whether the cell contains an image.
+     */
+    public boolean containsImage;
+
+    /**
+     * Attribute stores the source of the first image of the cell, or an empty string if the image has no
+     * source.
+     */
+    @NonNull
+    public String imageSource = "";
+
+    /**
+     * Attribute stores the value of the first input element of type button, or null.
+     */
+    @Nullable
+    public String firstInputButton;
+
+    /**
+     * Attribute stores the value of the first input element of type button which follows a sibling input
+     * element of type button, or null.
+     */
+    @Nullable
+    public String secondInputButton;
+
+    /**
+     * Attribute stores the first button, or null.
+     */
+    @Nullable
+    public Button firstButton;
+
+    /**
+     * Attribute stores the first button which follows a sibling button, or null.
+     */
+    @Nullable
+    public Button secondButton;
+
+    /**
+     * Attribute stores the own text of the first span whose id contains "mA", or null.
+     */
+    @Nullable
+    public StringBuilder milliAmp;
+
+    /**
+     * Attribute stores the first form which is a child of a cell, or null.
+     */
+    @Nullable
+    public Form form;
+
+    /**
+     * Attribute stores the rows of the table within the cell, or null if the cell does not contain a table.
+     */
+    @Nullable
+    public ArrayList<ArrayList<ShStreamedCell>> innerRows;
+
+}
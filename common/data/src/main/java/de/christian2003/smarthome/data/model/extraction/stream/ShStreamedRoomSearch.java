@@ -0,0 +1,416 @@
+package de.christian2003.smarthome.data.model.extraction.stream;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import de.christian2003.smarthome.data.model.devices.ShGenericDevice;
+import de.christian2003.smarthome.data.model.devices.ShOpening;
+import de.christian2003.smarthome.data.model.devices.ShOpeningType;
+import de.christian2003.smarthome.data.model.devices.ShShutter;
+import de.christian2003.smarthome.data.model.devices.ShUnknownDevice;
+import de.christian2003.smarthome.data.model.extraction.rules.ShExtractionRules;
+import de.christian2003.smarthome.data.model.extraction.rules.ShRowType;
+import de.christian2003.smarthome.data.model.extraction.search.devices.ShOpeningSearch;
+import de.christian2003.smarthome.data.model.extraction.search.devices.ShShutterSearch;
+import de.christian2003.smarthome.data.model.extraction.search.room.ShRoomSearch;
+import de.christian2003.smarthome.data.model.room.ShInfoText;
+import de.christian2003.smarthome.data.model.room.ShRoom;
+import de.christian2003.smarthome.data.model.userinformation.InformationTitle;
+import de.christian2003.smarthome.data.model.userinformation.InformationType;
+import de.christian2003.smarthome.data.model.userinformation.UserInformation;
+
+
+/**
+ * Class models the search for the content of a single room on the rows of its content table, which are
+ * streamed by {@link ShStreamingExtractor} or projected within the webpage by
+ * {@link de.christian2003.smarthome.data.model.extraction.projection.ShRoomProjection}. The search is the counterpart of {@link ShRoomSearch} and the
+ * searches for the info texts and devices, and creates the same info texts, devices and user information
+ * in the same order. Rows for which the legacy search would behave in a way that cannot be reproduced
+ * from the streamed cells cause a {@link ShShapeDeviationException}.
+ */
+public class ShStreamedRoomSearch {
+
+    /**
+     * Attribute stores the name of the room.
+     */
+    @NonNull
+    private final String roomName;
+
+    /**
+     * Attribute stores the info texts of the room.
+     */
+    @NonNull
+    private final ArrayList<ShInfoText> infoTexts;
+
+    /**
+     * Attribute stores the devices of the room.
+     */
+    @NonNull
+    private final ArrayList<ShGenericDevice> devices;
+
+    /**
+     * Attribute stores the user information that occurred while searching the room.
+     */
+    @NonNull
+    private final ArrayList<UserInformation> userInformation;
+
+    /**
+     * Attribute stores the number of rows of the content table.
+     */
+    private int rowCount;
+
+
+    /**
+     * Constructor instantiates a new search for the content of a room.
+     *
+     * @param roomName  The name of the room.
+     */
+    public ShStreamedRoomSearch(@NonNull String roomName) {
+        this.roomName = roomName;
+        this.infoTexts = new ArrayList<>();
+        this.devices = new ArrayList<>();
+        this.userInformation = new ArrayList<>();
+    }
+
+
+    /**
+     * Method creates the room from the rows which were added.
+     *
+     * @param gesamtstatusElement   States if the room displays the "gesamtstatus".
+     * @param occurrence            Number of rooms with the same name which precede the room.
+     * @return                      The room.
+     */
+    @NonNull
+    public ShRoom createRoom(boolean gesamtstatusElement, int occurrence) {
+        if (rowCount == 0) {
+            return ShRoomSearch.createRoomWithoutContent(roomName, gesamtstatusElement, occurrence);
+        }
+        return new ShRoom(roomName, infoTexts, devices, userInformation, gesamtstatusElement, occurrence);
+    }
+
+
+    /**
+     * Method searches a row of the content table of the room.
+     *
+     * @param classNames    The value of the class attribute of the row.
+     * @param cells         The cells which are children of the row.
+     * @throws ShShapeDeviationException    The row cannot be searched without a document.
+     */
+    public void addRow(@NonNull String classNames, @NonNull List<ShStreamedCell> cells) throws ShShapeDeviationException {
+        rowCount++;
+        ShRowType rowType = ShExtractionRules.getInstance().getRowType(getClassNames(classNames));
+        if (rowType == ShRowType.InfoText) {
+            addInfoText(cells);
+        }
+        else if (rowType == ShRowType.Shutter) {
+            addShutters(cells);
+        }
+        else if (rowType == ShRowType.Opening) {
+            addOpenings(cells);
+        }
+        else if (rowType == ShRowType.Status) {
+            for (ShStreamedCell cell : cells) {
+                if (cell.innerRows != null) {
+                    throw new ShShapeDeviationException("Status row with an inner table in room " + roomName);
+                }
+            }
+            addWarning("No table was found in the inner table. The table should contain rows with the openings. No openings could be found. Please check the website and the documentation.");
+        }
+        else {
+            addUnknownDevice(cells);
+        }
+    }
+
+
+    /**
+     * Adds the info texts of a row, like {@link de.christian2003.smarthome.data.model.extraction.search.room.ShInfoTextSearch}.
+     *
+     * @param cells The cells of the row.
+     * @throws ShShapeDeviationException    The text of a cell cannot be determined.
+     */
+    private void addInfoText(@NonNull List<ShStreamedCell> cells) throws ShShapeDeviationException {
+        if (cells.isEmpty()) {
+            addWarning("No table row was found in the table. The table should contain rows with the info texts. No info text could be found in this table row. Please check the website and the documentation.");
+        }
+        else if (cells.size() == 1) {
+            addWarning("A table row that contains an info text of the room should be present but could not be found. Please check the website and the documentation.");
+        }
+        else if (cells.get(1).innerRows != null) {
+            String label = text(cells.get(0));
+            ArrayList<ArrayList<ShStreamedCell>> innerRows = cells.get(1).innerRows;
+
+            // The text of every inner row refers to the first cell with a preceding sibling in the inner table.
+            ShStreamedCell secondDataCell = null;
+            for (ArrayList<ShStreamedCell> innerRow : innerRows) {
+                if (innerRow.size() > 1) {
+                    secondDataCell = innerRow.get(1);
+                    break;
+                }
+            }
+            for (ArrayList<ShStreamedCell> innerRow : innerRows) {
+                if (innerRow.isEmpty()) {
+                    userInformation.add(new UserInformation(InformationType.WARNING ,InformationTitle.HtmlElementNotLocated, "No data cell could be found for a info text element in the inner table which should contain further information. Please check the website and the documentation. "));
+                }
+                else if (secondDataCell != null) {
+                    infoTexts.add(new ShInfoText(label, text(innerRow.get(0)), text(secondDataCell)));
+                }
+                else {
+                    userInformation.add(new UserInformation(InformationType.WARNING ,InformationTitle.HtmlElementNotLocated, "No data cell could be found for the info text element \" " + text(innerRow.get(0)) + " \" in the inner table which should contain further information. Please check the website and the documentation. "));
+                }
+            }
+        }
+        else {
+            infoTexts.add(new ShInfoText(text(cells.get(0)), null, text(cells.get(1))));
+        }
+    }
+
+
+    /**
+     * Adds the shutters of a row, like {@link ShShutterSearch}.
+     *
+     * @param cells The cells of the row.
+     * @throws ShShapeDeviationException    The shutters cannot be determined.
+     */
+    private void addShutters(@NonNull List<ShStreamedCell> cells) throws ShShapeDeviationException {
+        if (cells.isEmpty()) {
+            addWarning("No table row was found in the table. The table should contain rows with the shutters. No shutters could be found. Please check the website and the documentation.");
+            return;
+        }
+        else if (cells.size() == 1) {
+            addWarning("No second data cells were found in the table which should contain a single shutter or a table of shutters. No shutters could be found. Please check the website and the documentation.");
+            return;
+        }
+        String name = ownText(cells.get(0)) + " " + roomName;
+        ArrayList<ArrayList<ShStreamedCell>> innerRows = cells.get(1).innerRows;
+        if (innerRows == null) {
+            addShutter(cells.get(1), name, null);
+        }
+        else if (innerRows.isEmpty()) {
+            addWarning("No table was found in the inner table. The table should contain rows with the shutters. No shutters could be found. Please check the website and the documentation.");
+        }
+        else if (innerRows.size() < 2) {
+            addWarning("The second table row which contains the shutter could not be found. No shutters could be found. Please check the website and the documentation.");
+        }
+        else {
+            ArrayList<ShStreamedCell> specifiers = innerRows.get(0);
+            ArrayList<ShStreamedCell> values = innerRows.get(1);
+            if (values.size() == specifiers.size()) {
+                for (int i = 0; i < values.size(); i++) {
+                    addShutter(values.get(i), name, ownText(specifiers.get(i)));
+                }
+            }
+            else if (specifiers.isEmpty()) {
+                throw new ShShapeDeviationException("Shutters without specifiers in room " + roomName);
+            }
+            else if (values.size() > specifiers.size()) {
+                for (int i = 0; i < specifiers.size(); i++) {
+                    addShutter(values.get(i), name, ownText(specifiers.get(i)));
+                }
+                for (int i = specifiers.size(); i < values.size(); i++) {
+                    addShutter(values.get(i), name, "Automatic Specifier " + (i + 1 - specifiers.size()));
+                }
+                addWarning("There were more shutters than specifiers. All shutters that could be found were extracted. For the shutters to which no specifiers could be found automatic specifiers were implemented. Please check the website and the documentation.");
+            }
+            else {
+                for (int i = 0; i < values.size(); i += 2) {
+                    addShutter(values.get(i), name, "Automatic Specifier " + i);
+                }
+                addWarning("There was a different amount of shutters and specifiers for them. All shutters that could be found were extracted but no specifiers could be found for them. Automatic specifiers were implemented. Please check the website and the documentation.");
+            }
+        }
+    }
+
+
+    /**
+     * Adds a single shutter.
+     *
+     * @param cell      The cell which contains the shutter.
+     * @param name      The name of the shutter.
+     * @param specifier The specifier of the shutter.
+     */
+    private void addShutter(@NonNull ShStreamedCell cell, @NonNull String name, @Nullable String specifier) {
+        if (cell.form != null) {
+            String buttonText = cell.form.button != null ? cell.form.button.text.toString().trim() : null;
+            String[] formInformation = ShShutterSearch.findShutterFormInformation(cell.form.ownText.toString().trim());
+            devices.add(new ShShutter(name, specifier, buttonText, formInformation[0], formInformation[1]));
+        }
+        else {
+            addWarning("The form element which should contain further information about the shutter of the room could not be found. Please check the website and the documentation.");
+        }
+    }
+
+
+    /**
+     * Adds the openings of a row, like {@link ShOpeningSearch}.
+     *
+     * @param cells The cells of the row.
+     * @throws ShShapeDeviationException    The openings cannot be determined.
+     */
+    private void addOpenings(@NonNull List<ShStreamedCell> cells) throws ShShapeDeviationException {
+        if (cells.isEmpty()) {
+            addWarning("No table row was found in the table. The table should contain rows with the openings. No openings could be found. Please check the website and the documentation.");
+            return;
+        }
+        ShOpeningType openingType = ShOpeningSearch.checkOpeningType(ownText(cells.get(0)));
+        if (cells.size() == 1) {
+            addWarning("No second data cells were found in the table which should contain a single opening or a table of multiple openings. No openings could be found. Please check the website and the documentation.");
+            return;
+        }
+        String name = ownText(cells.get(0)) + " " + roomName;
+        ArrayList<ArrayList<ShStreamedCell>> innerRows = cells.get(1).innerRows;
+        if (innerRows == null) {
+            addOpening(cells.get(1), name, openingType, null);
+        }
+        else if (innerRows.isEmpty()) {
+            addWarning("No table was found in the inner table. The table should contain rows with the openings. No openings could be found. Please check the website and the documentation.");
+        }
+        else if (innerRows.size() < 2) {
+            addWarning("The second table row which contains the openings could not be found. No openings could be found. Please check the website and the documentation.");
+        }
+        else {
+            ArrayList<ShStreamedCell> specifiers = innerRows.get(0);
+            ArrayList<ShStreamedCell> values = innerRows.get(1);
+            if (values.size() == specifiers.size()) {
+                for (int i = 0; i < values.size(); i++) {
+                    addOpening(values.get(i), name, openingType, ownText(specifiers.get(i)));
+                }
+            }
+            else if (specifiers.isEmpty()) {
+                throw new ShShapeDeviationException("Openings without specifiers in room " + roomName);
+            }
+            else if (values.size() > specifiers.size()) {
+                for (int i = 0; i < specifiers.size(); i++) {
+                    addOpening(values.get(i), name, openingType, ownText(specifiers.get(i)));
+                }
+                for (int i = specifiers.size(); i < values.size(); i++) {
+                    addOpening(values.get(i), name, openingType, "Automatic Specifier " + (i + 1 - specifiers.size()));
+                }
+                addWarning("There were more openings than specifiers. All openings that could be found were extracted. For the openings to which no specifiers could be found automatic specifiers were implemented. Please check the website and the documentation.");
+            }
+            else {
+                for (int i = 0; i < values.size(); i += 2) {
+                    addOpening(values.get(i), name, openingType, "Automatic Specifier " + i);
+                }
+                addWarning("There was a different amount of openings and specifiers for them. All openings that could be found were extracted but no specifiers could be found for them. Automatic specifiers were implemented. Please check the website and the documentation.");
+            }
+        }
+    }
+
+
+    /**
+     * Adds a single opening.
+     *
+     * @param cell          The cell which contains the opening.
+     * @param name          The name of the opening.
+     * @param openingType   The type of the opening.
+     * @param specifier     The specifier of the opening.
+     */
+    private void addOpening(@NonNull ShStreamedCell cell, @NonNull String name, @NonNull ShOpeningType openingType, @Nullable String specifier) {
+        if (cell.containsImage && !cell.imageSource.isEmpty()) {
+            devices.add(new ShOpening(name, openingType, specifier, cell.imageSource));
+        }
+        else if (cell.containsImage) {
+            devices.add(new ShOpening(name, openingType, specifier, null));
+            addWarning("An image node could be found but not source for the image. The opening could be created anyways. Please check the website and the documentation.");
+        }
+        else {
+            devices.add(new ShOpening(name, openingType, specifier, null));
+            addWarning("No image could be found for the opening but it could be created anyways. Please check the website and the documentation.");
+        }
+    }
+
+
+    /**
+     * Adds the unknown device of a row, like
+     * {@link de.christian2003.smarthome.data.model.extraction.search.devices.ShUnknownDeviceSearch}.
+     *
+     * @param cells The cells of the row.
+     */
+    private void addUnknownDevice(@NonNull List<ShStreamedCell> cells) {
+        if (cells.isEmpty()) {
+            addWarning("An expected element in the room " + roomName + " was not found.");
+            return;
+        }
+        String name = ownText(cells.get(0)) + " " + roomName;
+        if (cells.size() == 1) {
+            devices.add(new ShUnknownDevice(name, null, null, null, null, null, null));
+            addWarning("No second table row with that should contain the properties of the " + name + " could be found. Please check the website and the documentation.");
+            return;
+        }
+        ShStreamedCell cell = cells.get(1);
+        String onButton = null;
+        String offButton = null;
+        if (cell.firstInputButton != null) {
+            onButton = cell.firstInputButton;
+            offButton = cell.secondInputButton;
+        }
+        else if (cell.firstButton != null) {
+            onButton = cell.firstButton.ownText.toString().trim();
+            offButton = cell.secondButton != null ? cell.secondButton.ownText.toString().trim() : null;
+        }
+        String milliAmp = cell.milliAmp != null ? cell.milliAmp.toString().trim() : null;
+        String imageUri = cell.containsImage && !cell.imageSource.isEmpty() ? cell.imageSource : null;
+        devices.add(new ShUnknownDevice(name, imageUri, onButton, offButton, milliAmp, null, null));
+        userInformation.add(new UserInformation(InformationType.INFORMATION, InformationTitle.UnknownElement, "This is not a standard element. Some of its properties might be missing."));
+    }
+
+
+    /**
+     * Adds a warning that an element could not be located.
+     *
+     * @param description   The description of the warning.
+     */
+    private void addWarning(@NonNull String description) {
+        userInformation.add(new UserInformation(InformationType.WARNING, InformationTitle.HtmlElementNotLocated, description));
+    }
+
+
+    /**
+     * Returns the class names of the value of a class attribute, like
+     * {@link org.jsoup.nodes.Element#classNames()}.
+     *
+     * @param classNames    The value of the class attribute.
+     * @return              The class names.
+     */
+    @NonNull
+    private static Set<String> getClassNames(@NonNull String classNames) {
+        Set<String> names = new LinkedHashSet<>(Arrays.asList(classNames.trim().split("\\s+")));
+        names.remove("");
+        return names;
+    }
+
+
+    /**
+     * Returns the text of the cell passed.
+     *
+     * @param cell  The cell.
+     * @return      The text of the cell.
+     * @throws ShShapeDeviationException    The cell contains a block element.
+     */
+    @NonNull
+    private String text(@NonNull ShStreamedCell cell) throws ShShapeDeviationException {
+        if (cell.containsBlock) {
+            throw new ShShapeDeviationException("Text of a cell with a block element in room " + roomName);
+        }
+        return cell.text.toString().trim();
+    }
+
+
+    /**
+     * Returns the own text of the cell passed.
+     *
+     * @param cell  The cell.
+     * @return      The own text of the cell.
+     */
+    @NonNull
+    private static String ownText(@NonNull ShStreamedCell cell) {
+        return cell.ownText.toString().trim();
+    }
+
+}
@@ -0,0 +1,843 @@
+package de.christian2003.smarthome.data.model.extraction.stream;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.jsoup.internal.StringUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import de.christian2003.smarthome.data.model.extraction.rules.ShExtractionRules;
+import de.christian2003.smarthome.data.model.extraction.search.room.ShRoomSearch;
+import de.christian2003.smarthome.data.model.room.ShRoom;
+
+
+/**
+ * Class extracts the rooms of the smart home webpage in a single pass over the html, without building a
+ * document. Every token is checked against the shape of the webpage, which consists of the div containers
+ * with the class "room", their name in a span with the class "roomName" and their content table, whose
+ * rows contain the info texts, shutters, openings, status elements and further devices, possibly within a
+ * nested table. Only the properties of the cells which the extraction reads are kept, from which the
+ * rooms are created exactly like {@link ShRoomSearch} creates them from a Jsoup document.
+ * <p>
+ * Markup which Jsoup would parse into a different structure than the one that is assumed here, like
+ * misnested or implicitly closed elements, text within the table structure or unexpected elements
+ * within a room, deviates from the shape. In that case no rooms are returned and the html must be
+ * parsed with Jsoup instead.
+ */
+public class ShStreamingExtractor {
+
+    /**
+     * The kinds of elements within a room.
+     */
+    private enum Kind {
+        Room,
+        Block,
+        Paragraph,
+        Inline,
+        Button,
+        Form,
+        Raw,
+        ContentTable,
+        ContentBody,
+        ContentRow,
+        Cell,
+        InnerTable,
+        InnerBody,
+        InnerRow,
+        InnerCell
+    }
+
+
+    /**
+     * Class models an open element within a room.
+     */
+    private static class Frame {
+
+        /**
+         * Attribute stores the tag name of the element.
+         */
+        @NonNull
+        private final String tagName;
+
+        /**
+         * Attribute stores the kind of the element.
+         */
+        @NonNull
+        private final Kind kind;
+
+        /**
+         * Attribute stores the builder for the text of the element, or null if the text is not needed.
+         */
+        @Nullable
+        private StringBuilder text;
+
+        /**
+         * Attribute stores the builder for the own text of the element, or null if it is not needed.
+         */
+        @Nullable
+        private StringBuilder ownText;
+
+        /**
+         * Attribute stores the cell if the element is a table cell.
+         */
+        @Nullable
+        private ShStreamedCell cell;
+
+        /**
+         * Attribute stores the index of the cell within its row if the element is a table cell.
+         */
+        private int cellIndex;
+
+        /**
+         * Attribute stores the form if the element is a form.
+         */
+        @Nullable
+        private ShStreamedCell.Form form;
+
+        /**
+         * Attribute stores the cells if the element is a table row.
+         */
+        @Nullable
+        private ArrayList<ShStreamedCell> cells;
+
+        /**
+         * Attribute stores the value of the class attribute if the element is a row of the content table.
+         */
+        @Nullable
+        private String classNames;
+
+        /**
+         * Attribute stores the rows if the element is a nested table.
+         */
+        @Nullable
+        private ArrayList<ArrayList<ShStreamedCell>> rows;
+
+        /**
+         * Attribute stores whether the element is the span with the name of the room.
+         */
+        private boolean roomName;
+
+        /**
+         * Attribute stores whether a child of the element is a button.
+         */
+        private boolean containsButton;
+
+        /**
+         * Attribute stores whether a child of the element is an input element of type button.
+         */
+        private boolean containsInputButton;
+
+
+        /**
+         * Constructor instantiates a new open element.
+         *
+         * @param tagName   The tag name of the element.
+         * @param kind      The kind of the element.
+         */
+        private Frame(@NonNull String tagName, @NonNull Kind kind) {
+            this.tagName = tagName;
+            this.kind = kind;
+        }
+
+    }
+
+
+    /**
+     * Elements which never have content.
+     */
+    private static final Set<String> VOID_ELEMENTS = new HashSet<>(Arrays.asList("area", "base", "basefont", "bgsound", "br", "col", "embed", "hr", "img", "input", "keygen", "link", "meta", "param", "source", "track", "wbr"));
+
+    /**
+     * Elements which are merged into the document structure by Jsoup wherever they occur.
+     */
+    private static final Set<String> DOCUMENT_ELEMENTS = new HashSet<>(Arrays.asList("html", "head", "body"));
+
+    /**
+     * Elements within which a room may be located.
+     */
+    private static final Set<String> ROOM_ANCESTORS = new HashSet<>(Arrays.asList("div", "main", "section", "article", "aside", "nav", "header", "footer"));
+
+    /**
+     * Inline elements which may be located within a room. The rooms which are projected within the webpage
+     * are restricted to the same elements.
+     */
+    public static final Set<String> INLINE_ELEMENTS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("a", "abbr", "b", "big", "br", "button", "cite", "code", "em", "font", "i", "img", "input", "label", "mark", "small", "span", "strong", "sub", "sup", "time", "u", "wbr")));
+
+
+    /**
+     * Attribute stores the tokenizer for the html.
+     */
+    @NonNull
+    private final ShHtmlTokenizer tokenizer;
+
+    /**
+     * Attribute stores the open elements of the current room.
+     */
+    @NonNull
+    private final ArrayList<Frame> frames;
+
+    /**
+     * Attribute stores the name of the current room, or null if it was not found yet.
+     */
+    @Nullable
+    private String roomName;
+
+    /**
+     * Attribute stores the builder for the name of the current room while the span with the name is open.
+     */
+    @Nullable
+    private StringBuilder roomNameText;
+
+    /**
+     * Attribute stores whether the content table of the current room was found.
+     */
+    private boolean contentTableFound;
+
+    /**
+     * Attribute stores the search for the content of the current room, or null if the room has no content
+     * table or no name.
+     */
+    @Nullable
+    private ShStreamedRoomSearch roomSearch;
+
+    /**
+     * Attribute stores why the html deviates from the shape of the webpage.
+     */
+    @Nullable
+    private String deviation;
+
+
+    /**
+     * Constructor instantiates a new extractor for the html passed.
+     *
+     * @param html  The html of the smart home webpage.
+     */
+    public ShStreamingExtractor(@NonNull String html) {
+        this.tokenizer = new ShHtmlTokenizer(html);
+        this.frames = new ArrayList<>();
+    }
+
+
+    /**
+     * Method extracts the rooms of the smart home. The room which displays the "gesamtstatus" is placed
+     * first, like {@link ShRoomSearch#findAllRooms(org.jsoup.nodes.Document)} does.
+     *
+     * @return  The rooms or null if the html deviates from the shape of the webpage.
+     */
+    @Nullable
+    public ArrayList<ShRoom> extract() {
+        ArrayList<ShRoom> rooms = new ArrayList<>();
+        ArrayList<String> openElements = new ArrayList<>();
+        boolean overallStatus = false;
+        try {
+            if (!ShExtractionRules.getInstance().hasBuiltInSelectors()) {
+                throw new ShShapeDeviationException("The extraction rules replace built-in selectors");
+            }
+            ShHtmlTokenizer.Token token;
+            while ((token = tokenizer.next()) != ShHtmlTokenizer.Token.End) {
+                if (token == ShHtmlTokenizer.Token.Unsupported) {
+                    throw new ShShapeDeviationException(String.valueOf(tokenizer.getUnsupportedReason()));
+                }
+                String name = tokenizer.getTagName();
+                if (token == ShHtmlTokenizer.Token.StartTag) {
+                    if (isRoom(name)) {
+                        for (String openElement : openElements) {
+                            if (!ROOM_ANCESTORS.contains(openElement)) {
+                                throw new ShShapeDeviationException("Room within " + openElement);
+                            }
+                        }
+                        streamRoom();
+                        // The rooms streamed so far precede the room in document order.
+                        if (roomName == null) {
+                            rooms.add(ShRoomSearch.createUnknownRoom(ShRoom.countOccurrence(rooms, ShRoomSearch.UNKNOWN_ROOM_NAME)));
+                        }
+                        else if (!overallStatus && ShRoomSearch.isGesamtstatus(roomName)) {
+                            overallStatus = true;
+                            rooms.add(0, createRoom(roomName, true, ShRoom.countOccurrence(rooms, roomName)));
+                        }
+                        else {
+                            rooms.add(createRoom(roomName, false, ShRoom.countOccurrence(rooms, roomName)));
+                        }
+                    }
+                    else if (!DOCUMENT_ELEMENTS.contains(name) && !VOID_ELEMENTS.contains(name) && !tokenizer.isSelfClosing()) {
+                        openElements.add(name);
+                    }
+                }
+                else if (token == ShHtmlTokenizer.Token.EndTag) {
+                    // Outside of the rooms only the ancestors of the rooms matter, therefore the end tag closes
+                    // the closest open element with the same name and unmatched end tags are ignored.
+                    int index = openElements.lastIndexOf(name);
+                    if (index != -1) {
+                        openElements.subList(index, openElements.size()).clear();
+                    }
+                }
+            }
+            return rooms;
+        }
+        catch (ShShapeDeviationException e) {
+            deviation = e.getMessage();
+            return null;
+        }
+    }
+
+
+    /**
+     * Gets why the html deviates from the shape of the webpage.
+     *
+     * @return  Description of the deviation or null if the rooms could be extracted.
+     */
+    @Nullable
+    public String getDeviation() {
+        return deviation;
+    }
+
+
+    /**
+     * Streams the room whose start tag was read last, up to its end tag.
+     *
+     * @throws ShShapeDeviationException    The room deviates from the shape of the webpage.
+     */
+    private void streamRoom() throws ShShapeDeviationException {
+        if (tokenizer.isSelfClosing()) {
+            throw new ShShapeDeviationException("Self closing room");
+        }
+        roomName = null;
+        roomNameText = null;
+        contentTableFound = false;
+        roomSearch = null;
+        frames.clear();
+        frames.add(new Frame("div", Kind.Room));
+        while (!frames.isEmpty()) {
+            switch (tokenizer.next()) {
+                case StartTag:
+                    startElement();
+                    break;
+
+                case EndTag:
+                    endElement();
+                    break;
+
+                case Text:
+                    addText(tokenizer.getText());
+                    break;
+
+                case Unsupported:
+                    throw new ShShapeDeviationException(String.valueOf(tokenizer.getUnsupportedReason()));
+
+                default:
+                    throw new ShShapeDeviationException("Room without end tag");
+            }
+        }
+    }
+
+
+    /**
+     * Creates the room with the name passed from the content which was streamed.
+     *
+     * @param name                  The name of the room.
+     * @param gesamtstatusElement   States if the room displays the "gesamtstatus".
+     * @param occurrence            Number of rooms with the same name which precede the room.
+     * @return                      The room.
+     */
+    @NonNull
+    private ShRoom createRoom(@NonNull String name, boolean gesamtstatusElement, int occurrence) {
+        if (roomSearch != null) {
+            return roomSearch.createRoom(gesamtstatusElement, occurrence);
+        }
+        return ShRoomSearch.createRoomWithoutContent(name, gesamtstatusElement, occurrence);
+    }
+
+
+    /**
+     * Handles the start tag which was read last within a room.
+     *
+     * @throws ShShapeDeviationException    The element deviates from the shape of the webpage.
+     */
+    private void startElement() throws ShShapeDeviationException {
+        String name = tokenizer.getTagName();
+        if (isRoom(name)) {
+            throw new ShShapeDeviationException("Nested room");
+        }
+        if (tokenizer.isSelfClosing() && !VOID_ELEMENTS.contains(name)) {
+            throw new ShShapeDeviationException("Self closing " + name);
+        }
+
+        // Cells and rows end implicitly when the next cell or row starts.
+        Frame parent = top();
+        if ((name.equals("td") || name.equals("tr")) && (parent.kind == Kind.Cell || parent.kind == Kind.InnerCell)) {
+            endFrame();
+            parent = top();
+        }
+        if (name.equals("tr") && (parent.kind == Kind.ContentRow || parent.kind == Kind.InnerRow)) {
+            endFrame();
+            parent = top();
+        }
+
+        switch (parent.kind) {
+            case Room:
+            case Block:
+                startFlowElement(name, parent);
+                break;
+
+            case Paragraph:
+            case Inline:
+            case Button:
+            case Form:
+                startInlineElement(name, parent);
+                break;
+
+            case Cell:
+            case InnerCell:
+                if (name.equals("form")) {
+                    startForm();
+                }
+                else if (name.equals("table")) {
+                    startInnerTable(parent);
+                }
+                else {
+                    startInlineElement(name, parent);
+                }
+                break;
+
+            case ContentTable:
+            case InnerTable:
+                // The rows of a nested table are siblings, therefore it must not have a second body.
+                if (parent.kind == Kind.InnerTable && !parent.rows.isEmpty()) {
+                    throw new ShShapeDeviationException("Second body in a nested table of room " + roomName);
+                }
+                if (name.equals("tbody")) {
+                    push(new Frame(name, parent.kind == Kind.ContentTable ? Kind.ContentBody : Kind.InnerBody)).rows = parent.rows;
+                }
+                else if (name.equals("tr")) {
+                    // Rows outside of a body are placed in an implied body.
+                    push(new Frame("tbody", parent.kind == Kind.ContentTable ? Kind.ContentBody : Kind.InnerBody)).rows = parent.rows;
+                    startRow(top());
+                }
+                else {
+                    throw new ShShapeDeviationException("Unexpected element " + name + " in table");
+                }
+                break;
+
+            case ContentBody:
+            case InnerBody:
+                if (!name.equals("tr")) {
+                    throw new ShShapeDeviationException("Unexpected element " + name + " in table body");
+                }
+                startRow(parent);
+                break;
+
+            case ContentRow:
+            case InnerRow:
+                if (!name.equals("td")) {
+                    throw new ShShapeDeviationException("Unexpected element " + name + " in table row");
+                }
+                Frame cellFrame = new Frame(name, parent.kind == Kind.ContentRow ? Kind.Cell : Kind.InnerCell);
+                cellFrame.cell = new ShStreamedCell();
+                cellFrame.cellIndex = parent.cells.size();
+                cellFrame.text = cellFrame.cell.text;
+                cellFrame.ownText = cellFrame.cell.ownText;
+                parent.cells.add(cellFrame.cell);
+                push(cellFrame);
+                break;
+
+            default:
+                throw new ShShapeDeviationException("Unexpected element " + name + " in " + parent.tagName);
+        }
+    }
+
+
+    /**
+     * Handles a start tag within the room or a block outside of the content table.
+     *
+     * @param name      The tag name.
+     * @param parent    The parent element.
+     * @throws ShShapeDeviationException    The element deviates from the shape of the webpage.
+     */
+    private void startFlowElement(@NonNull String name, @NonNull Frame parent) throws ShShapeDeviationException {
+        switch (name) {
+            case "div":
+                push(new Frame(name, Kind.Block));
+                break;
+
+            case "p":
+                push(new Frame(name, Kind.Paragraph));
+                break;
+
+            case "script":
+            case "style":
+                push(new Frame(name, Kind.Raw));
+                break;
+
+            case "table":
+                if (contentTableFound) {
+                    throw new ShShapeDeviationException("Second table in room " + roomName);
+                }
+                contentTableFound = true;
+                if (roomName != null) {
+                    roomSearch = new ShStreamedRoomSearch(roomName);
+                }
+                push(new Frame(name, Kind.ContentTable));
+                break;
+
+            default:
+                startInlineElement(name, parent);
+        }
+    }
+
+
+    /**
+     * Handles a start tag of an inline element.
+     *
+     * @param name      The tag name.
+     * @param parent    The parent element.
+     * @throws ShShapeDeviationException    The element deviates from the shape of the webpage.
+     */
+    private void startInlineElement(@NonNull String name, @NonNull Frame parent) throws ShShapeDeviationException {
+        if (!INLINE_ELEMENTS.contains(name)) {
+            throw new ShShapeDeviationException("Unexpected element " + name + " in " + parent.tagName);
+        }
+        switch (name) {
+            case "br":
+                addLineBreak();
+                break;
+
+            case "wbr":
+                break;
+
+            case "img":
+                String source = tokenizer.getAttribute("src");
+                for (Frame frame : frames) {
+                    if (frame.cell != null && !frame.cell.containsImage) {
+                        frame.cell.containsImage = true;
+                        frame.cell.imageSource = source != null ? source : "";
+                    }
+                }
+                break;
+
+            case "input":
+                String type = tokenizer.getAttribute("type");
+                if (type != null && type.trim().equalsIgnoreCase("button")) {
+                    String value = tokenizer.getAttribute("value");
+                    for (Frame frame : frames) {
+                        if (frame.cell != null) {
+                            if (frame.cell.firstInputButton == null) {
+                                frame.cell.firstInputButton = value != null ? value : "";
+                            }
+                            else if (parent.containsInputButton && frame.cell.secondInputButton == null) {
+                                frame.cell.secondInputButton = value != null ? value : "";
+                            }
+                        }
+                    }
+                    parent.containsInputButton = true;
+                }
+                break;
+
+            case "button":
+                if (isOpen(name)) {
+                    throw new ShShapeDeviationException("Nested button");
+                }
+                ShStreamedCell.Button button = new ShStreamedCell.Button();
+                for (Frame frame : frames) {
+                    if (frame.cell != null) {
+                        if (frame.cell.firstButton == null) {
+                            frame.cell.firstButton = button;
+                        }
+                        else if (parent.containsButton && frame.cell.secondButton == null) {
+                            frame.cell.secondButton = button;
+                        }
+                    }
+                }
+                if (parent.form != null && parent.form.button == null) {
+                    parent.form.button = button;
+                }
+                parent.containsButton = true;
+                Frame buttonFrame = push(new Frame(name, Kind.Button));
+                buttonFrame.text = button.text;
+                buttonFrame.ownText = button.ownText;
+                break;
+
+            case "a":
+                if (isOpen(name)) {
+                    throw new ShShapeDeviationException("Nested anchor");
+                }
+                push(new Frame(name, Kind.Inline));
+                break;
+
+            case "span":
+                Frame spanFrame = push(new Frame(name, Kind.Inline));
+                if (roomName == null && roomNameText == null && hasClass(tokenizer.getAttribute("class"), "roomName")) {
+                    if (contentTableFound) {
+                        throw new ShShapeDeviationException("Room name after the content table");
+                    }
+                    roomNameText = new StringBuilder();
+                    spanFrame.text = roomNameText;
+                    spanFrame.roomName = true;
+                }
+                String id = tokenizer.getAttribute("id");
+                if (id != null && id.toLowerCase(Locale.ROOT).contains("ma")) {
+                    for (Frame frame : frames) {
+                        if (frame.cell != null && frame.cell.milliAmp == null) {
+                            if (spanFrame.ownText == null) {
+                                spanFrame.ownText = new StringBuilder();
+                            }
+                            frame.cell.milliAmp = spanFrame.ownText;
+                        }
+                    }
+                }
+                break;
+
+            default:
+                push(new Frame(name, Kind.Inline));
+        }
+    }
+
+
+    /**
+     * Handles the start tag of a form within a cell.
+     */
+    private void startForm() {
+        ShStreamedCell.Form form = new ShStreamedCell.Form();
+        for (Frame frame : frames) {
+            if (frame.cell != null) {
+                frame.cell.containsBlock = true;
+                if (frame.cell.form == null) {
+                    frame.cell.form = form;
+                }
+            }
+        }
+        Frame formFrame = push(new Frame("form", Kind.Form));
+        formFrame.form = form;
+        formFrame.ownText = form.ownText;
+    }
+
+
+    /**
+     * Handles the start tag of a table within a cell.
+     *
+     * @param parent    The cell.
+     * @throws ShShapeDeviationException    The table deviates from the shape of the webpage.
+     */
+    private void startInnerTable(@NonNull Frame parent) throws ShShapeDeviationException {
+        if (parent.kind != Kind.Cell || parent.cellIndex != 1 || parent.cell.innerRows != null) {
+            throw new ShShapeDeviationException("Unexpected table in a cell of room " + roomName);
+        }
+        for (Frame frame : frames) {
+            if (frame.cell != null) {
+                frame.cell.containsBlock = true;
+            }
+        }
+        parent.cell.innerRows = new ArrayList<>();
+        push(new Frame("table", Kind.InnerTable)).rows = parent.cell.innerRows;
+    }
+
+
+    /**
+     * Handles the start tag of a table row.
+     *
+     * @param body  The table body which contains the row.
+     */
+    private void startRow(@NonNull Frame body) {
+        Frame row = new Frame("tr", body.kind == Kind.ContentBody ? Kind.ContentRow : Kind.InnerRow);
+        row.cells = new ArrayList<>();
+        if (row.kind == Kind.ContentRow) {
+            String classNames = tokenizer.getAttribute("class");
+            row.classNames = classNames != null ? classNames : "";
+        }
+        else {
+            body.rows.add(row.cells);
+        }
+        push(row);
+    }
+
+
+    /**
+     * Handles the end tag which was read last within a room.
+     *
+     * @throws ShShapeDeviationException    The end tag deviates from the shape of the webpage.
+     */
+    private void endElement() throws ShShapeDeviationException {
+        String name = tokenizer.getTagName();
+
+        // Cells, rows and bodies end implicitly with the elements that contain them.
+        Frame frame = top();
+        if ((name.equals("tr") || name.equals("tbody") || name.equals("table")) && (frame.kind == Kind.Cell || frame.kind == Kind.InnerCell)) {
+            endFrame();
+            frame = top();
+        }
+        if ((name.equals("tbody") || name.equals("table")) && (frame.kind == Kind.ContentRow || frame.kind == Kind.InnerRow)) {
+            endFrame();
+            frame = top();
+        }
+        if (name.equals("table") && (frame.kind == Kind.ContentBody || frame.kind == Kind.InnerBody)) {
+            endFrame();
+            frame = top();
+        }
+
+        if (!frame.tagName.equals(name)) {
+            throw new ShShapeDeviationException("Unexpected end tag " + name + " in " + frame.tagName);
+        }
+        endFrame();
+    }
+
+
+    /**
+     * Closes the innermost open element.
+     *
+     * @throws ShShapeDeviationException    The element deviates from the shape of the webpage.
+     */
+    private void endFrame() throws ShShapeDeviationException {
+        Frame frame = frames.remove(frames.size() - 1);
+        if (frame.kind == Kind.ContentRow && roomSearch != null) {
+            roomSearch.addRow(frame.classNames, frame.cells);
+        }
+        else if (frame.roomName && roomNameText != null) {
+            roomName = roomNameText.toString().trim();
+            roomNameText = null;
+        }
+    }
+
+
+    /**
+     * Adds text to the open elements.
+     *
+     * @param text  The text.
+     * @throws ShShapeDeviationException    The text is located within the table structure.
+     */
+    private void addText(@NonNull String text) throws ShShapeDeviationException {
+        Frame parent = top();
+        switch (parent.kind) {
+            case ContentTable:
+            case ContentBody:
+            case ContentRow:
+            case InnerTable:
+            case InnerBody:
+            case InnerRow:
+                // Jsoup moves text within the table structure in front of the table.
+                for (int i = 0; i < text.length(); i++) {
+                    if (!ShHtmlTokenizer.isWhitespace(text.charAt(i))) {
+                        throw new ShShapeDeviationException("Text within the table structure of room " + roomName);
+                    }
+                }
+                return;
+        }
+        for (Frame frame : frames) {
+            if (frame.text != null) {
+                StringUtil.appendNormalisedWhitespace(frame.text, text, endsWithSpace(frame.text));
+            }
+        }
+        if (parent.ownText != null) {
+            StringUtil.appendNormalisedWhitespace(parent.ownText, text, endsWithSpace(parent.ownText));
+        }
+    }
+
+
+    /**
+     * Adds a line break to the open elements.
+     */
+    private void addLineBreak() {
+        for (Frame frame : frames) {
+            if (frame.text != null && frame.text.length() > 0 && !endsWithSpace(frame.text)) {
+                frame.text.append(' ');
+            }
+        }
+        Frame parent = top();
+        if (parent.ownText != null && !endsWithSpace(parent.ownText)) {
+            parent.ownText.append(' ');
+        }
+    }
+
+
+    /**
+     * Pushes the element passed onto the open elements.
+     *
+     * @param frame The element.
+     * @return      The element.
+     */
+    @NonNull
+    private Frame push(@NonNull Frame frame) {
+        frames.add(frame);
+        return frame;
+    }
+
+
+    /**
+     * Returns the innermost open element.
+     *
+     * @return  The innermost open element.
+     */
+    @NonNull
+    private Frame top() {
+        return frames.get(frames.size() - 1);
+    }
+
+
+    /**
+     * Checks whether an element with the tag name passed is open.
+     *
+     * @param tagName   The tag name.
+     * @return          Whether such an element is open.
+     */
+    private boolean isOpen(@NonNull String tagName) {
+        for (Frame frame : frames) {
+            if (frame.tagName.equals(tagName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Checks whether the start tag which was read last is a div container with the class "room".
+     *
+     * @param name  The tag name.
+     * @return      Whether the start tag starts a room.
+     */
+    private boolean isRoom(@NonNull String name) {
+        return name.equals("div") && hasClass(tokenizer.getAttribute("class"), "room");
+    }
+
+
+    /**
+     * Checks whether the value of a class attribute contains the class passed, ignoring the case like
+     * {@link org.jsoup.nodes.Element#hasClass(String)}.
+     *
+     * @param classNames    The value of the class attribute or null.
+     * @param className     The class.
+     * @return              Whether the class is contained.
+     */
+    private static boolean hasClass(@Nullable String classNames, @NonNull String className) {
+        if (classNames == null) {
+            return false;
+        }
+        int length = classNames.length();
+        int start = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i == length || ShHtmlTokenizer.isWhitespace(classNames.charAt(i))) {
+                if (i - start == className.length() && classNames.regionMatches(true, start, className, 0, className.length())) {
+                    return true;
+                }
+                start = i + 1;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Checks whether the text passed ends with a space, like Jsoup does while collecting text.
+     *
+     * @param text  The text.
+     * @return      Whether the text ends with a space.
+     */
+    private static boolean endsWithSpace(@NonNull StringBuilder text) {
+        return text.length() != 0 && text.charAt(text.length() - 1) == ' ';
+    }
+
+}
@@ -0,0 +1,91 @@
+package de.christian2003.smarthome.data.model.history;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+
+/**
+ * Class models a batch of samples which are appended to the history at once. The samples are stored in
+ * primitive columns, so that no object is allocated per sample.
+ */
+public class ShHistoryBatch {
+
+    /**
+     * Attribute stores the times (in milliseconds since the epoch) of the samples.
+     */
+    @NonNull
+    long[] times;
+
+    /**
+     * Attribute stores the ids of the devices of the samples.
+     */
+    @NonNull
+    long[] deviceIds;
+
+    /**
+     * Attribute stores the codes of the metrics of the samples.
+     */
+    @NonNull
+    byte[] metrics;
+
+    /**
+     * Attribute stores the values of the samples.
+     */
+    @NonNull
+    double[] values;
+
+    /**
+     * Attribute stores the number of samples.
+     */
+    int size;
+
+
+    /**
+     * Constructor instantiates a new empty batch.
+     *
+     * @param capacity  Number of samples for which to allocate space initially.
+     */
+    public ShHistoryBatch(int capacity) {
+        capacity = Math.max(capacity, 8);
+        times = new long[capacity];
+        deviceIds = new long[capacity];
+        metrics = new byte[capacity];
+        values = new double[capacity];
+    }
+
+
+    /**
+     * Method adds a sample to the batch.
+     *
+     * @param time      Time (in milliseconds since the epoch) of the sample.
+     * @param deviceId  Id of the device.
+     * @param metric    Metric of the sample.
+     * @param value     Value of the sample.
+     */
+    public void add(long time, long deviceId, @NonNull ShHistoryMetric metric, double value) {
+        if (size == times.length) {
+            int capacity = size * 2;
+            times = Arrays.copyOf(times, capacity);
+            deviceIds = Arrays.copyOf(deviceIds, capacity);
+            metrics = Arrays.copyOf(metrics, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        times[size] = time;
+        deviceIds[size] = deviceId;
+        metrics[size] = (byte)metric.ordinal();
+        values[size] = value;
+        size++;
+    }
+
+
+    /**
+     * Method returns the number of samples of the batch.
+     *
+     * @return  Number of samples.
+     */
+    public int size() {
+        return size;
+    }
+
+}
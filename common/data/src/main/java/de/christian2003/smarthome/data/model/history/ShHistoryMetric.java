@@ -0,0 +1,72 @@
+package de.christian2003.smarthome.data.model.history;
+
+import androidx.annotation.Nullable;
+
+
+/**
+ * The different metrics of the devices of which the history is stored.
+ */
+public enum ShHistoryMetric {
+
+    /**
+     * The load (in "mA") of a light or outlet. Rollups store the mean of the load.
+     */
+    MilliAmp(true),
+
+    /**
+     * The energy (in "Wh") of a light or outlet. Since the energy is a counter, rollups store the last
+     * energy.
+     */
+    Wh(false),
+
+    /**
+     * The percentage to which a shutter is closed. Rollups store the mean of the percentage.
+     */
+    Percentage(true),
+
+    /**
+     * The state of an opening as the ordinal of its {@link de.christian2003.smarthome.data.model.devices.ShOpeningState}.
+     * Rollups store the last state.
+     */
+    OpeningState(false);
+
+
+    /**
+     * Attribute stores whether rollups store the mean of the samples of a bucket instead of the last
+     * sample.
+     */
+    private final boolean averaged;
+
+
+    /**
+     * Constructor instantiates a new metric.
+     *
+     * @param averaged  Whether rollups store the mean of the samples of a bucket.
+     */
+    ShHistoryMetric(boolean averaged) {
+        this.averaged = averaged;
+    }
+
+
+    /**
+     * Method returns whether rollups store the mean of the samples of a bucket instead of the last sample.
+     *
+     * @return  Whether the metric is averaged.
+     */
+    public boolean isAveraged() {
+        return averaged;
+    }
+
+    /**
+     * Method returns the metric with the code passed, as it is stored in a segment.
+     *
+     * @param code  Code of the metric.
+     * @return      The metric or null if the code is unknown.
+     */
+    @Nullable
+    public static ShHistoryMetric fromCode(int code) {
+        ShHistoryMetric[] metrics = values();
+        return code >= 0 && code < metrics.length ? metrics[code] : null;
+    }
+
+}
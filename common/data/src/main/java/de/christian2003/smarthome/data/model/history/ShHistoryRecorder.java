@@ -0,0 +1,158 @@
+package de.christian2003.smarthome.data.model.history;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import de.christian2003.smarthome.data.model.devices.ShGenericDevice;
+import de.christian2003.smarthome.data.model.devices.ShLight;
+import de.christian2003.smarthome.data.model.devices.ShMetrics;
+import de.christian2003.smarthome.data.model.devices.ShOpening;
+import de.christian2003.smarthome.data.model.devices.ShOutlet;
+import de.christian2003.smarthome.data.model.devices.ShShutter;
+import de.christian2003.smarthome.data.model.extraction.ShPageCache;
+import de.christian2003.smarthome.data.model.room.ShRoom;
+
+
+/**
+ * Class records one sample per metric of every device whenever the rooms are refreshed. The samples of a
+ * refresh are appended to the history store as a single batch on a background thread, so that the main
+ * thread never writes to the history.
+ */
+public class ShHistoryRecorder {
+
+    /**
+     * Executor on which the samples are taken and appended. A single thread keeps the samples ordered by
+     * their times.
+     */
+    private static final ExecutorService HISTORY_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "HistoryWriter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+
+    /**
+     * Attribute stores the store to which the samples are appended. This is null until the store is opened
+     * on the background thread.
+     */
+    @Nullable
+    private volatile ShHistoryStore store;
+
+
+    /**
+     * Constructor instantiates a new recorder. The store is opened on the background thread.
+     *
+     * @param context   The current context.
+     */
+    public ShHistoryRecorder(@NonNull Context context) {
+        Context applicationContext = context.getApplicationContext() != null ? context.getApplicationContext() : context;
+        HISTORY_EXECUTOR.execute(() -> store = new ShHistoryStore(applicationContext));
+    }
+
+
+    /**
+     * Method records the metrics of the devices of the rooms passed with the current time. The rooms are
+     * sampled on the background thread, which is safe since rooms are not changed after their extraction.
+     *
+     * @param rooms Rooms whose devices to record.
+     */
+    public void record(@NonNull List<ShRoom> rooms) {
+        long time = System.currentTimeMillis();
+        List<ShRoom> recordedRooms = new ArrayList<>(rooms);
+        HISTORY_EXECUTOR.execute(() -> {
+            ShHistoryStore store = this.store;
+            if (store == null) {
+                return;
+            }
+            long start = System.nanoTime();
+            ShHistoryBatch batch = sample(recordedRooms, time);
+            store.append(batch);
+            store.compact(time);
+            Log.d("History", "Recorded " + batch.size() + " samples in " + (System.nanoTime() - start) / 1000 + " µs");
+        });
+    }
+
+
+    /**
+     * Method returns the store to which the samples are appended.
+     *
+     * @return  The store or null if it is not opened yet.
+     */
+    @Nullable
+    public ShHistoryStore getStore() {
+        return store;
+    }
+
+
+    /**
+     * Method takes one sample per metric of every device of the rooms passed. Metrics which are missing or
+     * could not be parsed are not sampled.
+     *
+     * @param rooms Rooms whose devices to sample.
+     * @param time  Time (in milliseconds since the epoch) of the samples.
+     * @return      Batch of the samples.
+     */
+    @NonNull
+    public static ShHistoryBatch sample(@NonNull List<ShRoom> rooms, long time) {
+        ShHistoryBatch batch = new ShHistoryBatch(rooms.size() * 8);
+        for (ShRoom room : rooms) {
+            for (ShGenericDevice device : room.getDevices()) {
+                long deviceId = getDeviceId(device);
+                if (device instanceof ShLight) {
+                    ShLight light = (ShLight)device;
+                    addSample(batch, time, deviceId, ShHistoryMetric.MilliAmp, light.getMilliAmpValue());
+                    addSample(batch, time, deviceId, ShHistoryMetric.Wh, light.getWhValue());
+                }
+                else if (device instanceof ShOutlet) {
+                    ShOutlet outlet = (ShOutlet)device;
+                    addSample(batch, time, deviceId, ShHistoryMetric.MilliAmp, outlet.getAmperageValue());
+                    addSample(batch, time, deviceId, ShHistoryMetric.Wh, outlet.getPowerConsumptionValue());
+                }
+                else if (device instanceof ShShutter) {
+                    addSample(batch, time, deviceId, ShHistoryMetric.Percentage, ((ShShutter)device).getPercentageValue());
+                }
+                else if (device instanceof ShOpening) {
+                    batch.add(time, deviceId, ShHistoryMetric.OpeningState, ((ShOpening)device).getOpeningState().ordinal());
+                }
+            }
+        }
+        return batch;
+    }
+
+
+    /**
+     * Method adds a sample to the batch passed unless the value is missing.
+     *
+     * @param batch     Batch to which to add the sample.
+     * @param time      Time (in milliseconds since the epoch) of the sample.
+     * @param deviceId  Id of the device.
+     * @param metric    Metric of the sample.
+     * @param value     Value of the sample or {@link ShMetrics#NO_VALUE}.
+     */
+    private static void addSample(@NonNull ShHistoryBatch batch, long time, long deviceId, @NonNull ShHistoryMetric metric, long value) {
+        if (value != ShMetrics.NO_VALUE) {
+            batch.add(time, deviceId, metric, value);
+        }
+    }
+
+
+    /**
+     * Method returns the id under which the history of a device is stored. The id is derived from the
+     * {@link ShGenericDevice#getId() id} of the device, so that it stays the same across refreshes.
+     *
+     * @param device    The device.
+     * @return          Id of the device.
+     */
+    public static long getDeviceId(@NonNull ShGenericDevice device) {
+        return ShPageCache.hash(device.getId());
+    }
+
+}
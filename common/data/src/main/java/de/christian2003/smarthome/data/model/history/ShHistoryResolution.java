@@ -0,0 +1,81 @@
+package de.christian2003.smarthome.data.model.history;
+
+import androidx.annotation.Nullable;
+
+
+/**
+ * The different resolutions in which the history is stored. Samples are appended in the raw resolution and
+ * downsampled to the next coarser resolution once they exceed the retention of their resolution.
+ */
+public enum ShHistoryResolution {
+
+    /**
+     * One sample per device per refresh, which are kept for six hours.
+     */
+    Raw(0, 6L * 60 * 60 * 1000),
+
+    /**
+     * Rollups of one minute, which are kept for seven days.
+     */
+    Minute(60L * 1000, 7L * 24 * 60 * 60 * 1000),
+
+    /**
+     * Rollups of one hour, which are kept for two years.
+     */
+    Hour(60L * 60 * 1000, 2L * 365 * 24 * 60 * 60 * 1000);
+
+
+    /**
+     * Attribute stores the length (in milliseconds) of the buckets of the resolution or 0 for the raw
+     * samples.
+     */
+    private final long bucket;
+
+    /**
+     * Attribute stores the time (in milliseconds) for which the samples of the resolution are kept.
+     */
+    private final long retention;
+
+
+    /**
+     * Constructor instantiates a new resolution.
+     *
+     * @param bucket    Length (in milliseconds) of the buckets.
+     * @param retention Time (in milliseconds) for which the samples are kept.
+     */
+    ShHistoryResolution(long bucket, long retention) {
+        this.bucket = bucket;
+        this.retention = retention;
+    }
+
+
+    /**
+     * Method returns the length of the buckets of the resolution.
+     *
+     * @return  Length (in milliseconds) of the buckets or 0 for the raw samples.
+     */
+    public long getBucket() {
+        return bucket;
+    }
+
+    /**
+     * Method returns the time for which the samples of the resolution are kept.
+     *
+     * @return  Retention (in milliseconds).
+     */
+    public long getRetention() {
+        return retention;
+    }
+
+    /**
+     * Method returns the next coarser resolution into which the samples are downsampled.
+     *
+     * @return  The next coarser resolution or null if the samples are deleted once they expire.
+     */
+    @Nullable
+    public ShHistoryResolution getRollup() {
+        ShHistoryResolution[] resolutions = values();
+        return ordinal() + 1 < resolutions.length ? resolutions[ordinal() + 1] : null;
+    }
+
+}
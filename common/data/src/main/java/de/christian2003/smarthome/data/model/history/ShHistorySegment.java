@@ -0,0 +1,516 @@
+package de.christian2003.smarthome.data.model.history;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Class models a segment of the history, which is a file of fixed size that is memory-mapped and to which
+ * samples are only appended. The samples are stored in primitive columns (times, device ids, metric codes
+ * and values), which follow a header of 64 bytes:
+ * <pre>
+ *     int  magic
+ *     int  version
+ *     int  resolution
+ *     int  capacity
+ *     int  count
+ *     long min time
+ *     long max time
+ * </pre>
+ * The columns of a sample are written before the count is incremented, so that an interrupted append never
+ * exposes a partially written sample. The times of the samples never decrease, which allows to find the
+ * samples of a time range through binary search.
+ */
+class ShHistorySegment {
+
+    /**
+     * Magic number with which every segment starts.
+     */
+    private static final int MAGIC = 0x53484853;
+
+    /**
+     * Version of the segment format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Size (in bytes) of the header.
+     */
+    private static final int HEADER_SIZE = 64;
+
+    /**
+     * Offset of the count within the header.
+     */
+    private static final int COUNT_OFFSET = 16;
+
+    /**
+     * Offset of the min time within the header.
+     */
+    private static final int MIN_TIME_OFFSET = 24;
+
+    /**
+     * Offset of the max time within the header.
+     */
+    private static final int MAX_TIME_OFFSET = 32;
+
+
+    /**
+     * Attribute stores the file of the segment.
+     */
+    @NonNull
+    private final File file;
+
+    /**
+     * Attribute stores the sequence number of the segment, which orders the segments of a resolution.
+     */
+    private final long sequence;
+
+    /**
+     * Attribute stores the resolution of the samples of the segment.
+     */
+    @NonNull
+    private final ShHistoryResolution resolution;
+
+    /**
+     * Attribute stores the number of samples which fit into the segment.
+     */
+    private final int capacity;
+
+    /**
+     * Attribute stores the memory-mapped content of the segment.
+     */
+    @NonNull
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Attribute stores the offset of the column of the times.
+     */
+    private final int timesOffset;
+
+    /**
+     * Attribute stores the offset of the column of the device ids.
+     */
+    private final int deviceIdsOffset;
+
+    /**
+     * Attribute stores the offset of the column of the metric codes.
+     */
+    private final int metricsOffset;
+
+    /**
+     * Attribute stores the offset of the column of the values.
+     */
+    private final int valuesOffset;
+
+    /**
+     * Attribute stores the number of samples of the segment.
+     */
+    private int count;
+
+    /**
+     * Attribute stores the time of the first sample.
+     */
+    private long minTime;
+
+    /**
+     * Attribute stores the time of the last sample.
+     */
+    private long maxTime;
+
+    /**
+     * Attribute stores the positions of the samples by their device ids and metrics. The index is built on
+     * the first query once the segment is full and is null before.
+     */
+    @Nullable
+    private ArrayList<HashMap<Long, int[]>> index;
+
+
+    /**
+     * Constructor instantiates a segment for the mapped content passed.
+     *
+     * @param file          File of the segment.
+     * @param sequence      Sequence number of the segment.
+     * @param resolution    Resolution of the samples.
+     * @param capacity      Number of samples which fit into the segment.
+     * @param buffer        Memory-mapped content of the segment.
+     */
+    private ShHistorySegment(@NonNull File file, long sequence, @NonNull ShHistoryResolution resolution, int capacity, @NonNull MappedByteBuffer buffer) {
+        this.file = file;
+        this.sequence = sequence;
+        this.resolution = resolution;
+        this.capacity = capacity;
+        this.buffer = buffer;
+        timesOffset = HEADER_SIZE;
+        deviceIdsOffset = timesOffset + capacity * 8;
+        metricsOffset = deviceIdsOffset + capacity * 8;
+        valuesOffset = metricsOffset + (capacity + 7) / 8 * 8;
+        count = buffer.getInt(COUNT_OFFSET);
+        minTime = buffer.getLong(MIN_TIME_OFFSET);
+        maxTime = buffer.getLong(MAX_TIME_OFFSET);
+    }
+
+
+    /**
+     * Method creates a new empty segment.
+     *
+     * @param file          File of the segment, which must not exist.
+     * @param sequence      Sequence number of the segment.
+     * @param resolution    Resolution of the samples.
+     * @param capacity      Number of samples which fit into the segment.
+     * @return              The new segment.
+     * @throws IOException  The segment could not be created.
+     */
+    @NonNull
+    static ShHistorySegment create(@NonNull File file, long sequence, @NonNull ShHistoryResolution resolution, int capacity) throws IOException {
+        MappedByteBuffer buffer = map(file, getSize(capacity));
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, resolution.ordinal());
+        buffer.putInt(12, capacity);
+        buffer.putInt(COUNT_OFFSET, 0);
+        buffer.putLong(MIN_TIME_OFFSET, 0);
+        buffer.putLong(MAX_TIME_OFFSET, 0);
+        return new ShHistorySegment(file, sequence, resolution, capacity, buffer);
+    }
+
+
+    /**
+     * Method opens an existing segment.
+     *
+     * @param file          File of the segment.
+     * @param sequence      Sequence number of the segment.
+     * @return              The segment.
+     * @throws IOException  The segment could not be read or is corrupt.
+     */
+    @NonNull
+    static ShHistorySegment open(@NonNull File file, long sequence) throws IOException {
+        MappedByteBuffer buffer = map(file, file.length());
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported segment " + file.getName());
+        }
+        ShHistoryResolution[] resolutions = ShHistoryResolution.values();
+        int resolution = buffer.getInt(8);
+        int capacity = buffer.getInt(12);
+        int count = buffer.getInt(COUNT_OFFSET);
+        if (resolution < 0 || resolution >= resolutions.length || capacity <= 0 || count < 0 || count > capacity || buffer.capacity() != getSize(capacity)) {
+            throw new IOException("Corrupt segment " + file.getName());
+        }
+        return new ShHistorySegment(file, sequence, resolutions[resolution], capacity, buffer);
+    }
+
+
+    /**
+     * Method returns the size of a segment, i.e. of the header and the columns. The column of the metric
+     * codes is padded to 8 bytes, so that the values are aligned.
+     *
+     * @param capacity  Number of samples which fit into the segment.
+     * @return          Size (in bytes) of the segment.
+     */
+    private static long getSize(int capacity) {
+        return HEADER_SIZE + capacity * 24L + (capacity + 7) / 8 * 8;
+    }
+
+
+    /**
+     * Method maps the file passed into memory.
+     *
+     * @param file          File to map.
+     * @param size          Size (in bytes) of the file.
+     * @return              Memory-mapped content of the file.
+     * @throws IOException  The file could not be mapped.
+     */
+    @NonNull
+    private static MappedByteBuffer map(@NonNull File file, long size) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            if (randomAccessFile.length() != size) {
+                randomAccessFile.setLength(size);
+            }
+            //The mapping stays valid after the channel is closed:
+            return randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+
+    /**
+     * Method appends the samples of the batch passed, starting at the offset passed, until the segment is
+     * full. Samples whose times precede the last sample of the segment, e.g. because the clock was turned
+     * back, are appended with the time of the last sample.
+     *
+     * @param batch     Batch whose samples to append.
+     * @param offset    Index of the first sample of the batch to append.
+     * @return          Number of samples appended.
+     */
+    int append(@NonNull ShHistoryBatch batch, int offset) {
+        int appended = Math.min(batch.size - offset, capacity - count);
+        long time = maxTime;
+        for (int i = 0; i < appended; i++) {
+            int position = count + i;
+            time = count == 0 && i == 0 ? batch.times[offset] : Math.max(time, batch.times[offset + i]);
+            buffer.putLong(timesOffset + position * 8, time);
+            buffer.putLong(deviceIdsOffset + position * 8, batch.deviceIds[offset + i]);
+            buffer.put(metricsOffset + position, batch.metrics[offset + i]);
+            buffer.putDouble(valuesOffset + position * 8, batch.values[offset + i]);
+        }
+        if (appended > 0) {
+            if (count == 0) {
+                minTime = batch.times[offset];
+                buffer.putLong(MIN_TIME_OFFSET, minTime);
+            }
+            maxTime = time;
+            buffer.putLong(MAX_TIME_OFFSET, maxTime);
+            count += appended;
+            buffer.putInt(COUNT_OFFSET, count);
+        }
+        return appended;
+    }
+
+
+    /**
+     * Method collects the samples of a metric of a device within a time range.
+     *
+     * @param deviceId  Id of the device.
+     * @param metric    Metric of the samples.
+     * @param from      Start (inclusive, in milliseconds since the epoch) of the time range.
+     * @param to        End (inclusive, in milliseconds since the epoch) of the time range.
+     * @param series    Builder to which the samples are added.
+     */
+    void collect(long deviceId, @NonNull ShHistoryMetric metric, long from, long to, @NonNull ShHistorySeriesBuilder series) {
+        if (count == 0 || maxTime < from || minTime > to) {
+            return;
+        }
+        if (isFull()) {
+            //Only look at the samples of the device through the index:
+            int[] positions = getIndex().get(metric.ordinal()).get(deviceId);
+            if (positions == null) {
+                return;
+            }
+            int start = lowerBound(positions, from);
+            for (int i = start; i < positions.length; i++) {
+                long time = getTime(positions[i]);
+                if (time > to) {
+                    break;
+                }
+                series.add(time, getValue(positions[i]));
+            }
+        }
+        else {
+            int code = metric.ordinal();
+            for (int position = lowerBound(null, from); position < count; position++) {
+                long time = getTime(position);
+                if (time > to) {
+                    break;
+                }
+                if (getDeviceId(position) == deviceId && getMetric(position) == code) {
+                    series.add(time, getValue(position));
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Method finds the first of the positions passed whose sample is not before the time passed.
+     *
+     * @param positions Positions of the samples in which to search or null to search all samples.
+     * @param time      Time (in milliseconds since the epoch).
+     * @return          Index of the first position whose sample is not before the time.
+     */
+    private int lowerBound(@Nullable int[] positions, long time) {
+        int low = 0;
+        int high = positions != null ? positions.length : count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (getTime(positions != null ? positions[middle] : middle) < time) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+
+    /**
+     * Method returns the index of the positions of the samples by their metrics and device ids.
+     *
+     * @return  Index with one map from device ids to positions per metric.
+     */
+    @NonNull
+    private ArrayList<HashMap<Long, int[]>> getIndex() {
+        if (index == null) {
+            int metrics = ShHistoryMetric.values().length;
+            ArrayList<HashMap<Long, int[]>> index = new ArrayList<>(metrics);
+            ArrayList<HashMap<Long, int[]>> sizes = new ArrayList<>(metrics);
+            for (int i = 0; i < metrics; i++) {
+                index.add(new HashMap<>());
+                sizes.add(new HashMap<>());
+            }
+
+            //Count the samples of every device, so that the positions can be stored without resizing:
+            for (int position = 0; position < count; position++) {
+                int code = getMetric(position);
+                if (code >= 0 && code < metrics) {
+                    long deviceId = getDeviceId(position);
+                    int[] size = sizes.get(code).get(deviceId);
+                    if (size == null) {
+                        sizes.get(code).put(deviceId, new int[]{1});
+                    }
+                    else {
+                        size[0]++;
+                    }
+                }
+            }
+            for (int i = 0; i < metrics; i++) {
+                for (Map.Entry<Long, int[]> entry : sizes.get(i).entrySet()) {
+                    index.get(i).put(entry.getKey(), new int[entry.getValue()[0]]);
+                    entry.getValue()[0] = 0;
+                }
+            }
+            for (int position = 0; position < count; position++) {
+                int code = getMetric(position);
+                if (code >= 0 && code < metrics) {
+                    long deviceId = getDeviceId(position);
+                    index.get(code).get(deviceId)[sizes.get(code).get(deviceId)[0]++] = position;
+                }
+            }
+            this.index = index;
+        }
+        return index;
+    }
+
+
+    /**
+     * Method discards the index of the segment to free its memory. The index is built again on the next
+     * query.
+     */
+    void discardIndex() {
+        index = null;
+    }
+
+
+    /**
+     * Method returns whether the index of the segment is built.
+     *
+     * @return  Whether the index is built.
+     */
+    boolean hasIndex() {
+        return index != null;
+    }
+
+
+    /**
+     * Method returns the time of a sample.
+     *
+     * @param position  Position of the sample.
+     * @return          Time (in milliseconds since the epoch) of the sample.
+     */
+    long getTime(int position) {
+        return buffer.getLong(timesOffset + position * 8);
+    }
+
+    /**
+     * Method returns the device id of a sample.
+     *
+     * @param position  Position of the sample.
+     * @return          Id of the device of the sample.
+     */
+    long getDeviceId(int position) {
+        return buffer.getLong(deviceIdsOffset + position * 8);
+    }
+
+    /**
+     * Method returns the metric code of a sample.
+     *
+     * @param position  Position of the sample.
+     * @return          Code of the metric of the sample.
+     */
+    int getMetric(int position) {
+        return buffer.get(metricsOffset + position);
+    }
+
+    /**
+     * Method returns the value of a sample.
+     *
+     * @param position  Position of the sample.
+     * @return          Value of the sample.
+     */
+    double getValue(int position) {
+        return buffer.getDouble(valuesOffset + position * 8);
+    }
+
+    /**
+     * Method returns whether no further samples can be appended to the segment.
+     *
+     * @return  Whether the segment is full.
+     */
+    boolean isFull() {
+        return count == capacity;
+    }
+
+    /**
+     * Method returns the number of samples of the segment.
+     *
+     * @return  Number of samples.
+     */
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Method returns the time of the first sample of the segment.
+     *
+     * @return  Time (in milliseconds since the epoch) of the first sample.
+     */
+    long getMinTime() {
+        return minTime;
+    }
+
+    /**
+     * Method returns the time of the last sample of the segment.
+     *
+     * @return  Time (in milliseconds since the epoch) of the last sample.
+     */
+    long getMaxTime() {
+        return maxTime;
+    }
+
+    /**
+     * Method returns the resolution of the samples of the segment.
+     *
+     * @return  Resolution of the samples.
+     */
+    @NonNull
+    ShHistoryResolution getResolution() {
+        return resolution;
+    }
+
+    /**
+     * Method returns the sequence number of the segment.
+     *
+     * @return  Sequence number.
+     */
+    long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Method deletes the file of the segment. The segment must not be used afterwards.
+     */
+    void delete() {
+        index = null;
+        if (!file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+package de.christian2003.smarthome.data.model.history;
+
+import androidx.annotation.NonNull;
+import androidx.compose.runtime.Immutable;
+
+import java.util.Arrays;
+
+
+/**
+ * Class models the samples of a metric of a device within a time range, ordered by their times.
+ */
+@Immutable
+public class ShHistorySeries {
+
+    /**
+     * Attribute stores the times (in milliseconds since the epoch) of the samples.
+     */
+    @NonNull
+    private final long[] times;
+
+    /**
+     * Attribute stores the values of the samples.
+     */
+    @NonNull
+    private final double[] values;
+
+    /**
+     * Attribute stores the number of samples.
+     */
+    private final int size;
+
+
+    /**
+     * Constructor instantiates a new series.
+     *
+     * @param times     Times of the samples. Only the first samples up to the size are used.
+     * @param values    Values of the samples. Only the first samples up to the size are used.
+     * @param size      Number of samples.
+     */
+    public ShHistorySeries(@NonNull long[] times, @NonNull double[] values, int size) {
+        this.times = times;
+        this.values = values;
+        this.size = size;
+    }
+
+
+    /**
+     * Method returns the number of samples.
+     *
+     * @return  Number of samples.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Method returns the time of a sample.
+     *
+     * @param index Index of the sample.
+     * @return      Time (in milliseconds since the epoch) of the sample.
+     */
+    public long getTime(int index) {
+        return times[index];
+    }
+
+    /**
+     * Method returns the value of a sample.
+     *
+     * @param index Index of the sample.
+     * @return      Value of the sample.
+     */
+    public double getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * Method returns the smallest value of the samples.
+     *
+     * @return  Smallest value or {@link Double#NaN} if the series is empty.
+     */
+    public double getMin() {
+        double min = Double.NaN;
+        for (int i = 0; i < size; i++) {
+            if (!(values[i] >= min)) {
+                min = values[i];
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Method returns the largest value of the samples.
+     *
+     * @return  Largest value or {@link Double#NaN} if the series is empty.
+     */
+    public double getMax() {
+        double max = Double.NaN;
+        for (int i = 0; i < size; i++) {
+            if (!(values[i] <= max)) {
+                max = values[i];
+            }
+        }
+        return max;
+    }
+
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "ShHistorySeries" + Arrays.toString(Arrays.copyOf(values, size));
+    }
+
+}
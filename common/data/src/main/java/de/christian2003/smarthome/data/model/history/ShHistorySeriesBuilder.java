@@ -0,0 +1,119 @@
+package de.christian2003.smarthome.data.model.history;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+
+/**
+ * Class builds a series from samples which are added in the order of their times. The samples are
+ * downsampled into buckets of fixed length, so that a series of a long time range contains a bounded number
+ * of samples. The value of a bucket is the mean or the last value of its samples, depending on the metric.
+ * Samples with the same time are always combined, since a rollup bucket can be stored once per compaction.
+ */
+class ShHistorySeriesBuilder {
+
+    /**
+     * Attribute stores whether the value of a bucket is the mean of its samples instead of the last value.
+     */
+    private final boolean averaged;
+
+    /**
+     * Attribute stores the start (in milliseconds since the epoch) of the time range of the series.
+     */
+    private final long from;
+
+    /**
+     * Attribute stores the length (in milliseconds) of the buckets or 0 if the samples are not downsampled.
+     */
+    private final long bucket;
+
+    /**
+     * Attribute stores the times of the buckets.
+     */
+    @NonNull
+    private long[] times;
+
+    /**
+     * Attribute stores the values of the buckets.
+     */
+    @NonNull
+    private double[] values;
+
+    /**
+     * Attribute stores the number of buckets.
+     */
+    private int size;
+
+    /**
+     * Attribute stores the index of the bucket of the last sample or its time if the samples are not
+     * downsampled.
+     */
+    private long lastBucket;
+
+    /**
+     * Attribute stores the sum of the values of the samples of the last bucket.
+     */
+    private double sum;
+
+    /**
+     * Attribute stores the number of samples of the last bucket.
+     */
+    private int samples;
+
+
+    /**
+     * Constructor instantiates a new builder.
+     *
+     * @param metric    Metric of the samples.
+     * @param from      Start (in milliseconds since the epoch) of the time range of the series.
+     * @param to        End (in milliseconds since the epoch) of the time range of the series.
+     * @param maxSize   Maximum number of samples of the series or 0 to not downsample the samples.
+     */
+    ShHistorySeriesBuilder(@NonNull ShHistoryMetric metric, long from, long to, int maxSize) {
+        this.averaged = metric.isAveraged();
+        this.from = from;
+        this.bucket = maxSize > 0 ? Math.max(1, (to - from) / maxSize + 1) : 0;
+        times = new long[16];
+        values = new double[16];
+    }
+
+
+    /**
+     * Method adds a sample. The samples must be added in the order of their times.
+     *
+     * @param time  Time (in milliseconds since the epoch) of the sample.
+     * @param value Value of the sample.
+     */
+    void add(long time, double value) {
+        long currentBucket = bucket > 0 ? (time - from) / bucket : time;
+        if (size > 0 && currentBucket == lastBucket) {
+            sum += value;
+            samples++;
+            values[size - 1] = averaged ? sum / samples : value;
+            return;
+        }
+        if (size == times.length) {
+            times = Arrays.copyOf(times, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        times[size] = bucket > 0 ? from + currentBucket * bucket : time;
+        values[size] = value;
+        size++;
+        lastBucket = currentBucket;
+        sum = value;
+        samples = 1;
+    }
+
+
+    /**
+     * Method builds the series of the samples added.
+     *
+     * @return  Series of the samples.
+     */
+    @NonNull
+    ShHistorySeries build() {
+        return new ShHistorySeries(times, values, size);
+    }
+
+}
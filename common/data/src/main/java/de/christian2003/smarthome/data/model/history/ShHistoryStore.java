@@ -0,0 +1,361 @@
+package de.christian2003.smarthome.data.model.history;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+
+/**
+ * Class stores the history of the metrics of the devices in the internal storage of the app. The samples
+ * are appended to memory-mapped segments of fixed size. Once the samples of a segment exceed the retention
+ * of their resolution, the segment is downsampled into the next coarser resolution and deleted, i.e. the
+ * raw samples are rolled up into buckets of one minute and those into buckets of one hour. Since the
+ * segments of a resolution are compacted from the oldest to the newest, the coarser resolutions always
+ * contain older samples than the finer resolutions.
+ * All methods are thread safe. They perform file operations and should not be called from main thread.
+ */
+public class ShHistoryStore {
+
+    /**
+     * Name of the directory in which the segments are stored.
+     */
+    private static final String DIRECTORY_NAME = "history";
+
+    /**
+     * Extension of the files of the segments.
+     */
+    private static final String EXTENSION = ".seg";
+
+    /**
+     * Number of samples which fit into a segment.
+     */
+    public static final int SEGMENT_CAPACITY = 16384;
+
+    /**
+     * Number of full segments whose indexes are kept in memory.
+     */
+    private static final int INDEXED_SEGMENTS = 64;
+
+
+    /**
+     * Directory in which the segments are stored.
+     */
+    @NonNull
+    private final File directory;
+
+    /**
+     * Number of samples which fit into a new segment.
+     */
+    private final int segmentCapacity;
+
+    /**
+     * Segments of every resolution, ordered from the oldest to the newest.
+     */
+    @NonNull
+    private final EnumMap<ShHistoryResolution, ArrayList<ShHistorySegment>> segments;
+
+    /**
+     * Full segments whose indexes are built, ordered from the least recently to the most recently queried.
+     */
+    @NonNull
+    private final LinkedHashMap<ShHistorySegment, Boolean> indexedSegments;
+
+    /**
+     * Sequence number of the next segment.
+     */
+    private long nextSequence;
+
+
+    /**
+     * Constructor instantiates a new history store in the internal storage of the app.
+     *
+     * @param context   The current context.
+     */
+    public ShHistoryStore(@NonNull Context context) {
+        this(new File(context.getFilesDir(), DIRECTORY_NAME), SEGMENT_CAPACITY);
+    }
+
+    /**
+     * Constructor instantiates a new history store in the directory passed. The segments which are stored
+     * in the directory are opened, corrupt segments are deleted.
+     *
+     * @param directory         Directory in which the segments are stored.
+     * @param segmentCapacity   Number of samples which fit into a new segment.
+     */
+    public ShHistoryStore(@NonNull File directory, int segmentCapacity) {
+        this.directory = directory;
+        this.segmentCapacity = segmentCapacity;
+        this.segments = new EnumMap<>(ShHistoryResolution.class);
+        this.indexedSegments = new LinkedHashMap<>(16, 0.75f, true);
+        for (ShHistoryResolution resolution : ShHistoryResolution.values()) {
+            segments.put(resolution, new ArrayList<>());
+        }
+        openSegments();
+    }
+
+
+    /**
+     * Method opens the segments which are stored in the directory.
+     */
+    private void openSegments() {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (!name.endsWith(EXTENSION)) {
+                continue;
+            }
+            try {
+                long sequence = Long.parseLong(name.substring(0, name.length() - EXTENSION.length()));
+                ShHistorySegment segment = ShHistorySegment.open(file, sequence);
+                segments.get(segment.getResolution()).add(segment);
+                nextSequence = Math.max(nextSequence, sequence + 1);
+            }
+            catch (IOException | NumberFormatException e) {
+                Log.e("History", "Discarding corrupt segment: " + e.getMessage());
+                if (!file.delete()) {
+                    file.deleteOnExit();
+                }
+            }
+        }
+        for (ArrayList<ShHistorySegment> resolutionSegments : segments.values()) {
+            Collections.sort(resolutionSegments, new Comparator<ShHistorySegment>() {
+                @Override
+                public int compare(ShHistorySegment a, ShHistorySegment b) {
+                    return Long.compare(a.getSequence(), b.getSequence());
+                }
+            });
+        }
+    }
+
+
+    /**
+     * Method appends the raw samples passed. The samples must be ordered by their times.
+     *
+     * @param batch Batch of the samples to append.
+     */
+    public synchronized void append(@NonNull ShHistoryBatch batch) {
+        append(ShHistoryResolution.Raw, batch);
+    }
+
+
+    /**
+     * Method appends the samples passed to the segments of the resolution passed. A new segment is created
+     * whenever the newest segment is full.
+     *
+     * @param resolution    Resolution of the samples.
+     * @param batch         Batch of the samples to append.
+     */
+    private void append(@NonNull ShHistoryResolution resolution, @NonNull ShHistoryBatch batch) {
+        ArrayList<ShHistorySegment> resolutionSegments = segments.get(resolution);
+        int offset = 0;
+        while (offset < batch.size) {
+            ShHistorySegment segment = resolutionSegments.isEmpty() ? null : resolutionSegments.get(resolutionSegments.size() - 1);
+            if (segment == null || segment.isFull()) {
+                try {
+                    if (!directory.isDirectory() && !directory.mkdirs()) {
+                        throw new IOException("Cannot create " + directory.getName());
+                    }
+                    long sequence = nextSequence++;
+                    segment = ShHistorySegment.create(new File(directory, String.format(Locale.ROOT, "%012d%s", sequence, EXTENSION)), sequence, resolution, segmentCapacity);
+                }
+                catch (IOException e) {
+                    Log.e("History", "Cannot create segment: " + e.getMessage());
+                    return;
+                }
+                resolutionSegments.add(segment);
+            }
+            offset += segment.append(batch, offset);
+        }
+    }
+
+
+    /**
+     * Method compacts the segments whose samples exceed the retention of their resolution. The samples of
+     * such segments are downsampled into the next coarser resolution and the segments are deleted. Since
+     * whole segments are compacted, samples are kept slightly longer than the retention. A segment whose
+     * last bucket is continued by the next segment is kept until the next segment is compacted as well, so
+     * that every bucket is rolled up exactly once.
+     *
+     * @param now   The current time (in milliseconds since the epoch).
+     */
+    public synchronized void compact(long now) {
+        for (ShHistoryResolution resolution : ShHistoryResolution.values()) {
+            ArrayList<ShHistorySegment> resolutionSegments = segments.get(resolution);
+            ShHistoryResolution rollup = resolution.getRollup();
+            int expired = 0;
+            while (expired < resolutionSegments.size() && resolutionSegments.get(expired).getMaxTime() < now - resolution.getRetention()) {
+                expired++;
+            }
+            //Keep the newest expired segments whose last bucket is still open in the segment which follows them:
+            while (rollup != null && expired > 0 && expired < resolutionSegments.size() && isBucketContinued(resolutionSegments.get(expired - 1), resolutionSegments.get(expired), rollup.getBucket())) {
+                expired--;
+            }
+            if (expired == 0) {
+                continue;
+            }
+            ArrayList<ShHistorySegment> expiredSegments = new ArrayList<>(resolutionSegments.subList(0, expired));
+            resolutionSegments.subList(0, expired).clear();
+            if (rollup != null) {
+                //The expired segments are downsampled together, so that buckets are not split between them:
+                append(rollup, downsample(expiredSegments, rollup.getBucket()));
+            }
+            for (ShHistorySegment segment : expiredSegments) {
+                indexedSegments.remove(segment);
+                segment.delete();
+            }
+        }
+    }
+
+
+    /**
+     * Method returns whether the first sample of a segment falls into the same bucket as the last sample of
+     * the segment before it.
+     *
+     * @param segment       The older segment.
+     * @param nextSegment   The segment which follows the older segment.
+     * @param bucket        Length (in milliseconds) of the buckets.
+     * @return              Whether the last bucket of the older segment is continued by the next segment.
+     */
+    private static boolean isBucketContinued(@NonNull ShHistorySegment segment, @NonNull ShHistorySegment nextSegment, long bucket) {
+        long lastBucket = segment.getMaxTime() - Math.floorMod(segment.getMaxTime(), bucket);
+        return nextSegment.getCount() > 0 && nextSegment.getMinTime() - lastBucket < bucket;
+    }
+
+
+    /**
+     * Method downsamples the samples of the segments passed into buckets of the length passed. The samples
+     * of a bucket are combined into a single sample per device and metric, whose time is the start of the
+     * bucket.
+     *
+     * @param segments  Segments whose samples to downsample, ordered from the oldest to the newest.
+     * @param bucket    Length (in milliseconds) of the buckets.
+     * @return          Downsampled samples, ordered by their times.
+     */
+    @NonNull
+    private static ShHistoryBatch downsample(@NonNull ArrayList<ShHistorySegment> segments, long bucket) {
+        ShHistoryMetric[] metrics = ShHistoryMetric.values();
+        ShHistoryBatch batch = new ShHistoryBatch(segments.size() * 64);
+        //The accumulators of every metric store the sum, the number and the last value of the samples by device:
+        ArrayList<LinkedHashMap<Long, double[]>> accumulators = new ArrayList<>(metrics.length);
+        for (int i = 0; i < metrics.length; i++) {
+            accumulators.add(new LinkedHashMap<Long, double[]>());
+        }
+        long currentBucket = Long.MIN_VALUE;
+        for (ShHistorySegment segment : segments) {
+            for (int position = 0; position < segment.getCount(); position++) {
+                int code = segment.getMetric(position);
+                if (code < 0 || code >= metrics.length) {
+                    continue;
+                }
+                long time = segment.getTime(position);
+                long sampleBucket = time - Math.floorMod(time, bucket);
+                if (sampleBucket != currentBucket) {
+                    flush(accumulators, currentBucket, metrics, batch);
+                    currentBucket = sampleBucket;
+                }
+                long deviceId = segment.getDeviceId(position);
+                double[] accumulator = accumulators.get(code).get(deviceId);
+                if (accumulator == null) {
+                    accumulator = new double[3];
+                    accumulators.get(code).put(deviceId, accumulator);
+                }
+                double value = segment.getValue(position);
+                accumulator[0] += value;
+                accumulator[1]++;
+                accumulator[2] = value;
+            }
+        }
+        flush(accumulators, currentBucket, metrics, batch);
+        return batch;
+    }
+
+
+    /**
+     * Method adds one sample per device and metric of a bucket to the batch passed and clears the
+     * accumulators.
+     *
+     * @param accumulators  Accumulators of the bucket by metric and device.
+     * @param bucket        Start (in milliseconds since the epoch) of the bucket.
+     * @param metrics       All metrics.
+     * @param batch         Batch to which the samples are added.
+     */
+    private static void flush(@NonNull ArrayList<LinkedHashMap<Long, double[]>> accumulators, long bucket, @NonNull ShHistoryMetric[] metrics, @NonNull ShHistoryBatch batch) {
+        for (int code = 0; code < metrics.length; code++) {
+            ShHistoryMetric metric = metrics[code];
+            for (Map.Entry<Long, double[]> entry : accumulators.get(code).entrySet()) {
+                double[] accumulator = entry.getValue();
+                batch.add(bucket, entry.getKey(), metric, metric.isAveraged() ? accumulator[0] / accumulator[1] : accumulator[2]);
+            }
+            accumulators.get(code).clear();
+        }
+    }
+
+
+    /**
+     * Method returns the samples of a metric of a device within a time range. The samples are downsampled,
+     * so that the series contains at most the number of samples passed.
+     *
+     * @param deviceId  Id of the device.
+     * @param metric    Metric of the samples.
+     * @param from      Start (inclusive, in milliseconds since the epoch) of the time range.
+     * @param to        End (inclusive, in milliseconds since the epoch) of the time range.
+     * @param maxSize   Maximum number of samples of the series or 0 to return all samples.
+     * @return          Series of the samples, ordered by their times.
+     */
+    @NonNull
+    public synchronized ShHistorySeries query(long deviceId, @NonNull ShHistoryMetric metric, long from, long to, int maxSize) {
+        ShHistorySeriesBuilder series = new ShHistorySeriesBuilder(metric, from, to, maxSize);
+        ShHistoryResolution[] resolutions = ShHistoryResolution.values();
+        //The coarser resolutions contain the older samples:
+        for (int i = resolutions.length - 1; i >= 0; i--) {
+            for (ShHistorySegment segment : segments.get(resolutions[i])) {
+                segment.collect(deviceId, metric, from, to, series);
+                if (segment.hasIndex()) {
+                    indexedSegments.put(segment, Boolean.TRUE);
+                }
+            }
+        }
+        discardIndexes();
+        return series.build();
+    }
+
+
+    /**
+     * Method discards the indexes of the least recently queried segments, so that the memory of the indexes
+     * is bounded.
+     */
+    private void discardIndexes() {
+        Iterator<ShHistorySegment> iterator = indexedSegments.keySet().iterator();
+        while (indexedSegments.size() > INDEXED_SEGMENTS && iterator.hasNext()) {
+            iterator.next().discardIndex();
+            iterator.remove();
+        }
+    }
+
+
+    /**
+     * Method returns the number of segments of a resolution.
+     *
+     * @param resolution    Resolution of the segments.
+     * @return              Number of segments.
+     */
+    public synchronized int getSegmentCount(@NonNull ShHistoryResolution resolution) {
+        return segments.get(resolution).size();
+    }
+
+}
@@ -0,0 +1,106 @@
+package de.christian2003.smarthome.data.model.room;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import de.christian2003.smarthome.data.model.devices.ShGenericDevice;
+
+
+/**
+ * Class models the change of a device between two refreshes.
+ */
+public class ShDeviceChange {
+
+    /**
+     * Attribute stores the type of the change.
+     */
+    @NonNull
+    private final ShDeviceChangeType type;
+
+    /**
+     * Attribute stores the room which contains the device after the change, or before the change if the
+     * device was removed.
+     */
+    @NonNull
+    private final ShRoom room;
+
+    /**
+     * Attribute stores the device before the change or null if the device was added.
+     */
+    @Nullable
+    private final ShGenericDevice previousDevice;
+
+    /**
+     * Attribute stores the device after the change or null if the device was removed.
+     */
+    @Nullable
+    private final ShGenericDevice device;
+
+
+    /**
+     * Constructor instantiates a new device change.
+     *
+     * @param type              Type of the change.
+     * @param room              Room which contains the device.
+     * @param previousDevice    Device before the change or null if the device was added.
+     * @param device            Device after the change or null if the device was removed.
+     */
+    public ShDeviceChange(@NonNull ShDeviceChangeType type, @NonNull ShRoom room, @Nullable ShGenericDevice previousDevice, @Nullable ShGenericDevice device) {
+        this.type = type;
+        this.room = room;
+        this.previousDevice = previousDevice;
+        this.device = device;
+    }
+
+
+    /**
+     * Method returns the type of the change.
+     *
+     * @return  Type of the change.
+     */
+    @NonNull
+    public ShDeviceChangeType getType() {
+        return type;
+    }
+
+    /**
+     * Method returns the room which contains the device.
+     *
+     * @return  Room after the change, or before the change if the device was removed.
+     */
+    @NonNull
+    public ShRoom getRoom() {
+        return room;
+    }
+
+    /**
+     * Method returns the device before the change.
+     *
+     * @return  Device before the change or null if the device was added.
+     */
+    @Nullable
+    public ShGenericDevice getPreviousDevice() {
+        return previousDevice;
+    }
+
+    /**
+     * Method returns the device after the change.
+     *
+     * @return  Device after the change or null if the device was removed.
+     */
+    @Nullable
+    public ShGenericDevice getDevice() {
+        return device;
+    }
+
+    /**
+     * Method returns the id of the changed device.
+     *
+     * @return  Id of the device.
+     */
+    @NonNull
+    public String getDeviceId() {
+        return device != null ? device.getId() : previousDevice.getId();
+    }
+
+}
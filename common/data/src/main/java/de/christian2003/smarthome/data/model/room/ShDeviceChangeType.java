@@ -0,0 +1,22 @@
+package de.christian2003.smarthome.data.model.room;
+
+
+/**
+ * The different changes of a device between two refreshes of the rooms.
+ */
+public enum ShDeviceChangeType {
+    /**
+     * The device is new in the current rooms.
+     */
+    Added,
+
+    /**
+     * The device is no longer contained in the current rooms.
+     */
+    Removed,
+
+    /**
+     * The device is contained in both rooms, but its state differs.
+     */
+    Changed
+}
@@ -0,0 +1,167 @@
+package de.christian2003.smarthome.data.model.room;
+
+import androidx.annotation.NonNull;
+import androidx.compose.runtime.Immutable;
+
+import de.christian2003.smarthome.data.model.devices.ShGenericDevice;
+import de.christian2003.smarthome.data.model.devices.ShLight;
+import de.christian2003.smarthome.data.model.devices.ShMetrics;
+import de.christian2003.smarthome.data.model.devices.ShOutlet;
+
+
+/**
+ * Class models the summed load and energy of the lights and outlets of a room or of the whole smart home.
+ * Metrics which are missing or could not be parsed are not summed.
+ */
+@Immutable
+public class ShEnergy {
+
+    /**
+     * Energy without any measured devices.
+     */
+    public static final ShEnergy NONE = new ShEnergy(0, 0, 0);
+
+    /**
+     * Attribute stores the summed load (in "mA").
+     */
+    private final long milliAmp;
+
+    /**
+     * Attribute stores the summed energy (in "Wh").
+     */
+    private final long wh;
+
+    /**
+     * Attribute stores the number of lights and outlets which state at least one metric.
+     */
+    private final int measuredDevices;
+
+
+    /**
+     * Constructor instantiates a new energy.
+     *
+     * @param milliAmp          Summed load (in "mA").
+     * @param wh                Summed energy (in "Wh").
+     * @param measuredDevices   Number of lights and outlets which state at least one metric.
+     */
+    public ShEnergy(long milliAmp, long wh, int measuredDevices) {
+        this.milliAmp = milliAmp;
+        this.wh = wh;
+        this.measuredDevices = measuredDevices;
+    }
+
+
+    /**
+     * Method sums the load and energy of the lights and outlets of the room passed.
+     *
+     * @param room  Room whose devices to sum.
+     * @return      Energy of the room.
+     */
+    @NonNull
+    public static ShEnergy of(@NonNull ShRoom room) {
+        long milliAmp = 0;
+        long wh = 0;
+        int measuredDevices = 0;
+        for (ShGenericDevice device : room.getDevices()) {
+            int deviceMilliAmp;
+            long deviceWh;
+            if (device instanceof ShLight) {
+                deviceMilliAmp = ((ShLight)device).getMilliAmpValue();
+                deviceWh = ((ShLight)device).getWhValue();
+            }
+            else if (device instanceof ShOutlet) {
+                deviceMilliAmp = ((ShOutlet)device).getAmperageValue();
+                deviceWh = ((ShOutlet)device).getPowerConsumptionValue();
+            }
+            else {
+                continue;
+            }
+            if (deviceMilliAmp != ShMetrics.NO_VALUE) {
+                milliAmp += deviceMilliAmp;
+            }
+            if (deviceWh != ShMetrics.NO_VALUE) {
+                wh += deviceWh;
+            }
+            if (deviceMilliAmp != ShMetrics.NO_VALUE || deviceWh != ShMetrics.NO_VALUE) {
+                measuredDevices++;
+            }
+        }
+        return measuredDevices == 0 ? NONE : new ShEnergy(milliAmp, wh, measuredDevices);
+    }
+
+
+    /**
+     * Method returns the summed load.
+     *
+     * @return  Summed load (in "mA").
+     */
+    public long getMilliAmp() {
+        return milliAmp;
+    }
+
+    /**
+     * Method returns the summed energy.
+     *
+     * @return  Summed energy (in "Wh").
+     */
+    public long getWh() {
+        return wh;
+    }
+
+    /**
+     * Method returns the number of lights and outlets which state at least one metric.
+     *
+     * @return  Number of measured devices.
+     */
+    public int getMeasuredDevices() {
+        return measuredDevices;
+    }
+
+    /**
+     * Method returns whether any light or outlet states a metric.
+     *
+     * @return  Whether the energy contains measured devices.
+     */
+    public boolean isMeasured() {
+        return measuredDevices > 0;
+    }
+
+    /**
+     * Method returns the summed load for display.
+     *
+     * @return  Summed load, e.g. "85 mA".
+     */
+    @NonNull
+    public String getMilliAmpText() {
+        return milliAmp <= Integer.MAX_VALUE ? ShMetrics.formatMilliAmp((int)milliAmp) : milliAmp + " mA";
+    }
+
+    /**
+     * Method returns the summed energy for display.
+     *
+     * @return  Summed energy, e.g. "1,204 kWh".
+     */
+    @NonNull
+    public String getWhText() {
+        return ShMetrics.formatWh(wh);
+    }
+
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ShEnergy)) {
+            return false;
+        }
+        ShEnergy energy = (ShEnergy)obj;
+        return milliAmp == energy.milliAmp && wh == energy.wh && measuredDevices == energy.measuredDevices;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int)(31 * (31 * milliAmp + wh) + measuredDevices);
+    }
+
+}
@@ -0,0 +1,150 @@
+package de.christian2003.smarthome.data.model.room;
+
+import androidx.annotation.NonNull;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Class sums the load and energy of all rooms incrementally. Since rooms which did not change are reused
+ * between refreshes, the energy of a room is looked up by its identity and only the rooms which are new
+ * since the last update are summed. The energy of a replaced room is subtracted from the total and the
+ * energy of its replacement is added, so that the cost of an update is proportional to the changed rooms
+ * instead of all devices of the smart home.
+ * Rooms whose content table is not extracted yet are skipped until a later update, so that the aggregation
+ * does not force lazily extracted rooms to be extracted.
+ */
+public class ShEnergyAggregator {
+
+    /**
+     * Attribute stores the energies of the rooms of the last update by the rooms.
+     */
+    @NonNull
+    private IdentityHashMap<ShRoom, ShEnergy> roomEnergies;
+
+    /**
+     * Attribute stores the summed load (in "mA") of all rooms of the last update.
+     */
+    private long milliAmp;
+
+    /**
+     * Attribute stores the summed energy (in "Wh") of all rooms of the last update.
+     */
+    private long wh;
+
+    /**
+     * Attribute stores the number of measured devices of all rooms of the last update.
+     */
+    private int measuredDevices;
+
+    /**
+     * Attribute stores the total energy of the last update.
+     */
+    @NonNull
+    private ShEnergy total;
+
+    /**
+     * Attribute stores whether the last update skipped rooms which are not extracted yet.
+     */
+    private boolean pending;
+
+
+    /**
+     * Constructor instantiates a new aggregator without any rooms.
+     */
+    public ShEnergyAggregator() {
+        roomEnergies = new IdentityHashMap<>();
+        total = ShEnergy.NONE;
+    }
+
+
+    /**
+     * Method updates the energies with the rooms passed. The "gesamtstatus" is not summed, since it does
+     * not contain devices of its own.
+     *
+     * @param rooms Rooms of the smart home.
+     * @return      Whether the total energy changed.
+     */
+    public synchronized boolean update(@NonNull List<ShRoom> rooms) {
+        IdentityHashMap<ShRoom, ShEnergy> previousEnergies = roomEnergies;
+        IdentityHashMap<ShRoom, ShEnergy> currentEnergies = new IdentityHashMap<>(rooms.size() * 2);
+        pending = false;
+        for (ShRoom room : rooms) {
+            if (room.isGesamtstatusElement()) {
+                continue;
+            }
+            ShEnergy energy = previousEnergies.remove(room);
+            if (energy == null) {
+                if (!room.isParsed()) {
+                    pending = true;
+                    continue;
+                }
+                energy = ShEnergy.of(room);
+                add(energy, 1);
+            }
+            currentEnergies.put(room, energy);
+        }
+        for (ShEnergy energy : previousEnergies.values()) {
+            //The room was replaced or removed:
+            add(energy, -1);
+        }
+        roomEnergies = currentEnergies;
+
+        ShEnergy previousTotal = total;
+        if (previousTotal.getMilliAmp() == milliAmp && previousTotal.getWh() == wh && previousTotal.getMeasuredDevices() == measuredDevices) {
+            return false;
+        }
+        total = new ShEnergy(milliAmp, wh, measuredDevices);
+        return true;
+    }
+
+
+    /**
+     * Method returns the total energy of all rooms of the last update.
+     *
+     * @return  Total energy.
+     */
+    @NonNull
+    public synchronized ShEnergy getTotal() {
+        return total;
+    }
+
+
+    /**
+     * Method returns the energies of the rooms of the last update. Rooms which were not extracted yet are
+     * missing.
+     *
+     * @return  Energies by the rooms.
+     */
+    @NonNull
+    public synchronized Map<ShRoom, ShEnergy> getRoomEnergies() {
+        return new IdentityHashMap<>(roomEnergies);
+    }
+
+
+    /**
+     * Method returns whether the last update skipped rooms which are not extracted yet. The rooms are summed
+     * by the next update once they are extracted.
+     *
+     * @return  Whether rooms are pending.
+     */
+    public synchronized boolean isPending() {
+        return pending;
+    }
+
+
+    /**
+     * Method adds the energy passed to the totals.
+     *
+     * @param energy    Energy to add.
+     * @param sign      1 to add the energy, -1 to subtract it.
+     */
+    private void add(@NonNull ShEnergy energy, int sign) {
+        milliAmp += sign * energy.getMilliAmp();
+        wh += sign * energy.getWh();
+        measuredDevices += sign * energy.getMeasuredDevices();
+    }
+
+}
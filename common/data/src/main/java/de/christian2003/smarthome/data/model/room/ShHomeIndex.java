@@ -0,0 +1,445 @@
+package de.christian2003.smarthome.data.model.room;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.compose.runtime.Immutable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+
+import de.christian2003.smarthome.data.model.devices.ShGenericDevice;
+import de.christian2003.smarthome.data.model.devices.ShLight;
+import de.christian2003.smarthome.data.model.devices.ShLightState;
+import de.christian2003.smarthome.data.model.devices.ShMetrics;
+import de.christian2003.smarthome.data.model.devices.ShOpening;
+import de.christian2003.smarthome.data.model.devices.ShOpeningState;
+import de.christian2003.smarthome.data.model.devices.ShOpeningType;
+import de.christian2003.smarthome.data.model.devices.ShShutter;
+
+
+/**
+ * Class models indexes over the devices of all rooms, so that questions across rooms, e.g. which windows
+ * are open, can be answered without walking through every room. The indexes are built once per refresh.
+ * Counts and lookups are answered in constant time, lists of devices in time proportional to their
+ * length.
+ * The openings and lights are numbered in the order of the rooms. For every state, a bitset stores which
+ * of the openings or lights are in the state. The shutters are sorted by their percentages and the number
+ * of shutters below every percentage is counted, so that the shutters within a range of percentages are a
+ * sublist of the sorted shutters.
+ */
+@Immutable
+public class ShHomeIndex {
+
+    /**
+     * Index without any rooms.
+     */
+    public static final ShHomeIndex EMPTY = new ShHomeIndex(Collections.<ShRoom>emptyList());
+
+    /**
+     * Percentage from which a shutter counts as closed at a glance.
+     */
+    public static final int HALF_CLOSED_PERCENTAGE = 50;
+
+    /**
+     * Highest percentage to which a shutter can be closed.
+     */
+    private static final int MAX_PERCENTAGE = 100;
+
+
+    /**
+     * Attribute stores the rooms from which the index is built.
+     */
+    @NonNull
+    private final List<ShRoom> rooms;
+
+    /**
+     * Attribute stores the rooms by their names. If several rooms have the same name, the first room is
+     * stored.
+     */
+    @NonNull
+    private final HashMap<String, ShRoom> roomsByName;
+
+    /**
+     * Attribute stores the devices by their ids.
+     */
+    @NonNull
+    private final HashMap<String, ShGenericDevice> devicesById;
+
+    /**
+     * Attribute stores the rooms which contain the devices by the ids of the devices.
+     */
+    @NonNull
+    private final HashMap<String, ShRoom> roomsByDeviceId;
+
+    /**
+     * Attribute stores the devices by their types.
+     */
+    @NonNull
+    private final HashMap<Class<? extends ShGenericDevice>, List<ShGenericDevice>> devicesByType;
+
+    /**
+     * Attribute stores all openings, in the order of the rooms.
+     */
+    @NonNull
+    private final ShOpening[] openings;
+
+    /**
+     * Attribute stores for every state which of the openings are in the state.
+     */
+    @NonNull
+    private final EnumMap<ShOpeningState, BitSet> openingsByState;
+
+    /**
+     * Attribute stores for every type which of the openings are of the type.
+     */
+    @NonNull
+    private final EnumMap<ShOpeningType, BitSet> openingsByType;
+
+    /**
+     * Attribute stores the number of openings in every state, indexed by the ordinals of the states.
+     */
+    @NonNull
+    private final int[] openingCounts;
+
+    /**
+     * Attribute stores all lights, in the order of the rooms.
+     */
+    @NonNull
+    private final ShLight[] lights;
+
+    /**
+     * Attribute stores for every state which of the lights are in the state.
+     */
+    @NonNull
+    private final EnumMap<ShLightState, BitSet> lightsByState;
+
+    /**
+     * Attribute stores the number of lights in every state, indexed by the ordinals of the states.
+     */
+    @NonNull
+    private final int[] lightCounts;
+
+    /**
+     * Attribute stores the shutters which state their percentage, sorted by their percentages.
+     */
+    @NonNull
+    private final List<ShShutter> shuttersByPercentage;
+
+    /**
+     * Attribute stores for every percentage the number of shutters which are closed to less than the
+     * percentage. The last element is the number of all shutters which state their percentage.
+     */
+    @NonNull
+    private final int[] shuttersBelow;
+
+
+    /**
+     * Constructor instantiates a new index over the devices of the rooms passed. Rooms which are extracted
+     * lazily are extracted by this constructor.
+     *
+     * @param rooms Rooms to index.
+     */
+    public ShHomeIndex(@NonNull List<ShRoom> rooms) {
+        this.rooms = Collections.unmodifiableList(new ArrayList<>(rooms));
+        this.roomsByName = new HashMap<>();
+        this.devicesById = new HashMap<>();
+        this.roomsByDeviceId = new HashMap<>();
+        this.devicesByType = new HashMap<>();
+        this.openingsByState = new EnumMap<>(ShOpeningState.class);
+        this.openingsByType = new EnumMap<>(ShOpeningType.class);
+        this.openingCounts = new int[ShOpeningState.values().length];
+        this.lightsByState = new EnumMap<>(ShLightState.class);
+        this.lightCounts = new int[ShLightState.values().length];
+
+        ArrayList<ShOpening> openings = new ArrayList<>();
+        ArrayList<ShLight> lights = new ArrayList<>();
+        ArrayList<ShShutter> shutters = new ArrayList<>();
+        for (ShRoom room : this.rooms) {
+            if (!roomsByName.containsKey(room.getName())) {
+                roomsByName.put(room.getName(), room);
+            }
+            for (ShGenericDevice device : room.getDevices()) {
+                devicesById.put(device.getId(), device);
+                roomsByDeviceId.put(device.getId(), room);
+                List<ShGenericDevice> typeDevices = devicesByType.get(device.getClass());
+                if (typeDevices == null) {
+                    typeDevices = new ArrayList<>();
+                    devicesByType.put(device.getClass(), typeDevices);
+                }
+                typeDevices.add(device);
+
+                if (device instanceof ShOpening) {
+                    ShOpening opening = (ShOpening)device;
+                    getBits(openingsByState, opening.getOpeningState()).set(openings.size());
+                    getBits(openingsByType, opening.getOpeningType()).set(openings.size());
+                    openingCounts[opening.getOpeningState().ordinal()]++;
+                    openings.add(opening);
+                }
+                else if (device instanceof ShLight) {
+                    ShLight light = (ShLight)device;
+                    getBits(lightsByState, light.getLightState()).set(lights.size());
+                    lightCounts[light.getLightState().ordinal()]++;
+                    lights.add(light);
+                }
+                else if (device instanceof ShShutter && ((ShShutter)device).getPercentageValue() != ShMetrics.NO_VALUE) {
+                    shutters.add((ShShutter)device);
+                }
+            }
+        }
+        this.openings = openings.toArray(new ShOpening[0]);
+        this.lights = lights.toArray(new ShLight[0]);
+
+        //Count the shutters by their percentages, so that the shutters can be sorted in linear time:
+        int[] counts = new int[MAX_PERCENTAGE + 2];
+        for (ShShutter shutter : shutters) {
+            counts[clampPercentage(shutter.getPercentageValue()) + 1]++;
+        }
+        for (int percentage = 1; percentage < counts.length; percentage++) {
+            counts[percentage] += counts[percentage - 1];
+        }
+        this.shuttersBelow = counts.clone();
+        ShShutter[] sortedShutters = new ShShutter[shutters.size()];
+        for (ShShutter shutter : shutters) {
+            sortedShutters[counts[clampPercentage(shutter.getPercentageValue())]++] = shutter;
+        }
+        this.shuttersByPercentage = Collections.unmodifiableList(Arrays.asList(sortedShutters));
+    }
+
+
+    /**
+     * Method returns the bitset of the key passed and creates the bitset if it does not exist.
+     *
+     * @param bitsByKey Bitsets by their keys.
+     * @param key       Key of the bitset.
+     * @return          Bitset of the key.
+     */
+    @NonNull
+    private static <K extends Enum<K>> BitSet getBits(@NonNull EnumMap<K, BitSet> bitsByKey, @NonNull K key) {
+        BitSet bits = bitsByKey.get(key);
+        if (bits == null) {
+            bits = new BitSet();
+            bitsByKey.put(key, bits);
+        }
+        return bits;
+    }
+
+
+    /**
+     * Method clamps a percentage to the percentages to which a shutter can be closed.
+     *
+     * @param percentage    The percentage.
+     * @return              The percentage between 0 and 100.
+     */
+    private static int clampPercentage(int percentage) {
+        return Math.max(0, Math.min(MAX_PERCENTAGE, percentage));
+    }
+
+
+    /**
+     * Method returns whether the index is built from the rooms passed, i.e. whether it contains the same
+     * rooms in the same order. Since rooms which did not change are reused between refreshes, the index
+     * does not need to be built again if this returns true.
+     *
+     * @param rooms Rooms to compare.
+     * @return      Whether the index is built from the rooms.
+     */
+    public boolean isBuiltFrom(@NonNull List<ShRoom> rooms) {
+        if (rooms.size() != this.rooms.size()) {
+            return false;
+        }
+        for (int i = 0; i < rooms.size(); i++) {
+            if (rooms.get(i) != this.rooms.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Method returns the rooms from which the index is built.
+     *
+     * @return  Indexed rooms.
+     */
+    @NonNull
+    public List<ShRoom> getRooms() {
+        return rooms;
+    }
+
+    /**
+     * Method returns the room with the name passed.
+     *
+     * @param name  Name of the room.
+     * @return      First room with the name or null if no such room exists.
+     */
+    @Nullable
+    public ShRoom getRoom(@NonNull String name) {
+        return roomsByName.get(name);
+    }
+
+    /**
+     * Method returns the number of devices of all rooms.
+     *
+     * @return  Number of devices.
+     */
+    public int getDeviceCount() {
+        return devicesById.size();
+    }
+
+    /**
+     * Method returns the device with the id passed.
+     *
+     * @param id    Id of the device.
+     * @return      Device or null if no such device exists.
+     */
+    @Nullable
+    public ShGenericDevice getDevice(@NonNull String id) {
+        return devicesById.get(id);
+    }
+
+    /**
+     * Method returns the room which contains the device with the id passed.
+     *
+     * @param id    Id of the device.
+     * @return      Room of the device or null if no such device exists.
+     */
+    @Nullable
+    public ShRoom getRoomOfDevice(@NonNull String id) {
+        return roomsByDeviceId.get(id);
+    }
+
+    /**
+     * Method returns all devices of the type passed, in the order of the rooms.
+     *
+     * @param type  Type of the devices.
+     * @return      Devices of the type.
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public <T extends ShGenericDevice> List<T> getDevices(@NonNull Class<T> type) {
+        List<ShGenericDevice> typeDevices = devicesByType.get(type);
+        return typeDevices != null ? Collections.unmodifiableList((List<T>)typeDevices) : Collections.<T>emptyList();
+    }
+
+
+    /**
+     * Method returns the number of openings in the state passed.
+     *
+     * @param state State of the openings.
+     * @return      Number of openings.
+     */
+    public int getOpeningCount(@NonNull ShOpeningState state) {
+        return openingCounts[state.ordinal()];
+    }
+
+    /**
+     * Method returns all openings in the state passed, in the order of the rooms.
+     *
+     * @param state State of the openings.
+     * @return      Openings in the state.
+     */
+    @NonNull
+    public List<ShOpening> getOpenings(@NonNull ShOpeningState state) {
+        return select(openings, openingsByState.get(state), null);
+    }
+
+    /**
+     * Method returns all openings of the type passed in the state passed, e.g. all open windows, in the
+     * order of the rooms.
+     *
+     * @param type  Type of the openings.
+     * @param state State of the openings.
+     * @return      Openings of the type in the state.
+     */
+    @NonNull
+    public List<ShOpening> getOpenings(@NonNull ShOpeningType type, @NonNull ShOpeningState state) {
+        BitSet typeBits = openingsByType.get(type);
+        return typeBits != null ? select(openings, openingsByState.get(state), typeBits) : Collections.<ShOpening>emptyList();
+    }
+
+    /**
+     * Method returns the number of lights in the state passed.
+     *
+     * @param state State of the lights.
+     * @return      Number of lights.
+     */
+    public int getLightCount(@NonNull ShLightState state) {
+        return lightCounts[state.ordinal()];
+    }
+
+    /**
+     * Method returns all lights in the state passed, in the order of the rooms.
+     *
+     * @param state State of the lights.
+     * @return      Lights in the state.
+     */
+    @NonNull
+    public List<ShLight> getLights(@NonNull ShLightState state) {
+        return select(lights, lightsByState.get(state), null);
+    }
+
+    /**
+     * Method returns the number of shutters which are closed to less than the percentage passed.
+     *
+     * @param percentage    The percentage.
+     * @return              Number of shutters.
+     */
+    public int getShutterCountBelow(int percentage) {
+        return shuttersBelow[Math.max(0, Math.min(shuttersBelow.length - 1, percentage))];
+    }
+
+    /**
+     * Method returns the shutters which are closed to less than the percentage passed, sorted by their
+     * percentages.
+     *
+     * @param percentage    The percentage.
+     * @return              Shutters closed to less than the percentage.
+     */
+    @NonNull
+    public List<ShShutter> getShuttersBelow(int percentage) {
+        return shuttersByPercentage.subList(0, getShutterCountBelow(percentage));
+    }
+
+    /**
+     * Method returns the shutters which are closed to at least the percentage passed, sorted by their
+     * percentages.
+     *
+     * @param percentage    The percentage.
+     * @return              Shutters closed to at least the percentage.
+     */
+    @NonNull
+    public List<ShShutter> getShuttersAtLeast(int percentage) {
+        return shuttersByPercentage.subList(getShutterCountBelow(percentage), shuttersByPercentage.size());
+    }
+
+
+    /**
+     * Method returns the elements whose bits are set in both bitsets passed.
+     *
+     * @param elements  Elements by their numbers.
+     * @param bits      Bits of the selected elements or null if no element is selected.
+     * @param mask      Bits to which to restrict the selection or null to select all elements of the bits.
+     * @return          Selected elements.
+     */
+    @NonNull
+    private static <T> List<T> select(@NonNull T[] elements, @Nullable BitSet bits, @Nullable BitSet mask) {
+        if (bits == null) {
+            return Collections.emptyList();
+        }
+        if (mask != null) {
+            bits = (BitSet)bits.clone();
+            bits.and(mask);
+        }
+        ArrayList<T> selectedElements = new ArrayList<>(bits.cardinality());
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            selectedElements.add(elements[i]);
+        }
+        return selectedElements;
+    }
+
+}
@@ -3,6 +3,7 @@ package de.christian2003.smarthome.data.model.room;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * Class models an info text for the smart home.
@@ -67,4 +68,21 @@ public class ShInfoText implements Serializable {
     public String getText() {
         return text;
     }
+
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(label, specifier, text);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (obj instanceof ShInfoText) {
+            ShInfoText infoText = (ShInfoText)obj;
+            return infoText.label.equals(label)
+                    && Objects.equals(infoText.specifier, specifier)
+                    && Objects.equals(infoText.text, text);
+        }
+        return false;
+    }
 }
@@ -2,15 +2,27 @@ package de.christian2003.smarthome.data.model.room;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.compose.runtime.Immutable;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import de.christian2003.smarthome.data.model.devices.ShGenericDevice;
 import de.christian2003.smarthome.data.model.userinformation.UserInformation;
 
 
 /**
- * Class models a room for the smart home.
+ * Class models a room for the smart home. A room is not changed after it was extracted, therefore rooms
+ * which are reused between refreshes can be compared by their identity. The key of the room is assigned
+ * when the room is created, so that a room which is reused keeps its key and the ids of its devices. A room can be created with a
+ * handle to its unparsed content table, in which case its info texts, devices and user information are
+ * extracted on first access and kept afterwards.
+ * Rooms are equal if they have the same name and contents, comparing rooms therefore extracts the content
+ * tables of lazily extracted rooms. Rooms which are reused between refreshes are still identical.
  */
+@Immutable
 public class ShRoom implements Serializable {
 
     /**
@@ -21,28 +33,39 @@ public class ShRoom implements Serializable {
 
     /**
      * Attribute stores a list of info texts for the room. Exemplary info texts could include
-     * temperature, humidity, air pressure, ...
+     * temperature, humidity, air pressure, ... This is null until the content table is extracted.
      */
-    @NonNull
-    private final ArrayList<ShInfoText> infos;
+    private ArrayList<ShInfoText> infos;
 
     /**
-     * Attribute stores a list of smart home devices for the room, e.g. outlets, openings or lights.
+     * Attribute stores a list of smart home devices for the room, e.g. outlets, openings or lights. This
+     * is null until the content table is extracted.
      */
-    @NonNull
-    private final ArrayList<ShGenericDevice> devices;
+    private ArrayList<ShGenericDevice> devices;
 
     /**
-     * Attribute stores a list of all the user information belonging to the room.
+     * Attribute stores a list of all the user information belonging to the room. This is null until the
+     * content table is extracted.
      */
-    @NonNull
-    private final ArrayList<UserInformation> userInformation;
+    private ArrayList<UserInformation> userInformation;
+
+    /**
+     * Attribute stores the handle to the unparsed content table of the room or null if the content table
+     * is extracted.
+     */
+    @Nullable
+    private transient ShRoomTable table;
 
     /**
      * States if the room display the "gesamtstatus".
      */
     private final boolean gesamtstatusElement;
 
+    /**
+     * Attribute stores the number of rooms with the same name which precede the room in the list of rooms.
+     */
+    private final int occurrence;
+
     /**
      * Constructor instantiates a new room.
      *
@@ -52,11 +75,41 @@ public class ShRoom implements Serializable {
      * @param userInformation   List of warnings and errors about the room that should be displayed for the user.
      */
     public ShRoom(@NonNull String name, @Nullable ArrayList<ShInfoText> infos, @Nullable ArrayList<ShGenericDevice> devices, @Nullable ArrayList<UserInformation> userInformation, boolean gesamtstatusElement) {
+        this(name, infos, devices, userInformation, gesamtstatusElement, 0);
+    }
+
+    /**
+     * Constructor instantiates a new room, which is preceded by rooms with the same name.
+     *
+     * @param name              Name for the room.
+     * @param infos             List of info texts for the room.
+     * @param devices           List of smart home devices for the room.
+     * @param userInformation   List of warnings and errors about the room that should be displayed for the user.
+     * @param occurrence        Number of rooms with the same name which precede the room.
+     */
+    public ShRoom(@NonNull String name, @Nullable ArrayList<ShInfoText> infos, @Nullable ArrayList<ShGenericDevice> devices, @Nullable ArrayList<UserInformation> userInformation, boolean gesamtstatusElement, int occurrence) {
         this.name = name;
         this.infos = infos != null ? infos : new ArrayList<>();
         this.devices = devices != null ? devices : new ArrayList<>();
         this.userInformation = userInformation != null ? userInformation : new ArrayList<>();
         this.gesamtstatusElement = gesamtstatusElement;
+        this.occurrence = occurrence;
+        ShGenericDevice.assignIds(getKey(), this.devices);
+    }
+
+    /**
+     * Constructor instantiates a new room whose content table is extracted on first access.
+     *
+     * @param name                  Name for the room.
+     * @param gesamtstatusElement   States if the room displays the "gesamtstatus".
+     * @param occurrence            Number of rooms with the same name which precede the room.
+     * @param table                 Handle to the unparsed content table of the room.
+     */
+    public ShRoom(@NonNull String name, boolean gesamtstatusElement, int occurrence, @NonNull ShRoomTable table) {
+        this.name = name;
+        this.gesamtstatusElement = gesamtstatusElement;
+        this.occurrence = occurrence;
+        this.table = table;
     }
 
     /**
@@ -69,6 +122,17 @@ public class ShRoom implements Serializable {
         return name;
     }
 
+    /**
+     * Method returns the key by which the room is distinguished from the other rooms, which is its name. If
+     * several rooms have the same name, the keys of all but the first room are numbered, e.g. "Küche#2".
+     *
+     * @return  Key of the room.
+     */
+    @NonNull
+    public String getKey() {
+        return occurrence > 0 ? name + "#" + (occurrence + 1) : name;
+    }
+
     /**
      * Method returns a list of info texts for the room.
      *
@@ -76,6 +140,7 @@ public class ShRoom implements Serializable {
      */
     @NonNull
     public ArrayList<ShInfoText> getInfos() {
+        parseTable();
         return infos;
     }
 
@@ -86,6 +151,7 @@ public class ShRoom implements Serializable {
      */
     @NonNull
     public ArrayList<ShGenericDevice> getDevices() {
+        parseTable();
         return devices;
     }
 
@@ -96,6 +162,7 @@ public class ShRoom implements Serializable {
      */
     @NonNull
     public ArrayList<UserInformation> getUserInformation() {
+        parseTable();
         return userInformation;
     }
 
@@ -105,4 +172,83 @@ public class ShRoom implements Serializable {
      * @return  Boolean that states if the room display the "gesamtstatus".
      */
     public boolean isGesamtstatusElement() {return gesamtstatusElement;}
+
+    /**
+     * Method returns a boolean that states if the content table of the room is extracted.
+     *
+     * @return  Boolean that states if the info texts, devices and user information are extracted.
+     */
+    public synchronized boolean isParsed() {
+        return table == null;
+    }
+
+    /**
+     * Method extracts the content table of the room, if it was not extracted yet.
+     */
+    private synchronized void parseTable() {
+        if (table != null) {
+            ShRoom room = table.parse();
+            infos = room.getInfos();
+            devices = room.getDevices();
+            userInformation = room.getUserInformation();
+            table = null;
+            if (room.occurrence != occurrence) {
+                // The devices were created for the room of the table, which is never published.
+                ShGenericDevice.assignIds(getKey(), devices);
+            }
+        }
+    }
+
+    /**
+     * Method counts the rooms with the name passed, which is the occurrence of a room with that name which
+     * follows the rooms. Homes contain few rooms, so that the rooms are compared instead of allocating a
+     * map.
+     *
+     * @param rooms Rooms which precede the room.
+     * @param name  Name of the room.
+     * @return      Number of rooms with the name.
+     */
+    public static int countOccurrence(@NonNull List<ShRoom> rooms, @NonNull String name) {
+        int occurrence = 0;
+        for (ShRoom room : rooms) {
+            if (room.name.equals(name)) {
+                occurrence++;
+            }
+        }
+        return occurrence;
+    }
+
+    /**
+     * Method extracts the content table before the room is serialized, since the handle to the content
+     * table is not serialized.
+     *
+     * @param out   Stream to which the room is written.
+     * @throws IOException  The room could not be written.
+     */
+    private void writeObject(@NonNull ObjectOutputStream out) throws IOException {
+        parseTable();
+        out.defaultWriteObject();
+    }
+
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, gesamtstatusElement);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof ShRoom) {
+            ShRoom room = (ShRoom)obj;
+            return room.name.equals(name)
+                    && room.gesamtstatusElement == gesamtstatusElement
+                    && room.getInfos().equals(getInfos())
+                    && room.getDevices().equals(getDevices())
+                    && room.getUserInformation().equals(getUserInformation());
+        }
+        return false;
+    }
 }
@@ -0,0 +1,20 @@
+package de.christian2003.smarthome.data.model.room;
+
+import androidx.annotation.NonNull;
+
+
+/**
+ * Interface models a handle to the unparsed content table of a room. The info texts, devices and user
+ * information of a room which is created with a handle are only extracted once they are accessed.
+ */
+public interface ShRoomTable {
+
+    /**
+     * Method extracts the content table of the room.
+     *
+     * @return  Room with the info texts, devices and user information of the content table.
+     */
+    @NonNull
+    ShRoom parse();
+
+}
@@ -0,0 +1,190 @@
+package de.christian2003.smarthome.data.model.room;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import de.christian2003.smarthome.data.model.devices.ShGenericDevice;
+
+
+/**
+ * Class models the devices which were added, removed or changed between two lists of rooms. Rooms are
+ * matched by their names and devices by their ids. Rooms which are reused between the refreshes are
+ * identical and skipped without comparing their devices, so that the cost of a diff is proportional to
+ * the changed rooms.
+ */
+public class ShRoomsDiff {
+
+    /**
+     * Diff without any changes.
+     */
+    public static final ShRoomsDiff EMPTY = new ShRoomsDiff(Collections.<ShDeviceChange>emptyList(), Collections.<ShRoom>emptyList());
+
+    /**
+     * Attribute stores the changes of the devices, in the order of the rooms and devices.
+     */
+    @NonNull
+    private final List<ShDeviceChange> changes;
+
+    /**
+     * Attribute stores the rooms which are new or differ from the previous rooms.
+     */
+    @NonNull
+    private final List<ShRoom> changedRooms;
+
+
+    /**
+     * Constructor instantiates a new diff.
+     *
+     * @param changes       Changes of the devices.
+     * @param changedRooms  Rooms which are new or differ from the previous rooms.
+     */
+    private ShRoomsDiff(@NonNull List<ShDeviceChange> changes, @NonNull List<ShRoom> changedRooms) {
+        this.changes = changes;
+        this.changedRooms = changedRooms;
+    }
+
+
+    /**
+     * Method computes the changes of the devices between the lists of rooms passed.
+     *
+     * @param previousRooms Rooms of the previous refresh.
+     * @param rooms         Rooms of the current refresh.
+     * @return              Diff between the rooms.
+     */
+    @NonNull
+    public static ShRoomsDiff compute(@NonNull List<ShRoom> previousRooms, @NonNull List<ShRoom> rooms) {
+        LinkedHashMap<String, ShRoom> previousRoomsByKey = new LinkedHashMap<>();
+        HashMap<String, Integer> occurrences = new HashMap<>();
+        for (ShRoom room : previousRooms) {
+            previousRoomsByKey.put(getKey(room, occurrences), room);
+        }
+
+        ArrayList<ShDeviceChange> changes = new ArrayList<>();
+        ArrayList<ShRoom> changedRooms = new ArrayList<>();
+        occurrences.clear();
+        for (ShRoom room : rooms) {
+            ShRoom previousRoom = previousRoomsByKey.remove(getKey(room, occurrences));
+            if (previousRoom == room) {
+                continue;
+            }
+            int changeCount = changes.size();
+            if (previousRoom == null) {
+                for (ShGenericDevice device : room.getDevices()) {
+                    changes.add(new ShDeviceChange(ShDeviceChangeType.Added, room, null, device));
+                }
+            }
+            else {
+                diffDevices(previousRoom, room, changes);
+            }
+            if (previousRoom == null || changes.size() > changeCount || !previousRoom.equals(room)) {
+                changedRooms.add(room);
+            }
+        }
+        for (ShRoom previousRoom : previousRoomsByKey.values()) {
+            for (ShGenericDevice device : previousRoom.getDevices()) {
+                changes.add(new ShDeviceChange(ShDeviceChangeType.Removed, previousRoom, device, null));
+            }
+        }
+        if (changes.isEmpty() && changedRooms.isEmpty()) {
+            return EMPTY;
+        }
+        return new ShRoomsDiff(Collections.unmodifiableList(changes), Collections.unmodifiableList(changedRooms));
+    }
+
+
+    /**
+     * Method adds the changes between the devices of two versions of a room to the list passed.
+     *
+     * @param previousRoom  Room of the previous refresh.
+     * @param room          Room of the current refresh.
+     * @param changes       List to which the changes are added.
+     */
+    private static void diffDevices(@NonNull ShRoom previousRoom, @NonNull ShRoom room, @NonNull List<ShDeviceChange> changes) {
+        LinkedHashMap<String, ShGenericDevice> previousDevices = new LinkedHashMap<>();
+        for (ShGenericDevice device : previousRoom.getDevices()) {
+            previousDevices.put(device.getId(), device);
+        }
+        for (ShGenericDevice device : room.getDevices()) {
+            ShGenericDevice previousDevice = previousDevices.remove(device.getId());
+            if (previousDevice == null) {
+                changes.add(new ShDeviceChange(ShDeviceChangeType.Added, room, null, device));
+            }
+            else if (!previousDevice.equals(device)) {
+                changes.add(new ShDeviceChange(ShDeviceChangeType.Changed, room, previousDevice, device));
+            }
+        }
+        for (ShGenericDevice previousDevice : previousDevices.values()) {
+            changes.add(new ShDeviceChange(ShDeviceChangeType.Removed, previousRoom, previousDevice, null));
+        }
+    }
+
+
+    /**
+     * Method returns the key by which a room is matched, which is its name. If several rooms have the same
+     * name, the keys of all but the first room are numbered.
+     *
+     * @param room          The room.
+     * @param occurrences   Number of rooms with each name so far.
+     * @return              Key of the room.
+     */
+    @NonNull
+    private static String getKey(@NonNull ShRoom room, @NonNull HashMap<String, Integer> occurrences) {
+        Integer occurrence = occurrences.get(room.getName());
+        occurrences.put(room.getName(), occurrence == null ? 1 : occurrence + 1);
+        return occurrence == null ? room.getName() : room.getName() + "#" + (occurrence + 1);
+    }
+
+
+    /**
+     * Method returns all changes of the devices.
+     *
+     * @return  Changes of the devices.
+     */
+    @NonNull
+    public List<ShDeviceChange> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Method returns the changes of the type passed.
+     *
+     * @param type  Type of the changes.
+     * @return      Changes of the type.
+     */
+    @NonNull
+    public List<ShDeviceChange> getChanges(@NonNull ShDeviceChangeType type) {
+        ArrayList<ShDeviceChange> typeChanges = new ArrayList<>();
+        for (ShDeviceChange change : changes) {
+            if (change.getType() == type) {
+                typeChanges.add(change);
+            }
+        }
+        return typeChanges;
+    }
+
+    /**
+     * Method returns the rooms which are new or differ from the previous rooms, e.g. because their info
+     * texts or devices changed.
+     *
+     * @return  Changed rooms.
+     */
+    @NonNull
+    public List<ShRoom> getChangedRooms() {
+        return changedRooms;
+    }
+
+    /**
+     * Method returns whether no device changed.
+     *
+     * @return  Whether the diff is empty.
+     */
+    public boolean isEmpty() {
+        return changes.isEmpty() && changedRooms.isEmpty();
+    }
+
+}
@@ -0,0 +1,522 @@
+package de.christian2003.smarthome.data.model.snapshot;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import de.christian2003.smarthome.data.model.devices.ShGenericDevice;
+import de.christian2003.smarthome.data.model.devices.ShLight;
+import de.christian2003.smarthome.data.model.devices.ShOpening;
+import de.christian2003.smarthome.data.model.devices.ShOpeningType;
+import de.christian2003.smarthome.data.model.devices.ShOutlet;
+import de.christian2003.smarthome.data.model.devices.ShShutter;
+import de.christian2003.smarthome.data.model.devices.ShUnknownDevice;
+import de.christian2003.smarthome.data.model.room.ShInfoText;
+import de.christian2003.smarthome.data.model.room.ShRoom;
+import de.christian2003.smarthome.data.model.userinformation.InformationTitle;
+import de.christian2003.smarthome.data.model.userinformation.InformationType;
+import de.christian2003.smarthome.data.model.userinformation.UserInformation;
+
+
+/**
+ * Class models the last known data of the smart home, i.e. the rooms and the information which was
+ * displayed after the last successful load of the smart home webpage. The snapshot is stored in a
+ * compact, versioned binary format, so that it can be displayed immediately when the app is started.
+ * Numbers are stored as variable-length integers and every distinct string is stored only once, later
+ * occurrences refer to the first one. Enums are stored through their names, so that reordering the
+ * constants does not corrupt snapshots.
+ */
+public class ShSnapshot {
+
+    /**
+     * Magic number with which every snapshot starts.
+     */
+    private static final int MAGIC = 0x53485353;
+
+    /**
+     * Version of the binary format. Snapshots with a different version are discarded.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * Tag of a light in the binary format.
+     */
+    private static final byte DEVICE_LIGHT = 1;
+
+    /**
+     * Tag of an opening in the binary format.
+     */
+    private static final byte DEVICE_OPENING = 2;
+
+    /**
+     * Tag of an outlet in the binary format.
+     */
+    private static final byte DEVICE_OUTLET = 3;
+
+    /**
+     * Tag of a shutter in the binary format.
+     */
+    private static final byte DEVICE_SHUTTER = 4;
+
+    /**
+     * Tag of an unknown device in the binary format.
+     */
+    private static final byte DEVICE_UNKNOWN = 5;
+
+    /**
+     * The rooms of the smart home.
+     */
+    @NonNull
+    private final ArrayList<ShRoom> rooms;
+
+    /**
+     * The information which occurred while loading the webpage.
+     */
+    @NonNull
+    private final ArrayList<UserInformation> infos;
+
+    /**
+     * Time (in milliseconds since the epoch) at which the data was loaded from the server.
+     */
+    private final long loadedAt;
+
+
+    /**
+     * Constructor instantiates a new snapshot.
+     *
+     * @param rooms     The rooms of the smart home.
+     * @param infos     The information which occurred while loading the webpage.
+     * @param loadedAt  Time (in milliseconds since the epoch) at which the data was loaded from the server.
+     */
+    public ShSnapshot(@NonNull List<ShRoom> rooms, @NonNull List<UserInformation> infos, long loadedAt) {
+        this.rooms = new ArrayList<>(rooms);
+        this.infos = new ArrayList<>(infos);
+        this.loadedAt = loadedAt;
+    }
+
+
+    /**
+     * Gets the rooms of the smart home.
+     *
+     * @return  The rooms.
+     */
+    @NonNull
+    public ArrayList<ShRoom> getRooms() {
+        return rooms;
+    }
+
+    /**
+     * Gets the information which occurred while loading the webpage.
+     *
+     * @return  The information.
+     */
+    @NonNull
+    public ArrayList<UserInformation> getInfos() {
+        return infos;
+    }
+
+    /**
+     * Gets the time at which the data was loaded from the server.
+     *
+     * @return  Time in milliseconds since the epoch.
+     */
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+
+    /**
+     * Writes the snapshot to the stream passed.
+     *
+     * @param out           Stream to which to write the snapshot.
+     * @throws IOException  The snapshot could not be written.
+     */
+    public void writeTo(@NonNull DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(loadedAt);
+        Writer writer = new Writer(out);
+        writer.writeCount(rooms.size());
+        for (ShRoom room : rooms) {
+            writer.writeRoom(room);
+        }
+        writer.writeUserInformation(infos);
+    }
+
+
+    /**
+     * Reads a snapshot from the stream passed.
+     *
+     * @param in            Stream from which to read the snapshot.
+     * @return              The snapshot or null if the snapshot has an unsupported version.
+     * @throws IOException  The snapshot could not be read or is corrupt.
+     */
+    @Nullable
+    public static ShSnapshot readFrom(@NonNull DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a snapshot");
+        }
+        if (in.readInt() != VERSION) {
+            return null;
+        }
+        long loadedAt = in.readLong();
+        Reader reader = new Reader(in);
+        int roomCount = reader.readCount();
+        ArrayList<ShRoom> rooms = new ArrayList<>(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            rooms.add(reader.readRoom(rooms));
+        }
+        ArrayList<UserInformation> infos = reader.readUserInformation();
+        return new ShSnapshot(rooms, infos, loadedAt);
+    }
+
+
+    /**
+     * Class writes the content of a snapshot.
+     */
+    private static class Writer {
+
+        /**
+         * Stream to which to write.
+         */
+        @NonNull
+        private final DataOutputStream out;
+
+        /**
+         * Indices of the strings which were already written.
+         */
+        @NonNull
+        private final HashMap<String, Integer> stringIndices;
+
+
+        /**
+         * Constructor instantiates a new writer.
+         *
+         * @param out   Stream to which to write.
+         */
+        private Writer(@NonNull DataOutputStream out) {
+            this.out = out;
+            this.stringIndices = new HashMap<>();
+        }
+
+
+        /**
+         * Writes a room.
+         *
+         * @param room          Room to write.
+         * @throws IOException  The room could not be written.
+         */
+        private void writeRoom(@NonNull ShRoom room) throws IOException {
+            writeString(room.getName());
+            out.writeBoolean(room.isGesamtstatusElement());
+            writeCount(room.getInfos().size());
+            for (ShInfoText infoText : room.getInfos()) {
+                writeStrings(infoText.getLabel(), infoText.getSpecifier(), infoText.getText());
+            }
+            writeCount(room.getDevices().size());
+            for (ShGenericDevice device : room.getDevices()) {
+                writeDevice(device);
+            }
+            writeUserInformation(room.getUserInformation());
+        }
+
+
+        /**
+         * Writes a device including the properties of its concrete type.
+         *
+         * @param device        Device to write.
+         * @throws IOException  The device could not be written.
+         */
+        private void writeDevice(@NonNull ShGenericDevice device) throws IOException {
+            if (device instanceof ShLight) {
+                ShLight light = (ShLight)device;
+                out.writeByte(DEVICE_LIGHT);
+                writeStrings(light.getName(), light.getSpecifier(), light.getImageUri(), light.getOnButtonText(), light.getOffButtonText(), light.getMilliAmp(), light.getHours(), light.getWh());
+            }
+            else if (device instanceof ShOpening) {
+                ShOpening opening = (ShOpening)device;
+                out.writeByte(DEVICE_OPENING);
+                writeStrings(opening.getName(), opening.getOpeningType().name(), opening.getSpecifier(), opening.getImageUri());
+            }
+            else if (device instanceof ShOutlet) {
+                ShOutlet outlet = (ShOutlet)device;
+                out.writeByte(DEVICE_OUTLET);
+                writeStrings(outlet.getName(), outlet.getImageUri(), outlet.getOnButtonText(), outlet.getOffButtonText(), outlet.getAmperage(), outlet.getTime(), outlet.getPowerConsumption());
+            }
+            else if (device instanceof ShShutter) {
+                ShShutter shutter = (ShShutter)device;
+                out.writeByte(DEVICE_SHUTTER);
+                writeStrings(shutter.getName(), shutter.getSpecifier(), shutter.getSetButtonText(), shutter.getPercentage(), shutter.getTime());
+            }
+            else if (device instanceof ShUnknownDevice) {
+                ShUnknownDevice unknownDevice = (ShUnknownDevice)device;
+                out.writeByte(DEVICE_UNKNOWN);
+                writeStrings(unknownDevice.getName(), unknownDevice.getImageUri(), unknownDevice.getOnButtonText(), unknownDevice.getOffButtonText(), unknownDevice.getMilliAmp(), unknownDevice.getHours(), unknownDevice.getWh());
+            }
+            else {
+                throw new IOException("Unsupported device " + device.getClass().getName());
+            }
+        }
+
+
+        /**
+         * Writes a list of user information.
+         *
+         * @param userInformation   User information to write.
+         * @throws IOException      The user information could not be written.
+         */
+        private void writeUserInformation(@NonNull List<UserInformation> userInformation) throws IOException {
+            writeCount(userInformation.size());
+            for (UserInformation information : userInformation) {
+                writeStrings(information.getInformationType().name(), information.getInformationTitle().name(), information.getDescription());
+            }
+        }
+
+
+        /**
+         * Writes multiple nullable strings.
+         *
+         * @param strings       Strings to write.
+         * @throws IOException  The strings could not be written.
+         */
+        private void writeStrings(@Nullable String... strings) throws IOException {
+            for (String string : strings) {
+                writeString(string);
+            }
+        }
+
+
+        /**
+         * Writes a nullable string. Null is written as 0. A string which was already written is written as
+         * its index plus 2. Any other string is written as 1, followed by the length and the bytes of its
+         * UTF-8 representation.
+         *
+         * @param string        String to write.
+         * @throws IOException  The string could not be written.
+         */
+        private void writeString(@Nullable String string) throws IOException {
+            if (string == null) {
+                writeCount(0);
+                return;
+            }
+            Integer index = stringIndices.get(string);
+            if (index != null) {
+                writeCount(index + 2);
+                return;
+            }
+            stringIndices.put(string, stringIndices.size());
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeCount(1);
+            writeCount(bytes.length);
+            out.write(bytes);
+        }
+
+
+        /**
+         * Writes a non-negative number as variable-length integer with 7 bits per byte.
+         *
+         * @param count         Number to write.
+         * @throws IOException  The number could not be written.
+         */
+        private void writeCount(int count) throws IOException {
+            while ((count & ~0x7f) != 0) {
+                out.writeByte((count & 0x7f) | 0x80);
+                count >>>= 7;
+            }
+            out.writeByte(count);
+        }
+
+    }
+
+
+    /**
+     * Class reads the content of a snapshot.
+     */
+    private static class Reader {
+
+        /**
+         * Stream from which to read.
+         */
+        @NonNull
+        private final DataInputStream in;
+
+        /**
+         * The strings which were already read.
+         */
+        @NonNull
+        private final ArrayList<String> strings;
+
+
+        /**
+         * Constructor instantiates a new reader.
+         *
+         * @param in    Stream from which to read.
+         */
+        private Reader(@NonNull DataInputStream in) {
+            this.in = in;
+            this.strings = new ArrayList<>();
+        }
+
+
+        /**
+         * Reads a room.
+         *
+         * @param precedingRooms    The rooms which were read before the room.
+         * @return                  The room.
+         * @throws IOException      The room could not be read.
+         */
+        @NonNull
+        private ShRoom readRoom(@NonNull List<ShRoom> precedingRooms) throws IOException {
+            String name = readNonNullString();
+            boolean gesamtstatusElement = in.readBoolean();
+            int infoCount = readCount();
+            ArrayList<ShInfoText> infos = new ArrayList<>(infoCount);
+            for (int i = 0; i < infoCount; i++) {
+                infos.add(new ShInfoText(readNonNullString(), readString(), readString()));
+            }
+            int deviceCount = readCount();
+            ArrayList<ShGenericDevice> devices = new ArrayList<>(deviceCount);
+            for (int i = 0; i < deviceCount; i++) {
+                devices.add(readDevice());
+            }
+            return new ShRoom(name, infos, devices, readUserInformation(), gesamtstatusElement, ShRoom.countOccurrence(precedingRooms, name));
+        }
+
+
+        /**
+         * Reads a device.
+         *
+         * @return              The device.
+         * @throws IOException  The device could not be read.
+         */
+        @NonNull
+        private ShGenericDevice readDevice() throws IOException {
+            byte type = in.readByte();
+            switch (type) {
+                case DEVICE_LIGHT:
+                    return new ShLight(readNonNullString(), readString(), readString(), readString(), readString(), readString(), readString(), readString());
+                case DEVICE_OPENING:
+                    return new ShOpening(readNonNullString(), readEnum(ShOpeningType.class), readString(), readString());
+                case DEVICE_OUTLET:
+                    return new ShOutlet(readString(), readString(), readString(), readString(), readString(), readString(), readString());
+                case DEVICE_SHUTTER:
+                    return new ShShutter(readNonNullString(), readString(), readString(), readString(), readString());
+                case DEVICE_UNKNOWN:
+                    return new ShUnknownDevice(readNonNullString(), readString(), readString(), readString(), readString(), readString(), readString());
+                default:
+                    throw new IOException("Unknown device type " + type);
+            }
+        }
+
+
+        /**
+         * Reads a list of user information.
+         *
+         * @return              The user information.
+         * @throws IOException  The user information could not be read.
+         */
+        @NonNull
+        private ArrayList<UserInformation> readUserInformation() throws IOException {
+            int count = readCount();
+            ArrayList<UserInformation> userInformation = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                userInformation.add(new UserInformation(readEnum(InformationType.class), readEnum(InformationTitle.class), readNonNullString()));
+            }
+            return userInformation;
+        }
+
+
+        /**
+         * Reads a nullable string.
+         *
+         * @return              The string or null.
+         * @throws IOException  The string could not be read.
+         */
+        @Nullable
+        private String readString() throws IOException {
+            int reference = readCount();
+            if (reference == 0) {
+                return null;
+            }
+            else if (reference >= 2) {
+                if (reference - 2 >= strings.size()) {
+                    throw new IOException("Invalid string reference " + reference);
+                }
+                return strings.get(reference - 2);
+            }
+            int length = readCount();
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            String string = new String(bytes, StandardCharsets.UTF_8);
+            strings.add(string);
+            return string;
+        }
+
+
+        /**
+         * Reads a string which must not be null.
+         *
+         * @return              The string.
+         * @throws IOException  The string could not be read or is null.
+         */
+        @NonNull
+        private String readNonNullString() throws IOException {
+            String string = readString();
+            if (string == null) {
+                throw new IOException("Unexpected null string");
+            }
+            return string;
+        }
+
+
+        /**
+         * Reads an enum constant which is stored through its name.
+         *
+         * @param enumClass     Class of the enum.
+         * @return              The enum constant.
+         * @throws IOException  The enum constant could not be read or does not exist.
+         */
+        @NonNull
+        private <E extends Enum<E>> E readEnum(@NonNull Class<E> enumClass) throws IOException {
+            String name = readNonNullString();
+            try {
+                return Enum.valueOf(enumClass, name);
+            }
+            catch (IllegalArgumentException e) {
+                throw new IOException("Unknown " + enumClass.getSimpleName() + " " + name);
+            }
+        }
+
+
+        /**
+         * Reads a non-negative variable-length integer. The number is bounded by the remaining bytes
+         * of the stream, so that a corrupt snapshot cannot cause huge allocations.
+         *
+         * @return              The number.
+         * @throws IOException  The number could not be read or is invalid.
+         */
+        private int readCount() throws IOException {
+            int count = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                byte b = in.readByte();
+                count |= (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    if (count < 0 || count > in.available() + strings.size() + 2) {
+                        throw new IOException("Invalid count " + count);
+                    }
+                    return count;
+                }
+            }
+            throw new IOException("Invalid count");
+        }
+
+    }
+
+}
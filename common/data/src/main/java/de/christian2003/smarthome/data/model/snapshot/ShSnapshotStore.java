@@ -0,0 +1,103 @@
+package de.christian2003.smarthome.data.model.snapshot;
+
+import android.content.Context;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+
+/**
+ * Class stores the snapshot of the last known data of the smart home in the internal storage of the
+ * app. The snapshot is replaced atomically, so that an interrupted write never corrupts the last
+ * snapshot.
+ */
+public class ShSnapshotStore {
+
+    /**
+     * Name of the file in which the snapshot is stored.
+     */
+    private static final String FILE_NAME = "snapshot.bin";
+
+    /**
+     * File in which the snapshot is stored.
+     */
+    @NonNull
+    private final AtomicFile file;
+
+
+    /**
+     * Constructor instantiates a new snapshot store.
+     *
+     * @param context   The current context.
+     */
+    public ShSnapshotStore(@NonNull Context context) {
+        this.file = new AtomicFile(new File(context.getFilesDir(), FILE_NAME));
+    }
+
+
+    /**
+     * Method reads the stored snapshot. A corrupt snapshot or a snapshot with an unsupported version is
+     * deleted.
+     *
+     * @return  The stored snapshot or null if no usable snapshot is stored.
+     */
+    @Nullable
+    public ShSnapshot read() {
+        long start = System.nanoTime();
+        try {
+            byte[] content = file.readFully();
+            ShSnapshot snapshot = ShSnapshot.readFrom(new DataInputStream(new ByteArrayInputStream(content)));
+            if (snapshot == null) {
+                Log.d("Snapshot", "Discarding snapshot with unsupported version");
+                file.delete();
+                return null;
+            }
+            Log.d("Snapshot", "Read snapshot (" + content.length + " bytes) in " + (System.nanoTime() - start) / 1000 + " µs");
+            return snapshot;
+        }
+        catch (FileNotFoundException e) {
+            return null;
+        }
+        catch (IOException e) {
+            Log.e("Snapshot", "Discarding corrupt snapshot: " + e.getMessage());
+            file.delete();
+            return null;
+        }
+    }
+
+
+    /**
+     * Method replaces the stored snapshot with the snapshot passed. This method should not be called
+     * from main thread.
+     *
+     * @param snapshot  Snapshot to store.
+     */
+    public void write(@NonNull ShSnapshot snapshot) {
+        FileOutputStream outputStream = null;
+        try {
+            outputStream = file.startWrite();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+            snapshot.writeTo(out);
+            out.flush();
+            file.finishWrite(outputStream);
+        }
+        catch (IOException e) {
+            Log.e("Snapshot", "Cannot write snapshot: " + e.getMessage());
+            if (outputStream != null) {
+                file.failWrite(outputStream);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package de.christian2003.smarthome.data.model.userinformation;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+
+
+/**
+ * Class collects user information from multiple threads, e.g. from the callbacks of a web view on the
+ * main thread while the information is read on a worker thread. All methods are thread safe.
+ */
+public class UserInformationCollector {
+
+    /**
+     * The collected information.
+     */
+    @NonNull
+    private final ArrayList<UserInformation> information;
+
+
+    /**
+     * Constructor instantiates a new, empty collector.
+     */
+    public UserInformationCollector() {
+        this.information = new ArrayList<>();
+    }
+
+
+    /**
+     * Method adds the information passed.
+     *
+     * @param userInformation   Information to add.
+     */
+    public synchronized void add(@NonNull UserInformation userInformation) {
+        information.add(userInformation);
+    }
+
+
+    /**
+     * Method returns a copy of the collected information, so that the information can be read while
+     * further information is added.
+     *
+     * @return  Copy of the collected information.
+     */
+    @NonNull
+    public synchronized ArrayList<UserInformation> toList() {
+        return new ArrayList<>(information);
+    }
+
+}
@@ -9,6 +9,7 @@ import androidx.compose.runtime.mutableStateOf
 import androidx.compose.runtime.setValue
 import androidx.lifecycle.AndroidViewModel
 import androidx.lifecycle.viewModelScope
+import de.christian2003.smarthome.data.model.cert.ClientCertCache
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
 import java.security.PrivateKey
@@ -53,6 +54,7 @@ class CertViewModel(application: Application): AndroidViewModel(application) {
                 val editor = preferences.edit()
                 editor.putString("cert_alias", alias)
                 editor.apply()
+                ClientCertCache.getInstance(context).invalidate() //The alias may be unchanged if the certificate is selected again.
                 isCertAvailable()
             }
             else {
@@ -1,5 +1,6 @@
 package de.christian2003.smarthome.data.view.main
 
+import android.text.format.DateUtils
 import android.util.Log
 import android.widget.Toast
 import androidx.compose.foundation.background
@@ -26,6 +27,7 @@ import androidx.compose.material3.CircularProgressIndicator
 import androidx.compose.material3.ExperimentalMaterial3Api
 import androidx.compose.material3.Icon
 import androidx.compose.material3.IconButton
+import androidx.compose.material3.LinearProgressIndicator
 import androidx.compose.material3.MaterialTheme
 import androidx.compose.material3.OutlinedButton
 import androidx.compose.material3.Scaffold
@@ -45,6 +47,10 @@ import de.christian2003.smarthome.data.R
 import de.christian2003.smarthome.data.model.cert.CertHandler
 import de.christian2003.smarthome.data.model.cert.SslTrustResponse
 import de.christian2003.smarthome.data.model.cert.SslTrustStatus
+import de.christian2003.smarthome.data.model.devices.ShLightState
+import de.christian2003.smarthome.data.model.devices.ShOpeningState
+import de.christian2003.smarthome.data.model.room.ShEnergy
+import de.christian2003.smarthome.data.model.room.ShHomeIndex
 import de.christian2003.smarthome.data.model.room.ShRoom
 import de.christian2003.smarthome.data.model.userinformation.UserInformation
 import de.christian2003.smarthome.data.ui.utils.SmartHomeInfoCard
@@ -58,7 +64,7 @@ import java.security.cert.X509Certificate
  *
  * @param viewModel             View model for the view.
  * @param onNavigateToSettings  Callback to invoke in order to navigate to the settings
- * @param onNavigateToRoom      Callback to invoke in order to navigate to a specific room.
+ * @param onNavigateToRoom      Callback to invoke with the key of a room in order to navigate to the room.
  * @param onFinishActivity      Callback invoked once the activity (i.e. the entire app) should close.
  */
 @OptIn(ExperimentalMaterial3Api::class)
@@ -66,7 +72,7 @@ import java.security.cert.X509Certificate
 fun MainView(
     viewModel: MainViewModel,
     onNavigateToSettings: () -> Unit,
-    onNavigateToRoom: (Int) -> Unit,
+    onNavigateToRoom: (String) -> Unit,
     onFinishActivity: () -> Unit
 ) {
     val context = LocalContext.current
@@ -128,7 +134,7 @@ fun MainView(
                     }
                 )
             }
-            else if (viewModel.isLoading) {
+            else if (viewModel.isLoading && viewModel.rooms.isEmpty()) {
                 Box(
                     contentAlignment = Alignment.Center,
                     modifier = Modifier.weight(1f)
@@ -149,6 +155,17 @@ fun MainView(
                 )
             }
             else {
+                if (viewModel.isLoading) {
+                    //Revalidating the last known data or extracting the remaining rooms:
+                    LinearProgressIndicator(
+                        modifier = Modifier.fillMaxWidth()
+                    )
+                }
+                if (viewModel.staleSince != null) {
+                    StaleMarker(
+                        staleSince = viewModel.staleSince!!
+                    )
+                }
                 if (viewModel.rooms.isEmpty() && (viewModel.infos.isEmpty() || (viewModel.infos.isNotEmpty() && !viewModel.showErrors && !viewModel.showWarnings))) {
                     EmptyPlaceholder(
                         title = stringResource(R.string.main_empty_title),
@@ -160,9 +177,12 @@ fun MainView(
                 else {
                     RoomsList(
                         rooms = viewModel.rooms,
+                        energy = viewModel.energy,
+                        roomEnergies = viewModel.roomEnergies,
+                        homeIndex = viewModel.homeIndex,
                         infos = viewModel.infos,
                         onRoomClicked = { room ->
-                            onNavigateToRoom(viewModel.rooms.indexOf(room))
+                            onNavigateToRoom(room.key)
                         },
                         showWarnings = viewModel.showWarnings,
                         showErrors = viewModel.showErrors
@@ -174,15 +194,47 @@ fun MainView(
 }
 
 
+/**
+ * Composable displays a marker indicating that the displayed data is not up to date.
+ *
+ * @param staleSince    Time (in milliseconds since the epoch) at which the displayed data was loaded.
+ */
+@Composable
+fun StaleMarker(
+    staleSince: Long
+) {
+    val context = LocalContext.current
+    val time = DateUtils.formatDateTime(context, staleSince, DateUtils.FORMAT_SHOW_DATE or DateUtils.FORMAT_SHOW_TIME)
+    Text(
+        text = stringResource(R.string.main_stale).replace("{time}", time),
+        color = MaterialTheme.colorScheme.onSurfaceVariant,
+        style = MaterialTheme.typography.bodySmall,
+        textAlign = TextAlign.Center,
+        modifier = Modifier
+            .fillMaxWidth()
+            .padding(
+                horizontal = dimensionResource(R.dimen.space_horizontal),
+                vertical = dimensionResource(R.dimen.space_vertical_between)
+            )
+    )
+}
+
+
 /**
  * Composable displays a list of rooms.
  *
  * @param rooms         List of rooms to display.
+ * @param energy        Summed load and energy of all rooms.
+ * @param roomEnergies  Summed load and energy by the rooms.
+ * @param homeIndex     Indexes over the devices of all rooms.
  * @param onRoomClicked Callback to invoke once a room is clicked.
  */
 @Composable
 fun RoomsList(
     rooms: List<ShRoom>,
+    energy: ShEnergy,
+    roomEnergies: Map<ShRoom, ShEnergy>,
+    homeIndex: ShHomeIndex,
     infos: List<UserInformation>,
     onRoomClicked: (ShRoom) -> Unit,
     showWarnings: Boolean,
@@ -196,10 +248,18 @@ fun RoomsList(
                 showErrors = showErrors
             )
         }
+        if (homeIndex.deviceCount > 0) {
+            item {
+                RoomsListRowGlance(
+                    homeIndex = homeIndex
+                )
+            }
+        }
         items(rooms) { room ->
             if (room.isGesamtstatusElement) {
                 RoomsListRowGeneralStatus(
-                    generalStatus = room
+                    generalStatus = room,
+                    energy = energy
                 )
                 Text(
                     modifier = Modifier.padding(
@@ -216,6 +276,7 @@ fun RoomsList(
             else {
                 RoomsListRow(
                     room = room,
+                    energy = roomEnergies[room],
                     onRoomClicked = onRoomClicked
                 )
             }
@@ -228,14 +289,16 @@ fun RoomsList(
  * Composable displays a single room.
  *
  * @param room          Room to display.
+ * @param energy        Summed load and energy of the room or null if the room is not extracted yet.
  * @param onRoomClicked Callback to invoke once the room is clicked.
  */
 @Composable
 fun RoomsListRow(
     room: ShRoom,
+    energy: ShEnergy?,
     onRoomClicked: (ShRoom) -> Unit
 ) {
-    Row(
+    Column(
         modifier = Modifier
             .fillMaxWidth()
             .clickable {
@@ -249,6 +312,15 @@ fun RoomsListRow(
             text = room.name,
             color = MaterialTheme.colorScheme.onSurface
         )
+        if (energy != null && energy.isMeasured) {
+            Text(
+                text = stringResource(R.string.main_energy_room)
+                    .replace("{milliAmp}", energy.milliAmpText)
+                    .replace("{wh}", energy.whText),
+                color = MaterialTheme.colorScheme.onSurfaceVariant,
+                style = MaterialTheme.typography.bodySmall
+            )
+        }
     }
 }
 
@@ -257,10 +329,12 @@ fun RoomsListRow(
  * Composable displays the general status for the smart home.
  *
  * @param generalStatus General status for the smart home.
+ * @param energy        Summed load and energy of all rooms.
  */
 @Composable
 fun RoomsListRowGeneralStatus(
-    generalStatus: ShRoom
+    generalStatus: ShRoom,
+    energy: ShEnergy
 ) {
     Column(
         modifier = Modifier
@@ -303,6 +377,108 @@ fun RoomsListRowGeneralStatus(
                 )
             }
         }
+        if (energy.isMeasured) {
+            GeneralStatusRow(
+                label = stringResource(R.string.main_energy_load),
+                text = energy.milliAmpText
+            )
+            GeneralStatusRow(
+                label = stringResource(R.string.main_energy_wh),
+                text = energy.whText
+            )
+        }
+    }
+}
+
+
+/**
+ * Composable displays the state of the whole smart home at a glance, e.g. the number of open windows.
+ *
+ * @param homeIndex Indexes over the devices of all rooms.
+ */
+@Composable
+fun RoomsListRowGlance(
+    homeIndex: ShHomeIndex
+) {
+    Column(
+        modifier = Modifier
+            .padding(
+                vertical = dimensionResource(R.dimen.space_vertical),
+                horizontal = dimensionResource(R.dimen.space_horizontal)
+            )
+            .fillMaxWidth()
+            .clip(RoundedCornerShape(dimensionResource(R.dimen.corners_default)))
+            .border(
+                width = dimensionResource(R.dimen.borders_default),
+                color = MaterialTheme.colorScheme.outline,
+                shape = RoundedCornerShape(dimensionResource(R.dimen.corners_default))
+            )
+            .background(MaterialTheme.colorScheme.surfaceContainer)
+            .padding(vertical = dimensionResource(R.dimen.space_vertical_between))
+    ) {
+        Text(
+            modifier = Modifier.padding(
+                horizontal = dimensionResource(R.dimen.space_horizontal),
+                vertical = dimensionResource(R.dimen.space_vertical_between)
+            ),
+            text = stringResource(R.string.main_glance),
+            color = MaterialTheme.colorScheme.primary,
+            style = MaterialTheme.typography.bodyLarge,
+            fontWeight = FontWeight.Bold
+        )
+        GeneralStatusRow(
+            label = stringResource(R.string.main_glance_open),
+            text = homeIndex.getOpeningCount(ShOpeningState.Open).toString()
+        )
+        GeneralStatusRow(
+            label = stringResource(R.string.main_glance_tilted),
+            text = homeIndex.getOpeningCount(ShOpeningState.Tilted).toString()
+        )
+        GeneralStatusRow(
+            label = stringResource(R.string.main_glance_lights_on),
+            text = homeIndex.getLightCount(ShLightState.On).toString()
+        )
+        GeneralStatusRow(
+            label = stringResource(R.string.main_glance_shutters_closed),
+            text = homeIndex.getShuttersAtLeast(ShHomeIndex.HALF_CLOSED_PERCENTAGE).size.toString()
+        )
+    }
+}
+
+
+/**
+ * Composable displays a single row of the general status.
+ *
+ * @param label Label for the row.
+ * @param text  Text for the row.
+ */
+@Composable
+private fun GeneralStatusRow(
+    label: String,
+    text: String
+) {
+    Row(
+        modifier = Modifier
+            .fillMaxWidth()
+            .padding(
+                horizontal = dimensionResource(R.dimen.space_horizontal),
+                vertical = dimensionResource(R.dimen.space_vertical_between)
+            ),
+        verticalAlignment = Alignment.CenterVertically
+    ) {
+        Text(
+            modifier = Modifier
+                .weight(1f)
+                .padding(end = dimensionResource(R.dimen.space_horizontal_between)),
+            text = label,
+            color = MaterialTheme.colorScheme.onSurface,
+            style = MaterialTheme.typography.bodyLarge
+        )
+        Text(
+            text = text,
+            color = MaterialTheme.colorScheme.onSurfaceVariant,
+            style = MaterialTheme.typography.bodyMedium
+        )
     }
 }
 
@@ -4,11 +4,14 @@ import android.app.Application
 import android.content.Context
 import androidx.compose.runtime.getValue
 import androidx.compose.runtime.mutableStateOf
+import androidx.compose.runtime.referentialEqualityPolicy
 import androidx.compose.runtime.setValue
 import androidx.lifecycle.AndroidViewModel
 import androidx.lifecycle.viewModelScope
 import de.christian2003.smarthome.data.model.SmartHomeRepository
 import de.christian2003.smarthome.data.model.cert.SslTrustResponse
+import de.christian2003.smarthome.data.model.room.ShEnergy
+import de.christian2003.smarthome.data.model.room.ShHomeIndex
 import de.christian2003.smarthome.data.model.room.ShRoom
 import de.christian2003.smarthome.data.model.userinformation.UserInformation
 import kotlinx.coroutines.launch
@@ -48,7 +51,22 @@ class MainViewModel(application: Application): AndroidViewModel(application) {
     /**
      * Attribute stores the list of rooms.
      */
-    var rooms: List<ShRoom> by mutableStateOf(emptyList())
+    var rooms: List<ShRoom> by mutableStateOf(emptyList(), referentialEqualityPolicy())
+
+    /**
+     * Attribute stores the summed load and energy of all rooms.
+     */
+    var energy: ShEnergy by mutableStateOf(ShEnergy.NONE)
+
+    /**
+     * Attribute stores the summed load and energy by the rooms.
+     */
+    var roomEnergies: Map<ShRoom, ShEnergy> by mutableStateOf(emptyMap(), referentialEqualityPolicy())
+
+    /**
+     * Attribute stores the indexes over the devices of all rooms.
+     */
+    var homeIndex: ShHomeIndex by mutableStateOf(ShHomeIndex.EMPTY)
 
     /**
      * Attribute stores errors that occurred while loading the webpage.
@@ -60,6 +78,12 @@ class MainViewModel(application: Application): AndroidViewModel(application) {
      */
     var sslTrustResponse: SslTrustResponse? by mutableStateOf(null)
 
+    /**
+     * Attribute stores the time (in milliseconds since the epoch) since which the displayed data is
+     * stale. This is null if the displayed data is up to date.
+     */
+    var staleSince: Long? by mutableStateOf(null)
+
 
     /**
      * Method initializes the view model.
@@ -70,8 +94,12 @@ class MainViewModel(application: Application): AndroidViewModel(application) {
         this.repository = repository
         this.isLoading = repository.isLoading
         this.rooms = repository.rooms
+        this.energy = repository.energy
+        this.roomEnergies = repository.roomEnergies
+        this.homeIndex = repository.homeIndex
         this.infos = repository.infos
         this.sslTrustResponse = repository.sslTrustResponse
+        this.staleSince = repository.staleSince
     }
 
 
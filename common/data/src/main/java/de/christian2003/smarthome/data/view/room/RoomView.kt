@@ -1,8 +1,10 @@
 package de.christian2003.smarthome.data.view.room
 
+import androidx.compose.foundation.Canvas
 import androidx.compose.foundation.layout.Column
 import androidx.compose.foundation.layout.Row
 import androidx.compose.foundation.layout.fillMaxWidth
+import androidx.compose.foundation.layout.height
 import androidx.compose.foundation.layout.padding
 import androidx.compose.foundation.lazy.LazyColumn
 import androidx.compose.foundation.lazy.items
@@ -17,15 +19,21 @@ import androidx.compose.material3.TextButton
 import androidx.compose.runtime.Composable
 import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
+import androidx.compose.ui.geometry.Offset
+import androidx.compose.ui.graphics.Path
+import androidx.compose.ui.graphics.drawscope.Stroke
 import androidx.compose.ui.platform.LocalContext
 import androidx.compose.ui.res.dimensionResource
 import androidx.compose.ui.res.painterResource
+import androidx.compose.ui.res.stringArrayResource
+import androidx.compose.ui.res.stringResource
 import de.christian2003.smarthome.data.R
 import de.christian2003.smarthome.data.model.devices.ShLight
 import de.christian2003.smarthome.data.model.devices.ShOpening
 import de.christian2003.smarthome.data.model.devices.ShOutlet
 import de.christian2003.smarthome.data.model.devices.ShShutter
 import de.christian2003.smarthome.data.model.devices.ShUnknownDevice
+import de.christian2003.smarthome.data.model.history.ShHistoryMetric
 import de.christian2003.smarthome.data.model.room.ShInfoText
 import de.christian2003.smarthome.data.model.userinformation.InformationType
 import de.christian2003.smarthome.data.model.userinformation.UserInformation
@@ -63,10 +71,26 @@ fun RoomView(
                             contentDescription = ""
                         )
                     }
+                },
+                actions = {
+                    TextButton(
+                        onClick = {
+                            viewModel.updateHistory(!viewModel.showHistory)
+                        }
+                    ) {
+                        Text(stringResource(if (viewModel.showHistory) { R.string.room_devices } else { R.string.room_history }))
+                    }
                 }
             )
         }
     ) { innerPadding ->
+        if (viewModel.showHistory) {
+            HistoryList(
+                viewModel = viewModel,
+                modifier = Modifier.padding(innerPadding)
+            )
+            return@Scaffold
+        }
         LazyColumn(
             modifier = Modifier.padding(innerPadding)
         ) {
@@ -86,6 +110,129 @@ fun RoomView(
 }
 
 
+/**
+ * Composable displays the history of the metrics of the devices of a room.
+ *
+ * @param viewModel View model for the view.
+ * @param modifier  Modifier.
+ */
+@Composable
+fun HistoryList(
+    viewModel: RoomViewModel,
+    modifier: Modifier = Modifier
+) {
+    val rangeLabels = stringArrayResource(R.array.room_history_ranges)
+    Column(
+        modifier = modifier
+    ) {
+        Row(
+            modifier = Modifier
+                .fillMaxWidth()
+                .padding(horizontal = dimensionResource(R.dimen.space_horizontal))
+        ) {
+            RoomViewModel.HISTORY_RANGES.forEachIndexed { index, range ->
+                TextButton(
+                    onClick = {
+                        viewModel.updateHistory(true, range)
+                    },
+                    enabled = viewModel.historyRange != range
+                ) {
+                    Text(rangeLabels[index])
+                }
+            }
+        }
+        if (viewModel.history.isEmpty()) {
+            Text(
+                text = stringResource(R.string.room_history_empty),
+                color = MaterialTheme.colorScheme.onSurfaceVariant,
+                modifier = Modifier.padding(
+                    vertical = dimensionResource(R.dimen.space_vertical),
+                    horizontal = dimensionResource(R.dimen.space_horizontal)
+                )
+            )
+        }
+        LazyColumn {
+            items(viewModel.history) { item ->
+                ListRowHistory(item)
+            }
+        }
+    }
+}
+
+
+/**
+ * Composable displays the history of a metric of a device as a line chart.
+ *
+ * @param item  History to display.
+ */
+@Composable
+fun ListRowHistory(
+    item: HistoryItem
+) {
+    val lineColor = MaterialTheme.colorScheme.primary
+    val metricLabels = stringArrayResource(R.array.room_history_metrics)
+    Column(
+        modifier = Modifier
+            .fillMaxWidth()
+            .padding(
+                vertical = dimensionResource(R.dimen.space_vertical),
+                horizontal = dimensionResource(R.dimen.space_horizontal)
+            )
+    ) {
+        Text(
+            text = (if (item.device.specifier != null) { item.device.specifier!! } else { item.device.name }) + " · " + metricLabels[item.metric.ordinal],
+            color = MaterialTheme.colorScheme.onSurface
+        )
+        if (item.metric != ShHistoryMetric.OpeningState) {
+            Text(
+                text = stringResource(R.string.room_history_range)
+                    .replace("{min}", formatHistoryValue(item.series.min))
+                    .replace("{max}", formatHistoryValue(item.series.max)),
+                color = MaterialTheme.colorScheme.onSurfaceVariant
+            )
+        }
+        Canvas(
+            modifier = Modifier
+                .fillMaxWidth()
+                .height(dimensionResource(R.dimen.history_chart_height))
+                .padding(top = dimensionResource(R.dimen.space_vertical_between))
+        ) {
+            val series = item.series
+            val firstTime = series.getTime(0)
+            val timeSpan = (series.getTime(series.size() - 1) - firstTime).coerceAtLeast(1)
+            val min = series.min
+            val valueSpan = (series.max - min).takeIf { it > 0 } ?: 1.0
+            val path = Path()
+            for (i in 0 until series.size()) {
+                val x = if (series.size() > 1) { size.width * (series.getTime(i) - firstTime) / timeSpan } else { size.width / 2 }
+                val y = size.height - (size.height * ((series.getValue(i) - min) / valueSpan)).toFloat()
+                if (i == 0) {
+                    path.moveTo(x, y)
+                }
+                else {
+                    path.lineTo(x, y)
+                }
+            }
+            if (series.size() == 1) {
+                drawCircle(lineColor, radius = 4f, center = Offset(size.width / 2, size.height / 2))
+            }
+            drawPath(path, lineColor, style = Stroke(width = 4f))
+        }
+    }
+}
+
+
+/**
+ * Method formats a value of the history for display.
+ *
+ * @param value Value to format.
+ * @return      Formatted value.
+ */
+private fun formatHistoryValue(value: Double): String {
+    return if (value == Math.rint(value)) { value.toLong().toString() } else { String.format("%.1f", value) }
+}
+
+
 /**
  * Composable displays a light.
  *
@@ -6,8 +6,42 @@ import androidx.compose.runtime.getValue
 import androidx.compose.runtime.mutableStateOf
 import androidx.compose.runtime.setValue
 import androidx.lifecycle.AndroidViewModel
+import androidx.lifecycle.viewModelScope
 import de.christian2003.smarthome.data.model.SmartHomeRepository
+import de.christian2003.smarthome.data.model.devices.ShGenericDevice
+import de.christian2003.smarthome.data.model.devices.ShLight
+import de.christian2003.smarthome.data.model.devices.ShOpening
+import de.christian2003.smarthome.data.model.devices.ShOutlet
+import de.christian2003.smarthome.data.model.devices.ShShutter
+import de.christian2003.smarthome.data.model.history.ShHistoryMetric
+import de.christian2003.smarthome.data.model.history.ShHistoryRecorder
+import de.christian2003.smarthome.data.model.history.ShHistorySeries
 import de.christian2003.smarthome.data.model.room.ShRoom
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.launch
+
+
+/**
+ * Class models the history of a metric of a device, as displayed in the history of a room.
+ */
+data class HistoryItem(
+
+    /**
+     * Attribute stores the device whose metric is displayed.
+     */
+    val device: ShGenericDevice,
+
+    /**
+     * Attribute stores the metric which is displayed.
+     */
+    val metric: ShHistoryMetric,
+
+    /**
+     * Attribute stores the samples of the metric within the selected time range.
+     */
+    val series: ShHistorySeries
+
+)
 
 
 /**
@@ -46,16 +80,33 @@ class RoomViewModel(application: Application): AndroidViewModel(application) {
      */
     lateinit var items: List<Any>
 
+    /**
+     * Attribute indicates whether the history of the room is displayed instead of its devices.
+     */
+    var showHistory: Boolean by mutableStateOf(false)
+
+    /**
+     * Attribute stores the time range (in milliseconds before now) of the history displayed.
+     */
+    var historyRange: Long by mutableStateOf(HISTORY_RANGES[0])
+
+    /**
+     * Attribute stores the history of the metrics of the devices of the room.
+     */
+    var history: List<HistoryItem> by mutableStateOf(emptyList())
+
 
     /**
      * Method initializes the view model.
      *
      * @param repository    Repository from which to source the data.
-     * @param position      Position of the room to display.
+     * @param key           Key of the room to display. The room is found by its key, since its position
+     *                      changes when rooms are added or removed by a refresh and several rooms can have
+     *                      the same name.
      */
-    fun init(repository: SmartHomeRepository, position: Int) {
+    fun init(repository: SmartHomeRepository, key: String) {
         this.repository = repository
-        room = repository.rooms[position]
+        room = repository.rooms.firstOrNull { it.key == key } ?: ShRoom(key, null, null, null, false)
 
         showWarnings = preferences.getBoolean("show_warnings", true)
         showErrors = preferences.getBoolean("show_errors", true)
@@ -67,4 +118,80 @@ class RoomViewModel(application: Application): AndroidViewModel(application) {
         items = mutableList
     }
 
+
+    /**
+     * Method displays the history of the room for the time range passed or the devices of the room.
+     *
+     * @param showHistory   Whether to display the history.
+     * @param range         Time range (in milliseconds before now) of the history.
+     */
+    fun updateHistory(showHistory: Boolean, range: Long = historyRange) {
+        this.showHistory = showHistory
+        this.historyRange = range
+        if (showHistory) {
+            loadHistory(range)
+        }
+    }
+
+
+    /**
+     * Method loads the history of the metrics of the devices of the room for the time range passed.
+     *
+     * @param range Time range (in milliseconds before now) of the history.
+     */
+    private fun loadHistory(range: Long) = viewModelScope.launch(Dispatchers.IO) {
+        val store = repository.history.store ?: return@launch
+        val to = System.currentTimeMillis()
+        val from = to - range
+        val historyItems = mutableListOf<HistoryItem>()
+        room.devices.forEach { device ->
+            val deviceId = ShHistoryRecorder.getDeviceId(device)
+            getMetrics(device).forEach { metric ->
+                val series = store.query(deviceId, metric, from, to, HISTORY_SIZE)
+                if (series.size() > 0) {
+                    historyItems.add(HistoryItem(device, metric, series))
+                }
+            }
+        }
+        if (historyRange == range) {
+            history = historyItems
+        }
+    }
+
+
+    /**
+     * Method returns the metrics of which the history is stored for the device passed.
+     *
+     * @param device    Device whose metrics to return.
+     * @return          Metrics of the device.
+     */
+    private fun getMetrics(device: ShGenericDevice): List<ShHistoryMetric> {
+        return when (device) {
+            is ShLight, is ShOutlet -> listOf(ShHistoryMetric.MilliAmp, ShHistoryMetric.Wh)
+            is ShShutter -> listOf(ShHistoryMetric.Percentage)
+            is ShOpening -> listOf(ShHistoryMetric.OpeningState)
+            else -> emptyList()
+        }
+    }
+
+
+    companion object {
+
+        /**
+         * Attribute stores the time ranges (in milliseconds before now) for which the history can be displayed.
+         */
+        val HISTORY_RANGES = listOf(
+            6L * 60 * 60 * 1000,
+            7L * 24 * 60 * 60 * 1000,
+            30L * 24 * 60 * 60 * 1000,
+            365L * 24 * 60 * 60 * 1000
+        )
+
+        /**
+         * Attribute stores the maximum number of samples of a displayed series.
+         */
+        private const val HISTORY_SIZE = 120
+
+    }
+
 }
@@ -118,6 +118,60 @@ fun SettingsView(
                 },
                 prefixIcon = painterResource(R.drawable.ic_ssl)
             )
+            SettingsItemSwitch(
+                setting = stringResource(R.string.settings_connection_direct),
+                info = stringResource(R.string.settings_connection_direct_info),
+                checked = viewModel.directLoading,
+                onCheckedChanged = { checked ->
+                    viewModel.updateDirectLoading(checked)
+                },
+                prefixIcon = painterResource(R.drawable.ic_refresh)
+            )
+            SettingsItemSwitch(
+                setting = stringResource(R.string.settings_connection_projection),
+                info = stringResource(R.string.settings_connection_projection_info),
+                checked = viewModel.roomProjection,
+                onCheckedChanged = { checked ->
+                    viewModel.updateRoomProjection(checked)
+                },
+                prefixIcon = painterResource(R.drawable.ic_rooms)
+            )
+            SettingsItemSwitch(
+                setting = stringResource(R.string.settings_connection_live),
+                info = stringResource(R.string.settings_connection_live_info),
+                checked = viewModel.liveUpdates,
+                onCheckedChanged = { checked ->
+                    viewModel.updateLiveUpdates(checked)
+                },
+                prefixIcon = painterResource(R.drawable.ic_refresh)
+            )
+            SettingsItemSwitch(
+                setting = stringResource(R.string.settings_connection_tree_walk),
+                info = stringResource(R.string.settings_connection_tree_walk_info),
+                checked = viewModel.treeWalkExtraction,
+                onCheckedChanged = { checked ->
+                    viewModel.updateTreeWalkExtraction(checked)
+                },
+                prefixIcon = painterResource(R.drawable.ic_rooms)
+            )
+            SettingsItemSwitch(
+                setting = stringResource(R.string.settings_connection_parallel),
+                info = stringResource(R.string.settings_connection_parallel_info),
+                checked = viewModel.parallelExtraction,
+                onCheckedChanged = { checked ->
+                    viewModel.updateParallelExtraction(checked)
+                },
+                prefixIcon = painterResource(R.drawable.ic_rooms)
+            )
+            SettingsItemSwitch(
+                setting = stringResource(R.string.settings_connection_streaming),
+                info = stringResource(R.string.settings_connection_streaming_info),
+                checked = viewModel.streamingExtraction,
+                onCheckedChanged = { checked ->
+                    viewModel.updateStreamingExtraction(checked)
+                },
+                prefixIcon = painterResource(R.drawable.ic_rooms)
+            )
 
             HorizontalDivider()
 
@@ -34,6 +34,36 @@ class SettingsViewModel(application: Application): AndroidViewModel(application)
      */
     var allowUnsafeSsl: Boolean by mutableStateOf(false)
 
+    /**
+     * Attribute stores whether to fetch the webpage directly without a web view.
+     */
+    var directLoading: Boolean by mutableStateOf(false)
+
+    /**
+     * Attribute stores whether to extract the rooms within the webpage.
+     */
+    var roomProjection: Boolean by mutableStateOf(false)
+
+    /**
+     * Attribute stores whether to keep the webpage loaded and update the rooms when they change.
+     */
+    var liveUpdates: Boolean by mutableStateOf(false)
+
+    /**
+     * Attribute stores whether to extract the rooms through a single walk of each room.
+     */
+    var treeWalkExtraction: Boolean by mutableStateOf(false)
+
+    /**
+     * Attribute stores whether to extract the rooms in parallel.
+     */
+    var parallelExtraction: Boolean by mutableStateOf(false)
+
+    /**
+     * Attribute stores whether to extract the rooms while streaming the html.
+     */
+    var streamingExtraction: Boolean by mutableStateOf(false)
+
     /**
      * Attribute stores whether to use dynamic colors.
      */
@@ -47,6 +77,12 @@ class SettingsViewModel(application: Application): AndroidViewModel(application)
         showWarnings = preferences.getBoolean("show_warnings", true)
         showErrors = preferences.getBoolean("show_errors", true)
         allowUnsafeSsl = preferences.getBoolean("unsafe_cert_validation", false)
+        directLoading = preferences.getBoolean("direct_loading", false)
+        roomProjection = preferences.getBoolean("room_projection", false)
+        liveUpdates = preferences.getBoolean("live_updates", false)
+        treeWalkExtraction = preferences.getBoolean("tree_walk_extraction", false)
+        parallelExtraction = preferences.getBoolean("parallel_extraction", false)
+        streamingExtraction = preferences.getBoolean("streaming_extraction", false)
         useDynamicTheme = preferences.getBoolean("dynamic_theme", false)
     }
 
@@ -81,6 +117,66 @@ class SettingsViewModel(application: Application): AndroidViewModel(application)
         preferences.edit().putBoolean("unsafe_cert_validation", allowUnsafeSsl).apply()
     }
 
+    /**
+     * Method updates whether to fetch the webpage directly without a web view.
+     *
+     * @param directLoading Whether to fetch the webpage directly.
+     */
+    fun updateDirectLoading(directLoading: Boolean) {
+        this.directLoading = directLoading
+        preferences.edit().putBoolean("direct_loading", directLoading).apply()
+    }
+
+    /**
+     * Method updates whether to extract the rooms within the webpage.
+     *
+     * @param roomProjection    Whether to extract the rooms within the webpage.
+     */
+    fun updateRoomProjection(roomProjection: Boolean) {
+        this.roomProjection = roomProjection
+        preferences.edit().putBoolean("room_projection", roomProjection).apply()
+    }
+
+    /**
+     * Method updates whether to keep the webpage loaded and update the rooms when they change.
+     *
+     * @param liveUpdates   Whether to update the rooms when they change.
+     */
+    fun updateLiveUpdates(liveUpdates: Boolean) {
+        this.liveUpdates = liveUpdates
+        preferences.edit().putBoolean("live_updates", liveUpdates).apply()
+    }
+
+    /**
+     * Method updates whether to extract the rooms through a single walk of each room.
+     *
+     * @param treeWalkExtraction    Whether to extract the rooms through a single walk of each room.
+     */
+    fun updateTreeWalkExtraction(treeWalkExtraction: Boolean) {
+        this.treeWalkExtraction = treeWalkExtraction
+        preferences.edit().putBoolean("tree_walk_extraction", treeWalkExtraction).apply()
+    }
+
+    /**
+     * Method updates whether to extract the rooms in parallel.
+     *
+     * @param parallelExtraction    Whether to extract the rooms in parallel.
+     */
+    fun updateParallelExtraction(parallelExtraction: Boolean) {
+        this.parallelExtraction = parallelExtraction
+        preferences.edit().putBoolean("parallel_extraction", parallelExtraction).apply()
+    }
+
+    /**
+     * Method updates whether to extract the rooms while streaming the html.
+     *
+     * @param streamingExtraction   Whether to extract the rooms while streaming the html.
+     */
+    fun updateStreamingExtraction(streamingExtraction: Boolean) {
+        this.streamingExtraction = streamingExtraction
+        preferences.edit().putBoolean("streaming_extraction", streamingExtraction).apply()
+    }
+
     /**
      * Method updates whether to use dynamic theme colors.
      *
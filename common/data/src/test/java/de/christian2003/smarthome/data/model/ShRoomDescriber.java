@@ -0,0 +1,82 @@
+package de.christian2003.smarthome.data.model;
+
+import androidx.annotation.NonNull;
+
+import java.util.List;
+
+import de.christian2003.smarthome.data.model.devices.ShGenericDevice;
+import de.christian2003.smarthome.data.model.devices.ShLight;
+import de.christian2003.smarthome.data.model.devices.ShOpening;
+import de.christian2003.smarthome.data.model.devices.ShOutlet;
+import de.christian2003.smarthome.data.model.devices.ShShutter;
+import de.christian2003.smarthome.data.model.devices.ShUnknownDevice;
+import de.christian2003.smarthome.data.model.room.ShInfoText;
+import de.christian2003.smarthome.data.model.room.ShRoom;
+import de.christian2003.smarthome.data.model.userinformation.UserInformation;
+
+
+/**
+ * Class describes extracted rooms as text, so that the outputs of different extractors can be compared
+ * in tests with a readable difference.
+ */
+public class ShRoomDescriber {
+
+    /**
+     * Method describes all properties of the rooms passed, including their info texts, devices and user
+     * information.
+     *
+     * @param rooms Rooms to describe.
+     * @return      Description of the rooms with one property per line.
+     */
+    @NonNull
+    public static String describe(@NonNull List<ShRoom> rooms) {
+        StringBuilder description = new StringBuilder();
+        for (ShRoom room : rooms) {
+            description.append("Room: ").append(room.getName()).append(", gesamtstatus: ").append(room.isGesamtstatusElement()).append('\n');
+            for (ShInfoText infoText : room.getInfos()) {
+                description.append("\tInfo: ").append(infoText.getLabel()).append(" | ").append(infoText.getSpecifier()).append(" | ").append(infoText.getText()).append('\n');
+            }
+            for (ShGenericDevice device : room.getDevices()) {
+                description.append('\t').append(describe(device)).append('\n');
+            }
+            for (UserInformation userInformation : room.getUserInformation()) {
+                description.append("\tInformation: ").append(userInformation.getInformationType()).append(" | ").append(userInformation.getInformationTitle()).append(" | ").append(userInformation.getDescription()).append('\n');
+            }
+        }
+        return description.toString();
+    }
+
+
+    /**
+     * Method describes all properties of the device passed.
+     *
+     * @param device    Device to describe.
+     * @return          Description of the device.
+     */
+    @NonNull
+    private static String describe(@NonNull ShGenericDevice device) {
+        StringBuilder description = new StringBuilder();
+        description.append(device.getClass().getSimpleName()).append(": ").append(device.getName()).append(" | ").append(device.getSpecifier()).append(" | ").append(device.getImageUri());
+        if (device instanceof ShLight) {
+            ShLight light = (ShLight)device;
+            description.append(" | ").append(light.getOnButtonText()).append(" | ").append(light.getOffButtonText()).append(" | ").append(light.getMilliAmp()).append(" | ").append(light.getHours()).append(" | ").append(light.getWh());
+        }
+        else if (device instanceof ShShutter) {
+            ShShutter shutter = (ShShutter)device;
+            description.append(" | ").append(shutter.getSetButtonText()).append(" | ").append(shutter.getPercentage()).append(" | ").append(shutter.getTime());
+        }
+        else if (device instanceof ShOpening) {
+            description.append(" | ").append(((ShOpening)device).getOpeningType());
+        }
+        else if (device instanceof ShUnknownDevice) {
+            ShUnknownDevice unknownDevice = (ShUnknownDevice)device;
+            description.append(" | ").append(unknownDevice.getOnButtonText()).append(" | ").append(unknownDevice.getOffButtonText()).append(" | ").append(unknownDevice.getMilliAmp()).append(" | ").append(unknownDevice.getHours()).append(" | ").append(unknownDevice.getWh());
+        }
+        else if (device instanceof ShOutlet) {
+            ShOutlet outlet = (ShOutlet)device;
+            description.append(" | ").append(outlet.getOnButtonText()).append(" | ").append(outlet.getOffButtonText()).append(" | ").append(outlet.getAmperage()).append(" | ").append(outlet.getTime()).append(" | ").append(outlet.getPowerConsumption());
+        }
+        return description.toString();
+    }
+
+}
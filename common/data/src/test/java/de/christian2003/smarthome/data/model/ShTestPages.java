@@ -0,0 +1,98 @@
+package de.christian2003.smarthome.data.model;
+
+import androidx.annotation.NonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * Class provides access to the captured smart home webpages which are used as test corpus, and to the
+ * payloads which the room projection script created for them.
+ */
+public class ShTestPages {
+
+    /**
+     * Names of all pages within the corpus.
+     */
+    public static final String[] PAGES = {"sample_page.html", "edge_case_page.html", "projectable_edge_case_page.html", "duplicate_room_page.html"};
+
+    /**
+     * Name of the file storing the hash of the projection script which recorded the payloads.
+     */
+    public static final String SCRIPT_HASH = "script.sha256";
+
+
+    /**
+     * Method loads the html of the page with the name passed.
+     *
+     * @param name  Name of the page to load.
+     * @return      The html of the page.
+     * @throws IOException  The page could not be read.
+     */
+    @NonNull
+    public static String load(@NonNull String name) throws IOException {
+        return read("pages/" + name);
+    }
+
+    /**
+     * Method loads the payload which the room projection script created for the page with the name passed.
+     *
+     * @param name  Name of the page whose payload to load.
+     * @return      The payload of the page.
+     * @throws IOException  The payload could not be read.
+     */
+    @NonNull
+    public static String loadProjection(@NonNull String name) throws IOException {
+        return read("projections/" + getProjectionName(name));
+    }
+
+    /**
+     * Method loads the hash of the room projection script which created the payloads.
+     *
+     * @return  The hash of the script.
+     * @throws IOException  The hash could not be read.
+     */
+    @NonNull
+    public static String loadScriptHash() throws IOException {
+        return read("projections/" + SCRIPT_HASH).trim();
+    }
+
+    /**
+     * Method gets the name of the file storing the payload of the page with the name passed.
+     *
+     * @param name  Name of the page.
+     * @return      Name of the file storing the payload.
+     */
+    @NonNull
+    public static String getProjectionName(@NonNull String name) {
+        return name.replaceAll("\\.html$", "") + ".json";
+    }
+
+
+    /**
+     * Method reads the resource at the path passed.
+     *
+     * @param path  Path of the resource.
+     * @return      The content of the resource.
+     * @throws IOException  The resource could not be read.
+     */
+    @NonNull
+    private static String read(@NonNull String path) throws IOException {
+        try (InputStream inputStream = ShTestPages.class.getClassLoader().getResourceAsStream(path)) {
+            if (inputStream == null) {
+                throw new IOException("Resource " + path + " does not exist");
+            }
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, length);
+            }
+            return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+}
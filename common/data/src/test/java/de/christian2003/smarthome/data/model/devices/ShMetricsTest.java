@@ -0,0 +1,63 @@
+package de.christian2003.smarthome.data.model.devices;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+
+/**
+ * Tests that the metrics of the devices are parsed from the German number format of the webpage and that
+ * their display texts parse back to the same values.
+ */
+public class ShMetricsTest {
+
+    @Test
+    public void germanNumbersAreParsed() {
+        assertEquals(85, ShMetrics.parseMilliAmp("(85 mA)"));
+        assertEquals(1833, ShMetrics.parseMilliAmp("1833"));
+        assertEquals(1500, ShMetrics.parseMilliAmp("1,5 A"));
+        assertEquals(12.5, ShMetrics.parseHours("12,5 h"), 0);
+        assertEquals(1204, ShMetrics.parseWh("1.204 Wh"));
+        assertEquals(311000, ShMetrics.parseWh("311 kWh"));
+        assertEquals(1500, ShMetrics.parseWh("1.5 kWh"));
+        assertEquals(1234567, ShMetrics.parseWh("1.234.567 Wh"));
+        assertEquals(36, ShMetrics.parsePercentage("36"));
+        assertEquals(6, ShMetrics.parseMinutesAgo("(vor 6 min)"));
+        assertEquals(120, ShMetrics.parseMinutesAgo("(vor 2 h)"));
+    }
+
+    @Test
+    public void missingAndUnparseableMetricsAreDistinguished() {
+        assertEquals(ShMetrics.NO_VALUE, ShMetrics.parseMilliAmp(null));
+        assertEquals(ShMetrics.NO_VALUE, ShMetrics.parseMilliAmp("(85 V)"));
+        assertEquals(ShMetrics.NO_VALUE, ShMetrics.parseWh("unbekannt"));
+        assertEquals(ShMetrics.NO_VALUE, ShMetrics.parseWh("1,2,3 Wh"));
+        assertEquals(Double.NaN, ShMetrics.parseHours(""), 0);
+
+        ShLight missing = new ShLight("Licht", null, null, null, null, null, null, null);
+        assertEquals(ShMetricStatus.Missing, missing.getMilliAmpStatus());
+        assertNull(missing.getMilliAmp());
+        ShLight unparseable = new ShLight("Licht", null, null, null, null, "(85 V)", null, null);
+        assertEquals(ShMetricStatus.Unparseable, unparseable.getMilliAmpStatus());
+        assertEquals("(85 V)", unparseable.getMilliAmp());
+    }
+
+    @Test
+    public void displayTextsParseToTheSameValues() {
+        ShOutlet outlet = new ShOutlet("Steckdose", null, null, null, "1833", "12,5 h", "1.204 Wh");
+        assertEquals(ShMetricStatus.Parsed, outlet.getPowerConsumptionStatus());
+        assertEquals("1833 mA", outlet.getAmperage());
+        assertEquals("1,204 kWh", outlet.getPowerConsumption());
+        assertEquals(1204, outlet.getPowerConsumptionValue());
+        ShOutlet restored = new ShOutlet("Steckdose", null, null, null, outlet.getAmperage(), outlet.getTime(), outlet.getPowerConsumption());
+        assertEquals(outlet.getAmperageValue(), restored.getAmperageValue());
+        assertEquals(outlet.getTimeValue(), restored.getTimeValue(), 0);
+        assertEquals(1204, restored.getPowerConsumptionValue());
+
+        ShShutter shutter = new ShShutter("Rollladen", null, null, "36", "(vor 6 min)");
+        assertEquals("(vor 6 min)", shutter.getTime());
+        assertEquals(6, new ShShutter("Rollladen", null, null, shutter.getPercentage(), shutter.getTime()).getMinutesAgo());
+    }
+
+}
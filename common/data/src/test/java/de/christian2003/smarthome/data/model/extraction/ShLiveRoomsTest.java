@@ -0,0 +1,148 @@
+package de.christian2003.smarthome.data.model.extraction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import de.christian2003.smarthome.data.model.ShRoomDescriber;
+import de.christian2003.smarthome.data.model.ShTestPages;
+import de.christian2003.smarthome.data.model.extraction.projection.ShProjectedRoom;
+import de.christian2003.smarthome.data.model.extraction.projection.ShProjectedRow;
+import de.christian2003.smarthome.data.model.extraction.projection.ShRoomChange;
+import de.christian2003.smarthome.data.model.extraction.projection.ShRoomProjectionDecoder;
+import de.christian2003.smarthome.data.model.extraction.search.room.ShRoomSearch;
+import de.christian2003.smarthome.data.model.extraction.stream.ShShapeDeviationException;
+import de.christian2003.smarthome.data.model.extraction.stream.ShStreamedCell;
+import de.christian2003.smarthome.data.model.room.ShRoom;
+
+
+/**
+ * Tests the live rooms against the Jsoup extraction of the changed html, which is the reference
+ * implementation. The rooms are changed with the rows and rooms which the projection script created for
+ * the test corpus.
+ */
+public class ShLiveRoomsTest {
+
+    @Test
+    public void changedRowExtractsSameRoomsAsHtml() throws IOException, ShShapeDeviationException {
+        Document document = Jsoup.parse(ShTestPages.load(ShTestPages.PAGES[0]));
+        ArrayList<ShProjectedRoom> projectedRooms = project();
+        ShLiveRooms liveRooms = createLiveRooms(projectedRooms);
+        ArrayList<ShRoom> previousRooms = liveRooms.getRooms();
+
+        findRows(document, 1).get(0).replaceWith(findRows(document, 3).get(0).clone());
+        ShProjectedRow changedRow = projectedRooms.get(3).getRows().get(0);
+
+        assertTrue(liveRooms.applyChanges(1, Collections.singletonList(new ShRoomChange(1, 0, changedRow))));
+        ArrayList<ShRoom> rooms = liveRooms.getRooms();
+
+        assertEquals(ShRoomDescriber.describe(new ShRoomSearch().findAllRooms(document)), ShRoomDescriber.describe(rooms));
+        for (int i = 0; i < rooms.size(); i++) {
+            if (i == 1) {
+                assertNotSame(previousRooms.get(i), rooms.get(i));
+            }
+            else {
+                assertSame(previousRooms.get(i), rooms.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void changedRoomExtractsSameRoomsAsHtml() throws IOException, ShShapeDeviationException {
+        Document document = Jsoup.parse(ShTestPages.load(ShTestPages.PAGES[0]));
+        ArrayList<ShProjectedRoom> projectedRooms = project();
+        ShLiveRooms liveRooms = createLiveRooms(projectedRooms);
+
+        document.select("div.room").get(2).selectFirst("span.roomName").text("Gesamtstatus Keller");
+        ShProjectedRoom changedRoom = new ShProjectedRoom("Gesamtstatus Keller", new ArrayList<>(projectedRooms.get(2).getRows()));
+
+        assertTrue(liveRooms.applyChanges(1, Collections.singletonList(new ShRoomChange(2, changedRoom))));
+        assertEquals(ShRoomDescriber.describe(new ShRoomSearch().findAllRooms(document)), ShRoomDescriber.describe(liveRooms.getRooms()));
+    }
+
+    @Test
+    public void missedMessageRequiresSnapshot() throws IOException, ShShapeDeviationException {
+        Document document = Jsoup.parse(ShTestPages.load(ShTestPages.PAGES[0]));
+        ArrayList<ShProjectedRoom> projectedRooms = project();
+        ShLiveRooms liveRooms = createLiveRooms(projectedRooms);
+
+        findRows(document, 1).get(0).replaceWith(findRows(document, 3).get(0).clone());
+        ArrayList<ShRoomChange> changes = new ArrayList<>();
+        changes.add(new ShRoomChange(1, 0, projectedRooms.get(3).getRows().get(0)));
+
+        assertFalse(liveRooms.applyChanges(2, changes));
+        assertFalse(liveRooms.applyChanges(1, changes));
+
+        assertTrue(liveRooms.reset(projectedRooms, 5));
+        assertTrue(liveRooms.applyChanges(6, changes));
+        assertEquals(ShRoomDescriber.describe(new ShRoomSearch().findAllRooms(document)), ShRoomDescriber.describe(liveRooms.getRooms()));
+    }
+
+    @Test
+    public void changeOutsideOfRoomsRequiresSnapshot() throws IOException, ShShapeDeviationException {
+        ArrayList<ShProjectedRoom> projectedRooms = project();
+        ShLiveRooms liveRooms = createLiveRooms(projectedRooms);
+        ShProjectedRow row = projectedRooms.get(1).getRows().get(0);
+
+        assertFalse(liveRooms.applyChanges(1, Collections.singletonList(new ShRoomChange(projectedRooms.size(), 0, row))));
+        assertTrue(liveRooms.reset(projectedRooms, 1));
+        assertFalse(liveRooms.applyChanges(2, Collections.singletonList(new ShRoomChange(1, projectedRooms.get(1).getRows().size(), row))));
+    }
+
+    @Test
+    public void snapshotIsRequestedOnce() throws IOException, ShShapeDeviationException {
+        ShLiveRooms liveRooms = createLiveRooms(project());
+
+        assertTrue(liveRooms.requireSnapshot());
+        assertFalse(liveRooms.requireSnapshot());
+        assertFalse(liveRooms.applyChanges(1, Collections.<ShRoomChange>emptyList()));
+
+        assertTrue(liveRooms.reset(project(), 3));
+        assertTrue(liveRooms.requireSnapshot());
+    }
+
+    @Test
+    public void deviatingSnapshotKeepsRooms() throws IOException, ShShapeDeviationException {
+        ArrayList<ShProjectedRoom> projectedRooms = project();
+        ShLiveRooms liveRooms = createLiveRooms(projectedRooms);
+        String expectedRooms = ShRoomDescriber.describe(liveRooms.getRooms());
+
+        ShStreamedCell cell = new ShStreamedCell();
+        cell.innerRows = new ArrayList<>();
+        ArrayList<ShStreamedCell> cells = new ArrayList<>();
+        cells.add(cell);
+        ArrayList<ShProjectedRoom> deviatingRooms = new ArrayList<>(projectedRooms);
+        deviatingRooms.set(1, projectedRooms.get(1).replaceRow(0, new ShProjectedRow("status", cells)));
+
+        assertFalse(liveRooms.reset(deviatingRooms, 1));
+        assertEquals(expectedRooms, ShRoomDescriber.describe(liveRooms.getRooms()));
+        assertFalse(liveRooms.applyChanges(2, Collections.<ShRoomChange>emptyList()));
+    }
+
+
+    private static ArrayList<ShProjectedRoom> project() throws IOException, ShShapeDeviationException {
+        return ShRoomProjectionDecoder.decode(ShTestPages.loadProjection(ShTestPages.PAGES[0]));
+    }
+
+    private static ShLiveRooms createLiveRooms(ArrayList<ShProjectedRoom> projectedRooms) {
+        ShLiveRooms liveRooms = new ShLiveRooms();
+        assertTrue(liveRooms.reset(projectedRooms, 0));
+        return liveRooms;
+    }
+
+    private static ArrayList<Element> findRows(Document document, int roomIndex) {
+        return document.select("div.room").get(roomIndex).selectFirst("table").select("> tbody > tr");
+    }
+
+}
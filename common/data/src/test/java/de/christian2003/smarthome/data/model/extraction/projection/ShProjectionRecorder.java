@@ -0,0 +1,270 @@
+package de.christian2003.smarthome.data.model.extraction.projection;
+
+import androidx.annotation.NonNull;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Attribute;
+import org.jsoup.nodes.Comment;
+import org.jsoup.nodes.DataNode;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import de.christian2003.smarthome.data.model.ShTestPages;
+
+
+/**
+ * Class records the payloads which the script created by {@link ShRoomProjection#createExpression()}
+ * creates for the pages of the test corpus. The script is run by Node.js on a minimal DOM, which is built
+ * from the Jsoup document of the page. The payloads are stored as fixtures next to the pages, together
+ * with the hash of the script which created them, so that the tests fail once the script changes and the
+ * fixtures must be recorded again.
+ * <p>
+ * The recorder is run manually from the directory of the module, e.g. through
+ * {@code java ShProjectionRecorder [directory]}, and requires {@code node} on the path.
+ */
+public class ShProjectionRecorder {
+
+    /**
+     * Directory into which the fixtures are written by default.
+     */
+    private static final String DIRECTORY = "src/test/resources/projections";
+
+    /**
+     * Script which provides the minimal DOM on which the projection runs. The function {@code shDocument}
+     * creates the document from a tree in which an element is {@code [tagName, attributes, children]}, a
+     * text node is a string and a comment is null.
+     */
+    private static final String DOM = "function ShNode(nodeType) {" +
+            "    this.nodeType = nodeType;" +
+            "    this.parentElement = null;" +
+            "    this.firstChild = null;" +
+            "    this.nextSibling = null;" +
+            "    this.childNodes = [];" +
+            "}" +
+            "ShNode.prototype.getAttribute = function(name) {" +
+            "    return Object.prototype.hasOwnProperty.call(this.attributes, name) ? this.attributes[name] : null;" +
+            "};" +
+            "ShNode.prototype.getElementsByTagName = function(tagName) {" +
+            "    var elements = [];" +
+            "    var collect = function(parent) {" +
+            "        for (var i = 0; i < parent.childNodes.length; i++) {" +
+            "            var node = parent.childNodes[i];" +
+            "            if (node.nodeType === 1) {" +
+            "                if (node.tagName.toLowerCase() === tagName) {" +
+            "                    elements.push(node);" +
+            "                }" +
+            "                collect(node);" +
+            "            }" +
+            "        }" +
+            "    };" +
+            "    collect(this);" +
+            "    return elements;" +
+            "};" +
+            "ShNode.prototype.contains = function(node) {" +
+            "    for (; node !== null; node = node.parentElement) {" +
+            "        if (node === this) {" +
+            "            return true;" +
+            "        }" +
+            "    }" +
+            "    return false;" +
+            "};" +
+            "function shCreateNode(tree, parent) {" +
+            "    var node;" +
+            "    if (tree === null) {" +
+            "        node = new ShNode(8);" +
+            "    } else if (typeof tree === 'string') {" +
+            "        node = new ShNode(3);" +
+            "        node.data = tree;" +
+            "    } else {" +
+            "        node = new ShNode(1);" +
+            "        node.tagName = tree[0].toUpperCase();" +
+            "        node.attributes = tree[1];" +
+            "        for (var i = 0; i < tree[2].length; i++) {" +
+            "            var child = shCreateNode(tree[2][i], node);" +
+            "            if (i > 0) {" +
+            "                node.childNodes[i - 1].nextSibling = child;" +
+            "            }" +
+            "            node.childNodes.push(child);" +
+            "        }" +
+            "        node.firstChild = node.childNodes.length > 0 ? node.childNodes[0] : null;" +
+            "    }" +
+            "    node.parentElement = parent;" +
+            "    return node;" +
+            "}" +
+            "function shDocument(tree) {" +
+            "    var document = new ShNode(9);" +
+            "    document.documentElement = shCreateNode(tree, null);" +
+            "    document.childNodes = [document.documentElement];" +
+            "    document.firstChild = document.documentElement;" +
+            "    return document;" +
+            "}";
+
+
+    /**
+     * Method records the payloads of all pages of the test corpus.
+     *
+     * @param args  Optionally the directory into which to write the fixtures.
+     * @throws Exception    The payloads could not be recorded.
+     */
+    public static void main(String[] args) throws Exception {
+        File directory = new File(args.length > 0 ? args[0] : DIRECTORY);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Directory " + directory + " cannot be created");
+        }
+        for (String page : ShTestPages.PAGES) {
+            String payload = record(ShTestPages.load(page));
+            Files.write(new File(directory, ShTestPages.getProjectionName(page)).toPath(), payload.getBytes(StandardCharsets.UTF_8));
+        }
+        Files.write(new File(directory, ShTestPages.SCRIPT_HASH).toPath(), hashScript().getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    /**
+     * Method creates the hash of the script which projects the rooms.
+     *
+     * @return  SHA-256 hash of the script as hexadecimal string.
+     */
+    @NonNull
+    public static String hashScript() {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(ShRoomProjection.createExpression().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hexadecimal = new StringBuilder();
+            for (byte b : hash) {
+                hexadecimal.append(String.format("%02x", b));
+            }
+            return hexadecimal.toString();
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    /**
+     * Method runs the projection script on the html passed.
+     *
+     * @param html  Html of the page whose rooms to project.
+     * @return      The payload created by the script.
+     * @throws IOException          Node.js could not be run.
+     * @throws InterruptedException The thread was interrupted while Node.js was running.
+     */
+    @NonNull
+    private static String record(@NonNull String html) throws IOException, InterruptedException {
+        StringBuilder tree = new StringBuilder();
+        appendNode(Jsoup.parse(html).child(0), tree);
+        String script = DOM + "var document = shDocument(" + tree + ");" +
+                "process.stdout.write(" + ShRoomProjection.createExpression() + ");";
+
+        File file = File.createTempFile("projection", ".js");
+        try {
+            Files.write(file.toPath(), script.getBytes(StandardCharsets.UTF_8));
+            Process process = new ProcessBuilder("node", file.getAbsolutePath()).redirectErrorStream(true).start();
+            String payload = read(process.getInputStream());
+            if (process.waitFor() != 0) {
+                throw new IOException("Node.js failed: " + payload);
+            }
+            return payload;
+        }
+        finally {
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+
+
+    /**
+     * Method appends the node passed to the tree from which the minimal DOM is built.
+     *
+     * @param node  Node to append.
+     * @param tree  Tree to which to append the node.
+     */
+    private static void appendNode(@NonNull Node node, @NonNull StringBuilder tree) {
+        if (node instanceof TextNode) {
+            appendString(((TextNode)node).getWholeText(), tree);
+        }
+        else if (node instanceof DataNode) {
+            appendString(((DataNode)node).getWholeData(), tree);
+        }
+        else if (node instanceof Element) {
+            tree.append('[');
+            appendString(((Element)node).tagName(), tree);
+            tree.append(",{");
+            boolean first = true;
+            for (Attribute attribute : node.attributes()) {
+                if (!first) {
+                    tree.append(',');
+                }
+                first = false;
+                appendString(attribute.getKey(), tree);
+                tree.append(':');
+                appendString(attribute.getValue(), tree);
+            }
+            tree.append("},[");
+            for (int i = 0; i < node.childNodeSize(); i++) {
+                if (i > 0) {
+                    tree.append(',');
+                }
+                appendNode(node.childNode(i), tree);
+            }
+            tree.append("]]");
+        }
+        else {
+            tree.append(node instanceof Comment ? "null" : "''");
+        }
+    }
+
+
+    /**
+     * Method appends the string passed as JavaScript string literal.
+     *
+     * @param value String to append.
+     * @param tree  Tree to which to append the string.
+     */
+    private static void appendString(@NonNull String value, @NonNull StringBuilder tree) {
+        tree.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                tree.append('\\').append(c);
+            }
+            else if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+                tree.append(String.format("\\u%04x", (int)c));
+            }
+            else {
+                tree.append(c);
+            }
+        }
+        tree.append('"');
+    }
+
+
+    /**
+     * Method reads the stream passed completely.
+     *
+     * @param inputStream   Stream to read.
+     * @return              The content of the stream.
+     * @throws IOException  The stream could not be read.
+     */
+    @NonNull
+    private static String read(@NonNull InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int length;
+        while ((length = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, length);
+        }
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+}
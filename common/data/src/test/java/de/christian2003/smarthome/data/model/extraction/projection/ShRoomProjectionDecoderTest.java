@@ -0,0 +1,127 @@
+package de.christian2003.smarthome.data.model.extraction.projection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.jsoup.Jsoup;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.christian2003.smarthome.data.model.ShRoomDescriber;
+import de.christian2003.smarthome.data.model.ShTestPages;
+import de.christian2003.smarthome.data.model.extraction.search.room.ShRoomSearch;
+import de.christian2003.smarthome.data.model.extraction.stream.ShShapeDeviationException;
+import de.christian2003.smarthome.data.model.extraction.stream.ShStreamedCell;
+import de.christian2003.smarthome.data.model.room.ShRoom;
+
+
+/**
+ * Tests the rooms decoded from the payloads which the projection script created for the test corpus
+ * against the Jsoup extraction of the complete html, which is the reference implementation. The payloads
+ * are recorded by {@link ShProjectionRecorder}.
+ */
+public class ShRoomProjectionDecoderTest {
+
+    /**
+     * Page whose rooms deviate from the shape which can be projected.
+     */
+    private static final String DEVIATING_PAGE = "edge_case_page.html";
+
+    /**
+     * Page whose status rows contain inner tables, which the projected rooms cannot be created from.
+     */
+    private static final String INNER_TABLE_PAGE = "duplicate_room_page.html";
+
+
+    @Test
+    public void payloadsWereRecordedByCurrentScript() throws IOException {
+        assertEquals("Record the payloads again through ShProjectionRecorder", ShTestPages.loadScriptHash(), ShProjectionRecorder.hashScript());
+    }
+
+    @Test
+    public void projectionExtractsSameRoomsAsHtml() throws IOException, ShShapeDeviationException {
+        for (String page : ShTestPages.PAGES) {
+            if (page.equals(DEVIATING_PAGE) || page.equals(INNER_TABLE_PAGE)) {
+                continue;
+            }
+            ArrayList<ShRoom> expectedRooms = new ShRoomSearch().findAllRooms(Jsoup.parse(ShTestPages.load(page)));
+            ArrayList<ShRoom> rooms = ShProjectedRoom.createRooms(ShRoomProjectionDecoder.decode(ShTestPages.loadProjection(page)));
+
+            assertTrue(page, !expectedRooms.isEmpty());
+            assertEquals(page, ShRoomDescriber.describe(expectedRooms), ShRoomDescriber.describe(rooms));
+        }
+    }
+
+    @Test
+    public void projectionIsSmallerThanHtml() throws IOException {
+        for (String page : ShTestPages.PAGES) {
+            String html = ShTestPages.load(page);
+            String json = ShTestPages.loadProjection(page);
+            assertTrue(page + ": " + json.length() + " of " + html.length() + " chars", json.length() < html.length());
+        }
+    }
+
+    @Test(expected = ShShapeDeviationException.class)
+    public void deviatingPageIsReported() throws IOException, ShShapeDeviationException {
+        ShRoomProjectionDecoder.decode(ShTestPages.loadProjection(DEVIATING_PAGE));
+    }
+
+    @Test
+    public void decodeUnescapesStrings() throws ShShapeDeviationException {
+        String json = "{ \"v\": 2, \"rooms\": [[\"K\\u00fcche \\\"Ost\\\"\\n\", [[\"infoText\", [{\"o\": \"Temperatur\"}, {\"t\": \"21 \\u00b0C\", \"i\": \"\"}]]]]] }";
+        ArrayList<ShProjectedRoom> rooms = ShRoomProjectionDecoder.decode(json);
+
+        assertEquals(1, rooms.size());
+        assertEquals("Küche \"Ost\"", rooms.get(0).getName());
+        List<ShStreamedCell> cells = rooms.get(0).getRows().get(0).getCells();
+        assertEquals("Temperatur", cells.get(0).text.toString());
+        assertEquals("21 °C", cells.get(1).text.toString());
+        assertEquals("", cells.get(1).ownText.toString());
+        assertTrue(cells.get(1).containsImage);
+    }
+
+    @Test
+    public void decodeRoomsWithoutNameOrContent() throws ShShapeDeviationException {
+        ArrayList<ShProjectedRoom> rooms = ShRoomProjectionDecoder.decode("{\"v\":2,\"rooms\":[[null,[]],[\"Bad\",null]]}");
+
+        assertNull(rooms.get(0).getName());
+        assertTrue(rooms.get(0).getRows().isEmpty());
+        assertNull(rooms.get(1).getRows());
+    }
+
+    @Test
+    public void decodeWithoutRooms() throws ShShapeDeviationException {
+        assertTrue(ShRoomProjectionDecoder.decode("{\"v\":2,\"rooms\":[]}").isEmpty());
+    }
+
+    @Test
+    public void decodeChanges() throws ShShapeDeviationException {
+        ArrayList<ShRoomChange> changes = ShRoomProjectionDecoder.decodeChanges("{\"v\":2,\"changes\":[[1,0,[\"infoText\",[{\"o\":\"Licht\"}]]],[2,-1,[\"Bad\",null]]]}");
+
+        assertEquals(2, changes.size());
+        assertEquals("infoText", changes.get(0).getRow().getClassNames());
+        assertNull(changes.get(0).getRoom());
+        assertEquals(ShRoomChange.COMPLETE_ROOM, changes.get(1).getRowIndex());
+        assertEquals("Bad", changes.get(1).getRoom().getName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeRejectsUnsupportedVersion() throws ShShapeDeviationException {
+        ShRoomProjectionDecoder.decode("{\"v\":1,\"rooms\":[]}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeRejectsTruncatedPayload() throws ShShapeDeviationException {
+        ShRoomProjectionDecoder.decode("{\"v\":2,\"rooms\":[[\"Bad\",[[\"infoText\",[{\"o\":\"Lic");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeRejectsUnknownCellProperty() throws ShShapeDeviationException {
+        ShRoomProjectionDecoder.decode("{\"v\":2,\"rooms\":[[\"Bad\",[[\"infoText\",[{\"x\":\"Licht\"}]]]]]}");
+    }
+
+}
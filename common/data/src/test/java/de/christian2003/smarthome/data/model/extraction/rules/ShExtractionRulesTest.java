@@ -0,0 +1,108 @@
+package de.christian2003.smarthome.data.model.extraction.rules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import de.christian2003.smarthome.data.model.ShRoomDescriber;
+import de.christian2003.smarthome.data.model.ShTestPages;
+import de.christian2003.smarthome.data.model.extraction.search.ShExtractionEngine;
+import de.christian2003.smarthome.data.model.extraction.search.room.ShRoomSearch;
+import de.christian2003.smarthome.data.model.extraction.stream.ShStreamingExtractor;
+
+
+/**
+ * Tests the compilation of the extraction rules and the extraction through the compiled rules against the
+ * built-in rules, which are the reference implementation.
+ */
+public class ShExtractionRulesTest {
+
+    /**
+     * Path of the rule file which is shipped with the app, relative to the module.
+     */
+    private static final String RULE_FILE = "src/main/res/raw/extraction_rules.csv";
+
+
+    @After
+    public void installBuiltInRules() {
+        ShExtractionRules.install(ShExtractionRules.createBuiltIn());
+    }
+
+    @Test
+    public void shippedRulesExtractSameRoomsAsBuiltInRules() throws IOException {
+        ShExtractionRules rules = ShExtractionRules.compile(new String(Files.readAllBytes(Paths.get(RULE_FILE)), StandardCharsets.UTF_8));
+        assertTrue(rules.hasBuiltInSelectors());
+
+        for (String page : ShTestPages.PAGES) {
+            Document document = Jsoup.parse(ShTestPages.load(page));
+            for (ShExtractionEngine engine : ShExtractionEngine.values()) {
+                ShExtractionRules.install(ShExtractionRules.createBuiltIn());
+                String expectedRooms = ShRoomDescriber.describe(new ShRoomSearch(engine).findAllRooms(document));
+                ShExtractionRules.install(rules);
+                assertEquals(page + ": " + engine, expectedRooms, ShRoomDescriber.describe(new ShRoomSearch(engine).findAllRooms(document)));
+            }
+        }
+    }
+
+    @Test
+    public void replacedSelectorIsNotUsedByBuiltInEngines() throws IOException {
+        ShExtractionRules.install(ShExtractionRules.compile("selector,Room,div.room:not(.hidden)"));
+        assertFalse(ShExtractionRules.getInstance().hasBuiltInSelectors());
+
+        String html = ShTestPages.load(ShTestPages.PAGES[0]);
+        Document document = Jsoup.parse(html);
+        assertEquals(ShRoomDescriber.describe(new ShRoomSearch(ShExtractionEngine.Selector).findAllRooms(document)), ShRoomDescriber.describe(new ShRoomSearch(ShExtractionEngine.TreeWalk).findAllRooms(document)));
+        assertNull(new ShStreamingExtractor(html).extract());
+    }
+
+    @Test
+    public void keywordRulesReplaceBuiltInKeywords() {
+        ShExtractionRules rules = ShExtractionRules.compile("keyword,übersicht,Gesamtstatus\nkeyword,fenster,Door\nkeyword,lampe,Light");
+        assertTrue(rules.isGesamtstatus("Übersicht"));
+        assertFalse(rules.isGesamtstatus("Gesamtstatus"));
+        assertEquals(ShLabelType.Door, rules.classifyLabel("Fenster links"));
+        assertEquals(ShLabelType.Light, rules.classifyLabel("LAMPE"));
+        assertEquals(ShLabelType.Unknown, rules.classifyLabel("Tür"));
+    }
+
+    @Test
+    public void rowRulesAreMatchedInOrder() {
+        ShExtractionRules rules = ShExtractionRules.compile("row,status,Status\nrow,opening,Opening");
+        assertEquals(ShRowType.Status, rules.getRowType(Jsoup.parse("<table><tr class='opening status'></tr></table>").selectFirst("tr").classNames()));
+        assertEquals(ShRowType.Unknown, rules.getRowType(Jsoup.parse("<table><tr class='shutter'></tr></table>").selectFirst("tr").classNames()));
+    }
+
+    @Test
+    public void invalidRulesAreRejected() {
+        String[] invalidRules = {
+                "selector,Rooms,div.room",
+                "selector,Room,div[",
+                "row,infoText,Unknown",
+                "keyword,fenster,Shutter",
+                "rule,fenster,Window",
+                "keyword,fenster"
+        };
+        for (String invalidRule : invalidRules) {
+            try {
+                ShExtractionRules.compile("# Invalid rule\n" + invalidRule);
+                fail(invalidRule);
+            }
+            catch (IllegalArgumentException e) {
+                assertTrue(invalidRule, e.getMessage().startsWith("Line 2") || e.getMessage().contains("Room"));
+            }
+        }
+    }
+
+}
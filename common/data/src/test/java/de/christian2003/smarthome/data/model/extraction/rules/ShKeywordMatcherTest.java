@@ -0,0 +1,67 @@
+package de.christian2003.smarthome.data.model.extraction.rules;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+
+/**
+ * Tests the keyword matcher against a scan of the text with {@link String#contains(CharSequence)} per
+ * keyword, which is the reference implementation.
+ */
+public class ShKeywordMatcherTest {
+
+    @Test
+    public void umlautsMatchTheirTransliterations() {
+        ShKeywordMatcher matcher = new ShKeywordMatcher(Arrays.asList("fenster", "tür", "licht"), Arrays.asList(ShLabelType.Window, ShLabelType.Door, ShLabelType.Light));
+        assertEquals(ShLabelType.Door, matcher.match("Haustür"));
+        assertEquals(ShLabelType.Door, matcher.match("HAUSTUER"));
+        assertEquals(ShLabelType.Door, matcher.match("Haustu\u0308r"));
+        assertEquals(ShLabelType.Window, matcher.match("Fenster Tür"));
+        assertEquals(ShLabelType.Light, matcher.match("Deckenlicht"));
+        assertEquals(ShLabelType.Unknown, matcher.match("Tor"));
+        assertEquals(ShLabelType.Unknown, matcher.match(""));
+    }
+
+    @Test
+    public void overlappingKeywordsMatchLikeContains() {
+        List<String> keywords = Arrays.asList("hers", "his", "she", "he", "ss", "ß");
+        List<ShLabelType> types = Arrays.asList(ShLabelType.Window, ShLabelType.Door, ShLabelType.Light, ShLabelType.Gesamtstatus, ShLabelType.Door, ShLabelType.Light);
+        ShKeywordMatcher matcher = new ShKeywordMatcher(keywords, types);
+        Random random = new Random(15);
+        char[] alphabet = {'h', 'e', 'r', 's', 'i', 'S', 'ß', 'x'};
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                text.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            assertEquals(text.toString(), matchWithContains(keywords, types, text.toString()), matcher.match(text.toString()));
+        }
+    }
+
+
+    /**
+     * Method matches the text passed by scanning it once per keyword.
+     *
+     * @param keywords  The keywords in the order of the rules.
+     * @param types     The type of each keyword.
+     * @param text      The text to match.
+     * @return          The type of the first keyword which the text contains.
+     */
+    private static ShLabelType matchWithContains(List<String> keywords, List<ShLabelType> types, String text) {
+        String normalizedText = text.toLowerCase(Locale.ROOT).replace("ß", "ss");
+        for (int i = 0; i < keywords.size(); i++) {
+            if (normalizedText.contains(keywords.get(i).replace("ß", "ss"))) {
+                return types.get(i);
+            }
+        }
+        return ShLabelType.Unknown;
+    }
+
+}
@@ -0,0 +1,60 @@
+package de.christian2003.smarthome.data.model.extraction.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import de.christian2003.smarthome.data.model.ShRoomDescriber;
+import de.christian2003.smarthome.data.model.ShTestPages;
+import de.christian2003.smarthome.data.model.extraction.search.room.ShRoomSearch;
+import de.christian2003.smarthome.data.model.room.ShRoom;
+
+
+/**
+ * Tests the tree walk against the CSS queries of Jsoup, which are the reference implementation.
+ */
+public class ShTreeWalkQueryTest {
+
+    @Test
+    public void treeWalkExtractsSameRoomsAsSelectors() throws IOException {
+        for (String page : ShTestPages.PAGES) {
+            Document document = Jsoup.parse(ShTestPages.load(page));
+            ArrayList<ShRoom> expectedRooms = new ShRoomSearch(ShExtractionEngine.Selector).findAllRooms(document);
+            ArrayList<ShRoom> rooms = new ShRoomSearch(ShExtractionEngine.TreeWalk).findAllRooms(document);
+
+            assertTrue(page, !expectedRooms.isEmpty());
+            assertEquals(page, ShRoomDescriber.describe(expectedRooms), ShRoomDescriber.describe(rooms));
+        }
+    }
+
+    @Test
+    public void treeWalkMatchesSameElementsAsSelectors() throws IOException {
+        for (String page : ShTestPages.PAGES) {
+            Document document = Jsoup.parse(ShTestPages.load(page));
+            ShTreeWalkQuery query = new ShTreeWalkQuery(document);
+            for (Element scope : document.getAllElements()) {
+                for (ShSelector selector : ShSelector.values()) {
+                    String message = page + ": " + selector + " in " + scope.cssSelector();
+                    assertSame(message, ShSelectorQuery.INSTANCE.first(scope, selector), query.first(scope, selector));
+                    assertEquals(message, ShSelectorQuery.INSTANCE.all(scope, selector), query.all(scope, selector));
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void treeWalkRejectsScopeOutsideOfRoot() throws IOException {
+        Document document = Jsoup.parse(ShTestPages.load(ShTestPages.PAGES[0]));
+        ShTreeWalkQuery query = new ShTreeWalkQuery(document.select("div.room").get(1));
+        query.first(document.select("div.room").get(0), ShSelector.Table);
+    }
+
+}
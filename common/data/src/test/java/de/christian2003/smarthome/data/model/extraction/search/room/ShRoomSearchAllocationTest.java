@@ -0,0 +1,91 @@
+package de.christian2003.smarthome.data.model.extraction.search.room;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import de.christian2003.smarthome.data.model.ShTestPages;
+import de.christian2003.smarthome.data.model.extraction.search.ShExtractionEngine;
+
+
+/**
+ * Checks the garbage which the extraction of the captured 40 room page allocates per refresh. The
+ * document is parsed once, so that only the allocations of the search classes are measured. Since the
+ * absolute number of bytes depends on the JVM, the allocations are compared with those of parsing the
+ * same page in the same run.
+ */
+public class ShRoomSearchAllocationTest {
+
+    /**
+     * Number of extractions before the allocations are measured, so that the caches are filled and the
+     * code is compiled.
+     */
+    private static final int WARMUP_REFRESHES = 200;
+
+    /**
+     * Number of extractions over which the allocations are averaged.
+     */
+    private static final int MEASURED_REFRESHES = 200;
+
+    /**
+     * Number of times the allocations of parsing the page may exceed those of an extraction through CSS
+     * queries. Before the search classes wrote into a sink, an extraction allocated about 60% of the parse,
+     * since then it allocates about a quarter. The bound leaves generous slack between both.
+     */
+    private static final long MINIMUM_PARSE_RATIO = 2;
+
+
+    @Test
+    public void selectorExtractionAllocatesFractionOfParse() throws IOException {
+        String html = ShTestPages.load(ShTestPages.PAGES[0]);
+        Document document = Jsoup.parse(html);
+        ShRoomSearch roomSearch = new ShRoomSearch(ShExtractionEngine.Selector);
+        assertEquals(40, roomSearch.findAllRooms(document).size());
+
+        long parseBytes = measureAllocatedBytes(() -> Jsoup.parse(html));
+        long extractionBytes = measureAllocatedBytes(() -> roomSearch.findAllRooms(document));
+        if (parseBytes < 0 || extractionBytes < 0) {
+            // The JVM does not measure the allocations per thread.
+            return;
+        }
+        assertTrue(extractionBytes + " bytes per extraction, " + parseBytes + " bytes per parse", extractionBytes * MINIMUM_PARSE_RATIO <= parseBytes);
+    }
+
+
+    /**
+     * Method measures the average number of bytes which the passed work allocates on the current thread
+     * after it was warmed up.
+     *
+     * @param work  The work to measure.
+     * @return      The average number of bytes per run or -1 if the JVM does not measure the allocations
+     *              per thread.
+     */
+    private static long measureAllocatedBytes(Runnable work) {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean)threadBean;
+        if (!allocationBean.isThreadAllocatedMemorySupported() || !allocationBean.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+
+        for (int i = 0; i < WARMUP_REFRESHES; i++) {
+            work.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = allocationBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_REFRESHES; i++) {
+            work.run();
+        }
+        return (allocationBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / MEASURED_REFRESHES;
+    }
+
+}
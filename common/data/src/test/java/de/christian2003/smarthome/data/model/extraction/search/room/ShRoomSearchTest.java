@@ -0,0 +1,176 @@
+package de.christian2003.smarthome.data.model.extraction.search.room;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import de.christian2003.smarthome.data.model.ShRoomDescriber;
+import de.christian2003.smarthome.data.model.ShTestPages;
+import de.christian2003.smarthome.data.model.extraction.search.ShExtractionEngine;
+import de.christian2003.smarthome.data.model.room.ShRoom;
+
+
+/**
+ * Tests the parallel and the batched extraction of the rooms against the sequential extraction, which is
+ * the reference implementation.
+ */
+public class ShRoomSearchTest {
+
+    /**
+     * Number of times the parallel extraction is repeated, so that different schedules are covered.
+     */
+    private static final int REPETITIONS = 20;
+
+
+    @Test
+    public void parallelExtractsSameRoomsAsSequential() throws IOException {
+        for (String page : ShTestPages.PAGES) {
+            Document document = Jsoup.parse(ShTestPages.load(page));
+            for (ShExtractionEngine engine : ShExtractionEngine.values()) {
+                String expectedRooms = ShRoomDescriber.describe(new ShRoomSearch(engine, false).findAllRooms(document));
+                for (int i = 0; i < REPETITIONS; i++) {
+                    assertEquals(page + ": " + engine, expectedRooms, ShRoomDescriber.describe(new ShRoomSearch(engine, true).findAllRooms(document)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void parallelPlacesGesamtstatusFirst() throws IOException {
+        for (String page : ShTestPages.PAGES) {
+            ArrayList<ShRoom> rooms = new ShRoomSearch(ShExtractionEngine.Selector, true).findAllRooms(Jsoup.parse(ShTestPages.load(page)));
+            assertTrue(page, rooms.get(0).isGesamtstatusElement());
+            for (int i = 1; i < rooms.size(); i++) {
+                assertTrue(page, !rooms.get(i).isGesamtstatusElement());
+            }
+        }
+    }
+
+    @Test
+    public void batchesContainRoomsExtractedSoFar() throws IOException {
+        for (String page : ShTestPages.PAGES) {
+            Document document = Jsoup.parse(ShTestPages.load(page));
+            ArrayList<ArrayList<ShRoom>> batches = new ArrayList<>();
+            ArrayList<ShRoom> rooms = new ShRoomSearch().findAllRooms(document, batches::add);
+
+            assertEquals(page, (rooms.size() + ShRoomSearch.BATCH_SIZE - 2) / ShRoomSearch.BATCH_SIZE, batches.size());
+            for (int i = 0; i < batches.size(); i++) {
+                ArrayList<ShRoom> batch = batches.get(i);
+                assertEquals(page, 1 + i * ShRoomSearch.BATCH_SIZE, batch.size());
+                // The "gesamtstatus" is extracted and passed first, the other rooms are in document order.
+                assertTrue(page, batch.get(0).isGesamtstatusElement());
+                assertEquals(page, ShRoomDescriber.describe(rooms.subList(0, batch.size())), ShRoomDescriber.describe(batch));
+            }
+            assertEquals(page, ShRoomDescriber.describe(new ShRoomSearch().findAllRooms(document)), ShRoomDescriber.describe(rooms));
+        }
+    }
+
+    @Test
+    public void gesamtstatusIsPassedBeforeOtherRooms() throws IOException {
+        for (String page : ShTestPages.PAGES) {
+            for (ShExtractionEngine engine : ShExtractionEngine.values()) {
+                for (boolean parallel : new boolean[] {false, true}) {
+                    Document document = Jsoup.parse(ShTestPages.load(page));
+                    ArrayList<ArrayList<ShRoom>> batches = new ArrayList<>();
+                    ArrayList<ShRoom> rooms = new ShRoomSearch(engine, parallel).findAllRooms(document, batches::add);
+
+                    assertEquals(page + ": " + engine, 1, batches.get(0).size());
+                    assertSame(page + ": " + engine, rooms.get(0), batches.get(0).get(0));
+                    assertEquals(page + ": " + engine, ShRoomDescriber.describe(new ShRoomSearch(engine, parallel).findAllRooms(document)), ShRoomDescriber.describe(rooms));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void gesamtstatusRoomIsFoundWithoutOtherRooms() throws IOException {
+        for (String page : ShTestPages.PAGES) {
+            Document document = Jsoup.parse(ShTestPages.load(page));
+            ShRoomSearch roomSearch = new ShRoomSearch();
+            ShRoom gesamtstatus = roomSearch.parseRoom(roomSearch.findGesamtstatusRoom(document), true);
+
+            assertTrue(page, gesamtstatus.isGesamtstatusElement());
+            assertEquals(page, ShRoomDescriber.describe(roomSearch.findAllRooms(document).subList(0, 1)), ShRoomDescriber.describe(Collections.singletonList(gesamtstatus)));
+        }
+        assertNull(new ShRoomSearch().findGesamtstatusRoom(Jsoup.parse("<div class=\"room\"><span class=\"roomName\">Küche</span></div>")));
+    }
+
+    @Test
+    public void unchangedRoomsAreReused() throws IOException {
+        for (String page : ShTestPages.PAGES) {
+            for (boolean parallel : new boolean[] {false, true}) {
+                ShRoomFingerprints fingerprints = new ShRoomFingerprints();
+                ArrayList<ShRoom> rooms = new ShRoomSearch(ShExtractionEngine.Selector, parallel, fingerprints).findAllRooms(Jsoup.parse(ShTestPages.load(page)));
+                ArrayList<ShRoom> reusedRooms = new ShRoomSearch(ShExtractionEngine.TreeWalk, parallel, fingerprints).findAllRooms(Jsoup.parse(ShTestPages.load(page)));
+
+                assertEquals(page, rooms.size(), reusedRooms.size());
+                Set<ShRoom> distinctRooms = Collections.newSetFromMap(new IdentityHashMap<ShRoom, Boolean>());
+                Set<String> keys = new HashSet<>();
+                for (int i = 0; i < rooms.size(); i++) {
+                    if (!rooms.get(i).getName().equals("Unknown Room")) {
+                        assertSame(page + ": " + i, rooms.get(i), reusedRooms.get(i));
+                    }
+                    assertTrue(page + ": " + i, distinctRooms.add(reusedRooms.get(i)));
+                    assertTrue(page + ": " + i, keys.add(reusedRooms.get(i).getKey()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void changedRoomsAreExtractedAgain() throws IOException {
+        for (String page : ShTestPages.PAGES) {
+            ShRoomFingerprints fingerprints = new ShRoomFingerprints();
+            ArrayList<ShRoom> rooms = new ShRoomSearch(ShExtractionEngine.Selector, false, fingerprints).findAllRooms(Jsoup.parse(ShTestPages.load(page)));
+
+            // Change a text within the last room.
+            Document document = Jsoup.parse(ShTestPages.load(page));
+            Element changedRoom = document.select("div.room").last();
+            Element changedCell = changedRoom.select("td").last();
+            changedCell.text(changedCell.text() + " geändert");
+            ArrayList<ShRoom> refreshedRooms = new ShRoomSearch(ShExtractionEngine.Selector, false, fingerprints).findAllRooms(document);
+
+            assertEquals(page, ShRoomDescriber.describe(new ShRoomSearch().findAllRooms(document)), ShRoomDescriber.describe(refreshedRooms));
+            int extractedRooms = 0;
+            for (int i = 0; i < rooms.size(); i++) {
+                if (!rooms.get(i).getName().equals("Unknown Room") && rooms.get(i) != refreshedRooms.get(i)) {
+                    extractedRooms++;
+                }
+            }
+            assertEquals(page, 1, extractedRooms);
+        }
+    }
+
+    @Test
+    public void lazyRoomsAreParsedOnFirstAccess() throws IOException {
+        for (String page : ShTestPages.PAGES) {
+            for (ShExtractionEngine engine : ShExtractionEngine.values()) {
+                Document document = Jsoup.parse(ShTestPages.load(page));
+                ArrayList<ShRoom> rooms = new ShRoomSearch(engine, true, new ShRoomFingerprints(), true).findAllRooms(document);
+                for (ShRoom room : rooms) {
+                    assertTrue(page + ": " + engine, room.isParsed() == room.getName().equals("Unknown Room"));
+                }
+
+                assertEquals(page + ": " + engine, ShRoomDescriber.describe(new ShRoomSearch(engine).findAllRooms(document)), ShRoomDescriber.describe(rooms));
+                for (ShRoom room : rooms) {
+                    assertTrue(page + ": " + engine, room.isParsed());
+                    assertSame(page + ": " + engine, room.getDevices(), room.getDevices());
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+package de.christian2003.smarthome.data.model.extraction.stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.jsoup.Jsoup;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import de.christian2003.smarthome.data.model.ShRoomDescriber;
+import de.christian2003.smarthome.data.model.ShTestPages;
+import de.christian2003.smarthome.data.model.extraction.search.room.ShRoomSearch;
+import de.christian2003.smarthome.data.model.room.ShRoom;
+
+
+/**
+ * Tests the streaming extractor against the Jsoup extraction, which is the reference implementation. The
+ * streaming extractor must either extract the same rooms or report a deviation.
+ */
+public class ShStreamingExtractorTest {
+
+    @Test
+    public void samplePageExtractsSameRoomsAsJsoup() throws IOException {
+        assertSameRoomsAsJsoup(ShTestPages.load(ShTestPages.PAGES[0]));
+    }
+
+    @Test
+    public void serializedSamplePageExtractsSameRoomsAsJsoup() throws IOException {
+        assertSameRoomsAsJsoup(Jsoup.parse(ShTestPages.load(ShTestPages.PAGES[0])).outerHtml());
+    }
+
+    @Test
+    public void edgeCasePageWithoutUnsupportedRowsExtractsSameRoomsAsJsoup() throws IOException {
+        assertSameRoomsAsJsoup(ShTestPages.load(ShTestPages.PAGES[2]));
+    }
+
+    @Test
+    public void edgeCasePageDeviates() throws IOException {
+        assertDeviates(ShTestPages.load(ShTestPages.PAGES[1]));
+    }
+
+    @Test
+    public void unexpectedShapesDeviate() {
+        assertDeviates(room("<tr class=\"sensor\"><th>Wassermelder</th></tr>"));
+        assertDeviates(room("<tr class=\"sensor\">Text<td>Wassermelder</td></tr>"));
+        assertDeviates("<div class=\"room\"><div class=\"room\"><span class=\"roomName\">Bad</span></div></div>");
+        assertDeviates(room("<tr class=\"status\"><td></td><td><table><tbody><tr><td>A</td></tr></tbody><tbody><tr><td>B</td></tr></tbody></table></td></tr>"));
+    }
+
+    @Test
+    public void uppercaseMarkupExtractsSameRoomsAsJsoup() {
+        assertSameRoomsAsJsoup("<HTML><BODY><DIV CLASS=\"room\"><SPAN CLASS=\"roomName\">Bad</SPAN><TABLE><TR CLASS=\"infoText\"><TD>Fenster<TD>offen &amp; gekippt</TABLE></DIV></BODY></HTML>");
+    }
+
+
+    /**
+     * Method wraps the rows passed into a room.
+     *
+     * @param rows  The rows of the content table of the room.
+     * @return      The html of the room.
+     */
+    private static String room(String rows) {
+        return "<html><body><div class=\"room\"><span class=\"roomName\">Bad</span><table>" + rows + "</table></div></body></html>";
+    }
+
+
+    /**
+     * Method asserts that the streaming extractor extracts the same rooms as the Jsoup extraction.
+     *
+     * @param html  The html to extract.
+     */
+    private static void assertSameRoomsAsJsoup(String html) {
+        ShStreamingExtractor extractor = new ShStreamingExtractor(html);
+        ArrayList<ShRoom> rooms = extractor.extract();
+        assertNotNull(extractor.getDeviation(), rooms);
+        assertEquals(ShRoomDescriber.describe(new ShRoomSearch().findAllRooms(Jsoup.parse(html))), ShRoomDescriber.describe(rooms));
+    }
+
+
+    /**
+     * Method asserts that the streaming extractor reports a deviation.
+     *
+     * @param html  The html to extract.
+     */
+    private static void assertDeviates(String html) {
+        ShStreamingExtractor extractor = new ShStreamingExtractor(html);
+        assertNull(extractor.extract());
+        assertNotNull(extractor.getDeviation());
+    }
+
+}
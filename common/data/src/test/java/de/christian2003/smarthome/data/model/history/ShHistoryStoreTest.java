@@ -0,0 +1,135 @@
+package de.christian2003.smarthome.data.model.history;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+
+/**
+ * Tests that the history store finds the samples of a device in its segments, keeps them across restarts
+ * and downsamples them once they exceed their retention.
+ */
+public class ShHistoryStoreTest {
+
+    private static final long MINUTE = 60L * 1000;
+
+    private static final long START = 1700000000000L - 1700000000000L % (60 * MINUTE);
+
+    private File directory;
+
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("history").toFile();
+    }
+
+    @After
+    public void deleteDirectory() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+
+    @Test
+    public void samplesAreFoundAcrossSegmentsAndRestarts() {
+        ShHistoryStore store = new ShHistoryStore(directory, 16);
+        for (int refresh = 0; refresh < 20; refresh++) {
+            ShHistoryBatch batch = new ShHistoryBatch(3);
+            long time = START + refresh * MINUTE;
+            batch.add(time, 1, ShHistoryMetric.MilliAmp, refresh);
+            batch.add(time, 2, ShHistoryMetric.MilliAmp, 100 + refresh);
+            batch.add(time, 1, ShHistoryMetric.Wh, 1000 + refresh);
+            store.append(batch);
+        }
+        assertEquals(4, store.getSegmentCount(ShHistoryResolution.Raw));
+
+        ShHistorySeries series = store.query(1, ShHistoryMetric.MilliAmp, START + 5 * MINUTE, START + 14 * MINUTE, 0);
+        assertEquals(10, series.size());
+        assertEquals(5, series.getValue(0), 0);
+        assertEquals(START + 14 * MINUTE, series.getTime(9));
+
+        ShHistoryStore reopened = new ShHistoryStore(directory, 16);
+        series = reopened.query(2, ShHistoryMetric.MilliAmp, START, START + 19 * MINUTE, 0);
+        assertEquals(20, series.size());
+        assertEquals(119, series.getValue(19), 0);
+
+        //Downsampled into five buckets of four samples:
+        series = reopened.query(1, ShHistoryMetric.MilliAmp, START, START + 19 * MINUTE, 5);
+        assertEquals(5, series.size());
+        assertEquals(1.5, series.getValue(0), 0);
+        assertEquals(17.5, series.getValue(4), 0);
+    }
+
+    @Test
+    public void expiredSamplesAreRolledUp() {
+        ShHistoryStore store = new ShHistoryStore(directory, 8);
+        for (int refresh = 0; refresh < 24; refresh++) {
+            ShHistoryBatch batch = new ShHistoryBatch(2);
+            long time = START + refresh * 20 * 1000;
+            batch.add(time, 1, ShHistoryMetric.MilliAmp, refresh);
+            batch.add(time, 1, ShHistoryMetric.Wh, 1000 + refresh);
+            store.append(batch);
+        }
+        long end = START + 23 * 20 * 1000;
+
+        store.compact(end + ShHistoryResolution.Raw.getRetention() + 1);
+        assertEquals(0, store.getSegmentCount(ShHistoryResolution.Raw));
+        ShHistorySeries milliAmp = store.query(1, ShHistoryMetric.MilliAmp, START, end, 0);
+        assertEquals(8, milliAmp.size());
+        assertEquals(START, milliAmp.getTime(0));
+        assertEquals(1, milliAmp.getValue(0), 0);
+        ShHistorySeries wh = store.query(1, ShHistoryMetric.Wh, START, end, 0);
+        assertEquals(1002, wh.getValue(0), 0);
+
+        store.compact(end + ShHistoryResolution.Minute.getRetention() + 1);
+        assertEquals(0, store.getSegmentCount(ShHistoryResolution.Minute));
+        milliAmp = store.query(1, ShHistoryMetric.MilliAmp, START, end, 0);
+        assertEquals(1, milliAmp.size());
+        assertEquals(11.5, milliAmp.getValue(0), 0);
+
+        store.compact(end + ShHistoryResolution.Hour.getRetention() + 1);
+        assertEquals(0, store.query(1, ShHistoryMetric.MilliAmp, START, end, 0).size());
+    }
+
+    @Test
+    public void bucketsAcrossSegmentBoundaryAreRolledUpOnce() {
+        //Eight samples fit into a segment, so the third minute starts in the first segment and ends in the second:
+        ShHistoryStore store = new ShHistoryStore(directory, 8);
+        for (int refresh = 0; refresh < 24; refresh++) {
+            ShHistoryBatch batch = new ShHistoryBatch(1);
+            batch.add(START + refresh * 20 * 1000, 1, ShHistoryMetric.MilliAmp, refresh);
+            store.append(batch);
+        }
+        long end = START + 23 * 20 * 1000;
+
+        //Only the first segment is expired, but its last minute is still open:
+        store.compact(START + 7 * 20 * 1000 + ShHistoryResolution.Raw.getRetention() + 1);
+        assertEquals(3, store.getSegmentCount(ShHistoryResolution.Raw));
+        assertEquals(0, store.getSegmentCount(ShHistoryResolution.Minute));
+
+        //The second segment ends in the sixth minute, which the third segment continues, so both are kept:
+        store.compact(START + 15 * 20 * 1000 + ShHistoryResolution.Raw.getRetention() + 1);
+        assertEquals(3, store.getSegmentCount(ShHistoryResolution.Raw));
+        store.compact(end + ShHistoryResolution.Raw.getRetention() + 1);
+        assertEquals(0, store.getSegmentCount(ShHistoryResolution.Raw));
+
+        ShHistorySeries milliAmp = store.query(1, ShHistoryMetric.MilliAmp, START, end, 0);
+        assertEquals(8, milliAmp.size());
+        for (int minute = 0; minute < 8; minute++) {
+            assertEquals(START + minute * MINUTE, milliAmp.getTime(minute));
+            assertEquals(minute * 3 + 1, milliAmp.getValue(minute), 0);
+        }
+    }
+
+}
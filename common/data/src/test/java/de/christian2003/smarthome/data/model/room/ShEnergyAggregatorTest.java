@@ -0,0 +1,103 @@
+package de.christian2003.smarthome.data.model.room;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.jsoup.Jsoup;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import de.christian2003.smarthome.data.model.ShTestPages;
+import de.christian2003.smarthome.data.model.devices.ShGenericDevice;
+import de.christian2003.smarthome.data.model.devices.ShLight;
+import de.christian2003.smarthome.data.model.devices.ShOutlet;
+import de.christian2003.smarthome.data.model.devices.ShShutter;
+import de.christian2003.smarthome.data.model.extraction.search.ShExtractionEngine;
+import de.christian2003.smarthome.data.model.extraction.search.room.ShRoomFingerprints;
+import de.christian2003.smarthome.data.model.extraction.search.room.ShRoomSearch;
+
+
+/**
+ * Tests that the aggregator sums the lights and outlets of the rooms and only sums the rooms which changed.
+ */
+public class ShEnergyAggregatorTest {
+
+    @Test
+    public void replacedRoomsAreSubtractedAndAdded() {
+        ShRoom gesamtstatus = new ShRoom("Gesamtstatus", null, null, null, true);
+        ShRoom kitchen = room("Küche", new ShLight("Licht", null, null, null, null, "(85 mA)", null, "850 Wh"), new ShShutter("Rollladen", null, null, "36", null));
+        ShRoom office = room("Büro", new ShOutlet("Steckdose", null, null, null, "1833", null, "1,5 kWh"));
+        ShEnergyAggregator aggregator = new ShEnergyAggregator();
+
+        assertTrue(aggregator.update(Arrays.asList(gesamtstatus, kitchen, office)));
+        assertEquals(new ShEnergy(1918, 2350, 2), aggregator.getTotal());
+        assertEquals(new ShEnergy(85, 850, 1), aggregator.getRoomEnergies().get(kitchen));
+        assertNull(aggregator.getRoomEnergies().get(gesamtstatus));
+        assertFalse(aggregator.update(Arrays.asList(gesamtstatus, kitchen, office)));
+
+        ShRoom changedOffice = room("Büro", new ShOutlet("Steckdose", null, null, null, "(unbekannt)", null, "1,6 kWh"));
+        assertTrue(aggregator.update(Arrays.asList(gesamtstatus, kitchen, changedOffice)));
+        assertEquals(new ShEnergy(85, 2450, 2), aggregator.getTotal());
+
+        assertTrue(aggregator.update(Collections.singletonList(kitchen)));
+        assertEquals(new ShEnergy(85, 850, 1), aggregator.getTotal());
+        assertTrue(aggregator.update(Collections.<ShRoom>emptyList()));
+        assertEquals(ShEnergy.NONE, aggregator.getTotal());
+    }
+
+    @Test
+    public void lazyRoomsAreSummedOnceExtracted() {
+        final ShRoom parsed = room("Büro", new ShOutlet("Steckdose", null, null, null, "100 mA", null, null));
+        ShRoom lazy = new ShRoom("Büro", false, 0, new ShRoomTable() {
+            @Override
+            public ShRoom parse() {
+                return parsed;
+            }
+        });
+        ShEnergyAggregator aggregator = new ShEnergyAggregator();
+
+        assertFalse(aggregator.update(Collections.singletonList(lazy)));
+        assertTrue(aggregator.isPending());
+        assertFalse(lazy.isParsed());
+
+        lazy.getDevices();
+        assertTrue(aggregator.update(Collections.singletonList(lazy)));
+        assertFalse(aggregator.isPending());
+        assertEquals(new ShEnergy(100, 0, 1), aggregator.getTotal());
+    }
+
+    @Test
+    public void identicalRoomsAreSummedOnEveryRefresh() throws IOException {
+        String html = ShTestPages.load(ShTestPages.PAGES[3]);
+        ShRoomFingerprints fingerprints = new ShRoomFingerprints();
+        ShEnergyAggregator aggregator = new ShEnergyAggregator();
+
+        assertTrue(aggregator.update(new ShRoomSearch(ShExtractionEngine.Selector, false, fingerprints).findAllRooms(Jsoup.parse(html))));
+        assertEquals(new ShEnergy(160, 0, 3), aggregator.getTotal());
+
+        // The identical rooms are reused as distinct rooms, therefore nothing changes on any refresh.
+        for (int i = 0; i < 3; i++) {
+            assertFalse(aggregator.update(new ShRoomSearch(ShExtractionEngine.Selector, false, fingerprints).findAllRooms(Jsoup.parse(html))));
+            assertEquals(new ShEnergy(160, 0, 3), aggregator.getTotal());
+        }
+    }
+
+
+    /**
+     * Method creates a room with the devices passed.
+     *
+     * @param name      Name for the room.
+     * @param devices   Devices of the room.
+     * @return          Room.
+     */
+    private static ShRoom room(String name, ShGenericDevice... devices) {
+        return new ShRoom(name, null, new ArrayList<>(Arrays.asList(devices)), null, false);
+    }
+
+}
@@ -0,0 +1,138 @@
+package de.christian2003.smarthome.data.model.room;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import de.christian2003.smarthome.data.model.devices.ShGenericDevice;
+import de.christian2003.smarthome.data.model.devices.ShLight;
+import de.christian2003.smarthome.data.model.devices.ShLightState;
+import de.christian2003.smarthome.data.model.devices.ShOpening;
+import de.christian2003.smarthome.data.model.devices.ShOpeningState;
+import de.christian2003.smarthome.data.model.devices.ShOpeningType;
+import de.christian2003.smarthome.data.model.devices.ShShutter;
+
+
+/**
+ * Tests that the index answers questions across rooms like a walk through every room would.
+ */
+public class ShHomeIndexTest {
+
+    @Test
+    public void openingsAndLightsAreIndexedByState() {
+        ShOpening kitchenWindow = new ShOpening("Fenster", ShOpeningType.Window, null, "/img/fenster_auf.png");
+        ShOpening kitchenDoor = new ShOpening("Tür", ShOpeningType.Door, null, "/img/tuer_auf.png");
+        ShOpening officeWindow = new ShOpening("Fenster", ShOpeningType.Window, null, "/img/fenster_kipp.png");
+        ShLight kitchenLight = light("Decke", "/img/licht_an.png");
+        ShLight officeLight = light("Decke", "/img/licht_aus.png");
+        ShRoom kitchen = room("Küche", kitchenWindow, kitchenDoor, kitchenLight);
+        ShRoom office = room("Büro", officeWindow, officeLight);
+        ShHomeIndex index = new ShHomeIndex(Arrays.asList(kitchen, office));
+
+        assertEquals(5, index.getDeviceCount());
+        assertEquals(2, index.getOpeningCount(ShOpeningState.Open));
+        assertEquals(Arrays.asList(kitchenWindow, kitchenDoor), index.getOpenings(ShOpeningState.Open));
+        assertEquals(Collections.singletonList(kitchenWindow), index.getOpenings(ShOpeningType.Window, ShOpeningState.Open));
+        assertEquals(Collections.singletonList(officeWindow), index.getOpenings(ShOpeningState.Tilted));
+        assertEquals(0, index.getOpeningCount(ShOpeningState.Closed));
+        assertTrue(index.getOpenings(ShOpeningType.Unkown, ShOpeningState.Open).isEmpty());
+
+        assertEquals(Collections.singletonList(kitchenLight), index.getLights(ShLightState.On));
+        assertEquals(1, index.getLightCount(ShLightState.Off));
+        assertEquals(Arrays.asList(kitchenLight, officeLight), index.getDevices(ShLight.class));
+
+        assertSame(office, index.getRoom("Büro"));
+        assertSame(officeLight, index.getDevice("Büro/Light/Decke"));
+        assertSame(kitchen, index.getRoomOfDevice("Küche/Opening/Tür"));
+        assertNull(index.getDevice("Flur/Light/Decke"));
+    }
+
+    @Test
+    public void devicesOfRoomsWithSameNameAreDistinct() {
+        ShLight firstLight = light("Decke", "/img/licht_an.png");
+        ShLight secondLight = light("Decke", "/img/licht_aus.png");
+        ShRoom first = room("Küche", firstLight);
+        ShRoom second = new ShRoom("Küche", null, new ArrayList<>(Collections.singletonList(secondLight)), null, false, 1);
+        List<ShRoom> rooms = Arrays.asList(first, second);
+        ShHomeIndex index = new ShHomeIndex(rooms);
+
+        assertEquals("Küche#2", second.getKey());
+        assertEquals("Küche#2/Light/Decke", secondLight.getId());
+        assertEquals(2, index.getDeviceCount());
+        assertSame(firstLight, index.getDevice("Küche/Light/Decke"));
+        assertSame(second, index.getRoomOfDevice("Küche#2/Light/Decke"));
+        assertFalse(firstLight.equals(secondLight));
+    }
+
+    @Test
+    public void shuttersAreSortedByPercentage() {
+        ShShutter open = shutter("Links", "0");
+        ShShutter half = shutter("Mitte", "50");
+        ShShutter closed = shutter("Rechts", "100");
+        ShShutter unknown = shutter("Oben", null);
+        ShHomeIndex index = new ShHomeIndex(Collections.singletonList(room("Wohnzimmer", closed, unknown, open, half)));
+
+        assertEquals(Collections.singletonList(open), index.getShuttersBelow(50));
+        assertEquals(Arrays.asList(half, closed), index.getShuttersAtLeast(ShHomeIndex.HALF_CLOSED_PERCENTAGE));
+        assertEquals(3, index.getShutterCountBelow(101));
+        assertEquals(0, index.getShutterCountBelow(0));
+        assertEquals(Collections.singletonList(closed), index.getShuttersAtLeast(100));
+    }
+
+    @Test
+    public void indexIsBuiltFromTheSameRooms() {
+        ShRoom kitchen = room("Küche", light("Decke", "/img/licht_an.png"));
+        List<ShRoom> rooms = Collections.singletonList(kitchen);
+        ShHomeIndex index = new ShHomeIndex(rooms);
+
+        assertTrue(index.isBuiltFrom(new ArrayList<>(rooms)));
+        assertFalse(index.isBuiltFrom(Collections.singletonList(room("Küche", light("Decke", "/img/licht_an.png")))));
+        assertEquals(0, ShHomeIndex.EMPTY.getDeviceCount());
+    }
+
+
+    /**
+     * Method creates a light.
+     *
+     * @param specifier Specifier for the light.
+     * @param imageUri  Image for the light.
+     * @return          Light.
+     */
+    private static ShLight light(String specifier, String imageUri) {
+        return new ShLight("Licht", specifier, imageUri, null, null, null, null, null);
+    }
+
+
+    /**
+     * Method creates a shutter.
+     *
+     * @param specifier     Specifier for the shutter.
+     * @param percentage    Percentage to which the shutter is closed.
+     * @return              Shutter.
+     */
+    private static ShShutter shutter(String specifier, String percentage) {
+        return new ShShutter("Rollladen", specifier, null, percentage, null);
+    }
+
+
+    /**
+     * Method creates a room with the devices passed.
+     *
+     * @param name      Name for the room.
+     * @param devices   Devices of the room.
+     * @return          Room.
+     */
+    private static ShRoom room(String name, ShGenericDevice... devices) {
+        return new ShRoom(name, null, new ArrayList<>(Arrays.asList(devices)), null, false);
+    }
+
+}
@@ -0,0 +1,112 @@
+package de.christian2003.smarthome.data.model.room;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import de.christian2003.smarthome.data.model.devices.ShGenericDevice;
+import de.christian2003.smarthome.data.model.devices.ShLight;
+import de.christian2003.smarthome.data.model.devices.ShOpening;
+import de.christian2003.smarthome.data.model.devices.ShOpeningType;
+import de.christian2003.smarthome.data.model.devices.ShShutter;
+
+
+/**
+ * Tests the ids and the equality of the devices and the diff between two lists of rooms.
+ */
+public class ShRoomsDiffTest {
+
+    @Test
+    public void devicesWithTheSameKeyAreNumbered() {
+        ShRoom room = room("Küche", light("Licht", "Decke", "licht_an.png"), light("Licht", "Decke", "licht_aus.png"), new ShShutter("Rollladen", null, null, "36", null));
+
+        assertEquals("Küche/Light/Decke", room.getDevices().get(0).getId());
+        assertEquals("Küche/Light/Decke#2", room.getDevices().get(1).getId());
+        assertEquals("Küche/Shutter/Rollladen", room.getDevices().get(2).getId());
+    }
+
+    @Test
+    public void roomsAndDevicesAreEqualByValue() {
+        ShRoom room = room("Küche", light("Licht", "Decke", "licht_an.png"), new ShShutter("Rollladen", null, null, "36", null));
+
+        assertEquals(room, room("Küche", light("Licht", "Decke", "licht_an.png"), new ShShutter("Rollladen", null, null, "36", null)));
+        assertEquals(room.hashCode(), room("Küche", light("Licht", "Decke", "licht_aus.png")).hashCode());
+        assertNotEquals(room, room("Küche", light("Licht", "Decke", "licht_an.png"), new ShShutter("Rollladen", null, null, "37", null)));
+        assertNotEquals(room.getDevices().get(0), light("Licht", "Decke", "licht_aus.png"));
+    }
+
+    @Test
+    public void diffContainsAddedRemovedAndChangedDevices() {
+        ShRoom kitchen = room("Küche", light("Licht", "Decke", "licht_aus.png"), new ShShutter("Rollladen", null, null, "36", null));
+        ShRoom office = room("Büro", new ShOpening("Fenster", ShOpeningType.Window, null, "fenster_zu.png"));
+        ShRoom hall = room("Flur", light("Licht", null, "licht_aus.png"));
+        List<ShRoom> previousRooms = Arrays.asList(kitchen, office, hall);
+
+        ShRoom changedKitchen = room("Küche", light("Licht", "Decke", "licht_an.png"), light("Licht", "Tisch", "licht_aus.png"));
+        ShRoom garden = room("Garten", light("Licht", null, "licht_aus.png"));
+        ShRoomsDiff diff = ShRoomsDiff.compute(previousRooms, Arrays.asList(changedKitchen, office, garden));
+
+        List<ShDeviceChange> changed = diff.getChanges(ShDeviceChangeType.Changed);
+        assertEquals(1, changed.size());
+        assertEquals("Küche/Light/Decke", changed.get(0).getDeviceId());
+        assertSame(changedKitchen, changed.get(0).getRoom());
+
+        List<ShDeviceChange> added = diff.getChanges(ShDeviceChangeType.Added);
+        assertEquals(2, added.size());
+        assertEquals("Küche/Light/Tisch", added.get(0).getDeviceId());
+        assertNull(added.get(0).getPreviousDevice());
+        assertEquals("Garten/Light/Licht", added.get(1).getDeviceId());
+
+        List<ShDeviceChange> removed = diff.getChanges(ShDeviceChangeType.Removed);
+        assertEquals(2, removed.size());
+        assertEquals("Küche/Shutter/Rollladen", removed.get(0).getDeviceId());
+        assertEquals("Flur/Light/Licht", removed.get(1).getDeviceId());
+        assertNull(removed.get(1).getDevice());
+
+        assertEquals(Arrays.asList(changedKitchen, garden), diff.getChangedRooms());
+    }
+
+    @Test
+    public void unchangedRoomsProduceAnEmptyDiff() {
+        ShRoom kitchen = room("Küche", light("Licht", "Decke", "licht_an.png"));
+        List<ShRoom> rooms = Collections.singletonList(kitchen);
+
+        assertSame(ShRoomsDiff.EMPTY, ShRoomsDiff.compute(rooms, rooms));
+        assertTrue(ShRoomsDiff.compute(rooms, Collections.singletonList(room("Küche", light("Licht", "Decke", "licht_an.png")))).isEmpty());
+    }
+
+
+    /**
+     * Method creates a light.
+     *
+     * @param name      Name for the light.
+     * @param specifier Specifier for the light.
+     * @param imageUri  Image for the light.
+     * @return          Light.
+     */
+    private static ShLight light(String name, String specifier, String imageUri) {
+        return new ShLight(name, specifier, imageUri, null, null, null, null, null);
+    }
+
+
+    /**
+     * Method creates a room with the devices passed.
+     *
+     * @param name      Name for the room.
+     * @param devices   Devices of the room.
+     * @return          Room.
+     */
+    private static ShRoom room(String name, ShGenericDevice... devices) {
+        return new ShRoom(name, null, new ArrayList<>(Arrays.asList(devices)), null, false);
+    }
+
+}
@@ -0,0 +1,81 @@
+package de.christian2003.smarthome.data.model.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.jsoup.Jsoup;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import de.christian2003.smarthome.data.model.ShRoomDescriber;
+import de.christian2003.smarthome.data.model.ShTestPages;
+import de.christian2003.smarthome.data.model.extraction.search.room.ShRoomSearch;
+import de.christian2003.smarthome.data.model.room.ShRoom;
+import de.christian2003.smarthome.data.model.userinformation.InformationTitle;
+import de.christian2003.smarthome.data.model.userinformation.InformationType;
+import de.christian2003.smarthome.data.model.userinformation.UserInformation;
+
+
+/**
+ * Tests that snapshots restore the extracted rooms and information unchanged.
+ */
+public class ShSnapshotTest {
+
+    @Test
+    public void snapshotRestoresRooms() throws IOException {
+        for (String page : ShTestPages.PAGES) {
+            ArrayList<ShRoom> rooms = new ShRoomSearch().findAllRooms(Jsoup.parse(ShTestPages.load(page)));
+            ArrayList<UserInformation> infos = new ArrayList<>(Arrays.asList(
+                    new UserInformation(InformationType.ERROR, InformationTitle.NetworkError, "Error code: -2"),
+                    new UserInformation(InformationType.WARNING, InformationTitle.SslError, "Küche – " + repeat('x', 70000))
+            ));
+
+            ShSnapshot snapshot = ShSnapshot.readFrom(toStream(new ShSnapshot(rooms, infos, 1700000000000L)));
+
+            assertEquals(page, ShRoomDescriber.describe(rooms), ShRoomDescriber.describe(snapshot.getRooms()));
+            assertEquals(page, infos, snapshot.getInfos());
+            assertEquals(page, 1700000000000L, snapshot.getLoadedAt());
+        }
+    }
+
+    @Test
+    public void snapshotWithOtherVersionIsDiscarded() throws IOException {
+        byte[] content = toBytes(new ShSnapshot(new ArrayList<>(), new ArrayList<>(), 0));
+        content[7] = (byte)(ShSnapshot.VERSION + 1);
+
+        assertNull(ShSnapshot.readFrom(new DataInputStream(new ByteArrayInputStream(content))));
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedSnapshotIsRejected() throws IOException {
+        ArrayList<ShRoom> rooms = new ShRoomSearch().findAllRooms(Jsoup.parse(ShTestPages.load(ShTestPages.PAGES[0])));
+        byte[] content = toBytes(new ShSnapshot(rooms, new ArrayList<>(), 0));
+
+        ShSnapshot.readFrom(new DataInputStream(new ByteArrayInputStream(Arrays.copyOf(content, content.length / 2))));
+    }
+
+
+    private static DataInputStream toStream(ShSnapshot snapshot) throws IOException {
+        return new DataInputStream(new ByteArrayInputStream(toBytes(snapshot)));
+    }
+
+    private static byte[] toBytes(ShSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        snapshot.writeTo(new DataOutputStream(outputStream));
+        return outputStream.toByteArray();
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+}